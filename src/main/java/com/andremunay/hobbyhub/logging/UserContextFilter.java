@@ -1,5 +1,6 @@
 package com.andremunay.hobbyhub.logging;
 
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,8 +10,6 @@ import java.util.UUID;
 import org.slf4j.MDC;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -48,14 +47,8 @@ public class UserContextFilter extends OncePerRequestFilter {
       MDC.put("requestId", UUID.randomUUID().toString());
 
       // If authenticated via OAuth2, extract the GitHub login name for log enrichment
-      Authentication auth = (Authentication) request.getUserPrincipal();
-      if (auth instanceof OAuth2AuthenticationToken token) {
-        OAuth2User user = token.getPrincipal();
-        String githubLogin = user.getAttribute("login");
-        if (githubLogin != null) {
-          MDC.put("user", githubLogin);
-        }
-      }
+      CurrentUser.login((Authentication) request.getUserPrincipal())
+          .ifPresent(githubLogin -> MDC.put("user", githubLogin));
 
       filterChain.doFilter(request, response);
     } finally {
@@ -0,0 +1,9 @@
+package com.andremunay.hobbyhub.shared.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables {@code @Scheduled} background jobs such as in-memory index reconciliation. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -50,6 +50,7 @@ public class SecurityConfig {
     cfg.setAllowedOriginPatterns(List.of("https://hobbyhub-api.fly.dev"));
     cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
     cfg.setAllowedHeaders(List.of("Authorization", "Content-Type", "*"));
+    cfg.setExposedHeaders(List.of("X-Next-Cursor"));
     cfg.setAllowCredentials(true);
 
     var src = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,43 @@
+package com.andremunay.hobbyhub.shared.util;
+
+import java.util.Optional;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+
+/**
+ * Resolves who the current request acts for.
+ *
+ * <p>Signed-in users are identified by their GitHub login. Anonymous requests (all reads in the
+ * {@code fly} profile, everything in {@code local}) share the {@link #PUBLIC} owner, which can
+ * never collide with a GitHub login since those may not start with an underscore.
+ */
+public final class CurrentUser {
+
+  /** Owner of data created or read without signing in, and of data that predates owners. */
+  public static final String PUBLIC = "_public";
+
+  private CurrentUser() {}
+
+  /**
+   * Extracts the GitHub login from an OAuth2 authentication.
+   *
+   * @param auth the authentication of the request, possibly {@code null}
+   * @return the login, or empty if the request is not authenticated through GitHub
+   */
+  public static Optional<String> login(Authentication auth) {
+    if (auth instanceof OAuth2AuthenticationToken token) {
+      return Optional.ofNullable(token.getPrincipal().getAttribute("login"));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the owner of the data the current request reads and writes.
+   *
+   * @return the signed-in user's GitHub login, or {@link #PUBLIC}
+   */
+  public static String owner() {
+    return login(SecurityContextHolder.getContext().getAuthentication()).orElse(PUBLIC);
+  }
+}
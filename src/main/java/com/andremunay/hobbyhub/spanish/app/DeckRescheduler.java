@@ -0,0 +1,286 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.domain.RescheduleJob;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardScheduleChunk;
+import com.andremunay.hobbyhub.spanish.infra.RescheduleJobRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.RescheduleJobDto;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Recomputes the schedule of every card in a deck, e.g. after scheduling rules change or a deck
+ * import.
+ *
+ * <p>By default a run keeps each card's stored interval and only re-derives its next review date
+ * from it, anchored on the last review ({@code nextReviewOn - interval}); over a deck scheduled by
+ * SM-2, with or without load smoothing, such a run changes nothing. Runs started with {@code
+ * recomputeIntervals} also reset each interval to the SM-2 progression for the card's repetition
+ * count and current easiness factor ({@link TableDrivenSm2Scheduler#canonicalInterval}). Real SM-2
+ * multiplies each step by the easiness factor from before that review, so this rewrites most mature
+ * cards and discards smoothed intervals; it is meant for when the scheduling rules change.
+ *
+ * <p>A run streams the deck's {@code flashcards} partition in id-ordered chunks. Each chunk is
+ * recomputed in parallel on a dedicated fork-join pool and written back with one set-based update
+ * in the same transaction as the run's checkpoint, so an interrupted run resumes after the last
+ * committed chunk. Runs execute in the background, one at a time per instance; progress is
+ * persisted in {@link RescheduleJob}.
+ */
+@Slf4j
+@Service
+public class DeckRescheduler {
+
+  private final FlashcardJdbcRepository cards;
+  private final FlashcardRepository flashcards;
+  private final RescheduleJobRepository jobs;
+  private final TransactionTemplate tx;
+  private final DueIndex dueIndex;
+  private final DueHistogram histogram;
+  private final ReviewForecaster forecaster;
+  private final FlashcardCache cache;
+  private final int chunkSize;
+  private final ForkJoinPool pool;
+  private final ExecutorService runner;
+
+  private final AtomicReference<UUID> active = new AtomicReference<>();
+  private volatile boolean stopping;
+
+  public DeckRescheduler(
+      FlashcardJdbcRepository cards,
+      FlashcardRepository flashcards,
+      RescheduleJobRepository jobs,
+      PlatformTransactionManager transactionManager,
+      DueIndex dueIndex,
+      DueHistogram histogram,
+      ReviewForecaster forecaster,
+      FlashcardCache cache,
+      @Value("${hobbyhub.flashcards.reschedule.chunk-size:10000}") int chunkSize,
+      @Value("${hobbyhub.flashcards.reschedule.parallelism:0}") int parallelism) {
+    this.cards = cards;
+    this.flashcards = flashcards;
+    this.jobs = jobs;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.dueIndex = dueIndex;
+    this.histogram = histogram;
+    this.forecaster = forecaster;
+    this.cache = cache;
+    this.chunkSize = chunkSize;
+    this.pool =
+        new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    this.runner =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread thread = new Thread(r, "deck-rescheduler");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Starts a new run over a deck in the background.
+   *
+   * @param owner the deck to reschedule
+   * @param recomputeIntervals whether to replace every interval by the SM-2 progression instead of
+   *     keeping the stored one
+   * @return the run's initial progress
+   * @throws ResponseStatusException with 409 if a run is already in progress on this instance
+   */
+  public RescheduleJobDto start(String owner, boolean recomputeIntervals) {
+    RescheduleJob job =
+        new RescheduleJob(
+            UUID.randomUUID(),
+            owner,
+            recomputeIntervals,
+            flashcards.countByOwner(owner),
+            Instant.now());
+    claim(job.getId());
+    try {
+      jobs.save(job);
+    } catch (RuntimeException ex) {
+      active.set(null);
+      throw ex;
+    }
+    submit(job.getId());
+    return toDto(job);
+  }
+
+  /**
+   * Continues a failed or interrupted run from its last checkpoint.
+   *
+   * @param owner the deck the run belongs to
+   * @param id the run to continue
+   * @return the run's progress at the time it was resumed
+   * @throws EntityNotFoundException if no such run exists for that deck
+   * @throws ResponseStatusException with 409 if the run already completed or a run is in progress
+   */
+  public RescheduleJobDto resume(String owner, UUID id) {
+    RescheduleJob job = find(owner, id);
+    if (job.getStatus() == RescheduleJob.Status.COMPLETED) {
+      throw new ResponseStatusException(
+          HttpStatus.CONFLICT, "Reschedule run " + id + " already completed");
+    }
+    claim(id);
+    try {
+      job.resume();
+      jobs.save(job);
+    } catch (RuntimeException ex) {
+      active.set(null);
+      throw ex;
+    }
+    submit(id);
+    return toDto(job);
+  }
+
+  /**
+   * Reports the progress of a run.
+   *
+   * @param owner the deck the run belongs to
+   * @param id the run to inspect
+   * @return its current progress
+   * @throws EntityNotFoundException if no such run exists for that deck
+   */
+  public RescheduleJobDto get(String owner, UUID id) {
+    return toDto(find(owner, id));
+  }
+
+  /**
+   * Processes a run chunk by chunk on the calling thread until the deck is exhausted, the run fails
+   * or the application shuts down.
+   *
+   * @param jobId the run to process
+   */
+  void run(UUID jobId) {
+    try {
+      boolean more = true;
+      while (more && !stopping) {
+        more = Boolean.TRUE.equals(tx.execute(status -> processChunk(jobId)));
+      }
+      if (!more) {
+        // cards were rewritten behind the in-memory views
+        String owner = find(jobId).getOwner();
+        dueIndex.invalidate(owner);
+        histogram.invalidate(owner);
+        forecaster.invalidate(owner);
+        cache.invalidateAll();
+        log.info("Reschedule run {} completed", jobId);
+      }
+    } catch (RuntimeException ex) {
+      log.error("Reschedule run {} failed; it can be resumed from its last checkpoint", jobId, ex);
+      tx.executeWithoutResult(
+          status ->
+              jobs.findById(jobId)
+                  .ifPresent(
+                      job -> {
+                        job.fail(ex.getMessage(), Instant.now());
+                        jobs.save(job);
+                      }));
+    }
+  }
+
+  // Reads, recomputes and writes one chunk and advances the checkpoint; false once exhausted
+  private boolean processChunk(UUID jobId) {
+    RescheduleJob job = find(jobId);
+    FlashcardScheduleChunk chunk =
+        cards.readScheduleChunk(job.getOwner(), job.getLastCardId(), chunkSize);
+    if (chunk.isEmpty()) {
+      job.complete(Instant.now());
+      jobs.save(job);
+      return false;
+    }
+    recompute(chunk, job.isRecomputeIntervals());
+    int updated = cards.writeSchedules(job.getOwner(), chunk);
+    job.advance(chunk.lastId(), chunk.size(), updated);
+    jobs.save(job);
+    log.debug(
+        "Reschedule run {}: {}/{} cards processed", jobId, job.getProcessed(), job.getTotal());
+    return true;
+  }
+
+  // Spreads the per-card SM-2 math over the pool; every task writes only its own slot
+  private void recompute(FlashcardScheduleChunk chunk, boolean recomputeIntervals) {
+    pool.submit(
+            () ->
+                IntStream.range(0, chunk.size())
+                    .parallel()
+                    .forEach(i -> reschedule(chunk, i, recomputeIntervals)))
+        .join();
+  }
+
+  private static void reschedule(FlashcardScheduleChunk chunk, int i, boolean recomputeIntervals) {
+    int interval =
+        recomputeIntervals
+            ? TableDrivenSm2Scheduler.canonicalInterval(chunk.repetition(i), chunk.efHundredths(i))
+            : chunk.interval(i);
+    long lastReviewDay = chunk.nextReviewDay(i) - chunk.interval(i);
+    chunk.reschedule(i, interval, lastReviewDay + interval);
+  }
+
+  private void claim(UUID id) {
+    if (!active.compareAndSet(null, id)) {
+      throw new ResponseStatusException(
+          HttpStatus.CONFLICT, "Reschedule run " + active.get() + " is already in progress");
+    }
+  }
+
+  private void submit(UUID id) {
+    runner.execute(
+        () -> {
+          try {
+            run(id);
+          } finally {
+            active.set(null);
+          }
+        });
+  }
+
+  private RescheduleJob find(UUID id) {
+    return jobs.findById(id)
+        .orElseThrow(() -> new EntityNotFoundException("Reschedule run not found: " + id));
+  }
+
+  // Runs of other decks are reported as missing rather than forbidden, so ids do not leak
+  private RescheduleJob find(String owner, UUID id) {
+    RescheduleJob job = find(id);
+    if (!job.getOwner().equals(owner)) {
+      throw new EntityNotFoundException("Reschedule run not found: " + id);
+    }
+    return job;
+  }
+
+  // Lets an in-flight run stop after its current chunk; it stays RUNNING and can be resumed
+  @PreDestroy
+  void shutdown() {
+    stopping = true;
+    runner.shutdown();
+    pool.shutdown();
+  }
+
+  private static RescheduleJobDto toDto(RescheduleJob job) {
+    return new RescheduleJobDto(
+        job.getId(),
+        job.getStatus().name(),
+        job.isRecomputeIntervals(),
+        job.getProcessed(),
+        job.getUpdated(),
+        job.getTotal(),
+        job.getStartedAt(),
+        job.getFinishedAt(),
+        job.getError());
+  }
+}
@@ -0,0 +1,172 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.infra.DeckSnapshotHead;
+import com.andremunay.hobbyhub.spanish.infra.DeckSnapshotRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardSnapshotDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Publishes decks as immutable snapshots addressed by the SHA-256 of their serialized body.
+ *
+ * <p>A snapshot is the JSON array {@code GET /flashcards} would return with {@code
+ * fields=id,front,back}, in id order, so publishing an unchanged deck reproduces the same bytes and
+ * hash, while any edit, addition or deletion yields a new one. Reviews do not change a snapshot.
+ * Since the bytes behind a hash can never change, they are serialized once at publication, stored,
+ * and served as they are; the most recently read ones are kept in memory up to {@code
+ * hobbyhub.flashcards.snapshots.cache-maximum-bytes}, exported as the {@code cache.*} meters tagged
+ * {@code cache=flashcard-snapshots}.
+ *
+ * <p>A deck's latest snapshot follows its cards: once a create, edit, delete, bulk write or import
+ * commits, its head is marked stale in the database, and the next {@code latest} read republishes
+ * the deck before answering. A burst of writes therefore costs one publication, made only if
+ * someone asks, and every node sees the mark. The shared public deck is also republished at
+ * startup, so its {@code latest} snapshot picks up changes to the seeded starter cards.
+ */
+@Slf4j
+@Service
+public class DeckSnapshotService {
+
+  private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final FlashcardJdbcRepository cards;
+  private final DeckSnapshotRepository snapshots;
+  private final ObjectWriter writer;
+  private final Cache<String, byte[]> bodies;
+  private final boolean publishPublicOnStartup;
+
+  public DeckSnapshotService(
+      FlashcardJdbcRepository cards,
+      DeckSnapshotRepository snapshots,
+      ObjectMapper mapper,
+      MeterRegistry registry,
+      @Value("${hobbyhub.flashcards.snapshots.cache-maximum-bytes:67108864}") long maximumBytes,
+      @Value("${hobbyhub.flashcards.snapshots.publish-public-on-startup:true}")
+          boolean publishPublicOnStartup) {
+    this.cards = cards;
+    this.snapshots = snapshots;
+    this.publishPublicOnStartup = publishPublicOnStartup;
+    this.writer = mapper.writerFor(FlashcardReviewDto[].class);
+    this.bodies =
+        Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((String hash, byte[] body) -> body.length)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(registry, bodies, "flashcard-snapshots");
+  }
+
+  /** Republishes the shared public deck, so its latest snapshot follows changes to the seed. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void publishPublicDeck() {
+    if (publishPublicOnStartup) {
+      publish(CurrentUser.PUBLIC);
+    }
+  }
+
+  /**
+   * Publishes the current contents of a deck and makes it the deck's latest snapshot.
+   *
+   * @param owner the deck to publish
+   * @return the snapshot's hash and size; the same as last time if nothing changed since
+   */
+  @Transactional
+  public FlashcardSnapshotDto publish(String owner) {
+    snapshots.lockHead(owner);
+    List<FlashcardReviewDto> deck = cards.findSnapshotCards(owner);
+    byte[] body;
+    try {
+      body = writer.writeValueAsBytes(deck.toArray(FlashcardReviewDto[]::new));
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    String hash = sha256(body);
+    Instant now = Instant.now();
+    if (snapshots.insert(hash, body, deck.size(), now)) {
+      log.info("Published snapshot {} of deck {} ({} cards)", hash, owner, deck.size());
+    }
+    snapshots.moveHead(owner, hash, now);
+    // Safe before commit: whether or not the row commits, these are the bytes the hash names
+    bodies.put(hash, body);
+    return new FlashcardSnapshotDto(hash, deck.size(), body.length);
+  }
+
+  /**
+   * Reads the serialized body of a snapshot.
+   *
+   * @param hash hex SHA-256 of the body
+   * @return the body exactly as published
+   * @throws ResponseStatusException with 404 if no snapshot has that hash
+   */
+  public byte[] body(String hash) {
+    byte[] body =
+        HASH.matcher(hash).matches()
+            ? bodies.get(hash, h -> snapshots.findBody(h).orElse(null))
+            : null;
+    if (body == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Snapshot not found: " + hash);
+    }
+    return body;
+  }
+
+  /**
+   * Finds the deck's current snapshot, republishing the deck first if its cards changed since the
+   * last one.
+   *
+   * @param owner the deck
+   * @return its hash
+   * @throws ResponseStatusException with 404 if the deck never published one
+   */
+  @Transactional
+  public String latest(String owner) {
+    DeckSnapshotHead head =
+        snapshots
+            .findHead(owner)
+            .orElseThrow(
+                () ->
+                    new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "No snapshot published for this deck"));
+    return head.isStale() ? publish(owner).getHash() : head.getHash();
+  }
+
+  /** Marks a deck's latest snapshot stale once a change to its cards has committed. */
+  @TransactionalEventListener(fallbackExecution = true)
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void onContentChanged(FlashcardContentChangedEvent event) {
+    snapshots.markStale(event.getOwner());
+  }
+
+  private static String sha256(byte[] body) {
+    try {
+      return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardDayCount;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardMetricsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Number of cards due today or overdue, across every deck, exported as the {@code
+ * flashcards.due.backlog} gauge.
+ *
+ * <p>The count is kept in memory as cards per day of next review, loaded once with a {@code GROUP
+ * BY next_review_on} aggregate and then moved by {@link FlashcardScheduleChangedEvent}s after each
+ * commit, so a scrape never queries the database. Days that have come due are folded into one
+ * bucket as the date advances, so reading the gauge costs O(1) amortized. The counts are reloaded
+ * every {@code hobbyhub.flashcards.metrics.backlog-resync-interval}, which picks up bulk rewrites
+ * that publish no events and writes made on other nodes. Until the first load the gauge is NaN.
+ */
+@Slf4j
+@Component
+public class DueBacklog {
+
+  private final FlashcardMetricsRepository repository;
+  private final TransactionTemplate readOnlyTx;
+
+  // Serializes event application, reads and the swap to a reloaded calendar
+  private final Object lock = new Object();
+  private final Object loadLock = new Object();
+
+  // Both guarded by lock; pendingDuringLoad collects the events seen while a reload reads the table
+  private Calendar calendar;
+  private List<FlashcardScheduleChangedEvent> pendingDuringLoad;
+
+  public DueBacklog(
+      FlashcardMetricsRepository repository,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry) {
+    this.repository = repository;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+    Gauge.builder("flashcards.due.backlog", this, b -> b.due(LocalDate.now()))
+        .description("Cards due today or overdue, across all decks")
+        .register(registry);
+  }
+
+  /**
+   * Counts the cards due on or before a day.
+   *
+   * @param today the latest review date to include (inclusive); must not go backwards
+   * @return number of due cards, or NaN if the counts were never loaded
+   */
+  public double due(LocalDate today) {
+    synchronized (lock) {
+      return calendar == null ? Double.NaN : calendar.due(today.toEpochDay());
+    }
+  }
+
+  /** Moves a card between days once its schedule change has committed. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onScheduleChanged(FlashcardScheduleChangedEvent event) {
+    synchronized (lock) {
+      if (pendingDuringLoad != null) {
+        pendingDuringLoad.add(event);
+      }
+      if (calendar != null) {
+        calendar.apply(event);
+      }
+    }
+  }
+
+  /** Loads the counts once the application is up. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadOnStartup() {
+    reload();
+  }
+
+  /**
+   * Replaces the counts with a fresh aggregate of the table. Changes committed while it runs are
+   * replayed onto it; one that commits right as the query starts may be counted twice until the
+   * next reload.
+   */
+  @Scheduled(
+      initialDelayString = "${hobbyhub.flashcards.metrics.backlog-resync-interval:PT1H}",
+      fixedDelayString = "${hobbyhub.flashcards.metrics.backlog-resync-interval:PT1H}")
+  public void reload() {
+    synchronized (loadLock) {
+      synchronized (lock) {
+        pendingDuringLoad = new ArrayList<>();
+      }
+      try {
+        Calendar fresh = new Calendar();
+        List<FlashcardDayCount> days =
+            readOnlyTx.execute(status -> repository.countAllByNextReviewOn());
+        if (days != null) {
+          days.forEach(d -> fresh.add(d.getNextReviewOn().toEpochDay(), d.getCards()));
+          log.debug("Due backlog loaded {} review dates", days.size());
+        }
+        synchronized (lock) {
+          pendingDuringLoad.forEach(fresh::apply);
+          calendar = fresh;
+        }
+      } finally {
+        synchronized (lock) {
+          pendingDuringLoad = null;
+        }
+      }
+    }
+  }
+
+  /** Cards per epoch day; every day up to {@code foldedThrough} is held under that one key. */
+  private static final class Calendar {
+    private final TreeMap<Long, Long> days = new TreeMap<>();
+    private long foldedThrough = Long.MIN_VALUE;
+
+    void apply(FlashcardScheduleChangedEvent event) {
+      if (event.getPreviousReviewOn() != null) {
+        add(event.getPreviousReviewOn().toEpochDay(), -1);
+      }
+      if (event.getNextReviewOn() != null) {
+        add(event.getNextReviewOn().toEpochDay(), 1);
+      }
+    }
+
+    void add(long epochDay, long delta) {
+      days.merge(Math.max(epochDay, foldedThrough), delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    long due(long today) {
+      if (today > foldedThrough) {
+        Map<Long, Long> head = days.headMap(today, true);
+        long sum = head.values().stream().mapToLong(Long::longValue).sum();
+        head.clear();
+        if (sum != 0) {
+          days.put(today, sum);
+        }
+        foldedThrough = today;
+      }
+      return days.getOrDefault(foldedThrough, 0L);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardQueueRow;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * Keyset position inside the due queue, handed to clients as an opaque continuation token.
+ *
+ * <p>The token encodes the sort key of the last card returned (next review date, easiness factor,
+ * id), so the next page can seek directly past it instead of skipping rows with OFFSET.
+ */
+@Value
+public class DueCursor {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  LocalDate nextReviewOn;
+  BigDecimal easinessFactor;
+  UUID id;
+
+  /**
+   * Builds the cursor pointing just past the given due-queue row.
+   *
+   * <p>The row carries the easiness factor exactly as Postgres stores it, so the keyset comparison
+   * of the next page starts precisely after it.
+   *
+   * @param row the last row of the current page
+   * @return cursor positioned at that row
+   */
+  public static DueCursor after(FlashcardQueueRow row) {
+    return new DueCursor(row.getNextReviewOn(), row.getEasinessFactor(), row.getId());
+  }
+
+  /**
+   * Parses a token previously produced by {@link #encode()}.
+   *
+   * @param token the opaque continuation token
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static DueCursor decode(String token) {
+    try {
+      String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split(":", 3);
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Invalid cursor: \"" + token + "\"");
+      }
+      return new DueCursor(
+          LocalDate.ofEpochDay(Long.parseLong(parts[0])),
+          new BigDecimal(parts[1]),
+          UUID.fromString(parts[2]));
+    } catch (RuntimeException ex) {
+      throw new IllegalArgumentException("Invalid cursor: \"" + token + "\"", ex);
+    }
+  }
+
+  /**
+   * Serializes this cursor into a URL-safe opaque token.
+   *
+   * @return the continuation token
+   */
+  public String encode() {
+    String raw = nextReviewOn.toEpochDay() + ":" + easinessFactor.toPlainString() + ":" + id;
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,274 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardDayCount;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-process histograms of card counts per epoch day of their next review, one per deck, each held
+ * in a Fenwick (binary indexed) tree so both moving a card and counting any date range cost O(log
+ * n).
+ *
+ * <p>A tree covers {@code horizon-days} days starting at the day it was loaded. Overdue cards are
+ * counted in the first bucket and cards scheduled beyond the horizon in the last one, so counts are
+ * exact for any range that starts no earlier than the load day and ends inside the horizon.
+ *
+ * <p>Like {@link DueIndex}, a deck is loaded the first time it is queried (here from a {@code GROUP
+ * BY next_review_on} aggregate over its partition) and follows {@link
+ * FlashcardScheduleChangedEvent}s after each commit. Trees are dropped {@code rebuild-interval}
+ * after loading, which both re-anchors the window on the current day and repairs drift from writes
+ * on other nodes, and at most {@code max-decks} are held at once. When disabled, {@link
+ * #isEnabled()} is false and callers use the database instead.
+ */
+@Slf4j
+@Component
+public class DueHistogram {
+
+  private final FlashcardRepository repository;
+  private final TransactionTemplate readOnlyTx;
+  private final boolean enabled;
+  private final int horizonDays;
+  private final Timer rebuildTimer;
+  private final Cache<String, Fenwick> trees;
+
+  // Serializes mutations, reads and the publication of a loaded tree; a move updates several tree
+  // cells, so readers take it too in order to never observe half of one
+  private final Object lock = new Object();
+  private final Object loadLock = new Object();
+
+  // The deck being loaded and the events observed for it meanwhile, replayed onto the fresh tree
+  // (guarded by lock)
+  private String loadingOwner;
+  private List<FlashcardScheduleChangedEvent> pendingDuringLoad;
+  private boolean loadInvalidated;
+
+  public DueHistogram(
+      FlashcardRepository repository,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry,
+      @Value("${hobbyhub.flashcards.stats.enabled:true}") boolean enabled,
+      @Value("${hobbyhub.flashcards.stats.horizon-days:3660}") int horizonDays,
+      @Value("${hobbyhub.flashcards.stats.max-decks:1000}") long maxDecks,
+      @Value("${hobbyhub.flashcards.stats.rebuild-interval:PT6H}") Duration rebuildInterval) {
+    this.repository = repository;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+    this.enabled = enabled;
+    this.horizonDays = horizonDays;
+    this.trees =
+        Caffeine.newBuilder()
+            .maximumSize(maxDecks)
+            .expireAfterWrite(rebuildInterval)
+            .executor(Runnable::run)
+            .build();
+    this.rebuildTimer =
+        Timer.builder("flashcards.due.histogram.rebuild")
+            .description("Time taken to load one deck's due-date histogram from the database")
+            .register(registry);
+  }
+
+  /** Whether the histogram answers count queries; if not, callers should query the database. */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Counts the cards in a deck.
+   *
+   * @param owner the deck to count, loaded first if it is not held yet
+   * @return number of cards currently tracked
+   */
+  public long total(String owner) {
+    Fenwick tree = tree(owner);
+    synchronized (lock) {
+      return tree.total();
+    }
+  }
+
+  /**
+   * Counts a deck's cards due on or before the given date, overdue cards included.
+   *
+   * @param owner the deck to count, loaded first if it is not held yet
+   * @param day the latest review date to include (inclusive)
+   * @return number of cards due by that date
+   */
+  public long countThrough(String owner, LocalDate day) {
+    Fenwick tree = tree(owner);
+    synchronized (lock) {
+      return tree.prefix(day.toEpochDay());
+    }
+  }
+
+  /**
+   * Counts a deck's cards scheduled in the given date range.
+   *
+   * @param owner the deck to count, loaded first if it is not held yet
+   * @param from the earliest review date to include (inclusive)
+   * @param to the latest review date to include (inclusive)
+   * @return number of cards scheduled in that range, 0 if it is empty
+   */
+  public long count(String owner, LocalDate from, LocalDate to) {
+    if (to.isBefore(from)) {
+      return 0;
+    }
+    Fenwick tree = tree(owner);
+    synchronized (lock) {
+      return tree.prefix(to.toEpochDay()) - tree.prefix(from.toEpochDay() - 1);
+    }
+  }
+
+  /** Moves a card between day buckets once its schedule change has committed. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onScheduleChanged(FlashcardScheduleChangedEvent event) {
+    synchronized (lock) {
+      if (event.getOwner().equals(loadingOwner)) {
+        pendingDuringLoad.add(event);
+      }
+      Fenwick tree = trees.getIfPresent(event.getOwner());
+      if (tree != null) {
+        tree.apply(event);
+      }
+    }
+  }
+
+  /**
+   * Drops a deck's tree so the next query reloads it, e.g. after its cards were rewritten in bulk
+   * without events. A load of that deck already in progress is discarded as well.
+   *
+   * @param owner the deck to drop
+   */
+  public void invalidate(String owner) {
+    synchronized (lock) {
+      trees.invalidate(owner);
+      if (owner.equals(loadingOwner)) {
+        loadInvalidated = true;
+      }
+    }
+  }
+
+  private Fenwick tree(String owner) {
+    Fenwick tree = trees.getIfPresent(owner);
+    if (tree != null) {
+      return tree;
+    }
+    synchronized (loadLock) {
+      tree = trees.getIfPresent(owner);
+      return tree != null ? tree : load(owner);
+    }
+  }
+
+  // Reads a deck's per-day counts into a new tree anchored on today and publishes it. Changes
+  // committed while the aggregate runs are replayed onto the tree; one that commits right as the
+  // query starts may end up counted twice until the tree expires.
+  private Fenwick load(String owner) {
+    synchronized (lock) {
+      loadingOwner = owner;
+      pendingDuringLoad = new ArrayList<>();
+      loadInvalidated = false;
+    }
+    try {
+      Fenwick fresh = rebuildTimer.record(() -> read(owner));
+      synchronized (lock) {
+        pendingDuringLoad.forEach(fresh::apply);
+        if (!loadInvalidated) {
+          trees.put(owner, fresh);
+        }
+      }
+      log.debug("Due histogram loaded deck {} with {} cards", owner, fresh.total());
+      return fresh;
+    } finally {
+      synchronized (lock) {
+        loadingOwner = null;
+        pendingDuringLoad = null;
+      }
+    }
+  }
+
+  private Fenwick read(String owner) {
+    long[] counts = new long[horizonDays];
+    long origin = LocalDate.now().toEpochDay();
+    List<FlashcardDayCount> days =
+        readOnlyTx.execute(status -> repository.countByNextReviewOn(owner));
+    if (days != null) {
+      for (FlashcardDayCount day : days) {
+        counts[Fenwick.bucket(origin, horizonDays, day.getNextReviewOn().toEpochDay())] +=
+            day.getCards();
+      }
+    }
+    return new Fenwick(origin, counts);
+  }
+
+  /** Fenwick tree over day buckets {@code origin .. origin + size - 1}, clamped at both ends. */
+  private static final class Fenwick {
+    private final long origin;
+    private final int size;
+    // 1-based: cell i holds the sum of the (i & -i) buckets ending at bucket i - 1
+    private final long[] cells;
+
+    Fenwick(long origin, int size) {
+      this.origin = origin;
+      this.size = size;
+      this.cells = new long[size + 1];
+    }
+
+    // Linear-time construction from plain per-bucket counts
+    Fenwick(long origin, long[] counts) {
+      this(origin, counts.length);
+      for (int i = 1; i <= size; i++) {
+        cells[i] += counts[i - 1];
+        int parent = i + (i & -i);
+        if (parent <= size) {
+          cells[parent] += cells[i];
+        }
+      }
+    }
+
+    static int bucket(long origin, int size, long epochDay) {
+      return (int) Math.max(0, Math.min(size - 1, epochDay - origin));
+    }
+
+    void apply(FlashcardScheduleChangedEvent event) {
+      if (event.getPreviousReviewOn() != null) {
+        add(event.getPreviousReviewOn().toEpochDay(), -1);
+      }
+      if (event.getNextReviewOn() != null) {
+        add(event.getNextReviewOn().toEpochDay(), 1);
+      }
+    }
+
+    void add(long epochDay, long delta) {
+      for (int i = bucket(origin, size, epochDay) + 1; i <= size; i += i & -i) {
+        cells[i] += delta;
+      }
+    }
+
+    // Cards in every bucket up to and including the one holding epochDay
+    long prefix(long epochDay) {
+      if (epochDay < origin) {
+        return 0;
+      }
+      long sum = 0;
+      for (int i = bucket(origin, size, epochDay) + 1; i > 0; i -= i & -i) {
+        sum += cells[i];
+      }
+      return sum;
+    }
+
+    long total() {
+      return prefix(origin + size - 1);
+    }
+  }
+}
@@ -0,0 +1,371 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardDueSlot;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-process calendar queues of card ids, one per deck, bucketed by the epoch day of their next
+ * review.
+ *
+ * <p>Each bucket keeps its cards ordered by easiness factor and id, so walking the buckets up to
+ * "today" yields the due queue in exactly the order of the {@code idx_flashcards_due_hot} index.
+ * Due queries therefore pick their page in memory and only hit Postgres to hydrate at most one page
+ * of rows by primary key.
+ *
+ * <p>A deck's calendar is loaded from its {@code flashcards} partition the first time it is
+ * queried, kept current from {@link FlashcardScheduleChangedEvent}s after each commit, and
+ * periodically reconciled against the table to repair drift caused by writes from other nodes or
+ * out-of-band SQL. At most {@code max-decks} calendars are held; the least recently used ones are
+ * dropped and reloaded on demand. When disabled, {@link #isEnabled()} is false and callers use the
+ * database instead.
+ */
+@Slf4j
+@Component
+public class DueIndex {
+
+  private static final Comparator<UUID> POSTGRES_UUID_ORDER =
+      Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+          .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+  private final FlashcardRepository repository;
+  private final TransactionTemplate readOnlyTx;
+  private final boolean enabled;
+  private final Timer rebuildTimer;
+  private final Counter driftCounter;
+  private final Cache<String, Calendar> calendars;
+
+  // Serializes mutations and the publication of a loaded calendar; readers never take it
+  private final Object writeLock = new Object();
+  private final Object loadLock = new Object();
+
+  // The deck being loaded and the events observed for it meanwhile, replayed onto the fresh
+  // calendar (guarded by writeLock)
+  private String loadingOwner;
+  private List<FlashcardScheduleChangedEvent> pendingDuringLoad;
+  private boolean loadInvalidated;
+
+  public DueIndex(
+      FlashcardRepository repository,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry,
+      @Value("${hobbyhub.flashcards.due-index.enabled:true}") boolean enabled,
+      @Value("${hobbyhub.flashcards.due-index.max-decks:1000}") long maxDecks) {
+    this.repository = repository;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+    this.enabled = enabled;
+    this.calendars = Caffeine.newBuilder().maximumSize(maxDecks).executor(Runnable::run).build();
+    this.rebuildTimer =
+        Timer.builder("flashcards.due.index.rebuild")
+            .description("Time taken to load one deck's due index from the database")
+            .register(registry);
+    this.driftCounter =
+        Counter.builder("flashcards.due.index.drift")
+            .description("Index entries found missing, stale or extra by consistency checks")
+            .register(registry);
+    Gauge.builder("flashcards.due.index.size", this, DueIndex::size)
+        .description("Number of cards tracked by the in-memory due index")
+        .register(registry);
+  }
+
+  /** Whether the index answers due queries; if not, callers should query the database. */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Whether a deck's calendar is held, so reading it will not load it from the database. */
+  public boolean isLoaded(String owner) {
+    return calendars.getIfPresent(owner) != null;
+  }
+
+  /** Number of cards currently tracked, over every loaded deck. */
+  public int size() {
+    return calendars.asMap().values().stream().mapToInt(c -> c.placements.size()).sum();
+  }
+
+  /**
+   * Returns the next positions of a deck's due queue, in queue order.
+   *
+   * @param owner the deck to read, loaded first if it is not held yet
+   * @param today the latest review date to include (inclusive)
+   * @param after position to resume after, or {@code null} to start at the head of the queue
+   * @param limit maximum number of positions to return
+   * @return up to {@code limit} due positions strictly after {@code after}
+   */
+  public List<DueCursor> page(String owner, LocalDate today, DueCursor after, int limit) {
+    NavigableMap<Long, NavigableSet<Slot>> due =
+        calendar(owner).buckets.headMap(today.toEpochDay(), true);
+    if (after != null) {
+      due = due.tailMap(after.getNextReviewOn().toEpochDay(), true);
+    }
+
+    List<DueCursor> result = new ArrayList<>(Math.min(limit, 256));
+    for (Map.Entry<Long, NavigableSet<Slot>> bucket : due.entrySet()) {
+      NavigableSet<Slot> slots = bucket.getValue();
+      if (after != null && bucket.getKey() == after.getNextReviewOn().toEpochDay()) {
+        Slot from = new Slot(toHundredths(after.getEasinessFactor()), after.getId());
+        slots = slots.tailSet(from, false);
+      }
+      LocalDate day = LocalDate.ofEpochDay(bucket.getKey());
+      for (Slot slot : slots) {
+        result.add(new DueCursor(day, BigDecimal.valueOf(slot.efHundredths, 2), slot.id));
+        if (result.size() == limit) {
+          return result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Counts a deck's cards due on or before the given date without touching the database, unless the
+   * deck has to be loaded first.
+   *
+   * @param owner the deck to count
+   * @param today the latest review date to include (inclusive)
+   * @return number of due cards
+   */
+  public long countDue(String owner, LocalDate today) {
+    long count = 0;
+    for (NavigableSet<Slot> bucket :
+        calendar(owner).buckets.headMap(today.toEpochDay(), true).values()) {
+      count += bucket.size();
+    }
+    return count;
+  }
+
+  /** Applies a committed schedule change to its deck, if that deck is held or being loaded. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onScheduleChanged(FlashcardScheduleChangedEvent event) {
+    synchronized (writeLock) {
+      if (event.getOwner().equals(loadingOwner)) {
+        pendingDuringLoad.add(event);
+      }
+      Calendar calendar = calendars.getIfPresent(event.getOwner());
+      if (calendar != null) {
+        calendar.apply(event);
+      }
+    }
+  }
+
+  /**
+   * Drops a deck's calendar so the next query reloads it, e.g. after its cards were rewritten in
+   * bulk without events. A load of that deck already in progress is discarded as well.
+   *
+   * @param owner the deck to drop
+   */
+  public void invalidate(String owner) {
+    synchronized (writeLock) {
+      calendars.invalidate(owner);
+      if (owner.equals(loadingOwner)) {
+        loadInvalidated = true;
+      }
+    }
+  }
+
+  /**
+   * Compares a deck's calendar with its rows and counts entries that are missing, stale or extra.
+   *
+   * @param owner the deck to check
+   * @return total number of discrepancies (0 when consistent or when the deck is not held)
+   */
+  public long checkConsistency(String owner) {
+    Calendar snapshot = calendars.getIfPresent(owner);
+    if (snapshot == null) {
+      return 0;
+    }
+    AtomicLong rows = new AtomicLong();
+    AtomicLong missing = new AtomicLong();
+    AtomicLong stale = new AtomicLong();
+    readOnlyTx.executeWithoutResult(
+        status -> {
+          try (Stream<FlashcardDueSlot> slots = repository.streamDueSlots(owner)) {
+            slots.forEach(
+                slot -> {
+                  rows.incrementAndGet();
+                  Placement placement = snapshot.placements.get(slot.getId());
+                  if (placement == null) {
+                    missing.incrementAndGet();
+                  } else if (placement.day != slot.getNextReviewOn().toEpochDay()
+                      || placement.slot.efHundredths != hundredths(slot.getEasinessFactor())) {
+                    stale.incrementAndGet();
+                  }
+                });
+          }
+        });
+    long extra = Math.max(0, snapshot.placements.size() - (rows.get() - missing.get()));
+    return missing.get() + stale.get() + extra;
+  }
+
+  /** Periodically reconciles every held deck with its rows and drops the ones that diverged. */
+  @Scheduled(
+      initialDelayString = "${hobbyhub.flashcards.due-index.consistency-check-interval:PT15M}",
+      fixedDelayString = "${hobbyhub.flashcards.due-index.consistency-check-interval:PT15M}")
+  public void reconcile() {
+    if (!enabled) {
+      return;
+    }
+    for (String owner : List.copyOf(calendars.asMap().keySet())) {
+      long drift = checkConsistency(owner);
+      if (drift > 0) {
+        driftCounter.increment(drift);
+        log.warn("Due index of deck {} drifted by {} entries; reloading", owner, drift);
+        invalidate(owner);
+      }
+    }
+  }
+
+  private Calendar calendar(String owner) {
+    Calendar calendar = calendars.getIfPresent(owner);
+    if (calendar != null) {
+      return calendar;
+    }
+    synchronized (loadLock) {
+      calendar = calendars.getIfPresent(owner);
+      return calendar != null ? calendar : load(owner);
+    }
+  }
+
+  // Reads one deck into a new calendar and publishes it; changes committed while the partition is
+  // being read are buffered and replayed onto it, so none are lost
+  private Calendar load(String owner) {
+    synchronized (writeLock) {
+      loadingOwner = owner;
+      pendingDuringLoad = new ArrayList<>();
+      loadInvalidated = false;
+    }
+    try {
+      Calendar fresh = rebuildTimer.record(() -> read(owner));
+      synchronized (writeLock) {
+        pendingDuringLoad.forEach(fresh::apply);
+        if (!loadInvalidated) {
+          calendars.put(owner, fresh);
+        }
+      }
+      log.debug("Due index loaded deck {} with {} cards", owner, fresh.placements.size());
+      return fresh;
+    } finally {
+      synchronized (writeLock) {
+        loadingOwner = null;
+        pendingDuringLoad = null;
+      }
+    }
+  }
+
+  private Calendar read(String owner) {
+    Calendar fresh = new Calendar();
+    readOnlyTx.executeWithoutResult(
+        status -> {
+          try (Stream<FlashcardDueSlot> slots = repository.streamDueSlots(owner)) {
+            slots.forEach(
+                slot ->
+                    fresh.put(
+                        slot.getId(),
+                        slot.getNextReviewOn().toEpochDay(),
+                        hundredths(slot.getEasinessFactor())));
+          }
+        });
+    return fresh;
+  }
+
+  // Easiness factor as stored by Postgres (numeric(3,2))
+  private static int hundredths(double easinessFactor) {
+    return toHundredths(BigDecimal.valueOf(easinessFactor));
+  }
+
+  private static int toHundredths(BigDecimal easinessFactor) {
+    return easinessFactor.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValue();
+  }
+
+  /** Day buckets plus a reverse map so a card can be moved without scanning buckets. */
+  private static final class Calendar {
+    private final ConcurrentSkipListMap<Long, NavigableSet<Slot>> buckets =
+        new ConcurrentSkipListMap<>();
+    private final Map<UUID, Placement> placements = new ConcurrentHashMap<>();
+
+    void apply(FlashcardScheduleChangedEvent event) {
+      if (event.isDeletion()) {
+        remove(event.getId());
+      } else {
+        put(
+            event.getId(),
+            event.getNextReviewOn().toEpochDay(),
+            hundredths(event.getEasinessFactor()));
+      }
+    }
+
+    void put(UUID id, long day, int efHundredths) {
+      Slot slot = new Slot(efHundredths, id);
+      Placement previous = placements.put(id, new Placement(day, slot));
+      if (previous != null) {
+        unlink(previous);
+      }
+      buckets.computeIfAbsent(day, d -> new ConcurrentSkipListSet<>()).add(slot);
+    }
+
+    void remove(UUID id) {
+      Placement previous = placements.remove(id);
+      if (previous != null) {
+        unlink(previous);
+      }
+    }
+
+    private void unlink(Placement placement) {
+      NavigableSet<Slot> bucket = buckets.get(placement.day);
+      if (bucket != null) {
+        bucket.remove(placement.slot);
+        if (bucket.isEmpty()) {
+          buckets.remove(placement.day, bucket);
+        }
+      }
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static final class Placement {
+    private final long day;
+    private final Slot slot;
+  }
+
+  /** Bucket entry ordered like the index: easiness factor, then id in Postgres uuid order. */
+  @RequiredArgsConstructor
+  private static final class Slot implements Comparable<Slot> {
+    private final int efHundredths;
+    private final UUID id;
+
+    @Override
+    public int compareTo(Slot other) {
+      int byEf = Integer.compare(efHundredths, other.efHundredths);
+      return byEf != 0 ? byEf : POSTGRES_UUID_ORDER.compare(id, other.id);
+    }
+  }
+}
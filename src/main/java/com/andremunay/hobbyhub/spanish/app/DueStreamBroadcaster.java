@@ -0,0 +1,240 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardDueEventDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the number of due cards in a deck to the server-sent event subscribers of that deck
+ * whenever it changes.
+ *
+ * <p>Committed schedule changes only mark their deck dirty; a periodic tick then counts the due
+ * cards of each watched deck once (from {@link DueIndex} when it holds the deck, otherwise with one
+ * count query) and sends a single {@code due} event to that deck's subscribers. Bursts such as
+ * batch reviews therefore cost one event, and the date is re-read on every tick so the midnight
+ * rollover is announced as well. Idle streams get a comment line every {@code heartbeat} to keep
+ * proxies from closing them.
+ *
+ * <p>The tick runs on its own {@code due-stream} thread rather than Spring's shared scheduler, so
+ * index reconciliation, backlog reloads and analytics rollups cannot hold back due events or
+ * heartbeats. For the same reason it never loads a deck into {@link DueIndex}; decks the index does
+ * not hold yet are counted in the database until a request loads them.
+ *
+ * <p>Subscribers are async servlet requests, so holding one costs a socket and a small buffer, not
+ * a thread. Each node accepts at most {@code hobbyhub.flashcards.due-stream.max-connections}
+ * (default 1000) concurrent streams and answers 503 beyond that; streams are closed after {@code
+ * timeout} (default 30 minutes) and clients are expected to reconnect, which {@code EventSource}
+ * does automatically.
+ */
+@Slf4j
+@Component
+public class DueStreamBroadcaster {
+
+  /** SSE event name carrying a {@link FlashcardDueEventDto}. */
+  public static final String EVENT_NAME = "due";
+
+  private final DueIndex dueIndex;
+  private final FlashcardRepository repository;
+  private final Duration timeout;
+  private final Duration heartbeat;
+  private final Duration tickInterval;
+  private final ThreadPoolTaskScheduler ticker = new ThreadPoolTaskScheduler();
+
+  // Open streams and the deck each one watches; each holds one of the slots
+  private final Map<SseEmitter, String> emitters = new ConcurrentHashMap<>();
+  private final Semaphore slots;
+  private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+  // What each watched deck was last sent; only touched by the tick thread
+  private final Map<String, Sent> sent = new HashMap<>();
+
+  public DueStreamBroadcaster(
+      DueIndex dueIndex,
+      FlashcardRepository repository,
+      MeterRegistry registry,
+      @Value("${hobbyhub.flashcards.due-stream.max-connections:1000}") int maxConnections,
+      @Value("${hobbyhub.flashcards.due-stream.timeout:PT30M}") Duration timeout,
+      @Value("${hobbyhub.flashcards.due-stream.heartbeat:PT25S}") Duration heartbeat,
+      @Value("${hobbyhub.flashcards.due-stream.tick:PT1S}") Duration tickInterval) {
+    this.dueIndex = dueIndex;
+    this.repository = repository;
+    this.slots = new Semaphore(maxConnections);
+    this.timeout = timeout;
+    this.heartbeat = heartbeat;
+    this.tickInterval = tickInterval;
+    ticker.setThreadNamePrefix("due-stream-");
+    ticker.setDaemon(true);
+    Gauge.builder("flashcards.due.stream.connections", emitters, Map::size)
+        .description("Open server-sent event streams of due cards")
+        .register(registry);
+  }
+
+  /**
+   * Opens a stream of a deck's due count and immediately sends the current one.
+   *
+   * @param owner the deck to watch
+   * @return the emitter to return from the controller
+   * @throws ResponseStatusException with 503 if this node already holds the maximum number of
+   *     streams
+   */
+  public SseEmitter subscribe(String owner) {
+    // Reserved before the stream is registered, so concurrent subscribers cannot overshoot
+    if (!slots.tryAcquire()) {
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, "Too many open due streams, retry later");
+    }
+    SseEmitter emitter = new SseEmitter(timeout.toMillis());
+    emitter.onCompletion(() -> release(emitter));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(ex -> release(emitter));
+    emitters.put(emitter, owner);
+    try {
+      send(emitter, SseEmitter.event().name(EVENT_NAME).data(snapshot(owner, LocalDate.now())));
+    } catch (RuntimeException ex) {
+      release(emitter);
+      throw ex;
+    }
+    return emitter;
+  }
+
+  /** Number of open streams on this node. */
+  public int connections() {
+    return emitters.size();
+  }
+
+  /** Marks a deck's due set as changed once a create, review or delete has committed. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onScheduleChanged(FlashcardScheduleChangedEvent event) {
+    dirty.add(event.getOwner());
+  }
+
+  /**
+   * Starts ticking every {@code hobbyhub.flashcards.due-stream.tick} on the broadcaster's thread.
+   */
+  @PostConstruct
+  public void start() {
+    ticker.initialize();
+    ticker.scheduleWithFixedDelay(this::tick, Instant.now().plus(tickInterval), tickInterval);
+  }
+
+  /**
+   * Sends each watched deck a {@code due} event if its due set or the date changed, or a heartbeat
+   * if its streams are idle.
+   */
+  public void tick() {
+    Set<String> changed = new HashSet<>();
+    for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+      changed.add(it.next());
+      it.remove();
+    }
+    Map<String, List<SseEmitter>> byOwner = new HashMap<>();
+    emitters.forEach(
+        (emitter, owner) -> byOwner.computeIfAbsent(owner, o -> new ArrayList<>()).add(emitter));
+    sent.keySet().retainAll(byOwner.keySet());
+
+    LocalDate today = LocalDate.now();
+    byOwner.forEach(
+        (owner, subscribers) -> {
+          Sent last = sent.get(owner);
+          boolean dirtyDeck = changed.contains(owner);
+          boolean dayChanged = last == null || !today.equals(last.event.getDate());
+          // the in-memory count is cheap, and also catches bulk rewrites that publish no events
+          if (dirtyDeck || dayChanged || indexed(owner)) {
+            FlashcardDueEventDto current = snapshot(owner, today, indexed(owner));
+            if (dirtyDeck || dayChanged || current.getDue() != last.event.getDue()) {
+              broadcast(subscribers, SseEmitter.event().name(EVENT_NAME).data(current));
+              sent.put(owner, new Sent(current, System.nanoTime()));
+              return;
+            }
+          }
+          if (System.nanoTime() - last.nanos >= heartbeat.toNanos()) {
+            broadcast(subscribers, SseEmitter.event().comment("heartbeat"));
+            sent.put(owner, new Sent(last.event, System.nanoTime()));
+          }
+        });
+  }
+
+  /** Stops ticking and closes every stream so shutdown is not held up by open connections. */
+  @PreDestroy
+  public void shutdown() {
+    ticker.shutdown();
+    emitters
+        .keySet()
+        .forEach(
+            emitter -> {
+              release(emitter);
+              emitter.complete();
+            });
+  }
+
+  // Subscribing runs on a request thread and may load the deck; ticks only read loaded decks
+  private FlashcardDueEventDto snapshot(String owner, LocalDate today) {
+    return snapshot(owner, today, dueIndex.isEnabled());
+  }
+
+  private FlashcardDueEventDto snapshot(String owner, LocalDate today, boolean fromIndex) {
+    long due =
+        fromIndex
+            ? dueIndex.countDue(owner, today)
+            : repository.countByOwnerAndNextReviewOnLessThanEqual(owner, today);
+    return new FlashcardDueEventDto(today, due);
+  }
+
+  private boolean indexed(String owner) {
+    return dueIndex.isEnabled() && dueIndex.isLoaded(owner);
+  }
+
+  private void broadcast(List<SseEmitter> subscribers, SseEmitter.SseEventBuilder event) {
+    subscribers.forEach(emitter -> send(emitter, event));
+  }
+
+  // A failed write means the client went away; drop it rather than retrying
+  private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+    try {
+      emitter.send(event);
+    } catch (IOException | IllegalStateException ex) {
+      release(emitter);
+      emitter.completeWithError(ex);
+      log.debug("Dropped due stream subscriber: {}", ex.getMessage());
+    }
+  }
+
+  // Completion, errors, failed writes and shutdown may all report the same stream; only the first
+  // gives its slot back
+  private void release(SseEmitter emitter) {
+    if (emitters.remove(emitter) != null) {
+      slots.release();
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static final class Sent {
+    private final FlashcardDueEventDto event;
+    private final long nanos;
+  }
+}
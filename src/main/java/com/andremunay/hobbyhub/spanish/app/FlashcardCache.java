@@ -0,0 +1,163 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded write-through cache of flashcards keyed by owner and normalized front.
+ *
+ * <p>Entries hold the card id, its content and its SM-2 state, so a review of a recently seen card
+ * can be applied without first reading the row. Writes are only published once the surrounding
+ * transaction commits; the service guards every cached update with a conditional {@code UPDATE}, so
+ * an entry made stale by another node is detected, evicted and re-read.
+ *
+ * <p>Only the Java review path reads the cache. While {@link SqlSm2Reviewer} is enabled, which is
+ * the default, Postgres reads and locks the row itself, so reviews are not cached and the cache
+ * stays empty: keeping a copy would cost a write per review for nothing. The trade-off is that the
+ * cache only pays off when reviews are rescheduled in Java, i.e. with SQL reviews turned off or a
+ * scheduler SQL cannot reproduce, where a hit saves the read of the row.
+ *
+ * <p>Hit, miss and eviction counts are exported as the {@code cache.*} meters tagged {@code
+ * cache=flashcards}.
+ */
+@Component
+public class FlashcardCache {
+
+  private final Cache<String, Entry> cache;
+
+  public FlashcardCache(
+      MeterRegistry registry,
+      @Value("${hobbyhub.flashcards.cache.maximum-size:10000}") long maximumSize,
+      @Value("${hobbyhub.flashcards.cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(registry, cache, "flashcards");
+  }
+
+  /**
+   * Looks up a cached card.
+   *
+   * @param owner the deck the card belongs to
+   * @param frontNormalized the key produced by {@code FrontNormalizer.normalize}
+   * @return a fresh detached copy of the cached card, if present
+   */
+  public Optional<Flashcard> get(String owner, String frontNormalized) {
+    return Optional.ofNullable(cache.getIfPresent(key(owner, frontNormalized)))
+        .map(Entry::toFlashcard);
+  }
+
+  /**
+   * Caches the card's current state once the active transaction commits (immediately if none).
+   *
+   * @param card the card as it was just written
+   */
+  public void put(Flashcard card) {
+    Entry entry = Entry.of(card);
+    String key = key(card.getOwner(), card.getFrontNormalized());
+    afterCommit(() -> cache.put(key, entry));
+  }
+
+  /**
+   * Drops a card now and again after commit, so a concurrent read cannot resurrect it.
+   *
+   * @param owner the deck the card belongs to
+   * @param frontNormalized the key produced by {@code FrontNormalizer.normalize}
+   */
+  public void evict(String owner, String frontNormalized) {
+    String key = key(owner, frontNormalized);
+    cache.invalidate(key);
+    afterCommit(() -> cache.invalidate(key));
+  }
+
+  /** Drops every entry, e.g. after cards were rewritten in bulk behind the cache's back. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /** Number of cached cards (approximate). */
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  // Owners never contain NUL, so the first one always marks where the owner ends
+  private static String key(String owner, String frontNormalized) {
+    return owner + '\u0000' + frontNormalized;
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  /** Immutable snapshot of a card; the entity itself is mutable and bound to a session. */
+  @RequiredArgsConstructor
+  private static final class Entry {
+    private final UUID id;
+    private final String owner;
+    private final String front;
+    private final String frontNormalized;
+    private final String back;
+    private final int repetition;
+    private final double easinessFactor;
+    private final int interval;
+    private final LocalDate nextReviewOn;
+
+    // The easiness factor is rounded like the numeric(3,2) column, so cached and reloaded cards
+    // schedule identically
+    static Entry of(Flashcard card) {
+      return new Entry(
+          card.getId(),
+          card.getOwner(),
+          card.getFront(),
+          card.getFrontNormalized(),
+          card.getBack(),
+          card.getRepetition(),
+          BigDecimal.valueOf(card.getEasinessFactor())
+              .setScale(2, RoundingMode.HALF_UP)
+              .doubleValue(),
+          card.getInterval(),
+          card.getNextReviewOn());
+    }
+
+    Flashcard toFlashcard() {
+      return new Flashcard(
+          owner,
+          id,
+          front,
+          frontNormalized,
+          back,
+          repetition,
+          easinessFactor,
+          interval,
+          nextReviewOn);
+    }
+  }
+}
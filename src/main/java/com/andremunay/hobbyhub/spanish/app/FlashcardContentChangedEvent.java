@@ -0,0 +1,14 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import lombok.Value;
+
+/**
+ * Published when cards are added to, edited in or removed from a deck, as opposed to rescheduled.
+ *
+ * <p>Sent once per write rather than once per card, so a bulk write or an import costs listeners a
+ * single event. Listeners consume it after the surrounding transaction commits.
+ */
+@Value
+public class FlashcardContentChangedEvent {
+  String owner;
+}
@@ -0,0 +1,107 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Review meters for Prometheus: {@code flashcards.review.latency}, {@code flashcards.review.grades}
+ * and {@code flashcards.easiness.factor}. The due backlog is exported by {@link DueBacklog}.
+ *
+ * <p>Every tag takes a fixed set of values, all registered up front: the latency timer is tagged
+ * with the {@link Path} a review took, and the grade counter with the grade, 0 to 5. Owners and
+ * cards are never tags. Latency and easiness are published as histograms with fixed buckets rather
+ * than client-side percentiles, so they can be aggregated across instances.
+ *
+ * <p>Single reviews are timed under {@code sql}, {@code cached} or {@code loaded}, and explicit
+ * batch reviews under {@code batch}. When {@link ReviewGroupCommitter} is enabled, which it is not
+ * by default, the single reviews it coalesces are timed as part of their batch under {@code batch}
+ * too.
+ *
+ * <p>Grades and easiness factors are counted from {@link FlashcardReviewedEvent}s after commit, so
+ * rolled-back reviews are left out and every review path is covered, including {@link
+ * SqlSm2Reviewer}, which reschedules in the database without calling a {@link ReviewScheduler}.
+ */
+@Component
+public class FlashcardMetrics {
+
+  /** How {@link FlashcardService} applied a review. */
+  public enum Path {
+    /** One {@code UPDATE ... RETURNING} through {@link SqlSm2Reviewer}. */
+    SQL,
+    /** Rescheduled from the {@link FlashcardCache} copy. */
+    CACHED,
+    /** Read from the database, then rescheduled and saved. */
+    LOADED,
+    /** A whole {@link FlashcardService#reviewBatch} call. */
+    BATCH
+  }
+
+  private static final int MAX_GRADE = 5;
+
+  private final Map<Path, Timer> latency = new EnumMap<>(Path.class);
+  private final Counter[] grades = new Counter[MAX_GRADE + 1];
+  private final DistributionSummary easiness;
+
+  public FlashcardMetrics(MeterRegistry registry) {
+    for (Path path : Path.values()) {
+      latency.put(
+          path,
+          Timer.builder("flashcards.review.latency")
+              .description("Time to apply a review, excluding commit")
+              .tag("path", path.name().toLowerCase(Locale.ROOT))
+              .serviceLevelObjectives(
+                  Duration.ofMillis(1),
+                  Duration.ofMillis(2),
+                  Duration.ofMillis(5),
+                  Duration.ofMillis(10),
+                  Duration.ofMillis(25),
+                  Duration.ofMillis(50),
+                  Duration.ofMillis(100),
+                  Duration.ofMillis(250),
+                  Duration.ofMillis(500),
+                  Duration.ofSeconds(1))
+              .register(registry));
+    }
+    for (int grade = 0; grade <= MAX_GRADE; grade++) {
+      grades[grade] =
+          Counter.builder("flashcards.review.grades")
+              .description("Committed reviews by grade")
+              .tag("grade", Integer.toString(grade))
+              .register(registry);
+    }
+    this.easiness =
+        DistributionSummary.builder("flashcards.easiness.factor")
+            .description("Easiness factor of cards right after a committed review")
+            .serviceLevelObjectives(1.3, 1.5, 1.7, 1.9, 2.1, 2.3, 2.5, 2.7, 3.0, 3.5, 4.0)
+            .register(registry);
+  }
+
+  /**
+   * Records how long a review took.
+   *
+   * @param path how it was applied
+   * @param startNanos {@link System#nanoTime()} when it started
+   */
+  public void reviewed(Path path, long startNanos) {
+    latency.get(path).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Counts a committed grade and the easiness factor it left the card with. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onReviewed(FlashcardReviewedEvent event) {
+    int grade = event.getGrade();
+    if (grade >= 0 && grade <= MAX_GRADE) {
+      grades[grade].increment();
+    }
+    easiness.record(event.getEasinessFactor());
+  }
+}
@@ -0,0 +1,39 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * Published by {@link FlashcardService} for every applied grade, carrying the card's SM-2 state
+ * right after that grade.
+ *
+ * <p>Consumed after commit by {@link ReviewHistoryWriter}, which appends it to {@code
+ * flashcard_reviews}.
+ */
+@Value
+public class FlashcardReviewedEvent {
+  String owner;
+  UUID cardId;
+  int grade;
+  Instant reviewedAt;
+  int repetition;
+  double easinessFactor;
+  int interval;
+  LocalDate nextReviewOn;
+
+  /** Snapshots the card; the entity keeps changing if it is graded again in the same batch. */
+  public static FlashcardReviewedEvent of(Flashcard card, int grade, Instant reviewedAt) {
+    return new FlashcardReviewedEvent(
+        card.getOwner(),
+        card.getId(),
+        grade,
+        reviewedAt,
+        card.getRepetition(),
+        card.getEasinessFactor(),
+        card.getInterval(),
+        card.getNextReviewOn());
+  }
+}
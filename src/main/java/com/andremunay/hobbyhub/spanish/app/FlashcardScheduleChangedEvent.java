@@ -0,0 +1,34 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * Published by {@link FlashcardService} whenever a card's position in the review calendar moves.
+ *
+ * <p>{@code previousReviewOn} is {@code null} for newly created cards and {@code nextReviewOn} is
+ * {@code null} for deleted ones. {@code owner} names the deck the card belongs to. Listeners
+ * keeping in-memory views of the schedule consume it after the surrounding transaction commits.
+ */
+@Value
+public class FlashcardScheduleChangedEvent {
+  String owner;
+  UUID id;
+  LocalDate previousReviewOn;
+  LocalDate nextReviewOn;
+  double easinessFactor;
+
+  public static FlashcardScheduleChangedEvent created(
+      String owner, UUID id, LocalDate on, double ef) {
+    return new FlashcardScheduleChangedEvent(owner, id, null, on, ef);
+  }
+
+  public static FlashcardScheduleChangedEvent deleted(String owner, UUID id, LocalDate previous) {
+    return new FlashcardScheduleChangedEvent(owner, id, previous, null, 0);
+  }
+
+  public boolean isDeletion() {
+    return nextReviewOn == null;
+  }
+}
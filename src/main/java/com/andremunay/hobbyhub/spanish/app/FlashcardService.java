@@ -1,104 +1,603 @@
 package com.andremunay.hobbyhub.spanish.app;
 
 import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.domain.FrontNormalizer;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardBulkRow;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardField;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardQueueRow;
 import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardReviewRow;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardSearchRow;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBackDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBulkResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardGradeDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardPageDto;
 import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardStatsDto;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Application service for managing flashcards and their review schedule.
  *
  * <p>Provides CRUD operations and spaced repetition logic integration via {@link ReviewScheduler}.
+ * Every operation acts on one owner's deck, as resolved by the controllers from the signed-in user.
  */
 @Service
 @RequiredArgsConstructor
 public class FlashcardService {
 
+  /** Upper bound on due-queue page size, regardless of what the client asks for. */
+  public static final int MAX_PAGE_SIZE = 200;
+
+  /** Shortest search text accepted; trigram indexes cannot narrow down shorter patterns. */
+  public static final int MIN_QUERY_LENGTH = 3;
+
+  /** Longest search text accepted, matching the width of the front and back columns. */
+  public static final int MAX_QUERY_LENGTH = 255;
+
+  // SQLSTATE of a unique index violation
+  private static final String UNIQUE_VIOLATION = "23505";
+
   private final FlashcardRepository repository;
+  private final FlashcardJdbcRepository jdbcRepository;
   private final ReviewScheduler scheduler;
+  private final DueIndex dueIndex;
+  private final DueHistogram histogram;
+  private final FlashcardCache cache;
+  private final SqlSm2Reviewer sqlReviewer;
+  private final ApplicationEventPublisher events;
+  private final FlashcardMetrics metrics;
 
   /**
    * Creates a new flashcard with the given front and back content.
    *
+   * @param owner the deck to add the card to
    * @param front the prompt side of the flashcard
    * @param back the answer or explanation side
+   * @throws ResponseStatusException with 409 if a card with the same normalized front exists,
+   *     including one created concurrently
    */
   @Transactional
-  public void create(String front, String back) {
-    Flashcard card = new Flashcard(UUID.randomUUID(), front, back);
-    repository.save(card);
+  public void create(String owner, String front, String back) {
+    if (repository.existsByOwnerAndFrontNormalized(owner, FrontNormalizer.normalize(front))) {
+      throw duplicateFront(front);
+    }
+    Flashcard card = new Flashcard(UUID.randomUUID(), owner, front, back);
+    try {
+      // flushed here so a concurrent create of the same front fails on the unique index now
+      repository.saveAndFlush(card);
+    } catch (DataIntegrityViolationException ex) {
+      if (isUniqueViolation(ex)) {
+        throw duplicateFront(front);
+      }
+      throw ex;
+    }
+    events.publishEvent(
+        FlashcardScheduleChangedEvent.created(
+            owner, card.getId(), card.getNextReviewOn(), card.getEasinessFactor()));
+    events.publishEvent(new FlashcardContentChangedEvent(owner));
   }
 
   /**
-   * Retrieves all flashcards in the system, regardless of review status.
+   * Creates or updates many flashcards with one {@code INSERT ... ON CONFLICT} statement.
    *
-   * @return a collection of flashcards in review-ready DTO format
+   * <p>Cards are keyed on their front, ignoring case and accents; if a front repeats in the request
+   * the last entry wins. New cards start with the default SM-2 state, while existing cards get the
+   * submitted front and back but keep their schedule.
+   *
+   * @param owner the deck to write to
+   * @param cards the cards to write
+   * @return how many cards were inserted and how many were changed
    */
   @Transactional
-  public Collection<FlashcardReviewDto> getAll() {
-    return repository.findAll().stream().map(this::toDto).toList();
+  public FlashcardBulkResultDto upsertAll(String owner, List<FlashcardDto> cards) {
+    Map<String, Flashcard> byKey = new LinkedHashMap<>();
+    for (FlashcardDto dto : cards) {
+      Flashcard card = new Flashcard(UUID.randomUUID(), owner, dto.getFront(), dto.getBack());
+      byKey.put(card.getFrontNormalized(), card);
+    }
+
+    int inserted = 0;
+    int updated = 0;
+    for (FlashcardBulkRow row : jdbcRepository.upsertAll(owner, List.copyOf(byKey.values()))) {
+      if (row.isInserted()) {
+        inserted++;
+        events.publishEvent(
+            FlashcardScheduleChangedEvent.created(
+                owner, row.getId(), row.getNextReviewOn(), row.getEasinessFactor()));
+      } else {
+        updated++;
+        cache.evict(owner, row.getFrontNormalized());
+      }
+    }
+    if (inserted + updated > 0) {
+      events.publishEvent(new FlashcardContentChangedEvent(owner));
+    }
+    return new FlashcardBulkResultDto(cards.size(), inserted, updated, 0);
   }
 
   /**
-   * Retrieves flashcards that are due for review on or before the specified date.
+   * Retrieves all flashcards in a deck, regardless of review status.
+   *
+   * <p>Rows are selected straight into DTOs in a read-only transaction, so no entities, snapshots
+   * or flushes are involved. Only the requested columns are read; the others stay {@code null}.
    *
+   * @param owner the deck to read
+   * @param fields comma-separated {@link FlashcardField} properties, or {@code null} for all
+   * @return a collection of flashcards in review-ready DTO format
+   * @throws ResponseStatusException with 400 if {@code fields} names an unknown property
+   */
+  @Transactional(readOnly = true)
+  public Collection<FlashcardReviewDto> getAll(String owner, String fields) {
+    return jdbcRepository.findReviewDtos(owner, decodeFields(fields));
+  }
+
+  /**
+   * Retrieves one bounded page of the due queue, most overdue cards first and, within the same day,
+   * the lowest easiness factor (hardest cards) first.
+   *
+   * <p>When the in-memory {@link DueIndex} is enabled the page is chosen there and only its rows
+   * are loaded by primary key; otherwise the query runs against the hot due-queue index. Either way
+   * rows are selected straight into DTOs in a read-only transaction, without entities, and columns
+   * outside {@code fields} are not read.
+   *
+   * @param owner the deck to read
    * @param today the cutoff date for due reviews
-   * @return a list of flashcard DTOs scheduled for review
+   * @param cursor continuation token from the previous page, or {@code null} for the first page
+   * @param limit requested page size, clamped to {@code 1..MAX_PAGE_SIZE}
+   * @param fields comma-separated {@link FlashcardField} properties, or {@code null} for all
+   * @return the page of due flashcards and the token for the next page, if any
+   * @throws ResponseStatusException with 400 if the cursor or {@code fields} is malformed
    */
-  @Transactional
-  public List<FlashcardReviewDto> getDue(LocalDate today) {
-    List<Flashcard> dueCards = repository.findByNextReviewOnLessThanEqual(today);
-    return dueCards.stream().map(this::toDto).toList();
+  @Transactional(readOnly = true)
+  public FlashcardPageDto getDue(
+      String owner, LocalDate today, String cursor, int limit, String fields) {
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+    DueCursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+    Set<FlashcardField> selected = decodeFields(fields);
+
+    // Fetch one extra position to learn whether another page exists
+    List<DueCursor> positions;
+    List<FlashcardReviewDto> items;
+    if (dueIndex.isEnabled()) {
+      // pick the page in memory, then load just those rows by primary key; the id is always read
+      // to restore the index's order
+      positions = dueIndex.page(owner, today, after, pageSize + 1);
+      List<UUID> ids = positions.stream().limit(pageSize).map(DueCursor::getId).toList();
+      Set<FlashcardField> withId = EnumSet.of(FlashcardField.ID);
+      withId.addAll(selected);
+      Map<UUID, FlashcardReviewDto> byId =
+          jdbcRepository.findReviewDtosByIds(owner, ids, withId).stream()
+              .collect(Collectors.toMap(FlashcardReviewDto::getId, Function.identity()));
+      items =
+          ids.stream()
+              .map(byId::get)
+              .filter(Objects::nonNull)
+              .map(dto -> sparse(dto, selected))
+              .toList();
+    } else {
+      List<FlashcardQueueRow> rows =
+          after == null
+              ? jdbcRepository.findDueQueue(owner, today, pageSize + 1, selected)
+              : jdbcRepository.findDueQueueAfter(
+                  owner,
+                  today,
+                  after.getNextReviewOn(),
+                  after.getEasinessFactor(),
+                  after.getId(),
+                  pageSize + 1,
+                  selected);
+      positions = rows.stream().map(DueCursor::after).toList();
+      items = rows.stream().limit(pageSize).map(row -> sparse(toDto(row), selected)).toList();
+    }
+
+    boolean hasMore = positions.size() > pageSize;
+    String nextCursor = hasMore ? positions.get(pageSize - 1).encode() : null;
+    return new FlashcardPageDto(items, nextCursor);
+  }
+
+  /**
+   * Searches fronts and backs for the given text, ignoring case, ranked by relevance.
+   *
+   * <p>Cards containing the text rank first, followed by cards with a word that fuzzily matches it
+   * (e.g. a misspelling), each ordered by trigram word similarity. Both kinds of match are served
+   * by the {@code pg_trgm} GIN indexes on {@code front} and {@code back}.
+   *
+   * @param owner the deck to search
+   * @param query the search text, at least {@value #MIN_QUERY_LENGTH} characters once trimmed
+   * @param cursor continuation token from the previous page, or {@code null} for the first page
+   * @param limit requested page size, clamped to {@code 1..MAX_PAGE_SIZE}
+   * @param fields comma-separated {@link FlashcardField} properties, or {@code null} for all
+   * @return one page of hits, best first, with a cursor if more remain
+   * @throws ResponseStatusException with 400 if the query is too short or too long, or the cursor
+   *     or {@code fields} is malformed
+   */
+  @Transactional(readOnly = true)
+  public FlashcardPageDto search(
+      String owner, String query, String cursor, int limit, String fields) {
+    String text = query == null ? "" : query.strip();
+    if (text.length() < MIN_QUERY_LENGTH || text.length() > MAX_QUERY_LENGTH) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST,
+          "q must be between " + MIN_QUERY_LENGTH + " and " + MAX_QUERY_LENGTH + " characters");
+    }
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    SearchCursor after = cursor == null || cursor.isBlank() ? null : decodeSearchCursor(cursor);
+    Set<FlashcardField> selected = decodeFields(fields);
+
+    // Fetch one extra row to learn whether another page exists
+    List<FlashcardSearchRow> rows =
+        after == null
+            ? jdbcRepository.search(owner, text, pageSize + 1, selected)
+            : jdbcRepository.searchAfter(
+                owner, text, after.getScore(), after.getId(), pageSize + 1, selected);
+    List<FlashcardReviewDto> items =
+        rows.stream().limit(pageSize).map(row -> sparse(toDto(row), selected)).toList();
+    String nextCursor =
+        rows.size() > pageSize ? SearchCursor.after(rows.get(pageSize - 1)).encode() : null;
+    return new FlashcardPageDto(items, nextCursor);
+  }
+
+  /**
+   * Loads the back of one card, for clients that list cards without it and fetch it on reveal.
+   *
+   * @param owner the deck the card belongs to
+   * @param id the card's id
+   * @return the card's id and back
+   * @throws EntityNotFoundException if the deck has no card with that id
+   */
+  @Transactional(readOnly = true)
+  public FlashcardBackDto getBack(String owner, UUID id) {
+    String back =
+        repository
+            .findBack(owner, id)
+            .orElseThrow(() -> new EntityNotFoundException("Flashcard not found: " + id));
+    return new FlashcardBackDto(id, back);
+  }
+
+  /**
+   * Summarizes the deck's upcoming workload for dashboards.
+   *
+   * <p>Answered from the in-memory {@link DueHistogram} in O(log n) when it is enabled; otherwise
+   * each figure is one count query against the deck's partition.
+   *
+   * @param owner the deck to summarize
+   * @param today the date the statistics are relative to
+   * @return total cards and the number due today, within a week and within a month
+   */
+  @Transactional(readOnly = true)
+  public FlashcardStatsDto getStats(String owner, LocalDate today) {
+    LocalDate tomorrow = today.plusDays(1);
+    if (histogram.isEnabled()) {
+      return new FlashcardStatsDto(
+          today,
+          histogram.total(owner),
+          histogram.countThrough(owner, today),
+          histogram.count(owner, tomorrow, today.plusDays(7)),
+          histogram.count(owner, tomorrow, today.plusDays(30)));
+    }
+    return new FlashcardStatsDto(
+        today,
+        repository.countByOwner(owner),
+        repository.countByOwnerAndNextReviewOnLessThanEqual(owner, today),
+        repository.countByOwnerAndNextReviewOnBetween(owner, tomorrow, today.plusDays(7)),
+        repository.countByOwnerAndNextReviewOnBetween(owner, tomorrow, today.plusDays(30)));
   }
 
   /**
    * Records a user's review result for a given flashcard and reschedules it accordingly.
    *
-   * @param front the flashcard's unique identifier
+   * <p>When {@link SqlSm2Reviewer} is enabled the whole review is one locking {@code UPDATE ...
+   * RETURNING}, and nothing is written to {@link FlashcardCache}, which only the Java path reads.
+   * Otherwise recently seen cards are served from {@link FlashcardCache}: the new schedule is
+   * written with a conditional update that skips the initial read. If the row changed underneath
+   * the cached copy the entry is evicted and the review is retried against the database. The grade
+   * is appended to the review history after commit by {@link ReviewHistoryWriter}.
+   *
+   * @param owner the deck the card belongs to
+   * @param front the flashcard's front text, matched ignoring case and accents
    * @param grade the user's review score (e.g. 0–5 for SM2 algorithms)
    * @return the updated flashcard in DTO format
    * @throws EntityNotFoundException if the flashcard does not exist
    */
   @Transactional
-  public FlashcardReviewDto review(String front, int grade) {
-    // 1) normalize & lookup
+  public FlashcardReviewDto review(String owner, String front, int grade) {
+    long start = System.nanoTime();
+    String key = FrontNormalizer.normalize(front);
+    LocalDate today = LocalDate.now();
+
+    // 0) single statement: Postgres reads, reschedules and writes the row under its lock
+    if (sqlReviewer.isEnabled()) {
+      FlashcardReviewRow row =
+          sqlReviewer
+              .review(owner, key, grade, today)
+              .orElseThrow(
+                  () -> new EntityNotFoundException("Flashcard not found: \"" + front + "\""));
+      Flashcard updated = toFlashcard(owner, key, row);
+      cacheReviewed(updated);
+      publishMove(updated, row.getPreviousNextReviewOn());
+      events.publishEvent(FlashcardReviewedEvent.of(updated, grade, Instant.now()));
+      metrics.reviewed(FlashcardMetrics.Path.SQL, start);
+      return toDto(updated);
+    }
+
+    // 1) fast path: reschedule the cached copy and write it only if the row is unchanged
+    Optional<Flashcard> cached = cache.get(owner, key);
+    if (cached.isPresent()) {
+      Flashcard card = cached.get();
+      int previousRepetition = card.getRepetition();
+      double previousEasinessFactor = card.getEasinessFactor();
+      int previousInterval = card.getInterval();
+      LocalDate previous = card.getNextReviewOn();
+      Flashcard updated = scheduler.review(card, grade, today);
+      int rows =
+          repository.updateScheduleIfUnchanged(
+              owner,
+              updated.getId(),
+              updated.getRepetition(),
+              updated.getEasinessFactor(),
+              updated.getInterval(),
+              updated.getNextReviewOn(),
+              previousRepetition,
+              previousEasinessFactor,
+              previousInterval,
+              previous);
+      if (rows == 1) {
+        cache.put(updated);
+        publishMove(updated, previous);
+        events.publishEvent(FlashcardReviewedEvent.of(updated, grade, Instant.now()));
+        metrics.reviewed(FlashcardMetrics.Path.CACHED, start);
+        return toDto(updated);
+      }
+      cache.evict(owner, key);
+    }
+
+    // 2) lookup
     Flashcard card =
         repository
-            .findByFrontIgnoreCase(front)
+            .findByOwnerAndFrontNormalized(owner, key)
             .orElseThrow(
                 () -> new EntityNotFoundException("Flashcard not found: \"" + front + "\""));
 
-    // 2) perform SM-2 review and save
-    Flashcard updated = scheduler.review(card, grade, LocalDate.now());
+    // 3) perform SM-2 review and save
+    LocalDate previous = card.getNextReviewOn();
+    Flashcard updated = scheduler.review(card, grade, today);
     repository.save(updated);
+    cache.put(updated);
+    publishMove(updated, previous);
+    events.publishEvent(FlashcardReviewedEvent.of(updated, grade, Instant.now()));
+    metrics.reviewed(FlashcardMetrics.Path.LOADED, start);
 
-    // 3) map back to DTO
+    // 4) map back to DTO
     return toDto(updated);
   }
 
   /**
-   * Deletes a flashcard by its ID, if it exists.
+   * Applies many review grades in one transaction.
+   *
+   * <p>All referenced cards are resolved and locked with a single query and rescheduled in memory;
+   * the resulting updates are flushed together at commit using Hibernate's JDBC batching. Entries
+   * are applied in submission order, so repeated grades for the same card compound. Unknown fronts
+   * do not abort the batch and are reported as {@link FlashcardReviewResultDto.Status#NOT_FOUND}.
+   * {@link ReviewGroupCommitter} also runs concurrent single reviews through here, joining them
+   * into its own transaction.
    *
-   * @param id the flashcard identifier
+   * @param owner the deck the cards belong to
+   * @param reviews the grades to apply, in order
+   * @return one result per submitted entry, in the same order
+   */
+  @Transactional
+  public List<FlashcardReviewResultDto> reviewBatch(String owner, List<FlashcardGradeDto> reviews) {
+    long start = System.nanoTime();
+    // 1) resolve and lock every referenced card with one query
+    Set<String> keys =
+        reviews.stream()
+            .map(r -> FrontNormalizer.normalize(r.getFront()))
+            .collect(Collectors.toSet());
+    Map<String, Flashcard> cards = new HashMap<>();
+    for (Flashcard card : repository.findByOwnerAndFrontNormalizedIn(owner, keys)) {
+      cards.put(card.getFrontNormalized(), card);
+    }
+
+    // 2) apply SM-2 in memory, in submission order
+    LocalDate today = LocalDate.now();
+    Instant reviewedAt = Instant.now();
+    List<FlashcardReviewResultDto> results = new ArrayList<>(reviews.size());
+    Map<UUID, Flashcard> touched = new LinkedHashMap<>();
+    Map<UUID, LocalDate> previousDates = new HashMap<>();
+    List<FlashcardReviewedEvent> history = new ArrayList<>();
+    for (FlashcardGradeDto review : reviews) {
+      Flashcard card = cards.get(FrontNormalizer.normalize(review.getFront()));
+      if (card == null) {
+        results.add(
+            new FlashcardReviewResultDto(
+                review.getFront(), FlashcardReviewResultDto.Status.NOT_FOUND, null));
+        continue;
+      }
+      previousDates.putIfAbsent(card.getId(), card.getNextReviewOn());
+      Flashcard updated = scheduler.review(card, review.getGrade(), today);
+      cards.put(updated.getFrontNormalized(), updated);
+      touched.put(updated.getId(), updated);
+      history.add(FlashcardReviewedEvent.of(updated, review.getGrade(), reviewedAt));
+      results.add(
+          new FlashcardReviewResultDto(
+              review.getFront(), FlashcardReviewResultDto.Status.REVIEWED, toDto(updated)));
+    }
+
+    // 3) write back; updates are batched into JDBC batches on flush
+    repository.saveAll(List.copyOf(touched.values()));
+    touched
+        .values()
+        .forEach(
+            card -> {
+              cacheReviewed(card);
+              publishMove(card, previousDates.get(card.getId()));
+            });
+    history.forEach(events::publishEvent);
+    metrics.reviewed(FlashcardMetrics.Path.BATCH, start);
+    return results;
+  }
+
+  /**
+   * Deletes a flashcard by its front text, ignoring case and accents.
+   *
+   * @param owner the deck the card belongs to
+   * @param front the flashcard's front text
    * @throws EntityNotFoundException if the flashcard is not found
    */
   @Transactional
-  public void delete(String front) {
+  public void delete(String owner, String front) {
+    String key = FrontNormalizer.normalize(front);
     Flashcard card =
         repository
-            .findByFrontIgnoreCase(front)
+            .findByOwnerAndFrontNormalized(owner, key)
             .orElseThrow(
                 () -> new EntityNotFoundException("Flashcard not found: \"" + front + "\""));
 
     // perform the delete
     repository.delete(card);
+    cache.evict(owner, key);
+    events.publishEvent(
+        FlashcardScheduleChangedEvent.deleted(owner, card.getId(), card.getNextReviewOn()));
+    events.publishEvent(new FlashcardContentChangedEvent(owner));
+  }
+
+  /**
+   * Deletes many flashcards by front, ignoring case and accents, with one set-based statement.
+   *
+   * <p>Unknown fronts are ignored rather than failing the request.
+   *
+   * @param owner the deck to delete from
+   * @param fronts the fronts of the cards to delete
+   * @return how many cards were deleted
+   */
+  @Transactional
+  public FlashcardBulkResultDto deleteAll(String owner, List<String> fronts) {
+    Set<String> keys = fronts.stream().map(FrontNormalizer::normalize).collect(Collectors.toSet());
+    List<FlashcardBulkRow> deleted = jdbcRepository.deleteByFrontNormalized(owner, keys);
+    for (FlashcardBulkRow row : deleted) {
+      cache.evict(owner, row.getFrontNormalized());
+      events.publishEvent(
+          FlashcardScheduleChangedEvent.deleted(owner, row.getId(), row.getNextReviewOn()));
+    }
+    if (!deleted.isEmpty()) {
+      events.publishEvent(new FlashcardContentChangedEvent(owner));
+    }
+    return new FlashcardBulkResultDto(fronts.size(), 0, 0, deleted.size());
+  }
+
+  // Only the Java review path reads cached cards back; with SQL reviews on, caching them is pure
+  // overhead, so any entry is dropped instead
+  private void cacheReviewed(Flashcard card) {
+    if (sqlReviewer.isEnabled()) {
+      cache.evict(card.getOwner(), card.getFrontNormalized());
+    } else {
+      cache.put(card);
+    }
+  }
+
+  // Announces a rescheduled card so in-memory schedule views can follow it after commit
+  private void publishMove(Flashcard card, LocalDate previous) {
+    events.publishEvent(
+        new FlashcardScheduleChangedEvent(
+            card.getOwner(),
+            card.getId(),
+            previous,
+            card.getNextReviewOn(),
+            card.getEasinessFactor()));
+  }
+
+  // Maps malformed client tokens to a 400 instead of a server error
+  private DueCursor decodeCursor(String cursor) {
+    try {
+      return DueCursor.decode(cursor);
+    } catch (IllegalArgumentException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+  }
+
+  private SearchCursor decodeSearchCursor(String cursor) {
+    try {
+      return SearchCursor.decode(cursor);
+    } catch (IllegalArgumentException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+  }
+
+  private static ResponseStatusException duplicateFront(String front) {
+    return new ResponseStatusException(
+        HttpStatus.CONFLICT, "A flashcard with front '" + front + "' already exists");
+  }
+
+  // Matched on the SQL state rather than the constraint name, which differs per partition
+  private static boolean isUniqueViolation(Throwable ex) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Set<FlashcardField> decodeFields(String fields) {
+    try {
+      return FlashcardField.parse(fields);
+    } catch (IllegalArgumentException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+  }
+
+  // Clears the keys that were read for paging or ordering but not asked for
+  private static FlashcardReviewDto sparse(FlashcardReviewDto dto, Set<FlashcardField> fields) {
+    if (!fields.contains(FlashcardField.ID)) {
+      dto.setId(null);
+    }
+    if (!fields.contains(FlashcardField.NEXT_REVIEW_ON)) {
+      dto.setNextReviewOn(null);
+    }
+    return dto;
+  }
+
+  // Rebuilds the detached card a SQL review returned, for the cache and the published events
+  private static Flashcard toFlashcard(
+      String owner, String frontNormalized, FlashcardReviewRow row) {
+    return new Flashcard(
+        owner,
+        row.getId(),
+        row.getFront(),
+        frontNormalized,
+        row.getBack(),
+        row.getRepetition(),
+        row.getEasinessFactor(),
+        row.getInterval(),
+        row.getNextReviewOn());
   }
 
   // Converts a Flashcard entity into a DTO for read operations
@@ -106,4 +605,14 @@ public class FlashcardService {
     return new FlashcardReviewDto(
         card.getId(), card.getFront(), card.getBack(), card.getNextReviewOn());
   }
+
+  private FlashcardReviewDto toDto(FlashcardQueueRow row) {
+    return new FlashcardReviewDto(
+        row.getId(), row.getFront(), row.getBack(), row.getNextReviewOn());
+  }
+
+  private FlashcardReviewDto toDto(FlashcardSearchRow row) {
+    return new FlashcardReviewDto(
+        row.getId(), row.getFront(), row.getBack(), row.getNextReviewOn());
+  }
 }
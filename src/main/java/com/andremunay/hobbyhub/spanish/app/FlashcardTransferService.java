@@ -0,0 +1,240 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardImportResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardTransferDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Bulk deck transfer as newline-delimited JSON, one {@link FlashcardTransferDto} per line.
+ *
+ * <p>Both directions run in constant memory: exports stream rows from a database cursor straight to
+ * the response, and imports parse the request body lazily while feeding it into {@code COPY}. An
+ * import is a single transaction: rows are staged, then merged into the caller's deck with one
+ * statement that skips fronts (ignoring case and accents) and ids that deck already holds.
+ */
+@Slf4j
+@Service
+public class FlashcardTransferService {
+
+  private static final int MAX_TEXT_LENGTH = 255;
+  private static final BigDecimal MIN_EF = new BigDecimal("1.30");
+  private static final BigDecimal MAX_EF = new BigDecimal("9.99");
+  private static final BigDecimal DEFAULT_EF = new BigDecimal("2.50");
+
+  private final FlashcardJdbcRepository cards;
+  private final DueIndex dueIndex;
+  private final DueHistogram histogram;
+  private final ReviewForecaster forecaster;
+  private final ApplicationEventPublisher events;
+  private final ObjectReader reader;
+  private final ObjectWriter writer;
+  private final TransactionTemplate tx;
+  private final TransactionTemplate readOnlyTx;
+
+  public FlashcardTransferService(
+      FlashcardJdbcRepository cards,
+      DueIndex dueIndex,
+      DueHistogram histogram,
+      ReviewForecaster forecaster,
+      ApplicationEventPublisher events,
+      ObjectMapper mapper,
+      PlatformTransactionManager transactionManager) {
+    this.cards = cards;
+    this.dueIndex = dueIndex;
+    this.histogram = histogram;
+    this.forecaster = forecaster;
+    this.events = events;
+    this.reader = mapper.readerFor(FlashcardTransferDto.class);
+    this.writer = mapper.writerFor(FlashcardTransferDto.class);
+    this.tx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+  }
+
+  /**
+   * Writes every flashcard of a deck to {@code out} as NDJSON, in id order.
+   *
+   * @param owner the deck to export
+   * @param out destination stream; flushed but not closed
+   * @return number of cards written
+   */
+  public long export(String owner, OutputStream out) {
+    long start = System.nanoTime();
+    long[] rows = new long[1];
+    readOnlyTx.executeWithoutResult(
+        status ->
+            cards.exportAll(
+                owner,
+                card -> {
+                  try {
+                    out.write(writer.writeValueAsBytes(card));
+                    out.write('\n');
+                    rows[0]++;
+                  } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                  }
+                }));
+    try {
+      out.flush();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    long millis = elapsedMillis(start);
+    log.info(
+        "Exported {} flashcards in {} ms ({} rows/s)", rows[0], millis, perSecond(rows[0], millis));
+    return rows[0];
+  }
+
+  /**
+   * Imports NDJSON cards in one transaction, skipping fronts and ids already in the deck.
+   *
+   * @param owner the deck to import into
+   * @param in request body, one JSON object per line
+   * @return counts and throughput of the import
+   * @throws ResponseStatusException with 400 if a line is malformed or invalid; nothing is imported
+   */
+  public FlashcardImportResultDto importNdjson(String owner, InputStream in) {
+    long start = System.nanoTime();
+    LocalDate today = LocalDate.now();
+    MappingIterator<FlashcardTransferDto> lines;
+    try {
+      lines = reader.readValues(in);
+    } catch (IOException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable import body", ex);
+    }
+    Iterator<FlashcardTransferDto> validated = validating(lines, today);
+
+    long[] counts =
+        tx.execute(
+            status -> {
+              cards.createImportStaging();
+              long received = cards.copyIntoStaging(validated);
+              long imported = cards.mergeStaging(owner);
+              if (imported > 0) {
+                events.publishEvent(new FlashcardContentChangedEvent(owner));
+              }
+              return new long[] {received, imported};
+            });
+
+    long received = counts[0];
+    long imported = counts[1];
+    if (imported > 0) {
+      // merged rows bypass the schedule events that keep the in-memory views current
+      dueIndex.invalidate(owner);
+      histogram.invalidate(owner);
+      forecaster.invalidate(owner);
+    }
+    long millis = elapsedMillis(start);
+    long rate = perSecond(received, millis);
+    log.info("Imported {} of {} flashcards in {} ms ({} rows/s)", imported, received, millis, rate);
+    return new FlashcardImportResultDto(received, imported, received - imported, millis, rate);
+  }
+
+  // Validates and fills defaults lazily, as COPY consumes the body
+  private static Iterator<FlashcardTransferDto> validating(
+      MappingIterator<FlashcardTransferDto> lines, LocalDate today) {
+    return new Iterator<>() {
+      private long record;
+
+      @Override
+      public boolean hasNext() {
+        try {
+          return lines.hasNextValue();
+        } catch (IOException ex) {
+          throw malformed(record + 1, ex);
+        }
+      }
+
+      @Override
+      public FlashcardTransferDto next() {
+        record++;
+        try {
+          return complete(lines.nextValue(), record, today);
+        } catch (IOException ex) {
+          throw malformed(record, ex);
+        }
+      }
+    };
+  }
+
+  private static FlashcardTransferDto complete(
+      FlashcardTransferDto card, long record, LocalDate today) {
+    requireText(card.getFront(), "front", record);
+    requireText(card.getBack(), "back", record);
+    if (card.getId() == null) {
+      card.setId(UUID.randomUUID());
+    }
+    if (card.getRepetition() == null) {
+      card.setRepetition(0);
+    }
+    if (card.getEasinessFactor() == null) {
+      card.setEasinessFactor(DEFAULT_EF);
+    }
+    if (card.getInterval() == null) {
+      card.setInterval(1);
+    }
+    if (card.getNextReviewOn() == null) {
+      card.setNextReviewOn(today);
+    }
+    if (card.getRepetition() < 0 || card.getInterval() < 0) {
+      throw invalid(record, "repetition and interval must not be negative");
+    }
+    if (card.getEasinessFactor().compareTo(MIN_EF) < 0
+        || card.getEasinessFactor().compareTo(MAX_EF) > 0) {
+      throw invalid(record, "easinessFactor must be between 1.30 and 9.99");
+    }
+    return card;
+  }
+
+  private static void requireText(String value, String field, long record) {
+    if (value == null || value.isBlank()) {
+      throw invalid(record, field + " must not be blank");
+    }
+    if (value.length() > MAX_TEXT_LENGTH) {
+      throw invalid(record, field + " must be at most " + MAX_TEXT_LENGTH + " characters");
+    }
+  }
+
+  private static ResponseStatusException invalid(long record, String message) {
+    return new ResponseStatusException(
+        HttpStatus.BAD_REQUEST, "Invalid card at record " + record + ": " + message);
+  }
+
+  private static ResponseStatusException malformed(long record, IOException cause) {
+    String detail =
+        cause instanceof JsonProcessingException json
+            ? json.getOriginalMessage()
+            : cause.getMessage();
+    return new ResponseStatusException(
+        HttpStatus.BAD_REQUEST, "Malformed JSON at record " + record + ": " + detail, cause);
+  }
+
+  private static long elapsedMillis(long startNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+
+  private static long perSecond(long rows, long millis) {
+    return rows * 1000 / Math.max(1, millis);
+  }
+}
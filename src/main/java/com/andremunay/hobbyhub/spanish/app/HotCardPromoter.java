@@ -0,0 +1,57 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves cards from the cold tier of {@code flashcards} into the hot one as their review date comes
+ * within the two-week hot window.
+ *
+ * <p>Due-queue reads only scan the hot partial index, so every card due today must be hot. Writes
+ * keep that true for the rows they touch; this job covers the cards nobody wrote to, once at
+ * startup and then daily at {@code hobbyhub.flashcards.hot-tier.promote-cron} (shortly after
+ * midnight by default). Each run only touches the rows that entered the window since the last one,
+ * found through the cold partial index.
+ */
+@Slf4j
+@Component
+public class HotCardPromoter {
+
+  private final FlashcardJdbcRepository cards;
+  private final Counter promoted;
+
+  public HotCardPromoter(FlashcardJdbcRepository cards, MeterRegistry registry) {
+    this.cards = cards;
+    this.promoted =
+        Counter.builder("flashcards.hot.promoted")
+            .description("Cards moved into the hot tier as their review date came near")
+            .register(registry);
+  }
+
+  /** Catches up on the days the application was down. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void promoteOnStartup() {
+    promote();
+  }
+
+  /**
+   * Marks the cards that came within the hot window as hot.
+   *
+   * @return number of cards promoted
+   */
+  @Scheduled(cron = "${hobbyhub.flashcards.hot-tier.promote-cron:0 5 0 * * *}")
+  public int promote() {
+    int rows = cards.promoteHot();
+    promoted.increment(rows);
+    if (rows > 0) {
+      log.info("Promoted {} flashcards into the hot tier", rows);
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,120 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import java.time.LocalDate;
+import java.util.function.IntToLongFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * SM-2 scheduler that spreads reviews over nearby days, so cards imported or learned together do
+ * not stay due on the same days.
+ *
+ * <p>After the {@link Sm2ReviewScheduler} step, an interval of {@value #MIN_SMOOTHED_INTERVAL} days
+ * or more may move by up to {@code fuzz-ratio} of its length, and never by more than {@code
+ * max-fuzz-days}. Each candidate day is weighted by {@code 1 / (1 + n)^2}, where {@code n} is the
+ * number of the deck's cards already due that day according to {@link DueHistogram}. The day is
+ * then drawn with a hash of the card's id and new repetition count instead of a random number.
+ * Light days are strongly preferred. Cards graded together in one batch, which all see the same
+ * counts, still spread over the window, and reviewing the same card state against the same counts
+ * always lands on the same day. The stored interval is the one chosen, so SM-2 keeps growing from
+ * the actual gap. If the histogram is disabled only the fuzz is applied.
+ *
+ * <p>Enabled with {@code hobbyhub.flashcards.scheduler=sm2-smoothed}. Being neither of the plain
+ * SM-2 implementations, it also turns off {@link SqlSm2Reviewer}, whose SQL knows nothing of
+ * smoothing.
+ */
+@Service
+@ConditionalOnProperty(name = "hobbyhub.flashcards.scheduler", havingValue = "sm2-smoothed")
+public class LoadSmoothingSm2Scheduler implements ReviewScheduler {
+
+  /** Shortest SM-2 interval that is moved; the one-day step after a first pass or a lapse stays. */
+  public static final int MIN_SMOOTHED_INTERVAL = 3;
+
+  private final Sm2ReviewScheduler sm2 = new Sm2ReviewScheduler();
+  private final DueHistogram histogram;
+  private final double fuzzRatio;
+  private final int maxFuzzDays;
+
+  public LoadSmoothingSm2Scheduler(
+      DueHistogram histogram,
+      @Value("${hobbyhub.flashcards.smoothing.fuzz-ratio:0.1}") double fuzzRatio,
+      @Value("${hobbyhub.flashcards.smoothing.max-fuzz-days:7}") int maxFuzzDays) {
+    this.histogram = histogram;
+    this.fuzzRatio = fuzzRatio;
+    this.maxFuzzDays = maxFuzzDays;
+  }
+
+  /**
+   * Applies the SM-2 step, then moves the next review to a nearby, lightly loaded day.
+   *
+   * @param card the flashcard being reviewed
+   * @param grade the user's score (0–5) indicating recall quality
+   * @param today the date the review took place
+   * @return the updated flashcard
+   */
+  @Override
+  public Flashcard review(Flashcard card, int grade, LocalDate today) {
+    Flashcard updated = sm2.review(card, grade, today);
+    String owner = updated.getOwner();
+    IntToLongFunction load =
+        histogram.isEnabled()
+            ? days -> histogram.count(owner, today.plusDays(days), today.plusDays(days))
+            : days -> 0;
+    int interval = smooth(updated.getInterval(), seed(updated), fuzzRatio, maxFuzzDays, load);
+    updated.setInterval(interval);
+    updated.setNextReviewOn(today.plusDays(interval));
+    return updated;
+  }
+
+  /**
+   * Picks the interval to use in place of an SM-2 interval.
+   *
+   * @param interval the SM-2 interval in days
+   * @param seed fixes the pick among the candidates; the same seed and loads give the same interval
+   * @param fuzzRatio largest move, as a fraction of {@code interval}; at least one day is allowed
+   * @param maxFuzzDays largest move in days
+   * @param load cards already due a given number of days from today
+   * @return an interval within the fuzz window, or {@code interval} itself if it is shorter than
+   *     {@value #MIN_SMOOTHED_INTERVAL} days
+   */
+  public static int smooth(
+      int interval, long seed, double fuzzRatio, int maxFuzzDays, IntToLongFunction load) {
+    if (interval < MIN_SMOOTHED_INTERVAL || maxFuzzDays <= 0) {
+      return interval;
+    }
+    int fuzz = (int) Math.min(maxFuzzDays, Math.max(1, Math.round(interval * fuzzRatio)));
+    int from = Math.max(1, interval - fuzz);
+    int to = interval + fuzz;
+    double[] weights = new double[to - from + 1];
+    double total = 0;
+    for (int i = 0; i < weights.length; i++) {
+      double n = 1 + load.applyAsLong(from + i);
+      weights[i] = 1 / (n * n);
+      total += weights[i];
+    }
+    // Top 53 bits of a mixed seed, as a double in [0, total)
+    double pick = (mix(seed) >>> 11) * 0x1.0p-53 * total;
+    for (int i = 0; i < weights.length - 1; i++) {
+      pick -= weights[i];
+      if (pick < 0) {
+        return from + i;
+      }
+    }
+    return to;
+  }
+
+  private static long seed(Flashcard card) {
+    return card.getId().getMostSignificantBits() * 31
+        + card.getId().getLeastSignificantBits()
+        + card.getRepetition();
+  }
+
+  // SplitMix64 finalizer: nearby seeds, such as consecutive repetitions, give unrelated picks
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,126 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.ReviewAnalyticsRepository;
+import com.andremunay.hobbyhub.spanish.infra.ReviewRollupPosition;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardRetentionWeekDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Weekly true retention, grade distribution and interval growth of a deck, computed from the review
+ * history recorded by {@link ReviewHistoryWriter}.
+ *
+ * <p>Reads are served from the weekly rollup kept by {@link ReviewAnalyticsRepository}, a handful
+ * of rows per deck, so a dashboard load never touches the history itself. The rollup is refreshed
+ * every {@code hobbyhub.flashcards.analytics.refresh-interval} by adding only the reviews recorded
+ * since the previous refresh, in batches of {@code batch-size}, one transaction each. Reviews newer
+ * than {@code settle} are left for the next refresh so that rows the write-behind history is still
+ * inserting are not skipped; results therefore trail the history by about that much. The history is
+ * read in order of inserting transaction, and only from transactions older than every running one,
+ * so a review that commits after a later id was rolled up is picked up by a later refresh instead
+ * of being lost.
+ */
+@Slf4j
+@Service
+public class RetentionAnalytics {
+
+  /** Longest history that can be requested, in weeks. */
+  public static final int MAX_WEEKS = 104;
+
+  private final ReviewAnalyticsRepository analytics;
+  private final TransactionTemplate tx;
+  private final int batchSize;
+  private final Duration settle;
+  private final Counter rolledUp;
+
+  public RetentionAnalytics(
+      ReviewAnalyticsRepository analytics,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry,
+      @Value("${hobbyhub.flashcards.analytics.batch-size:50000}") int batchSize,
+      @Value("${hobbyhub.flashcards.analytics.settle:PT1M}") Duration settle) {
+    this.analytics = analytics;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.settle = settle;
+    this.rolledUp =
+        Counter.builder("flashcards.analytics.rolled.up")
+            .description("Review history rows added to the weekly retention rollup")
+            .register(registry);
+  }
+
+  /**
+   * Reads a deck's retention over its most recent weeks.
+   *
+   * @param owner the deck to read
+   * @param today a day of the last week to include
+   * @param weeks number of weeks to cover, 1–{@value #MAX_WEEKS}, ending with the week of {@code
+   *     today}
+   * @return one entry per week that had reviews, oldest first
+   * @throws ResponseStatusException with 400 if the number of weeks is out of range
+   */
+  public List<FlashcardRetentionWeekDto> weeks(String owner, LocalDate today, int weeks) {
+    if (weeks < 1 || weeks > MAX_WEEKS) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "weeks must be between 1 and " + MAX_WEEKS);
+    }
+    LocalDate from =
+        today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(weeks - 1L);
+    return analytics.findWeeks(owner, from);
+  }
+
+  /**
+   * Adds the reviews recorded since the last refresh to the weekly rollup.
+   *
+   * <p>Does nothing while another node is refreshing.
+   *
+   * @return number of reviews added
+   */
+  @Scheduled(
+      initialDelayString = "${hobbyhub.flashcards.analytics.refresh-interval:PT1M}",
+      fixedDelayString = "${hobbyhub.flashcards.analytics.refresh-interval:PT1M}")
+  public long refresh() {
+    Instant cutoff = Instant.now().minus(settle);
+    long total = 0;
+    long added;
+    do {
+      added = tx.execute(status -> rollUpBatch(cutoff));
+      total += added;
+    } while (added >= batchSize);
+    rolledUp.increment(total);
+    if (total > 0) {
+      log.debug("Added {} reviews to the retention rollup", total);
+    }
+    return total;
+  }
+
+  private long rollUpBatch(Instant cutoff) {
+    Optional<ReviewRollupPosition> checkpoint = analytics.lockCheckpoint();
+    if (checkpoint.isEmpty()) {
+      return 0;
+    }
+    ReviewRollupPosition after = checkpoint.get();
+    ReviewRollupPosition upTo = analytics.settledUpTo(after, cutoff, batchSize);
+    if (upTo.equals(after)) {
+      return 0;
+    }
+    long added = analytics.rollUp(after, upTo);
+    analytics.advanceCheckpoint(upTo);
+    return added;
+  }
+}
@@ -0,0 +1,254 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardScheduleChunk;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardForecastDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Forecasts how many reviews per day a deck will generate, assuming every review draws its grade
+ * from a fixed distribution.
+ *
+ * <p>The deck's SM-2 state is loaded as id-ordered {@link FlashcardScheduleChunk}s, i.e. primitive
+ * arrays, and each chunk is replayed on a dedicated fork-join pool. Cards never influence each
+ * other, so every card is stepped from review to review with {@link
+ * TableDrivenSm2Scheduler#schedule}, which yields the same schedule as {@link Sm2ReviewScheduler}
+ * and allocates nothing. Overdue cards are reviewed on the first simulated day. Grades come from a
+ * stateless hash of the seed, the card id and the review number, so a given deck, seed and
+ * distribution always produce the same forecast however the work is split.
+ *
+ * <p>Results are cached per deck version: committed schedule changes on this node and bulk rewrites
+ * ({@link #invalidate(String)}) start a new version of the deck they touch, and entries also expire
+ * after {@code cache-ttl} to pick up changes made on other nodes.
+ */
+@Slf4j
+@Service
+public class ReviewForecaster {
+
+  /** Longest forecast that can be requested, in days. */
+  public static final int MAX_DAYS = 730;
+
+  /** Number of grades SM-2 distinguishes (0–5). */
+  public static final int GRADES = 6;
+
+  private final FlashcardJdbcRepository cards;
+  private final TransactionTemplate readOnlyTx;
+  private final int chunkSize;
+  private final ForkJoinPool pool;
+  private final Cache<Key, FlashcardForecastDto> results;
+  private final Map<String, AtomicLong> deckVersions = new ConcurrentHashMap<>();
+
+  public ReviewForecaster(
+      FlashcardJdbcRepository cards,
+      PlatformTransactionManager transactionManager,
+      @Value("${hobbyhub.flashcards.forecast.chunk-size:10000}") int chunkSize,
+      @Value("${hobbyhub.flashcards.forecast.parallelism:0}") int parallelism,
+      @Value("${hobbyhub.flashcards.forecast.cache-ttl:PT10M}") Duration cacheTtl) {
+    this.cards = cards;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+    this.chunkSize = chunkSize;
+    this.pool =
+        new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    this.results = Caffeine.newBuilder().maximumSize(256).expireAfterWrite(cacheTtl).build();
+  }
+
+  /**
+   * Forecasts the daily review count of a deck.
+   *
+   * @param owner the deck to simulate
+   * @param today first simulated day
+   * @param days number of days to simulate, 1–{@value #MAX_DAYS}
+   * @param gradeWeights relative frequency of grades 0–5
+   * @param seed seed of the grade draws
+   * @return reviews per day, starting at {@code today}
+   * @throws ResponseStatusException with 400 if the horizon or the grade weights are invalid
+   */
+  public FlashcardForecastDto forecast(
+      String owner, LocalDate today, int days, int[] gradeWeights, long seed) {
+    if (days < 1 || days > MAX_DAYS) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "days must be between 1 and " + MAX_DAYS);
+    }
+    if (gradeWeights.length != GRADES
+        || Arrays.stream(gradeWeights).anyMatch(w -> w < 0)
+        || Arrays.stream(gradeWeights).sum() <= 0) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "grades must be six non-negative weights with a positive sum");
+    }
+    Key key =
+        new Key(
+            owner,
+            version(owner).get(),
+            today.toEpochDay(),
+            days,
+            seed,
+            Arrays.toString(gradeWeights));
+    return results.get(key, k -> compute(owner, today, days, gradeWeights, seed));
+  }
+
+  /** Starts a new version of the card's deck once a create, review or delete has committed. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onScheduleChanged(FlashcardScheduleChangedEvent event) {
+    version(event.getOwner()).incrementAndGet();
+  }
+
+  /**
+   * Drops a deck's cached forecasts, e.g. after its cards were rewritten in bulk without events.
+   *
+   * @param owner the deck whose forecasts are stale
+   */
+  public void invalidate(String owner) {
+    version(owner).incrementAndGet();
+  }
+
+  /**
+   * Replays one chunk of cards and adds their reviews to {@code reviewsPerDay}.
+   *
+   * @param chunk SM-2 state of the cards to simulate
+   * @param today epoch day of the first simulated day
+   * @param cumulativeWeights running totals of the grade weights; the last one is their sum
+   * @param seed seed of the grade draws
+   * @param reviewsPerDay per-day counters, one slot per simulated day
+   */
+  public static void simulate(
+      FlashcardScheduleChunk chunk,
+      long today,
+      int[] cumulativeWeights,
+      long seed,
+      long[] reviewsPerDay) {
+    long end = today + reviewsPerDay.length;
+    for (int i = 0; i < chunk.size(); i++) {
+      UUID id = chunk.id(i);
+      long cardKey = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+      int repetition = chunk.repetition(i);
+      int ef = chunk.efHundredths(i);
+      int interval = chunk.interval(i);
+      long day = Math.max(today, chunk.nextReviewDay(i));
+      for (long n = 0; day < end; n++) {
+        reviewsPerDay[(int) (day - today)]++;
+        int grade = grade(mix(seed ^ mix(cardKey + n)), cumulativeWeights);
+        long state = TableDrivenSm2Scheduler.schedule(repetition, ef, interval, grade);
+        repetition = TableDrivenSm2Scheduler.repetition(state);
+        ef = TableDrivenSm2Scheduler.efHundredths(state);
+        interval = TableDrivenSm2Scheduler.interval(state);
+        day += Math.max(1, interval);
+      }
+    }
+  }
+
+  private AtomicLong version(String owner) {
+    return deckVersions.computeIfAbsent(owner, o -> new AtomicLong());
+  }
+
+  // Loads the deck, replays every chunk in parallel and sums the per-chunk counters
+  private FlashcardForecastDto compute(
+      String owner, LocalDate today, int days, int[] gradeWeights, long seed) {
+    long start = System.nanoTime();
+    List<FlashcardScheduleChunk> deck = load(owner);
+    int[] cumulative = new int[GRADES];
+    for (int g = 0, sum = 0; g < GRADES; g++) {
+      sum += gradeWeights[g];
+      cumulative[g] = sum;
+    }
+    long[] reviews =
+        pool.submit(
+                () ->
+                    deck.parallelStream()
+                        .map(
+                            chunk -> {
+                              long[] counts = new long[days];
+                              simulate(chunk, today.toEpochDay(), cumulative, seed, counts);
+                              return counts;
+                            })
+                        .reduce(new long[days], ReviewForecaster::sum))
+            .join();
+
+    long cardCount = deck.stream().mapToLong(FlashcardScheduleChunk::size).sum();
+    long total = Arrays.stream(reviews).sum();
+    long peak = Arrays.stream(reviews).max().orElse(0);
+    log.debug(
+        "Forecast {} cards x {} days in {} ms",
+        cardCount,
+        days,
+        (System.nanoTime() - start) / 1_000_000);
+    return new FlashcardForecastDto(today, seed, cardCount, total, peak, reviews);
+  }
+
+  private List<FlashcardScheduleChunk> load(String owner) {
+    List<FlashcardScheduleChunk> deck = new ArrayList<>();
+    readOnlyTx.executeWithoutResult(
+        status -> {
+          FlashcardScheduleChunk chunk = cards.readScheduleChunk(owner, null, chunkSize);
+          while (!chunk.isEmpty()) {
+            deck.add(chunk);
+            chunk = cards.readScheduleChunk(owner, chunk.lastId(), chunkSize);
+          }
+        });
+    return deck;
+  }
+
+  // Returns a fresh array so the shared identity of the reduction is never written to
+  private static long[] sum(long[] a, long[] b) {
+    long[] out = new long[a.length];
+    for (int d = 0; d < out.length; d++) {
+      out[d] = a[d] + b[d];
+    }
+    return out;
+  }
+
+  private static int grade(long random, int[] cumulativeWeights) {
+    long draw = Long.remainderUnsigned(random, cumulativeWeights[GRADES - 1]);
+    int grade = 0;
+    while (draw >= cumulativeWeights[grade]) {
+      grade++;
+    }
+    return grade;
+  }
+
+  // SplitMix64 finalizer: a cheap, well-distributed 64-bit hash
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  @RequiredArgsConstructor
+  @EqualsAndHashCode
+  private static final class Key {
+    private final String owner;
+    private final long deckVersion;
+    private final long today;
+    private final int days;
+    private final long seed;
+    private final String gradeWeights;
+  }
+}
@@ -0,0 +1,295 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardGradeDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Group commit for single reviews: concurrent {@code POST /flashcards/review} requests are
+ * collected for up to {@code window} and applied together in one transaction.
+ *
+ * <p>Request threads queue their review and wait. A single background committer takes the first
+ * queued review, gathers whatever else arrives within the window (at most {@code max-batch}), and
+ * applies the lot with {@link FlashcardService#reviewBatch} per deck inside one transaction, so a
+ * study peak pays for one commit per batch instead of one per request. Each caller receives the
+ * result of its own review, or {@link EntityNotFoundException} if its card does not exist. If the
+ * batch transaction fails, its reviews are retried one by one, so an error only reaches the request
+ * that caused it.
+ *
+ * <p>With a zero window, a full queue, or while stopped, reviews bypass the queue and run as
+ * before. Batch sizes are exported as {@code flashcards.review.group.size} and the time reviews
+ * spend queued as {@code flashcards.review.group.wait}.
+ *
+ * <p>The window defaults to zero, so group commit is off unless configured. Batches go through
+ * {@code reviewBatch}, which loads and saves entities, so while it is on, single reviews no longer
+ * take the one-statement path of {@link SqlSm2Reviewer}. A window of a few milliseconds only pays
+ * off when commits, rather than per-review round trips, limit review throughput.
+ */
+@Slf4j
+@Component
+public class ReviewGroupCommitter implements SmartLifecycle {
+
+  // Stop after the web server has stopped taking requests, but before ReviewHistoryWriter, which
+  // still has to record the reviews committed while draining
+  private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 3072;
+
+  // How long an idle committer blocks before re-checking whether it should stop
+  private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final FlashcardService flashcardService;
+  private final TransactionTemplate transaction;
+  private final BlockingQueue<PendingReview> queue;
+  private final Duration window;
+  private final int maxBatch;
+  private final DistributionSummary batchSize;
+  private final Timer waitTimer;
+  private final Counter bypassed;
+  private final Counter retried;
+
+  private volatile boolean running;
+  private volatile Runnable stopCallback;
+  private Thread committer;
+
+  public ReviewGroupCommitter(
+      FlashcardService flashcardService,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry,
+      @Value("${hobbyhub.flashcards.review-group-commit.window:PT0S}") Duration window,
+      @Value("${hobbyhub.flashcards.review-group-commit.max-batch:256}") int maxBatch,
+      @Value("${hobbyhub.flashcards.review-group-commit.queue-capacity:10000}") int capacity) {
+    this.flashcardService = flashcardService;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.window = window;
+    this.maxBatch = maxBatch;
+    this.batchSize =
+        DistributionSummary.builder("flashcards.review.group.size")
+            .description("Reviews committed together in one group-commit transaction")
+            .publishPercentileHistogram()
+            .register(registry);
+    this.waitTimer =
+        Timer.builder("flashcards.review.group.wait")
+            .description("Time a review waited in the group-commit queue before its batch ran")
+            .publishPercentileHistogram()
+            .register(registry);
+    this.bypassed =
+        Counter.builder("flashcards.review.group.bypassed")
+            .description("Reviews applied on the request thread because the queue was full")
+            .register(registry);
+    this.retried =
+        Counter.builder("flashcards.review.group.retried")
+            .description("Reviews retried on their own after their batch transaction failed")
+            .register(registry);
+  }
+
+  /** Whether reviews are coalesced; a zero window sends every review straight to the service. */
+  public boolean isEnabled() {
+    return !window.isZero();
+  }
+
+  /**
+   * Applies one review, committed together with whatever other reviews arrive meanwhile.
+   *
+   * @param owner the deck the card belongs to
+   * @param front the flashcard's front text, matched ignoring case and accents
+   * @param grade the user's review score (0–5)
+   * @return the updated flashcard in DTO format
+   * @throws EntityNotFoundException if the flashcard does not exist
+   */
+  public FlashcardReviewDto review(String owner, String front, int grade) {
+    if (!isEnabled() || !running) {
+      return flashcardService.review(owner, front, grade);
+    }
+    PendingReview pending = new PendingReview(owner, front, grade, System.nanoTime());
+    if (!queue.offer(pending)) {
+      bypassed.increment();
+      return flashcardService.review(owner, front, grade);
+    }
+    // stopped while queueing: if the committer's final drain missed it, take it back
+    if (!running && queue.remove(pending)) {
+      return flashcardService.review(owner, front, grade);
+    }
+    try {
+      return pending.result.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  @Override
+  public synchronized void start() {
+    if (running || !isEnabled()) {
+      return;
+    }
+    running = true;
+    committer = new Thread(this::commitLoop, "review-group-committer");
+    committer.setDaemon(true);
+    committer.start();
+  }
+
+  @Override
+  public void stop() {
+    stop(() -> {});
+  }
+
+  /** Lets the committer apply everything queued, then reports back to the lifecycle processor. */
+  @Override
+  public synchronized void stop(Runnable callback) {
+    if (!running) {
+      callback.run();
+      return;
+    }
+    stopCallback = callback;
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+
+  private void commitLoop() {
+    List<PendingReview> batch = new ArrayList<>(maxBatch);
+    try {
+      while (running || !queue.isEmpty()) {
+        PendingReview first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        collect(batch, first.enqueuedAt + window.toNanos());
+        commit(batch);
+        batch.clear();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      log.warn("Review group committer interrupted with {} reviews queued", queue.size());
+    } finally {
+      // anything still queued, or queued while stopping, is applied on its own
+      List<PendingReview> rest = new ArrayList<>(batch);
+      queue.drainTo(rest);
+      rest.forEach(this::reviewAlone);
+      Runnable callback = stopCallback;
+      if (callback != null) {
+        callback.run();
+      }
+    }
+  }
+
+  // Adds reviews arriving until the deadline, or until the batch is full
+  private void collect(List<PendingReview> batch, long deadline) throws InterruptedException {
+    while (batch.size() < maxBatch) {
+      queue.drainTo(batch, maxBatch - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= maxBatch || remaining <= 0) {
+        return;
+      }
+      PendingReview next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+    }
+  }
+
+  // One transaction for the whole batch; if it fails, every review gets its own
+  void commit(List<PendingReview> batch) {
+    long started = System.nanoTime();
+    batch.forEach(r -> waitTimer.record(started - r.enqueuedAt, TimeUnit.NANOSECONDS));
+    batchSize.record(batch.size());
+
+    FlashcardReviewResultDto[] results;
+    try {
+      results = transaction.execute(status -> reviewAll(batch));
+    } catch (RuntimeException ex) {
+      log.warn("Group commit of {} reviews failed; retrying them one by one", batch.size(), ex);
+      retried.increment(batch.size());
+      batch.forEach(this::reviewAlone);
+      return;
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      PendingReview pending = batch.get(i);
+      FlashcardReviewResultDto result = results[i];
+      if (result.getStatus() == FlashcardReviewResultDto.Status.REVIEWED) {
+        pending.result.complete(result.getCard());
+      } else {
+        pending.result.completeExceptionally(
+            new EntityNotFoundException("Flashcard not found: \"" + pending.front + "\""));
+      }
+    }
+  }
+
+  // Applies the batch deck by deck, keeping each deck's reviews in arrival order
+  private FlashcardReviewResultDto[] reviewAll(List<PendingReview> batch) {
+    Map<String, List<Integer>> byOwner = new LinkedHashMap<>();
+    for (int i = 0; i < batch.size(); i++) {
+      byOwner.computeIfAbsent(batch.get(i).owner, o -> new ArrayList<>()).add(i);
+    }
+    FlashcardReviewResultDto[] results = new FlashcardReviewResultDto[batch.size()];
+    byOwner.forEach(
+        (owner, indexes) -> {
+          List<FlashcardGradeDto> grades =
+              indexes.stream()
+                  .map(i -> new FlashcardGradeDto(batch.get(i).front, batch.get(i).grade))
+                  .toList();
+          List<FlashcardReviewResultDto> applied = flashcardService.reviewBatch(owner, grades);
+          for (int j = 0; j < indexes.size(); j++) {
+            results[indexes.get(j)] = applied.get(j);
+          }
+        });
+    return results;
+  }
+
+  private void reviewAlone(PendingReview pending) {
+    try {
+      pending.result.complete(flashcardService.review(pending.owner, pending.front, pending.grade));
+    } catch (RuntimeException ex) {
+      pending.result.completeExceptionally(ex);
+    }
+  }
+
+  /** A review waiting for its batch, and the caller's handle on the outcome. */
+  static final class PendingReview {
+    final String owner;
+    final String front;
+    final int grade;
+    final long enqueuedAt;
+    final CompletableFuture<FlashcardReviewDto> result = new CompletableFuture<>();
+
+    PendingReview(String owner, String front, int grade, long enqueuedAt) {
+      this.owner = owner;
+      this.front = front;
+      this.grade = grade;
+      this.enqueuedAt = enqueuedAt;
+    }
+  }
+}
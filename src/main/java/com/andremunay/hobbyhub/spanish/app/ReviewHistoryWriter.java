@@ -0,0 +1,227 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Write-behind appender for the {@code flashcard_reviews} history table.
+ *
+ * <p>Committed reviews are handed to a bounded in-process queue instead of being inserted on the
+ * request thread. A single background flusher drains the queue and writes each batch with one
+ * multi-row {@code INSERT}. When the queue is full, producers wait up to {@code offer-timeout}
+ * (back-pressure) and the entry is dropped and counted if space still does not free up. The batch
+ * size is capped at {@value #MAX_BATCH_SIZE} rows, the most one statement's bind parameters can
+ * hold.
+ *
+ * <p>As a {@link SmartLifecycle} bean the flusher stops after the web server, draining everything
+ * still queued within {@code spring.lifecycle.timeout-per-shutdown-phase}.
+ */
+@Slf4j
+@Component
+public class ReviewHistoryWriter implements SmartLifecycle {
+
+  // Stop after the web server (which stops at DEFAULT_PHASE - 2048) has stopped taking requests
+  private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+  private static final String INSERT_PREFIX =
+      "INSERT INTO flashcard_reviews"
+          + " (owner, card_id, grade, reviewed_at, repetition, easiness_factor, interval_days,"
+          + " next_review_on) VALUES ";
+  private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final int COLUMNS = 8;
+
+  /** Most rows one insert can bind: PgJDBC allows at most 32767 parameters per statement. */
+  static final int MAX_BATCH_SIZE = Short.MAX_VALUE / COLUMNS;
+
+  private final JdbcTemplate jdbc;
+  private final BlockingQueue<FlashcardReviewedEvent> queue;
+  private final int batchSize;
+  private final Duration offerTimeout;
+  private final Duration lingerTime;
+  private final Timer flushTimer;
+  private final Counter droppedFull;
+  private final Counter droppedError;
+  private final Counter droppedStopped;
+  private final Counter written;
+
+  private volatile boolean running;
+  private volatile Runnable stopCallback;
+  private Thread flusher;
+
+  public ReviewHistoryWriter(
+      JdbcTemplate jdbc,
+      MeterRegistry registry,
+      @Value("${hobbyhub.flashcards.review-history.queue-capacity:10000}") int capacity,
+      @Value("${hobbyhub.flashcards.review-history.batch-size:500}") int batchSize,
+      @Value("${hobbyhub.flashcards.review-history.offer-timeout:PT0.05S}") Duration offerTimeout,
+      @Value("${hobbyhub.flashcards.review-history.linger:PT0.2S}") Duration lingerTime) {
+    this.jdbc = jdbc;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+    if (this.batchSize != batchSize) {
+      log.warn("Review history batch size {} out of range, using {}", batchSize, this.batchSize);
+    }
+    this.offerTimeout = offerTimeout;
+    this.lingerTime = lingerTime;
+    Gauge.builder("flashcards.review.history.queue.depth", queue, BlockingQueue::size)
+        .description("Reviews waiting to be written to flashcard_reviews")
+        .register(registry);
+    this.flushTimer =
+        Timer.builder("flashcards.review.history.flush")
+            .description("Time taken to insert one batch of review history rows")
+            .register(registry);
+    this.droppedFull = dropped(registry, "queue_full");
+    this.droppedError = dropped(registry, "insert_failed");
+    this.droppedStopped = dropped(registry, "stopped");
+    this.written =
+        Counter.builder("flashcards.review.history.written")
+            .description("Review history rows inserted")
+            .register(registry);
+  }
+
+  private static Counter dropped(MeterRegistry registry, String reason) {
+    return Counter.builder("flashcards.review.history.dropped")
+        .description("Review history rows lost instead of written")
+        .tag("reason", reason)
+        .register(registry);
+  }
+
+  /** Queues a committed review, waiting briefly for space if the flusher is behind. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onReviewed(FlashcardReviewedEvent event) {
+    if (!running) {
+      droppedStopped.increment();
+      return;
+    }
+    try {
+      if (!queue.offer(event, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        droppedFull.increment();
+        return;
+      }
+      // stopped while queueing: if the flusher's final drain missed it, take it back
+      if (!running && queue.remove(event)) {
+        droppedStopped.increment();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      droppedFull.increment();
+    }
+  }
+
+  /** Number of reviews waiting to be written. */
+  public int depth() {
+    return queue.size();
+  }
+
+  /** Most reviews written by one insert, after clamping the configured batch size. */
+  int batchSize() {
+    return batchSize;
+  }
+
+  @Override
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    flusher = new Thread(this::drainLoop, "review-history-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @Override
+  public void stop() {
+    stop(() -> {});
+  }
+
+  /** Lets the flusher write out everything queued, then reports back to the lifecycle processor. */
+  @Override
+  public synchronized void stop(Runnable callback) {
+    if (!running) {
+      callback.run();
+      return;
+    }
+    stopCallback = callback;
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+
+  private void drainLoop() {
+    List<FlashcardReviewedEvent> batch = new ArrayList<>(batchSize);
+    try {
+      while (running || !queue.isEmpty()) {
+        FlashcardReviewedEvent first = queue.poll(lingerTime.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        flush(batch);
+        batch.clear();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      droppedStopped.increment(queue.size());
+      log.warn("Review history flusher interrupted with {} reviews unwritten", queue.size());
+    } finally {
+      Runnable callback = stopCallback;
+      if (callback != null) {
+        callback.run();
+      }
+    }
+  }
+
+  // One multi-row INSERT per batch; a failed batch is dropped so the history never blocks reviews
+  void flush(List<FlashcardReviewedEvent> batch) {
+    StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + batch.size() * 24);
+    sql.append(INSERT_PREFIX);
+    Object[] args = new Object[batch.size() * COLUMNS];
+    for (int i = 0; i < batch.size(); i++) {
+      FlashcardReviewedEvent e = batch.get(i);
+      sql.append(i == 0 ? ROW : ", " + ROW);
+      int a = i * COLUMNS;
+      args[a] = e.getOwner();
+      args[a + 1] = e.getCardId();
+      args[a + 2] = e.getGrade();
+      args[a + 3] = Timestamp.from(e.getReviewedAt());
+      args[a + 4] = e.getRepetition();
+      args[a + 5] = BigDecimal.valueOf(e.getEasinessFactor()).setScale(2, RoundingMode.HALF_UP);
+      args[a + 6] = e.getInterval();
+      args[a + 7] = Date.valueOf(e.getNextReviewOn());
+    }
+    try {
+      flushTimer.record(() -> jdbc.update(sql.toString(), args));
+      written.increment(batch.size());
+    } catch (RuntimeException ex) {
+      droppedError.increment(batch.size());
+      log.error("Failed to write {} review history rows", batch.size(), ex);
+    }
+  }
+}
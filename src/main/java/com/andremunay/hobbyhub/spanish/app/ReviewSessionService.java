@@ -0,0 +1,139 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.domain.FrontNormalizer;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardQueueRow;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardGradeDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardSessionDto;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Review sessions that lease due cards, so a deck studied on two devices at once never shows the
+ * same card on both.
+ *
+ * <p>Starting a session leases the next due cards to it; other sessions skip them until the lease
+ * runs out. Each grade submission applies the grades for cards the session holds, releases them,
+ * renews the lease on the cards still pending and leases the next batch, all in one transaction, so
+ * the client gets its next cards in the same round trip as its grades. Leases last {@code
+ * hobbyhub.flashcards.sessions.lease} (10 minutes by default) from the last submission, so an
+ * abandoned session gives its cards back on its own.
+ */
+@Service
+public class ReviewSessionService {
+
+  private final FlashcardService flashcardService;
+  private final FlashcardJdbcRepository jdbcRepository;
+  private final Duration lease;
+
+  public ReviewSessionService(
+      FlashcardService flashcardService,
+      FlashcardJdbcRepository jdbcRepository,
+      @Value("${hobbyhub.flashcards.sessions.lease:PT10M}") Duration lease) {
+    this.flashcardService = flashcardService;
+    this.jdbcRepository = jdbcRepository;
+    this.lease = lease;
+  }
+
+  /**
+   * Starts a session and leases its first cards.
+   *
+   * @param owner the deck to study
+   * @param size how many cards to lease, clamped to {@code 1..MAX_PAGE_SIZE}
+   * @return the new session with its leased cards, most overdue first
+   */
+  @Transactional
+  public FlashcardSessionDto start(String owner, int size) {
+    UUID sessionId = UUID.randomUUID();
+    Instant now = Instant.now();
+    Instant until = now.plus(lease);
+    return new FlashcardSessionDto(
+        sessionId, until, List.of(), leaseNext(owner, sessionId, now, until, size));
+  }
+
+  /**
+   * Applies grades for cards the session holds and leases the next cards in the same transaction.
+   *
+   * <p>Grades are applied in order, as by {@link FlashcardService#reviewBatch}. A grade for a card
+   * the session does not hold, because it was never leased to it or was claimed by another session
+   * after the lease expired, is not applied and is reported as {@link
+   * FlashcardReviewResultDto.Status#NOT_LEASED}.
+   *
+   * @param owner the deck the session studies
+   * @param sessionId the session returned by {@link #start}
+   * @param grades the grades to apply, in order
+   * @param size how many further cards to lease, clamped to {@code 1..MAX_PAGE_SIZE}
+   * @return one result per grade and the newly leased cards
+   */
+  @Transactional
+  public FlashcardSessionDto grade(
+      String owner, UUID sessionId, List<FlashcardGradeDto> grades, int size) {
+    // 1) lock every card this session holds, in id order, and find the graded ones among them
+    Set<String> keys =
+        grades.stream()
+            .map(g -> FrontNormalizer.normalize(g.getFront()))
+            .collect(Collectors.toSet());
+    Set<String> held = jdbcRepository.lockLeased(owner, sessionId, keys);
+
+    // 2) apply the grades for those cards, keeping submission order in the results
+    List<FlashcardGradeDto> accepted =
+        grades.stream()
+            .filter(g -> held.contains(FrontNormalizer.normalize(g.getFront())))
+            .toList();
+    Iterator<FlashcardReviewResultDto> applied =
+        accepted.isEmpty()
+            ? List.<FlashcardReviewResultDto>of().iterator()
+            : flashcardService.reviewBatch(owner, accepted).iterator();
+    List<FlashcardReviewResultDto> results = new ArrayList<>(grades.size());
+    for (FlashcardGradeDto grade : grades) {
+      results.add(
+          held.contains(FrontNormalizer.normalize(grade.getFront()))
+              ? applied.next()
+              : new FlashcardReviewResultDto(
+                  grade.getFront(), FlashcardReviewResultDto.Status.NOT_LEASED, null));
+    }
+
+    // 3) release what was graded, renew the rest and lease the next batch
+    if (!held.isEmpty()) {
+      jdbcRepository.releaseLeased(owner, sessionId, held);
+    }
+    Instant now = Instant.now();
+    Instant until = now.plus(lease);
+    jdbcRepository.extendLease(owner, sessionId, until);
+    return new FlashcardSessionDto(
+        sessionId, until, results, leaseNext(owner, sessionId, now, until, size));
+  }
+
+  /**
+   * Ends a session, handing the cards it still holds back to the deck.
+   *
+   * @param owner the deck the session studies
+   * @param sessionId the session to end
+   */
+  @Transactional
+  public void end(String owner, UUID sessionId) {
+    jdbcRepository.releaseSession(owner, sessionId);
+  }
+
+  private List<FlashcardReviewDto> leaseNext(
+      String owner, UUID sessionId, Instant now, Instant until, int size) {
+    int limit = Math.max(1, Math.min(size, FlashcardService.MAX_PAGE_SIZE));
+    List<FlashcardQueueRow> rows =
+        jdbcRepository.leaseDue(owner, LocalDate.now(), sessionId, now, until, limit);
+    return rows.stream()
+        .map(r -> new FlashcardReviewDto(r.getId(), r.getFront(), r.getBack(), r.getNextReviewOn()))
+        .toList();
+  }
+}
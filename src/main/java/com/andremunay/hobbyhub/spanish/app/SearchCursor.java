@@ -0,0 +1,63 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardSearchRow;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * Keyset position inside a ranked search result, handed to clients as an opaque continuation token.
+ *
+ * <p>The token encodes the sort key of the last hit returned (score, id). {@link Float#toString}
+ * round-trips exactly, so the next page seeks past precisely that hit.
+ */
+@Value
+public class SearchCursor {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  float score;
+  UUID id;
+
+  /**
+   * Builds the cursor pointing just past the given hit.
+   *
+   * @param row the last row of the current page
+   * @return cursor positioned at that row
+   */
+  public static SearchCursor after(FlashcardSearchRow row) {
+    return new SearchCursor(row.getScore(), row.getId());
+  }
+
+  /**
+   * Parses a token previously produced by {@link #encode()}.
+   *
+   * @param token the opaque continuation token
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static SearchCursor decode(String token) {
+    try {
+      String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split(":", 2);
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid cursor: \"" + token + "\"");
+      }
+      return new SearchCursor(Float.parseFloat(parts[0]), UUID.fromString(parts[1]));
+    } catch (RuntimeException ex) {
+      throw new IllegalArgumentException("Invalid cursor: \"" + token + "\"", ex);
+    }
+  }
+
+  /**
+   * Serializes this cursor into a URL-safe opaque token.
+   *
+   * @return the continuation token
+   */
+  public String encode() {
+    String raw = score + ":" + id;
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -2,6 +2,7 @@ package com.andremunay.hobbyhub.spanish.app;
 
 import com.andremunay.hobbyhub.spanish.domain.Flashcard;
 import java.time.LocalDate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 /**
@@ -14,6 +15,10 @@ import org.springframework.stereotype.Service;
  * <p>Reference: https://www.supermemo.com/en/archives1990-2015/english/ol/sm2
  */
 @Service
+@ConditionalOnProperty(
+    name = "hobbyhub.flashcards.scheduler",
+    havingValue = "sm2",
+    matchIfMissing = true)
 public class Sm2ReviewScheduler implements ReviewScheduler {
 
   /**
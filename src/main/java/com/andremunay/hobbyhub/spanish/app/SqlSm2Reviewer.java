@@ -0,0 +1,54 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardReviewRow;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies single reviews inside Postgres, as one {@code UPDATE ... RETURNING} per review.
+ *
+ * <p>The statement locks the card, computes the SM-2 transition from its current state and writes
+ * the result, so a review costs one round trip and two concurrent reviews of the same card are
+ * applied one after the other rather than one overwriting the other. The SQL reproduces the SM-2
+ * step, so the path is only used while the configured {@link ReviewScheduler} is one of the SM-2
+ * implementations; it can be turned off with {@code hobbyhub.flashcards.sql-review.enabled=false}.
+ */
+@Component
+public class SqlSm2Reviewer {
+
+  private final FlashcardJdbcRepository jdbcRepository;
+  private final boolean enabled;
+
+  public SqlSm2Reviewer(
+      FlashcardJdbcRepository jdbcRepository,
+      ReviewScheduler scheduler,
+      @Value("${hobbyhub.flashcards.sql-review.enabled:true}") boolean enabled) {
+    this.jdbcRepository = jdbcRepository;
+    this.enabled =
+        enabled
+            && (scheduler instanceof Sm2ReviewScheduler
+                || scheduler instanceof TableDrivenSm2Scheduler);
+  }
+
+  /** Whether reviews go through SQL; if not, callers should reschedule the entity in Java. */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Applies one review.
+   *
+   * @param owner the deck the card belongs to
+   * @param frontNormalized the key produced by {@code FrontNormalizer.normalize}
+   * @param grade the user's score (0–5) indicating recall quality
+   * @param today the date the review took place
+   * @return the card's new state and its previous review date, or empty if there is no such card
+   */
+  public Optional<FlashcardReviewRow> review(
+      String owner, String frontNormalized, int grade, LocalDate today) {
+    return jdbcRepository.reviewSm2(owner, frontNormalized, grade, today);
+  }
+}
@@ -0,0 +1,136 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import java.time.LocalDate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * SM-2 scheduler working on primitive state, with the per-grade easiness adjustments precomputed.
+ *
+ * <p>The easiness factor is carried in hundredths, exactly as the {@code numeric(3,2)} column
+ * stores it, so the polynomial {@code 0.1 - (5 - q) * (0.08 + (5 - q) * 0.02)} reduces to a
+ * six-entry integer table. {@link #schedule(int, int, int, int)} takes and returns plain primitives
+ * (the result is packed into a single {@code long}) and allocates nothing, which makes it suitable
+ * for bulk rescheduling and simulations.
+ *
+ * <p>For any persisted card state and grade it yields the same repetition, interval, next review
+ * date and stored easiness factor as {@link Sm2ReviewScheduler}. Enabled with {@code
+ * hobbyhub.flashcards.scheduler=sm2-table}.
+ */
+@Service
+@ConditionalOnProperty(name = "hobbyhub.flashcards.scheduler", havingValue = "sm2-table")
+public class TableDrivenSm2Scheduler implements ReviewScheduler {
+
+  /** Lowest easiness factor SM-2 allows, in hundredths. */
+  public static final int MIN_EF_HUNDREDTHS = 130;
+
+  /** Upper bound applied by {@link #canonicalInterval(int, int)} (100 years). */
+  public static final int MAX_INTERVAL_DAYS = 36_500;
+
+  // Easiness adjustment per grade 0..5, in hundredths
+  private static final int[] EF_DELTA_HUNDREDTHS = {-80, -54, -32, -14, 0, 10};
+
+  private static final int EF_SHIFT = 32;
+  private static final int REPETITION_SHIFT = 48;
+  private static final long INTERVAL_MASK = 0xFFFF_FFFFL;
+  private static final long FIELD_MASK = 0xFFFFL;
+
+  /**
+   * Applies one review to primitive SM-2 state.
+   *
+   * @param repetition consecutive successful reviews so far (0–65535)
+   * @param efHundredths current easiness factor in hundredths (e.g. 250 for 2.5)
+   * @param interval current interval in days
+   * @param grade review score, 0–5
+   * @return the new state, read back with {@link #repetition(long)}, {@link #efHundredths(long)}
+   *     and {@link #interval(long)}
+   * @throws IllegalArgumentException if {@code grade} is outside 0–5
+   */
+  public static long schedule(int repetition, int efHundredths, int interval, int grade) {
+    if (grade < 0 || grade > 5) {
+      throw new IllegalArgumentException("Grade must be between 0 and 5: " + grade);
+    }
+    int nextRepetition;
+    int nextInterval;
+    if (grade < 3) {
+      nextRepetition = 0;
+      nextInterval = 1;
+    } else {
+      nextRepetition = repetition + 1;
+      nextInterval =
+          switch (nextRepetition) {
+            case 1 -> 1;
+            case 2 -> 6;
+            // same double product as the reference implementation, so .5 ties round alike
+            default -> (int) Math.round(interval * (efHundredths / 100.0));
+          };
+    }
+    int nextEf = Math.max(MIN_EF_HUNDREDTHS, efHundredths + EF_DELTA_HUNDREDTHS[grade]);
+    return pack(nextRepetition, nextEf, nextInterval);
+  }
+
+  /**
+   * Interval SM-2 reaches after {@code repetition} consecutive successful reviews at a constant
+   * easiness factor: 1, 6, then the previous interval times EF. New and lapsed cards get 1 day.
+   *
+   * @param repetition consecutive successful reviews
+   * @param efHundredths easiness factor in hundredths
+   * @return the interval in days, capped at {@link #MAX_INTERVAL_DAYS}
+   */
+  public static int canonicalInterval(int repetition, int efHundredths) {
+    if (repetition <= 1) {
+      return 1;
+    }
+    double ef = efHundredths / 100.0;
+    int interval = 6;
+    for (int n = 3; n <= repetition && interval < MAX_INTERVAL_DAYS; n++) {
+      interval = (int) Math.min(MAX_INTERVAL_DAYS, Math.round(interval * ef));
+    }
+    return interval;
+  }
+
+  /** Repetition count of a state returned by {@link #schedule}. */
+  public static int repetition(long state) {
+    return (int) ((state >>> REPETITION_SHIFT) & FIELD_MASK);
+  }
+
+  /** Easiness factor, in hundredths, of a state returned by {@link #schedule}. */
+  public static int efHundredths(long state) {
+    return (int) ((state >>> EF_SHIFT) & FIELD_MASK);
+  }
+
+  /** Interval in days of a state returned by {@link #schedule}. */
+  public static int interval(long state) {
+    return (int) (state & INTERVAL_MASK);
+  }
+
+  /**
+   * Applies the table-driven SM-2 step to a flashcard.
+   *
+   * @param card the flashcard being reviewed
+   * @param grade the user's score (0–5) indicating recall quality
+   * @param today the date the review took place
+   * @return the same card with its scheduling fields updated
+   */
+  @Override
+  public Flashcard review(Flashcard card, int grade, LocalDate today) {
+    long state =
+        schedule(
+            card.getRepetition(),
+            (int) Math.round(card.getEasinessFactor() * 100),
+            card.getInterval(),
+            grade);
+    card.setRepetition(repetition(state));
+    card.setEasinessFactor(efHundredths(state) / 100.0);
+    card.setInterval(interval(state));
+    card.setNextReviewOn(today.plusDays(interval(state)));
+    return card;
+  }
+
+  private static long pack(int repetition, int efHundredths, int interval) {
+    return ((repetition & FIELD_MASK) << REPETITION_SHIFT)
+        | ((efHundredths & FIELD_MASK) << EF_SHIFT)
+        | (interval & INTERVAL_MASK);
+  }
+}
@@ -1,8 +1,12 @@
 package com.andremunay.hobbyhub.spanish.domain;
 
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import java.util.UUID;
@@ -15,21 +19,33 @@ import lombok.Setter;
 /**
  * JPA entity representing a flashcard used in spaced repetition learning.
  *
- * <p>Tracks both the content and scheduling metadata needed for the SM-2 review algorithm.
+ * <p>Tracks both the content and scheduling metadata needed for the SM-2 review algorithm. Every
+ * card belongs to one owner's deck; see {@link FlashcardId}.
  */
 @Entity
 @Table(name = "flashcards")
+@IdClass(FlashcardId.class)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 public class Flashcard {
 
+  /** GitHub login of the deck the card belongs to, or {@link CurrentUser#PUBLIC}. */
+  @Id
+  @Column(length = 64)
+  private String owner;
+
   @Id private UUID id;
 
   @Column(nullable = false)
   private String front;
 
+  /** Accent- and case-folded copy of {@code front}, backed by a unique index for lookups. */
+  @Setter(AccessLevel.NONE)
+  @Column(nullable = false, name = "front_normalized")
+  private String frontNormalized;
+
   @Column(nullable = false)
   private String back;
 
@@ -45,23 +61,54 @@ public class Flashcard {
   @Column(nullable = false, name = "next_review_on")
   private LocalDate nextReviewOn;
 
+  /**
+   * Constructs a new flashcard in the public deck with default review settings.
+   *
+   * @param id unique identifier for the flashcard
+   * @param front text prompt (e.g. question or word)
+   * @param back response (e.g. definition or answer)
+   */
+  public Flashcard(UUID id, String front, String back) {
+    this(id, CurrentUser.PUBLIC, front, back);
+  }
+
   /**
    * Constructs a new flashcard with default review settings.
    *
    * <p>Initializes: - repetition = 0 - easinessFactor = 2.5 (standard SM-2 starting value) -
    * interval = 1 day - nextReviewOn = today
    *
-   * @param id unique identifier for the flashcard
+   * @param id unique identifier for the flashcard within its owner's deck
+   * @param owner the deck the card belongs to
    * @param front text prompt (e.g. question or word)
    * @param back response (e.g. definition or answer)
    */
-  public Flashcard(UUID id, String front, String back) {
+  public Flashcard(UUID id, String owner, String front, String back) {
     this.id = id;
+    this.owner = owner;
     this.front = front;
+    this.frontNormalized = FrontNormalizer.normalize(front);
     this.back = back;
     this.repetition = 0;
     this.easinessFactor = 2.5;
     this.interval = 1;
     this.nextReviewOn = LocalDate.now();
   }
+
+  /**
+   * Replaces the prompt text and keeps the normalized lookup key in sync.
+   *
+   * @param front the new prompt text
+   */
+  public void setFront(String front) {
+    this.front = front;
+    this.frontNormalized = FrontNormalizer.normalize(front);
+  }
+
+  // Safety net for entities whose front was changed without going through setFront
+  @PrePersist
+  @PreUpdate
+  void normalizeFront() {
+    this.frontNormalized = FrontNormalizer.normalize(front);
+  }
 }
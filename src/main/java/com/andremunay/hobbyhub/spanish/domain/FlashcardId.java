@@ -0,0 +1,24 @@
+package com.andremunay.hobbyhub.spanish.domain;
+
+import java.io.Serializable;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Primary key of a {@link Flashcard}: its owner and its id.
+ *
+ * <p>The owner is part of the key because {@code flashcards} is hash-partitioned on it, and
+ * Postgres only accepts unique constraints that include the partition key. Carrying it in the key
+ * also means every update and delete Hibernate issues names the owner, so it touches one partition.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class FlashcardId implements Serializable {
+  private String owner;
+  private UUID id;
+}
@@ -0,0 +1,29 @@
+package com.andremunay.hobbyhub.spanish.domain;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical lookup key for flashcard fronts.
+ *
+ * <p>Folds accents ("está" → "esta"), lower-cases, trims and collapses inner whitespace, so fronts
+ * that differ only in those respects resolve to the same card. The Liquibase backfill in {@code
+ * V8__flashcard_front_normalized.yaml} mirrors these rules for Spanish/Latin-1 text.
+ */
+public final class FrontNormalizer {
+
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private FrontNormalizer() {}
+
+  public static String normalize(String raw) {
+    if (raw == null) {
+      return "";
+    }
+    String folded =
+        COMBINING_MARKS.matcher(Normalizer.normalize(raw, Normalizer.Form.NFD)).replaceAll("");
+    return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+  }
+}
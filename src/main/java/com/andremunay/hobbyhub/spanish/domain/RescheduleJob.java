@@ -0,0 +1,120 @@
+package com.andremunay.hobbyhub.spanish.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of one bulk rescheduling run over one owner's deck.
+ *
+ * <p>Cards are processed in id order; {@code lastCardId} is committed together with each chunk, so
+ * an interrupted run resumes right after the last chunk that was written.
+ */
+@Entity
+@Table(name = "flashcard_reschedule_jobs")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class RescheduleJob {
+
+  /** Lifecycle of a run; {@code RUNNING} jobs found after a restart can be resumed. */
+  public enum Status {
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  @Id private UUID id;
+
+  /** Deck the run reschedules; only its owner can see or resume the run. */
+  @Column(nullable = false, length = 64)
+  private String owner;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Status status;
+
+  /** Whether intervals are replaced by the SM-2 progression rather than kept as stored. */
+  @Column(name = "recompute_intervals", nullable = false)
+  private boolean recomputeIntervals;
+
+  @Column(name = "last_card_id")
+  private UUID lastCardId;
+
+  /** Cards read and recomputed so far. */
+  @Column(nullable = false)
+  private long processed;
+
+  /** Cards whose interval or next review date actually changed. */
+  @Column(nullable = false)
+  private long updated;
+
+  /** Deck size when the run started; only an estimate of the work left. */
+  @Column(nullable = false)
+  private long total;
+
+  @Column(name = "started_at", nullable = false)
+  private Instant startedAt;
+
+  @Column(name = "finished_at")
+  private Instant finishedAt;
+
+  @Column(length = 1000)
+  private String error;
+
+  /**
+   * Starts a new run.
+   *
+   * @param id unique identifier of the run
+   * @param owner the deck to reschedule
+   * @param recomputeIntervals whether to replace intervals by the SM-2 progression
+   * @param total number of cards in the deck
+   * @param startedAt when the run was requested
+   */
+  public RescheduleJob(
+      UUID id, String owner, boolean recomputeIntervals, long total, Instant startedAt) {
+    this.id = id;
+    this.owner = owner;
+    this.recomputeIntervals = recomputeIntervals;
+    this.status = Status.RUNNING;
+    this.total = total;
+    this.startedAt = startedAt;
+  }
+
+  /**
+   * Records a chunk that has been written.
+   *
+   * @param lastCardId highest card id of the chunk
+   * @param processed number of cards in the chunk
+   * @param updated number of cards the chunk changed
+   */
+  public void advance(UUID lastCardId, int processed, int updated) {
+    this.lastCardId = lastCardId;
+    this.processed += processed;
+    this.updated += updated;
+  }
+
+  /** Puts a failed or interrupted run back into the running state. */
+  public void resume() {
+    this.status = Status.RUNNING;
+    this.error = null;
+  }
+
+  public void complete(Instant at) {
+    this.status = Status.COMPLETED;
+    this.finishedAt = at;
+  }
+
+  public void fail(String error, Instant at) {
+    this.status = Status.FAILED;
+    this.error = error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+    this.finishedAt = at;
+  }
+}
@@ -0,0 +1,14 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import lombok.Value;
+
+/**
+ * The snapshot a deck published last.
+ *
+ * <p>{@code stale} is set once the deck's cards changed after that snapshot was taken.
+ */
+@Value
+public class DeckSnapshotHead {
+  String hash;
+  boolean stale;
+}
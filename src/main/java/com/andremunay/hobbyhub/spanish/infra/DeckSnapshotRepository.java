@@ -0,0 +1,118 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Storage of published deck snapshots, content-addressed by the SHA-256 of their body.
+ *
+ * <p>Snapshot rows are only ever inserted; publishing contents that were published before, by any
+ * deck, reuses the existing row. Each deck's head points at the snapshot it published last, and is
+ * marked stale when the deck's cards change afterwards.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeckSnapshotRepository {
+
+  private static final String INSERT_SNAPSHOT =
+      """
+      INSERT INTO flashcard_snapshots (hash, body, cards, created_at)
+      VALUES (?, ?, ?, ?)
+      ON CONFLICT (hash) DO NOTHING
+      """;
+
+  private static final String UPSERT_HEAD =
+      """
+      INSERT INTO flashcard_snapshot_heads (owner, hash, published_at)
+      VALUES (?, ?, ?)
+      ON CONFLICT (owner) DO UPDATE
+      SET hash = EXCLUDED.hash, published_at = EXCLUDED.published_at, stale = false
+      """;
+
+  private static final String SELECT_BODY = "SELECT body FROM flashcard_snapshots WHERE hash = ?";
+
+  private static final String SELECT_HEAD =
+      "SELECT hash, stale FROM flashcard_snapshot_heads WHERE owner = ?";
+
+  private static final String LOCK_HEAD =
+      "SELECT hash FROM flashcard_snapshot_heads WHERE owner = ? FOR UPDATE";
+
+  // Not filtered on NOT stale: a publisher holding the row lock may be about to clear the flag, so
+  // the update has to wait for it and set the flag again
+  private static final String MARK_STALE =
+      "UPDATE flashcard_snapshot_heads SET stale = true WHERE owner = ?";
+
+  private final JdbcTemplate jdbc;
+
+  /**
+   * Stores a snapshot unless one with the same hash exists.
+   *
+   * @param hash hex SHA-256 of {@code body}
+   * @param body the serialized snapshot
+   * @param cards number of cards in it
+   * @param now creation time recorded for a new row
+   * @return whether a new row was inserted
+   */
+  public boolean insert(String hash, byte[] body, int cards, Instant now) {
+    return jdbc.update(INSERT_SNAPSHOT, hash, body, cards, Timestamp.from(now)) > 0;
+  }
+
+  /**
+   * Points a deck's head at a snapshot.
+   *
+   * @param owner the deck that published it
+   * @param hash the snapshot, which must exist
+   * @param now publication time
+   */
+  public void moveHead(String owner, String hash, Instant now) {
+    jdbc.update(UPSERT_HEAD, owner, hash, Timestamp.from(now));
+  }
+
+  /**
+   * Reads a snapshot's body.
+   *
+   * @param hash hex SHA-256 of the body
+   * @return the serialized snapshot, if one with that hash was published
+   */
+  public Optional<byte[]> findBody(String hash) {
+    return jdbc.query(SELECT_BODY, (rs, n) -> rs.getBytes(1), hash).stream().findFirst();
+  }
+
+  /**
+   * Finds the snapshot a deck published last.
+   *
+   * @param owner the deck
+   * @return its hash and whether the deck changed since, if the deck ever published one
+   */
+  public Optional<DeckSnapshotHead> findHead(String owner) {
+    return jdbc
+        .query(
+            SELECT_HEAD, (rs, n) -> new DeckSnapshotHead(rs.getString(1), rs.getBoolean(2)), owner)
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Locks a deck's head for the rest of the transaction, so changes committing while the deck is
+   * read for publication wait to mark it stale until the new head is in place.
+   *
+   * @param owner the deck about to be published
+   */
+  public void lockHead(String owner) {
+    jdbc.query(LOCK_HEAD, (rs, n) -> rs.getString(1), owner);
+  }
+
+  /**
+   * Records that a deck's cards changed after its last snapshot; decks that never published one are
+   * left alone.
+   *
+   * @param owner the deck that changed
+   */
+  public void markStale(String owner) {
+    jdbc.update(MARK_STALE, owner);
+  }
+}
@@ -0,0 +1,34 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.RetentionAnalytics;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardRetentionWeekDto;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller exposing retention analytics computed from the deck's review history. */
+@RestController
+@RequestMapping("/flashcards/analytics")
+@RequiredArgsConstructor
+public class FlashcardAnalyticsController {
+
+  private final RetentionAnalytics analytics;
+
+  /**
+   * Reports true retention, grade distribution and interval growth per week.
+   *
+   * @param weeks number of weeks to cover, ending with the current one (UTC)
+   * @return one entry per week that had reviews, oldest first; HTTP 400 if {@code weeks} is out of
+   *     range
+   */
+  @GetMapping("/retention")
+  public List<FlashcardRetentionWeekDto> retention(@RequestParam(defaultValue = "12") int weeks) {
+    return analytics.weeks(CurrentUser.owner(), LocalDate.now(ZoneOffset.UTC), weeks);
+  }
+}
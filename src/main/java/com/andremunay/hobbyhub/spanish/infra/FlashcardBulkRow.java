@@ -0,0 +1,20 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * A row touched by a set-based write, as reported by its {@code RETURNING} clause.
+ *
+ * <p>{@code inserted} distinguishes fresh inserts from updated rows in an upsert; it is always
+ * {@code false} for deletions.
+ */
+@Value
+public class FlashcardBulkRow {
+  UUID id;
+  String frontNormalized;
+  LocalDate nextReviewOn;
+  double easinessFactor;
+  boolean inserted;
+}
@@ -1,16 +1,28 @@
 package com.andremunay.hobbyhub.spanish.infra;
 
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
 import com.andremunay.hobbyhub.spanish.app.FlashcardService;
+import com.andremunay.hobbyhub.spanish.app.ReviewGroupCommitter;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBackDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBatchReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBulkDeleteDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBulkResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBulkUpsertDto;
 import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardDto;
 import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardGradeDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardPageDto;
 import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardStatsDto;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,38 +33,112 @@ import org.springframework.web.bind.annotation.RestController;
  * REST controller for managing flashcards and their review lifecycle.
  *
  * <p>Exposes endpoints to create, review, retrieve, and delete flashcards, supporting spaced
- * repetition via the {@link FlashcardService}.
+ * repetition via the {@link FlashcardService}. Every endpoint acts on the deck of the signed-in
+ * user, or on the public deck for anonymous requests (see {@link CurrentUser}).
  */
 @RestController
 @RequestMapping("/flashcards")
 @RequiredArgsConstructor
 public class FlashcardController {
+  /** Response header carrying the continuation token for the next due-queue or search page. */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   private final FlashcardService flashcardService;
+  private final ReviewGroupCommitter reviewCommitter;
 
   /**
    * Retrieves all flashcards, regardless of review status.
    *
-   * @return HTTP 200 with a list of flashcard DTOs
+   * @param fields comma-separated properties to return, e.g. {@code id,front,nextReviewOn}; all of
+   *     them when absent
+   * @return HTTP 200 with a list of flashcard DTOs; HTTP 400 if {@code fields} is malformed
    */
   @GetMapping
-  public ResponseEntity<List<FlashcardReviewDto>> getAll() {
-    List<FlashcardReviewDto> dtos = List.copyOf(flashcardService.getAll());
+  public ResponseEntity<List<FlashcardReviewDto>> getAll(
+      @RequestParam(required = false) String fields) {
+    List<FlashcardReviewDto> dtos =
+        List.copyOf(flashcardService.getAll(CurrentUser.owner(), fields));
     return ResponseEntity.ok(dtos);
   }
 
+  /**
+   * Retrieves the back of one flashcard, for clients that list cards without it.
+   *
+   * @param id the card's id
+   * @return HTTP 200 with the card's back
+   */
+  @GetMapping("/{id}/back")
+  public ResponseEntity<FlashcardBackDto> getBack(@PathVariable UUID id) {
+    return ResponseEntity.ok(flashcardService.getBack(CurrentUser.owner(), id));
+  }
+
   /**
    * Retrieves either all or only due flashcards based on query param.
    *
+   * <p>Due cards are served as a bounded page in queue order (most overdue first, then lowest
+   * easiness factor). When more cards remain, the opaque token for the next page is returned in the
+   * {@value #NEXT_CURSOR_HEADER} response header and can be passed back as {@code cursor}.
+   *
    * @param due if true, only returns flashcards due for review as of today
+   * @param cursor continuation token from a previous page (only used when {@code due} is true)
+   * @param limit maximum number of due cards to return (only used when {@code due} is true)
+   * @param fields comma-separated properties to return; all of them when absent
    * @return HTTP 200 with a filtered list of flashcard DTOs
    */
   @GetMapping("/review")
-  public ResponseEntity<List<FlashcardReviewDto>> getDue(@RequestParam boolean due) {
-    List<FlashcardReviewDto> dtos =
-        due
-            ? List.copyOf(flashcardService.getDue(LocalDate.now()))
-            : List.copyOf(flashcardService.getAll());
-    return ResponseEntity.ok(dtos);
+  public ResponseEntity<List<FlashcardReviewDto>> getDue(
+      @RequestParam boolean due,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit,
+      @RequestParam(required = false) String fields) {
+    if (!due) {
+      return ResponseEntity.ok(List.copyOf(flashcardService.getAll(CurrentUser.owner(), fields)));
+    }
+
+    FlashcardPageDto page =
+        flashcardService.getDue(CurrentUser.owner(), LocalDate.now(), cursor, limit, fields);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getItems());
+  }
+
+  /**
+   * Searches flashcard fronts and backs by substring or fuzzy match, best matches first.
+   *
+   * <p>When more hits remain, the opaque token for the next page is returned in the {@value
+   * #NEXT_CURSOR_HEADER} response header and can be passed back as {@code cursor} with the same
+   * {@code q}.
+   *
+   * @param q the search text, at least three characters
+   * @param cursor continuation token from a previous page
+   * @param limit maximum number of hits to return
+   * @param fields comma-separated properties to return; all of them when absent
+   * @return HTTP 200 with the ranked hits; HTTP 400 if {@code q} is too short or too long
+   */
+  @GetMapping("/search")
+  public ResponseEntity<List<FlashcardReviewDto>> search(
+      @RequestParam String q,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(required = false) String fields) {
+    FlashcardPageDto page = flashcardService.search(CurrentUser.owner(), q, cursor, limit, fields);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getItems());
+  }
+
+  /**
+   * Reports how many cards are due today, within the next 7 days and within the next 30 days.
+   *
+   * @return HTTP 200 with the deck statistics as of today
+   */
+  @GetMapping("/stats")
+  public ResponseEntity<FlashcardStatsDto> getStats() {
+    return ResponseEntity.ok(flashcardService.getStats(CurrentUser.owner(), LocalDate.now()));
   }
 
   /**
@@ -63,22 +149,49 @@ public class FlashcardController {
    */
   @PostMapping
   public ResponseEntity<Void> create(@Valid @RequestBody FlashcardDto req) {
-    flashcardService.create(req.getFront(), req.getBack());
+    flashcardService.create(CurrentUser.owner(), req.getFront(), req.getBack());
     return ResponseEntity.ok().build();
   }
 
+  /**
+   * Creates or updates many flashcards at once, matched on front.
+   *
+   * @param req validated batch of cards; a repeated front keeps its last entry
+   * @return HTTP 200 with the inserted and updated counts
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<FlashcardBulkResultDto> upsertBatch(
+      @Valid @RequestBody FlashcardBulkUpsertDto req) {
+    return ResponseEntity.ok(flashcardService.upsertAll(CurrentUser.owner(), req.getCards()));
+  }
+
   /**
    * Submits a review result for a given flashcard and returns the updated scheduling info.
    *
+   * <p>Concurrent submissions are committed together by {@link ReviewGroupCommitter}.
+   *
    * @param req validated review score DTO
    * @return HTTP 200 with updated flashcard DTO
    */
   @PostMapping("/review")
   public ResponseEntity<FlashcardReviewDto> review(@Valid @RequestBody FlashcardGradeDto req) {
-    FlashcardReviewDto updated = flashcardService.review(req.getFront(), req.getGrade());
+    FlashcardReviewDto updated =
+        reviewCommitter.review(CurrentUser.owner(), req.getFront(), req.getGrade());
     return ResponseEntity.ok(updated);
   }
 
+  /**
+   * Submits many review results at once, e.g. grades queued by an offline client.
+   *
+   * @param req validated batch of review scores, applied in order
+   * @return HTTP 200 with one result per submitted entry
+   */
+  @PostMapping("/review/batch")
+  public ResponseEntity<List<FlashcardReviewResultDto>> reviewBatch(
+      @Valid @RequestBody FlashcardBatchReviewDto req) {
+    return ResponseEntity.ok(flashcardService.reviewBatch(CurrentUser.owner(), req.getReviews()));
+  }
+
   /**
    * Deletes a flashcard by ID.
    *
@@ -87,7 +200,19 @@ public class FlashcardController {
    */
   @DeleteMapping
   public ResponseEntity<Void> deleteCard(@RequestParam("front") String front) {
-    flashcardService.delete(front);
+    flashcardService.delete(CurrentUser.owner(), front);
     return ResponseEntity.noContent().build();
   }
+
+  /**
+   * Deletes many flashcards by front at once; unknown fronts are ignored.
+   *
+   * @param req validated list of fronts to delete
+   * @return HTTP 200 with the number of deleted cards
+   */
+  @PostMapping("/batch/delete")
+  public ResponseEntity<FlashcardBulkResultDto> deleteBatch(
+      @Valid @RequestBody FlashcardBulkDeleteDto req) {
+    return ResponseEntity.ok(flashcardService.deleteAll(CurrentUser.owner(), req.getFronts()));
+  }
 }
@@ -0,0 +1,14 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of one row of the per-day card count ({@code GROUP BY next_review_on}).
+ *
+ * <p>Lets the due histogram be rebuilt from one aggregate row per day instead of one row per card.
+ */
+public interface FlashcardDayCount {
+  LocalDate getNextReviewOn();
+
+  long getCards();
+}
@@ -0,0 +1,18 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only projection of the scheduling columns needed to place a card in the due queue.
+ *
+ * <p>Selecting only these columns keeps full-deck scans (index rebuilds, consistency checks) from
+ * hydrating front/back text or managed entities.
+ */
+public interface FlashcardDueSlot {
+  UUID getId();
+
+  LocalDate getNextReviewOn();
+
+  double getEasinessFactor();
+}
@@ -0,0 +1,34 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.DueStreamBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming due-card notifications as server-sent events.
+ *
+ * <p>Replaces polling {@code GET /flashcards/review?due=true}: clients hold one stream and refetch
+ * the due queue only when a {@code due} event reports a new count.
+ */
+@RestController
+@RequestMapping("/flashcards/due")
+@RequiredArgsConstructor
+public class FlashcardDueStreamController {
+
+  private final DueStreamBroadcaster broadcaster;
+
+  /**
+   * Opens a stream of {@code due} events, starting with the current count.
+   *
+   * @return the event stream; HTTP 503 if this node's connection limit is reached
+   */
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream() {
+    return broadcaster.subscribe(CurrentUser.owner());
+  }
+}
@@ -0,0 +1,97 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * The properties of a flashcard's review view that a client can ask for with {@code fields=}.
+ *
+ * <p>Each constant maps a JSON property of {@code FlashcardReviewDto} to its {@code flashcards}
+ * column, so read queries can select only what the client will see. Declaration order is the column
+ * order of every review-view query.
+ */
+public enum FlashcardField {
+  ID("id", "id", "uuid"),
+  FRONT("front", "front", "varchar"),
+  BACK("back", "back", "varchar"),
+  NEXT_REVIEW_ON("nextReviewOn", "next_review_on", "date");
+
+  /** Every field; what a request without {@code fields=} receives. */
+  public static final Set<FlashcardField> ALL =
+      Collections.unmodifiableSet(EnumSet.allOf(FlashcardField.class));
+
+  private final String property;
+  private final String column;
+  private final String sqlType;
+
+  FlashcardField(String property, String column, String sqlType) {
+    this.property = property;
+    this.column = column;
+    this.sqlType = sqlType;
+  }
+
+  /** Name of the JSON property, as accepted by {@code fields=}. */
+  public String property() {
+    return property;
+  }
+
+  /**
+   * Parses a comma-separated list of JSON property names, e.g. {@code id,front,nextReviewOn}.
+   *
+   * @param fields the list, or {@code null} / blank for every field
+   * @return the requested fields
+   * @throws IllegalArgumentException if a name is unknown or the list names no field
+   */
+  public static Set<FlashcardField> parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    Set<FlashcardField> parsed = EnumSet.noneOf(FlashcardField.class);
+    for (String name : fields.split(",")) {
+      String trimmed = name.strip();
+      if (!trimmed.isEmpty()) {
+        parsed.add(byProperty(trimmed));
+      }
+    }
+    if (parsed.isEmpty()) {
+      throw new IllegalArgumentException("fields must name at least one of " + names());
+    }
+    return parsed;
+  }
+
+  /**
+   * Builds the select list {@code id, front, back, next_review_on}, replacing each column that is
+   * not in {@code fields} by a typed {@code NULL}.
+   *
+   * <p>Keeping every position lets row mappers stay positional, while Postgres never reads, or
+   * de-TOASTs, the columns nobody asked for.
+   */
+  static String selectList(Set<FlashcardField> fields) {
+    StringJoiner columns = new StringJoiner(", ");
+    for (FlashcardField field : values()) {
+      columns.add(
+          fields.contains(field) ? field.column : "NULL::" + field.sqlType + " AS " + field.column);
+    }
+    return columns.toString();
+  }
+
+  private static FlashcardField byProperty(String property) {
+    for (FlashcardField field : values()) {
+      if (field.property.equals(property)) {
+        return field;
+      }
+    }
+    throw new IllegalArgumentException(
+        "Unknown field \"" + property + "\"; expected any of " + names());
+  }
+
+  private static String names() {
+    StringJoiner names = new StringJoiner(", ");
+    for (FlashcardField field : values()) {
+      names.add(field.property);
+    }
+    return names.toString();
+  }
+}
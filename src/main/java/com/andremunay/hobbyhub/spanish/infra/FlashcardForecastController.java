@@ -0,0 +1,36 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.ReviewForecaster;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardForecastDto;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller exposing the simulated review workload of the deck. */
+@RestController
+@RequestMapping("/flashcards/forecast")
+@RequiredArgsConstructor
+public class FlashcardForecastController {
+
+  private final ReviewForecaster forecaster;
+
+  /**
+   * Simulates the deck's reviews over the coming days.
+   *
+   * @param days number of days to simulate, starting today
+   * @param grades relative frequency of grades 0–5, e.g. {@code 1,1,3,15,50,30}
+   * @param seed seed of the grade draws; the same seed reproduces the same forecast
+   * @return reviews per day; HTTP 400 if the horizon or the grade weights are invalid
+   */
+  @GetMapping
+  public FlashcardForecastDto forecast(
+      @RequestParam(defaultValue = "365") int days,
+      @RequestParam(defaultValue = "1,1,3,15,50,30") int[] grades,
+      @RequestParam(defaultValue = "42") long seed) {
+    return forecaster.forecast(CurrentUser.owner(), LocalDate.now(), days, grades, seed);
+  }
+}
@@ -0,0 +1,904 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.domain.FrontNormalizer;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardTransferDto;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based flashcard reads and writes that bypass the persistence context.
+ *
+ * <p>Used by whole-deck operations where loading entities and flushing them one by one would
+ * dominate the run time: rescheduling reads id-keyset chunks and writes them back through a single
+ * {@code UPDATE ... FROM unnest(...)}, exports stream through a cursor, imports go through {@code
+ * COPY} into a staging table and bulk edits run as one array-bound statement each. The due-queue
+ * fallback reads here too, mapping its keyset pages straight into {@link FlashcardQueueRow}s, and
+ * so does trigram search, whose ranking expression JPQL cannot express. Review-view reads select
+ * only the {@link FlashcardField}s the client asked for, and a single review can be applied as one
+ * {@code UPDATE ... RETURNING}. Review sessions lease due cards here with {@code SKIP LOCKED}, and
+ * published snapshots read the deck's content in id order. Due-queue reads and leases only look at
+ * hot cards, those due within the window kept current by {@link #promoteHot}.
+ *
+ * <p>Every statement is scoped to one owner's deck with an equality on {@code owner}, the partition
+ * key of {@code flashcards}, so each one runs against a single partition.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FlashcardJdbcRepository {
+
+  private static final UUID MIN_UUID = new UUID(0, 0);
+
+  private static final String SELECT_CHUNK =
+      """
+      SELECT id, repetition, easiness_factor, interval_days, next_review_on
+      FROM flashcards
+      WHERE owner = ? AND id > ?
+      ORDER BY id
+      LIMIT ?
+      """;
+
+  // Only rows still holding the state the chunk was computed from are touched, so reviews that
+  // commit while a chunk is in flight are not overwritten
+  private static final String UPDATE_SCHEDULES =
+      """
+      UPDATE flashcards f
+      SET interval_days = u.interval_days, next_review_on = u.next_review_on
+      FROM unnest(?::uuid[], ?::int[], ?::date[], ?::int[], ?::date[])
+           AS u(id, interval_days, next_review_on, old_interval_days, old_next_review_on)
+      WHERE f.owner = ?
+        AND f.id = u.id
+        AND f.interval_days = u.old_interval_days
+        AND f.next_review_on = u.old_next_review_on
+      """;
+
+  // One SM-2 review in one statement. The CTE locks the card and reads the state the review starts
+  // from, so concurrent reviews of the same card queue up instead of overwriting each other; the
+  // transition mirrors Sm2ReviewScheduler step by step, in float8 like the Java doubles, and the
+  // assignment to numeric(3,2) rounds the easiness factor as binding the double does.
+  private static final String REVIEW_SM2 =
+      """
+      WITH args AS (SELECT ?::int AS grade, ?::date AS today),
+      prev AS (
+        SELECT id, repetition, easiness_factor::float8 AS ef, interval_days, next_review_on
+        FROM flashcards
+        WHERE owner = ? AND front_normalized = ?
+        FOR UPDATE
+      ),
+      step AS (
+        SELECT prev.id, prev.next_review_on AS previous_next_review_on, args.today,
+               CASE WHEN args.grade < 3 THEN 0 ELSE prev.repetition + 1 END AS repetition,
+               CASE WHEN args.grade < 3 OR prev.repetition = 0 THEN 1
+                    WHEN prev.repetition = 1 THEN 6
+                    ELSE floor(prev.interval_days * prev.ef + 0.5)::int
+               END AS interval_days,
+               greatest(1.3::float8,
+                        prev.ef + (0.1::float8 - (5 - args.grade)
+                                   * (0.08::float8 + (5 - args.grade) * 0.02::float8)))
+                 AS easiness_factor
+        FROM prev, args
+      )
+      UPDATE flashcards f
+      SET repetition = step.repetition, easiness_factor = step.easiness_factor,
+          interval_days = step.interval_days, next_review_on = step.today + step.interval_days
+      FROM step
+      WHERE f.owner = ? AND f.id = step.id
+      RETURNING f.id, f.front, f.back, f.repetition, f.easiness_factor, f.interval_days,
+                f.next_review_on, step.previous_next_review_on
+      """;
+
+  // Review-view reads take their select list from FlashcardField.selectList, so columns the client
+  // did not ask for are never read
+  private static final String SELECT_REVIEW =
+      """
+      SELECT %s
+      FROM flashcards
+      WHERE owner = ?
+      """;
+
+  private static final String SELECT_REVIEW_BY_IDS =
+      """
+      SELECT %s
+      FROM flashcards
+      WHERE owner = ? AND id = ANY(?::uuid[])
+      """;
+
+  // Content only, in a stable order, so an unchanged deck always serializes to the same bytes
+  private static final String SELECT_SNAPSHOT =
+      """
+      SELECT id, front, back, NULL::date AS next_review_on
+      FROM flashcards
+      WHERE owner = ?
+      ORDER BY id
+      """;
+
+  // Served by the idx_flashcards_due_hot partial index, which holds only the cards due within the
+  // hot window; the row-value comparison lets the index seek start right after the previous page
+  private static final String SELECT_DUE_QUEUE =
+      """
+      SELECT %s, easiness_factor
+      FROM flashcards
+      WHERE owner = ? AND hot AND next_review_on <= ?
+      ORDER BY next_review_on, easiness_factor, id
+      LIMIT ?
+      """;
+
+  private static final String SELECT_DUE_QUEUE_AFTER =
+      """
+      SELECT %s, easiness_factor
+      FROM flashcards
+      WHERE owner = ? AND hot AND next_review_on <= ?
+        AND (next_review_on, easiness_factor, id) > (?, ?, ?)
+      ORDER BY next_review_on, easiness_factor, id
+      LIMIT ?
+      """;
+
+  // Claims the next due cards no session holds, in due-queue order. SKIP LOCKED passes over rows
+  // another session is claiming at this moment instead of queueing behind it, and an expired lease
+  // counts as free.
+  private static final String LEASE_DUE =
+      """
+      WITH due AS (
+        SELECT id
+        FROM flashcards
+        WHERE owner = ? AND hot AND next_review_on <= ?
+          AND (leased_until IS NULL OR leased_until <= ?)
+        ORDER BY next_review_on, easiness_factor, id
+        LIMIT ?
+        FOR UPDATE SKIP LOCKED
+      ),
+      leased AS (
+        UPDATE flashcards f
+        SET lease_id = ?, leased_until = ?
+        FROM due
+        WHERE f.owner = ? AND f.id = due.id
+        RETURNING f.id, f.front, f.back, f.next_review_on, f.easiness_factor
+      )
+      SELECT * FROM leased ORDER BY next_review_on, easiness_factor, id
+      """;
+
+  // A lease that ran out still belongs to its session until another session claims the card
+  // Locks every card of the session, not just the graded ones: the lease is then extended over all
+  // of them, and two submissions of one session must take those locks in the same order
+  private static final String LOCK_LEASED =
+      """
+      SELECT front_normalized
+      FROM flashcards
+      WHERE owner = ? AND lease_id = ?
+      ORDER BY id
+      FOR UPDATE
+      """;
+
+  // Moves the cards that entered the hot window since the last run; the trigger on flashcards only
+  // files rows when they are written
+  private static final String PROMOTE_HOT =
+      """
+      UPDATE flashcards
+      SET hot = true
+      WHERE NOT hot AND next_review_on < current_date + flashcard_hot_days()
+      """;
+
+  private static final String EXTEND_LEASE =
+      "UPDATE flashcards SET leased_until = ? WHERE owner = ? AND lease_id = ?";
+
+  private static final String RELEASE_LEASED =
+      """
+      UPDATE flashcards
+      SET lease_id = NULL, leased_until = NULL
+      WHERE owner = ? AND lease_id = ? AND front_normalized = ANY(?::varchar[])
+      """;
+
+  private static final String RELEASE_SESSION =
+      """
+      UPDATE flashcards
+      SET lease_id = NULL, leased_until = NULL
+      WHERE owner = ? AND lease_id = ?
+      """;
+
+  // Substring hits rank above fuzzy ones, then by how closely the query matches a word of either
+  // side. Every text predicate is served by the trigram GIN indexes on front and back; <% applies
+  // pg_trgm.word_similarity_threshold, and is written <%% because the select list is filled in with
+  // String.formatted. That list only decides what is returned: the ranking and filter always read
+  // the real front and back columns. int + real resolves to double precision, so the score is cast
+  // back to real: the type the row mapper reads and the cursor is compared as, so ties match
+  // exactly.
+  private static final String SEARCH_HITS =
+      """
+      SELECT %s,
+             (CASE WHEN front ILIKE ? OR back ILIKE ? THEN 1 ELSE 0 END
+               + greatest(word_similarity(?, front), word_similarity(?, back)))::real AS score
+      FROM flashcards
+      WHERE owner = ? AND (front ILIKE ? OR back ILIKE ? OR ? <%% front OR ? <%% back)
+      """;
+
+  private static final String SEARCH =
+      "SELECT * FROM (" + SEARCH_HITS + ") hits ORDER BY score DESC, id LIMIT ?";
+
+  private static final String SEARCH_AFTER =
+      "SELECT * FROM ("
+          + SEARCH_HITS
+          + ") hits WHERE score < ?::real OR (score = ?::real AND id > ?)"
+          + " ORDER BY score DESC, id LIMIT ?";
+
+  private static final int EXPORT_FETCH_SIZE = 1_000;
+  private static final int COPY_BUFFER_BYTES = 1 << 16;
+
+  private static final String SELECT_EXPORT =
+      """
+      SELECT id, front, back, repetition, easiness_factor, interval_days, next_review_on
+      FROM flashcards
+      WHERE owner = ?
+      ORDER BY id
+      """;
+
+  // Session-local and dropped at commit, so concurrent imports never see each other's rows
+  private static final String CREATE_STAGING =
+      """
+      CREATE TEMP TABLE flashcard_import_staging (
+        ord bigint, id uuid, front varchar(255), front_normalized varchar(255), back varchar(255),
+        repetition int, easiness_factor numeric(3,2), interval_days int, next_review_on date
+      ) ON COMMIT DROP
+      """;
+
+  private static final String COPY_STAGING =
+      "COPY flashcard_import_staging (ord, id, front, front_normalized, back, repetition,"
+          + " easiness_factor, interval_days, next_review_on) FROM STDIN (FORMAT csv)";
+
+  // First occurrence of a front within the file wins; fronts or ids already in the deck are skipped
+  private static final String MERGE_STAGING =
+      """
+      INSERT INTO flashcards (owner, id, front, front_normalized, back, repetition,
+                              easiness_factor, interval_days, next_review_on)
+      SELECT DISTINCT ON (front_normalized)
+             ?::varchar, id, front, front_normalized, back, repetition, easiness_factor,
+             interval_days, next_review_on
+      FROM flashcard_import_staging
+      ORDER BY front_normalized, ord
+      ON CONFLICT DO NOTHING
+      """;
+
+  // Existing fronts keep their schedule; rows whose text is already identical are left untouched
+  // and so are not returned. xmax is 0 only for tuples this statement inserted.
+  private static final String UPSERT =
+      """
+      INSERT INTO flashcards (owner, id, front, front_normalized, back, repetition,
+                              easiness_factor, interval_days, next_review_on)
+      SELECT ?::varchar, u.*
+      FROM unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::varchar[], ?::int[], ?::numeric[],
+                  ?::int[], ?::date[]) AS u
+      ON CONFLICT (owner, front_normalized) DO UPDATE
+      SET front = EXCLUDED.front, back = EXCLUDED.back
+      WHERE (flashcards.front, flashcards.back) IS DISTINCT FROM (EXCLUDED.front, EXCLUDED.back)
+      RETURNING id, front_normalized, next_review_on, easiness_factor, (xmax = 0) AS inserted
+      """;
+
+  private static final String DELETE_BY_FRONT =
+      """
+      DELETE FROM flashcards
+      WHERE owner = ? AND front_normalized = ANY(?::varchar[])
+      RETURNING id, front_normalized, next_review_on, easiness_factor, false AS inserted
+      """;
+
+  private static final RowMapper<FlashcardBulkRow> BULK_ROW =
+      (rs, n) ->
+          new FlashcardBulkRow(
+              rs.getObject(1, UUID.class),
+              rs.getString(2),
+              rs.getObject(3, LocalDate.class),
+              rs.getDouble(4),
+              rs.getBoolean(5));
+
+  private static final RowMapper<FlashcardReviewRow> REVIEWED_ROW =
+      (rs, n) ->
+          new FlashcardReviewRow(
+              rs.getObject(1, UUID.class),
+              rs.getString(2),
+              rs.getString(3),
+              rs.getInt(4),
+              rs.getDouble(5),
+              rs.getInt(6),
+              rs.getObject(7, LocalDate.class),
+              rs.getObject(8, LocalDate.class));
+
+  private static final RowMapper<FlashcardReviewDto> REVIEW_ROW =
+      (rs, n) ->
+          new FlashcardReviewDto(
+              rs.getObject(1, UUID.class),
+              rs.getString(2),
+              rs.getString(3),
+              rs.getObject(4, LocalDate.class));
+
+  private static final RowMapper<FlashcardQueueRow> QUEUE_ROW =
+      (rs, n) ->
+          new FlashcardQueueRow(
+              rs.getObject(1, UUID.class),
+              rs.getString(2),
+              rs.getString(3),
+              rs.getObject(4, LocalDate.class),
+              rs.getBigDecimal(5));
+
+  private static final RowMapper<FlashcardSearchRow> SEARCH_ROW =
+      (rs, n) ->
+          new FlashcardSearchRow(
+              rs.getObject(1, UUID.class),
+              rs.getString(2),
+              rs.getString(3),
+              rs.getObject(4, LocalDate.class),
+              rs.getFloat(5));
+
+  private final JdbcTemplate jdbc;
+
+  /**
+   * Applies one SM-2 review to a card in a single round trip, without reading it first.
+   *
+   * <p>Yields the same repetition, interval, easiness factor and next review date as {@code
+   * Sm2ReviewScheduler} applied to the stored state. The row stays locked until the surrounding
+   * transaction ends.
+   *
+   * @param owner the deck the card belongs to
+   * @param frontNormalized the key produced by {@code FrontNormalizer.normalize}
+   * @param grade the review score, 0–5
+   * @param today the date the review took place
+   * @return the card's new state, or empty if the deck has no such card
+   */
+  public Optional<FlashcardReviewRow> reviewSm2(
+      String owner, String frontNormalized, int grade, LocalDate today) {
+    return jdbc
+        .query(REVIEW_SM2, REVIEWED_ROW, grade, today, owner, frontNormalized, owner)
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Selects the review view of every card in a deck.
+   *
+   * @param owner the deck to read
+   * @param fields the fields to read; the others are {@code null} in every DTO
+   * @return one DTO per card, in no particular order
+   */
+  public List<FlashcardReviewDto> findReviewDtos(String owner, Set<FlashcardField> fields) {
+    return jdbc.query(
+        SELECT_REVIEW.formatted(FlashcardField.selectList(fields)), REVIEW_ROW, owner);
+  }
+
+  /**
+   * Selects the review view of the given cards by primary key.
+   *
+   * @param owner the deck the cards belong to
+   * @param ids card ids to load
+   * @param fields the fields to read; the others are {@code null} in every DTO
+   * @return the DTOs of the cards that exist, in no particular order
+   */
+  public List<FlashcardReviewDto> findReviewDtosByIds(
+      String owner, Collection<UUID> ids, Set<FlashcardField> fields) {
+    String sql = SELECT_REVIEW_BY_IDS.formatted(FlashcardField.selectList(fields));
+    UUID[] keys = ids.toArray(UUID[]::new);
+    return jdbc.query(
+        con -> {
+          PreparedStatement ps = con.prepareStatement(sql);
+          ps.setString(1, owner);
+          ps.setArray(2, array(con, "uuid", keys));
+          return ps;
+        },
+        REVIEW_ROW);
+  }
+
+  /**
+   * Selects the content of every card of a deck, without its schedule, for a published snapshot.
+   *
+   * @param owner the deck to read
+   * @return id, front and back of every card, in id order
+   */
+  public List<FlashcardReviewDto> findSnapshotCards(String owner) {
+    return jdbc.query(SELECT_SNAPSHOT, REVIEW_ROW, owner);
+  }
+
+  /**
+   * Marks every card that has come within the hot window as hot, using the cold index.
+   *
+   * <p>Rows are filed into their tier by a trigger whenever they are written; this catches up with
+   * the cards the calendar has carried into the window since. Due-queue reads only look at hot
+   * cards, so it has to run at least once per window (two weeks).
+   *
+   * @return number of cards promoted
+   */
+  public int promoteHot() {
+    return jdbc.update(PROMOTE_HOT);
+  }
+
+  /**
+   * Fetches the first page of the due queue: most overdue cards first, then the lowest easiness
+   * factor, with the id as a tie-breaker.
+   *
+   * @param owner the deck to read
+   * @param today the latest review date to include (inclusive), no later than the hot window
+   * @param limit maximum number of rows to return
+   * @param fields the text fields to read; id, next review date and easiness factor, which make up
+   *     the queue position, are always read
+   * @return at most {@code limit} due rows in queue order
+   */
+  public List<FlashcardQueueRow> findDueQueue(
+      String owner, LocalDate today, int limit, Set<FlashcardField> fields) {
+    return jdbc.query(queueSql(SELECT_DUE_QUEUE, fields), QUEUE_ROW, owner, today, limit);
+  }
+
+  /**
+   * Fetches the due-queue page that follows the given keyset position, keeping every page O(limit)
+   * no matter how deep the client has paged.
+   *
+   * @param owner the deck to read
+   * @param today the latest review date to include (inclusive)
+   * @param afterDate next review date of the last row already returned
+   * @param afterEf easiness factor of the last row already returned
+   * @param afterId id of the last row already returned
+   * @param limit maximum number of rows to return
+   * @param fields the text fields to read, as for {@link #findDueQueue}
+   * @return at most {@code limit} due rows strictly after the given position
+   */
+  public List<FlashcardQueueRow> findDueQueueAfter(
+      String owner,
+      LocalDate today,
+      LocalDate afterDate,
+      BigDecimal afterEf,
+      UUID afterId,
+      int limit,
+      Set<FlashcardField> fields) {
+    return jdbc.query(
+        queueSql(SELECT_DUE_QUEUE_AFTER, fields),
+        QUEUE_ROW,
+        owner,
+        today,
+        afterDate,
+        afterEf,
+        afterId,
+        limit);
+  }
+
+  /**
+   * Leases the next due cards of a deck to a review session, skipping cards leased to another
+   * session until their lease expires.
+   *
+   * <p>Cards are taken in due-queue order. Rows another transaction is leasing concurrently are
+   * skipped rather than waited for, so two sessions started at the same moment get disjoint cards.
+   *
+   * @param owner the deck to lease from
+   * @param today the latest review date to include (inclusive)
+   * @param leaseId the session taking the lease
+   * @param now the current time; leases ending at or before it are free
+   * @param until when the new leases expire
+   * @param limit maximum number of cards to lease
+   * @return the leased cards in due-queue order
+   */
+  public List<FlashcardQueueRow> leaseDue(
+      String owner, LocalDate today, UUID leaseId, Instant now, Instant until, int limit) {
+    return jdbc.query(
+        LEASE_DUE,
+        QUEUE_ROW,
+        owner,
+        today,
+        Timestamp.from(now),
+        limit,
+        leaseId,
+        Timestamp.from(until),
+        owner);
+  }
+
+  /**
+   * Locks every card leased to a session, in id order, and reports which of the given cards it
+   * holds.
+   *
+   * <p>All of the session's rows are locked, so concurrent submissions to one session, such as a
+   * client retry, queue behind each other instead of deadlocking on the lease extension.
+   *
+   * @param owner the deck the cards belong to
+   * @param leaseId the session
+   * @param frontsNormalized keys produced by {@code FrontNormalizer.normalize}
+   * @return those of the given keys whose cards the session holds
+   */
+  public Set<String> lockLeased(String owner, UUID leaseId, Collection<String> frontsNormalized) {
+    Set<String> wanted = Set.copyOf(frontsNormalized);
+    List<String> leased = jdbc.query(LOCK_LEASED, (rs, n) -> rs.getString(1), owner, leaseId);
+    return leased.stream().filter(wanted::contains).collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * Moves the expiry of every card a session holds.
+   *
+   * @param owner the deck the session studies
+   * @param leaseId the session
+   * @param until the new expiry
+   * @return number of cards whose lease was extended
+   */
+  public int extendLease(String owner, UUID leaseId, Instant until) {
+    return jdbc.update(EXTEND_LEASE, Timestamp.from(until), owner, leaseId);
+  }
+
+  /**
+   * Gives up a session's lease on the given cards.
+   *
+   * @param owner the deck the cards belong to
+   * @param leaseId the session
+   * @param frontsNormalized keys produced by {@code FrontNormalizer.normalize}
+   * @return number of cards released
+   */
+  public int releaseLeased(String owner, UUID leaseId, Collection<String> frontsNormalized) {
+    String[] keys = frontsNormalized.toArray(String[]::new);
+    return jdbc.update(
+        con -> {
+          PreparedStatement ps = con.prepareStatement(RELEASE_LEASED);
+          ps.setString(1, owner);
+          ps.setObject(2, leaseId);
+          ps.setArray(3, array(con, "varchar", keys));
+          return ps;
+        });
+  }
+
+  /**
+   * Gives up every lease a session holds.
+   *
+   * @param owner the deck the session studies
+   * @param leaseId the session
+   * @return number of cards released
+   */
+  public int releaseSession(String owner, UUID leaseId) {
+    return jdbc.update(RELEASE_SESSION, owner, leaseId);
+  }
+
+  /**
+   * Fetches the first page of cards whose front or back contains {@code query} or fuzzily matches
+   * it, best matches first.
+   *
+   * @param owner the deck to search
+   * @param query the search text
+   * @param limit maximum number of rows to return
+   * @param fields the fields to return; the id, part of the rank order, is always returned
+   * @return at most {@code limit} hits in rank order, ties broken by id
+   */
+  public List<FlashcardSearchRow> search(
+      String owner, String query, int limit, Set<FlashcardField> fields) {
+    return jdbc.query(searchSql(SEARCH, fields), SEARCH_ROW, searchArgs(owner, query, limit));
+  }
+
+  /**
+   * Fetches the search page that follows the given keyset position.
+   *
+   * @param owner the deck to search
+   * @param query the search text of the previous page
+   * @param afterScore score of the last row already returned
+   * @param afterId id of the last row already returned
+   * @param limit maximum number of rows to return
+   * @param fields the fields to return, as for {@link #search}
+   * @return at most {@code limit} hits strictly after the given position
+   */
+  public List<FlashcardSearchRow> searchAfter(
+      String owner,
+      String query,
+      float afterScore,
+      UUID afterId,
+      int limit,
+      Set<FlashcardField> fields) {
+    return jdbc.query(
+        searchSql(SEARCH_AFTER, fields),
+        SEARCH_ROW,
+        searchArgs(owner, query, afterScore, afterScore, afterId, limit));
+  }
+
+  /**
+   * Reads the scheduling state of the cards following {@code afterId} in id order, served by the
+   * primary key.
+   *
+   * @param owner the deck to read
+   * @param afterId id of the last card already processed, or {@code null} to start from the first
+   * @param limit maximum number of cards to read
+   * @return the chunk, empty once the deck is exhausted
+   */
+  public FlashcardScheduleChunk readScheduleChunk(String owner, UUID afterId, int limit) {
+    FlashcardScheduleChunk chunk = new FlashcardScheduleChunk(limit);
+    jdbc.query(
+        SELECT_CHUNK,
+        rs -> {
+          chunk.add(
+              rs.getObject(1, UUID.class),
+              rs.getInt(2),
+              rs.getBigDecimal(3).movePointRight(2).intValue(),
+              rs.getInt(4),
+              rs.getObject(5, LocalDate.class).toEpochDay());
+        },
+        owner,
+        afterId == null ? MIN_UUID : afterId,
+        limit);
+    return chunk;
+  }
+
+  /**
+   * Writes back every changed slot of the chunk in a single statement.
+   *
+   * @param owner the deck the chunk was read from
+   * @param chunk a chunk returned by {@link #readScheduleChunk} and since rescheduled
+   * @return number of rows updated
+   */
+  public int writeSchedules(String owner, FlashcardScheduleChunk chunk) {
+    int changed = 0;
+    for (int i = 0; i < chunk.size(); i++) {
+      if (chunk.isChanged(i)) {
+        changed++;
+      }
+    }
+    if (changed == 0) {
+      return 0;
+    }
+
+    UUID[] ids = new UUID[changed];
+    Integer[] intervals = new Integer[changed];
+    Date[] nextReviews = new Date[changed];
+    Integer[] oldIntervals = new Integer[changed];
+    Date[] oldNextReviews = new Date[changed];
+    for (int i = 0, j = 0; i < chunk.size(); i++) {
+      if (chunk.isChanged(i)) {
+        ids[j] = chunk.id(i);
+        intervals[j] = chunk.newInterval(i);
+        nextReviews[j] = Date.valueOf(LocalDate.ofEpochDay(chunk.newNextReviewDay(i)));
+        oldIntervals[j] = chunk.interval(i);
+        oldNextReviews[j] = Date.valueOf(LocalDate.ofEpochDay(chunk.nextReviewDay(i)));
+        j++;
+      }
+    }
+
+    return jdbc.update(
+        con -> {
+          PreparedStatement ps = con.prepareStatement(UPDATE_SCHEDULES);
+          ps.setArray(1, array(con, "uuid", ids));
+          ps.setArray(2, array(con, "int4", intervals));
+          ps.setArray(3, array(con, "date", nextReviews));
+          ps.setArray(4, array(con, "int4", oldIntervals));
+          ps.setArray(5, array(con, "date", oldNextReviews));
+          ps.setString(6, owner);
+          return ps;
+        });
+  }
+
+  /**
+   * Streams every card of a deck, in id order, to the given sink.
+   *
+   * <p>Must run inside a transaction: only then does the driver fetch through a server-side cursor
+   * of {@value #EXPORT_FETCH_SIZE} rows instead of materializing the whole table.
+   *
+   * @param owner the deck to export
+   * @param sink receives one DTO per card
+   */
+  public void exportAll(String owner, Consumer<FlashcardTransferDto> sink) {
+    jdbc.query(
+        con -> {
+          PreparedStatement ps = con.prepareStatement(SELECT_EXPORT);
+          ps.setString(1, owner);
+          ps.setFetchSize(EXPORT_FETCH_SIZE);
+          return ps;
+        },
+        (RowCallbackHandler)
+            rs ->
+                sink.accept(
+                    new FlashcardTransferDto(
+                        rs.getObject(1, UUID.class),
+                        rs.getString(2),
+                        rs.getString(3),
+                        rs.getInt(4),
+                        rs.getBigDecimal(5),
+                        rs.getInt(6),
+                        rs.getObject(7, LocalDate.class))));
+  }
+
+  /** Creates the transaction-scoped staging table that {@link #copyIntoStaging} fills. */
+  public void createImportStaging() {
+    jdbc.execute(CREATE_STAGING);
+  }
+
+  /**
+   * Streams cards into the staging table through the driver's {@code COPY FROM STDIN}, so rows are
+   * sent in large buffers instead of one statement each.
+   *
+   * <p>The iterator is consumed lazily; an exception it throws aborts the copy and propagates.
+   *
+   * @param rows fully populated cards, in file order
+   * @return number of rows copied
+   */
+  public long copyIntoStaging(Iterator<FlashcardTransferDto> rows) {
+    Long copied =
+        jdbc.execute(
+            (ConnectionCallback<Long>)
+                con -> {
+                  PGCopyOutputStream copy =
+                      new PGCopyOutputStream(
+                          con.unwrap(PGConnection.class), COPY_STAGING, COPY_BUFFER_BYTES);
+                  try {
+                    Writer out = new OutputStreamWriter(copy, StandardCharsets.UTF_8);
+                    long ord = 0;
+                    while (rows.hasNext()) {
+                      writeCsvRow(out, ++ord, rows.next());
+                    }
+                    out.flush();
+                    return copy.endCopy();
+                  } catch (IOException ex) {
+                    throw new SQLException("COPY into import staging failed", ex);
+                  } finally {
+                    if (copy.isActive()) {
+                      copy.cancelCopy();
+                    }
+                  }
+                });
+    return copied == null ? 0 : copied;
+  }
+
+  /**
+   * Moves staged cards into a deck, skipping fronts and ids it already holds.
+   *
+   * @param owner the deck to import into
+   * @return number of cards inserted
+   */
+  public int mergeStaging(String owner) {
+    return jdbc.update(MERGE_STAGING, owner);
+  }
+
+  /**
+   * Inserts new cards and rewrites the text of existing ones, matched on normalized front, in a
+   * single {@code INSERT ... ON CONFLICT} statement.
+   *
+   * <p>Existing cards keep their id and schedule. The normalized fronts must be distinct: Postgres
+   * refuses to update the same row twice in one statement.
+   *
+   * @param owner the deck to write to
+   * @param cards new card states, one per normalized front
+   * @return the inserted and the actually changed rows; unchanged cards are not reported
+   */
+  public List<FlashcardBulkRow> upsertAll(String owner, List<Flashcard> cards) {
+    int n = cards.size();
+    UUID[] ids = new UUID[n];
+    String[] fronts = new String[n];
+    String[] keys = new String[n];
+    String[] backs = new String[n];
+    Integer[] repetitions = new Integer[n];
+    BigDecimal[] easiness = new BigDecimal[n];
+    Integer[] intervals = new Integer[n];
+    Date[] nextReviews = new Date[n];
+    for (int i = 0; i < n; i++) {
+      Flashcard card = cards.get(i);
+      ids[i] = card.getId();
+      fronts[i] = card.getFront();
+      keys[i] = card.getFrontNormalized();
+      backs[i] = card.getBack();
+      repetitions[i] = card.getRepetition();
+      easiness[i] = BigDecimal.valueOf(card.getEasinessFactor()).setScale(2, RoundingMode.HALF_UP);
+      intervals[i] = card.getInterval();
+      nextReviews[i] = Date.valueOf(card.getNextReviewOn());
+    }
+    return jdbc.query(
+        con -> {
+          PreparedStatement ps = con.prepareStatement(UPSERT);
+          ps.setString(1, owner);
+          ps.setArray(2, array(con, "uuid", ids));
+          ps.setArray(3, array(con, "varchar", fronts));
+          ps.setArray(4, array(con, "varchar", keys));
+          ps.setArray(5, array(con, "varchar", backs));
+          ps.setArray(6, array(con, "int4", repetitions));
+          ps.setArray(7, array(con, "numeric", easiness));
+          ps.setArray(8, array(con, "int4", intervals));
+          ps.setArray(9, array(con, "date", nextReviews));
+          return ps;
+        },
+        BULK_ROW);
+  }
+
+  /**
+   * Deletes every card of a deck whose normalized front is in the given set, in a single statement.
+   *
+   * @param owner the deck to delete from
+   * @param frontsNormalized keys produced by {@code FrontNormalizer.normalize}
+   * @return the deleted rows
+   */
+  public List<FlashcardBulkRow> deleteByFrontNormalized(
+      String owner, Collection<String> frontsNormalized) {
+    String[] keys = frontsNormalized.toArray(String[]::new);
+    return jdbc.query(
+        con -> {
+          PreparedStatement ps = con.prepareStatement(DELETE_BY_FRONT);
+          ps.setString(1, owner);
+          ps.setArray(2, array(con, "varchar", keys));
+          return ps;
+        },
+        BULK_ROW);
+  }
+
+  private static String queueSql(String template, Set<FlashcardField> fields) {
+    return template.formatted(
+        FlashcardField.selectList(with(fields, FlashcardField.ID, FlashcardField.NEXT_REVIEW_ON)));
+  }
+
+  private static String searchSql(String template, Set<FlashcardField> fields) {
+    return template.formatted(FlashcardField.selectList(with(fields, FlashcardField.ID)));
+  }
+
+  private static Set<FlashcardField> with(
+      Set<FlashcardField> fields, FlashcardField first, FlashcardField... rest) {
+    Set<FlashcardField> union = EnumSet.of(first, rest);
+    union.addAll(fields);
+    return union;
+  }
+
+  // Binds the owner and query to every placeholder of SEARCH_HITS, followed by the page-specific
+  // arguments
+  private static Object[] searchArgs(String owner, String query, Object... tail) {
+    String pattern = "%" + escapeLike(query) + "%";
+    Object[] head = {pattern, pattern, query, query, owner, pattern, pattern, query, query};
+    Object[] args = new Object[head.length + tail.length];
+    System.arraycopy(head, 0, args, 0, head.length);
+    System.arraycopy(tail, 0, args, head.length, tail.length);
+    return args;
+  }
+
+  // LIKE treats % and _ as wildcards and backslash as its default escape character
+  private static String escapeLike(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  private static void writeCsvRow(Writer out, long ord, FlashcardTransferDto card)
+      throws IOException {
+    out.write(Long.toString(ord));
+    out.write(',');
+    out.write(card.getId().toString());
+    out.write(',');
+    writeCsvText(out, card.getFront());
+    out.write(',');
+    writeCsvText(out, FrontNormalizer.normalize(card.getFront()));
+    out.write(',');
+    writeCsvText(out, card.getBack());
+    out.write(',');
+    out.write(Integer.toString(card.getRepetition()));
+    out.write(',');
+    out.write(card.getEasinessFactor().toPlainString());
+    out.write(',');
+    out.write(Integer.toString(card.getInterval()));
+    out.write(',');
+    out.write(card.getNextReviewOn().toString());
+    out.write('\n');
+  }
+
+  // Quoted CSV field: embedded quotes are doubled, everything else (commas, newlines) is literal
+  private static void writeCsvText(Writer out, String value) throws IOException {
+    out.write('"');
+    out.write(value.replace("\"", "\"\""));
+    out.write('"');
+  }
+
+  private static Array array(Connection con, String type, Object[] values) throws SQLException {
+    return con.createArrayOf(type, values);
+  }
+}
@@ -0,0 +1,49 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Aggregates over the cards of every deck, for instance-wide metrics.
+ *
+ * <p>Unlike {@link FlashcardRepository} and {@link FlashcardJdbcRepository}, whose statements are
+ * each scoped to one owner so that Postgres prunes {@code flashcards} to a single partition, the
+ * queries here deliberately scan every partition. They are meant for infrequent background reloads
+ * only, never for request paths.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FlashcardMetricsRepository {
+
+  private static final String COUNT_ALL_BY_NEXT_REVIEW_ON =
+      """
+      SELECT next_review_on, count(*)
+      FROM flashcards
+      GROUP BY next_review_on
+      """;
+
+  private static final RowMapper<FlashcardDayCount> DAY_COUNT_ROW =
+      (rs, n) -> new DayCount(rs.getObject(1, LocalDate.class), rs.getLong(2));
+
+  private final JdbcTemplate jdbc;
+
+  /**
+   * Counts the flashcards of every deck per next review date.
+   *
+   * @return one row per distinct {@code nextReviewOn}, in no particular order
+   */
+  public List<FlashcardDayCount> countAllByNextReviewOn() {
+    return jdbc.query(COUNT_ALL_BY_NEXT_REVIEW_ON, DAY_COUNT_ROW);
+  }
+
+  @Value
+  private static class DayCount implements FlashcardDayCount {
+    LocalDate nextReviewOn;
+    long cards;
+  }
+}
@@ -0,0 +1,22 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * One due-queue row as selected by SQL: the columns a review client needs plus the easiness factor
+ * that completes the queue's sort key.
+ *
+ * <p>The easiness factor is kept as the column's {@code numeric(3,2)} value so continuation cursors
+ * compare exactly against what Postgres stores.
+ */
+@Value
+public class FlashcardQueueRow {
+  UUID id;
+  String front;
+  String back;
+  LocalDate nextReviewOn;
+  BigDecimal easinessFactor;
+}
@@ -1,26 +1,187 @@
 package com.andremunay.hobbyhub.spanish.infra;
 
 import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.domain.FlashcardId;
+import jakarta.persistence.LockModeType;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository interface for accessing flashcard persistence operations.
  *
  * <p>Inherits standard CRUD methods from {@link JpaRepository} and includes a custom finder for
- * retrieving cards due for review.
+ * retrieving cards due for review. {@code flashcards} is hash-partitioned by owner, and every query
+ * declared here filters on the owner with an equality, so Postgres prunes it to a single partition.
+ * Queries on the next review date are native so they can name the {@code hot} flag that selects the
+ * partial index covering them. Aggregates across decks live in {@link FlashcardMetricsRepository}.
  */
-public interface FlashcardRepository extends JpaRepository<Flashcard, UUID> {
+public interface FlashcardRepository extends JpaRepository<Flashcard, FlashcardId> {
   /**
    * Finds flashcards whose next review date is on or before the specified due date.
    *
-   * @param dueDate the latest review date to include (inclusive)
+   * @param owner the deck to search
+   * @param dueDate the latest review date to include (inclusive), no later than the hot window
    * @return list of flashcards scheduled for review by that date
    */
-  List<Flashcard> findByNextReviewOnLessThanEqual(LocalDate dueDate);
+  @Query(
+      value =
+          "SELECT * FROM flashcards WHERE owner = :owner AND hot AND next_review_on <= :dueDate",
+      nativeQuery = true)
+  List<Flashcard> findByOwnerAndNextReviewOnLessThanEqual(
+      @Param("owner") String owner, @Param("dueDate") LocalDate dueDate);
 
-  Optional<Flashcard> findByFrontIgnoreCase(String front);
+  /**
+   * Selects only the back of one flashcard, for clients that load it on demand.
+   *
+   * @param owner the deck the card belongs to
+   * @param id the card's id
+   * @return the back, if the card exists in that deck
+   */
+  @Query("SELECT f.back FROM Flashcard f WHERE f.owner = :owner AND f.id = :id")
+  Optional<String> findBack(@Param("owner") String owner, @Param("id") UUID id);
+
+  /**
+   * Counts the flashcards in a deck.
+   *
+   * @param owner the deck to count
+   * @return number of cards
+   */
+  long countByOwner(String owner);
+
+  /**
+   * Counts flashcards whose next review date is on or before the specified due date.
+   *
+   * @param owner the deck to count
+   * @param dueDate the latest review date to include (inclusive), no later than the hot window
+   * @return number of cards due by that date
+   */
+  @Query(
+      value =
+          "SELECT count(*) FROM flashcards"
+              + " WHERE owner = :owner AND hot AND next_review_on <= :dueDate",
+      nativeQuery = true)
+  long countByOwnerAndNextReviewOnLessThanEqual(
+      @Param("owner") String owner, @Param("dueDate") LocalDate dueDate);
+
+  /**
+   * Counts flashcards whose next review date falls in the given range.
+   *
+   * <p>The range may reach past the hot window, so hot and cold cards are counted separately, each
+   * from its own partial index.
+   *
+   * @param owner the deck to count
+   * @param from the earliest review date to include (inclusive)
+   * @param to the latest review date to include (inclusive)
+   * @return number of cards scheduled in that range
+   */
+  @Query(
+      value =
+          """
+          SELECT (SELECT count(*) FROM flashcards
+                  WHERE owner = :owner AND hot AND next_review_on BETWEEN :from AND :to)
+               + (SELECT count(*) FROM flashcards
+                  WHERE owner = :owner AND NOT hot AND next_review_on BETWEEN :from AND :to)
+          """,
+      nativeQuery = true)
+  long countByOwnerAndNextReviewOnBetween(
+      @Param("owner") String owner, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  /**
+   * Counts a deck's flashcards per next review date.
+   *
+   * @param owner the deck to count
+   * @return one row per distinct {@code nextReviewOn}, in no particular order
+   */
+  @Query(
+      "SELECT f.nextReviewOn AS nextReviewOn, COUNT(f) AS cards FROM Flashcard f"
+          + " WHERE f.owner = :owner GROUP BY f.nextReviewOn")
+  List<FlashcardDayCount> countByNextReviewOn(@Param("owner") String owner);
+
+  /**
+   * Looks up a flashcard by its accent- and case-folded front, served by the unique {@code
+   * uq_flashcards_owner_front_normalized} index.
+   *
+   * @param owner the deck to search
+   * @param frontNormalized the key produced by {@code FrontNormalizer.normalize}
+   * @return the matching flashcard, if any
+   */
+  Optional<Flashcard> findByOwnerAndFrontNormalized(String owner, String frontNormalized);
+
+  boolean existsByOwnerAndFrontNormalized(String owner, String frontNormalized);
+
+  /**
+   * Resolves many flashcards by normalized front in a single indexed query, locking them for
+   * update.
+   *
+   * <p>The lock keeps the rows from being reviewed elsewhere between this read and the batch's
+   * write-back. Rows are locked in id order, so two batches over overlapping cards cannot deadlock.
+   *
+   * @param owner the deck to search
+   * @param frontsNormalized keys produced by {@code FrontNormalizer.normalize}
+   * @return the matching flashcards, in id order
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "SELECT f FROM Flashcard f"
+          + " WHERE f.owner = :owner AND f.frontNormalized IN :frontsNormalized ORDER BY f.id")
+  List<Flashcard> findByOwnerAndFrontNormalizedIn(
+      @Param("owner") String owner, @Param("frontsNormalized") Collection<String> frontsNormalized);
+
+  /**
+   * Writes a new SM-2 state, but only if the row still holds the state it was computed from.
+   *
+   * <p>Lets a review computed from a cached copy skip the initial read while still detecting that
+   * the card was reviewed or deleted elsewhere in the meantime. The expected easiness factor is
+   * cast to the column's {@code numeric(3,2)}, so it is compared as stored rather than as a double.
+   *
+   * @return 1 if the row was updated, 0 if it no longer matches the expected state
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          UPDATE flashcards
+          SET repetition = :repetition, easiness_factor = :easinessFactor,
+              interval_days = :interval, next_review_on = :nextReviewOn
+          WHERE owner = :owner
+            AND id = :id
+            AND repetition = :expectedRepetition
+            AND easiness_factor = CAST(:expectedEasinessFactor AS numeric(3,2))
+            AND interval_days = :expectedInterval
+            AND next_review_on = :expectedNextReviewOn
+          """,
+      nativeQuery = true)
+  int updateScheduleIfUnchanged(
+      @Param("owner") String owner,
+      @Param("id") UUID id,
+      @Param("repetition") int repetition,
+      @Param("easinessFactor") double easinessFactor,
+      @Param("interval") int interval,
+      @Param("nextReviewOn") LocalDate nextReviewOn,
+      @Param("expectedRepetition") int expectedRepetition,
+      @Param("expectedEasinessFactor") double expectedEasinessFactor,
+      @Param("expectedInterval") int expectedInterval,
+      @Param("expectedNextReviewOn") LocalDate expectedNextReviewOn);
+
+  /**
+   * Streams the scheduling slot of every flashcard in a deck without loading entities.
+   *
+   * <p>Must be consumed inside a transaction and closed afterwards.
+   *
+   * @param owner the deck to read
+   * @return a stream of id / next-review / easiness projections
+   */
+  @Query(
+      "SELECT f.id AS id, f.nextReviewOn AS nextReviewOn, f.easinessFactor AS easinessFactor"
+          + " FROM Flashcard f WHERE f.owner = :owner")
+  Stream<FlashcardDueSlot> streamDueSlots(@Param("owner") String owner);
 }
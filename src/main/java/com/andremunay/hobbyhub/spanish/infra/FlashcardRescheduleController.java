@@ -0,0 +1,64 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.DeckRescheduler;
+import com.andremunay.hobbyhub.spanish.infra.dto.RescheduleJobDto;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for whole-deck rescheduling runs.
+ *
+ * <p>Runs execute in the background; clients poll a run's progress and can resume it if it was
+ * interrupted or failed.
+ */
+@RestController
+@RequestMapping("/flashcards/reschedule")
+@RequiredArgsConstructor
+public class FlashcardRescheduleController {
+
+  private final DeckRescheduler rescheduler;
+
+  /**
+   * Starts recomputing the schedule of every flashcard in the caller's deck.
+   *
+   * @param recomputeIntervals whether to replace stored intervals by the SM-2 progression; by
+   *     default only next review dates are re-derived from them
+   * @return HTTP 202 with the new run's progress
+   */
+  @PostMapping
+  public ResponseEntity<RescheduleJobDto> start(
+      @RequestParam(defaultValue = "false") boolean recomputeIntervals) {
+    return ResponseEntity.accepted()
+        .body(rescheduler.start(CurrentUser.owner(), recomputeIntervals));
+  }
+
+  /**
+   * Reports the progress of a run.
+   *
+   * @param id the run identifier
+   * @return HTTP 200 with the run's progress
+   */
+  @GetMapping("/{id}")
+  public ResponseEntity<RescheduleJobDto> get(@PathVariable UUID id) {
+    return ResponseEntity.ok(rescheduler.get(CurrentUser.owner(), id));
+  }
+
+  /**
+   * Continues an interrupted or failed run from its last checkpoint.
+   *
+   * @param id the run identifier
+   * @return HTTP 202 with the run's progress
+   */
+  @PostMapping("/{id}/resume")
+  public ResponseEntity<RescheduleJobDto> resume(@PathVariable UUID id) {
+    return ResponseEntity.accepted().body(rescheduler.resume(CurrentUser.owner(), id));
+  }
+}
@@ -0,0 +1,24 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * A card as left by a review applied in SQL, as reported by the statement's {@code RETURNING}
+ * clause.
+ *
+ * <p>{@code previousNextReviewOn} is the review date the card had before, so schedule views can
+ * move it from its old slot.
+ */
+@Value
+public class FlashcardReviewRow {
+  UUID id;
+  String front;
+  String back;
+  int repetition;
+  double easinessFactor;
+  int interval;
+  LocalDate nextReviewOn;
+  LocalDate previousNextReviewOn;
+}
@@ -0,0 +1,96 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.util.UUID;
+
+/**
+ * Column-oriented buffer holding the SM-2 state of a run of cards, read and written in bulk by
+ * {@link FlashcardJdbcRepository}.
+ *
+ * <p>Kept as primitive arrays so recomputing a chunk allocates nothing per card and slots can be
+ * filled from several threads at once (each index is written by exactly one task).
+ */
+public final class FlashcardScheduleChunk {
+
+  private final UUID[] ids;
+  private final int[] repetitions;
+  private final int[] efHundredths;
+  private final int[] intervals;
+  private final long[] nextReviewDays;
+  private final int[] newIntervals;
+  private final long[] newNextReviewDays;
+  private int size;
+
+  public FlashcardScheduleChunk(int capacity) {
+    this.ids = new UUID[capacity];
+    this.repetitions = new int[capacity];
+    this.efHundredths = new int[capacity];
+    this.intervals = new int[capacity];
+    this.nextReviewDays = new long[capacity];
+    this.newIntervals = new int[capacity];
+    this.newNextReviewDays = new long[capacity];
+  }
+
+  /** Appends a card's current state; its new state defaults to the current one. */
+  public void add(UUID id, int repetition, int efHundredths, int interval, long nextReviewDay) {
+    int i = size++;
+    this.ids[i] = id;
+    this.repetitions[i] = repetition;
+    this.efHundredths[i] = efHundredths;
+    this.intervals[i] = interval;
+    this.nextReviewDays[i] = nextReviewDay;
+    this.newIntervals[i] = interval;
+    this.newNextReviewDays[i] = nextReviewDay;
+  }
+
+  /** Records the recomputed interval and next review day (epoch day) of slot {@code i}. */
+  public void reschedule(int i, int interval, long nextReviewDay) {
+    this.newIntervals[i] = interval;
+    this.newNextReviewDays[i] = nextReviewDay;
+  }
+
+  /** Whether slot {@code i} was given a schedule different from the stored one. */
+  public boolean isChanged(int i) {
+    return newIntervals[i] != intervals[i] || newNextReviewDays[i] != nextReviewDays[i];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Id of the last card read; chunks are filled in id order. */
+  public UUID lastId() {
+    return ids[size - 1];
+  }
+
+  public UUID id(int i) {
+    return ids[i];
+  }
+
+  public int repetition(int i) {
+    return repetitions[i];
+  }
+
+  public int efHundredths(int i) {
+    return efHundredths[i];
+  }
+
+  public int interval(int i) {
+    return intervals[i];
+  }
+
+  public long nextReviewDay(int i) {
+    return nextReviewDays[i];
+  }
+
+  public int newInterval(int i) {
+    return newIntervals[i];
+  }
+
+  public long newNextReviewDay(int i) {
+    return newNextReviewDays[i];
+  }
+}
@@ -0,0 +1,21 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * One search hit as selected by SQL: the columns a review client needs plus the relevance score the
+ * results are ranked by.
+ *
+ * <p>The score is cast to {@code real} in SQL and read back as that exact value, so continuation
+ * cursors compare equal to the score the next page recomputes for the same row.
+ */
+@Value
+public class FlashcardSearchRow {
+  UUID id;
+  String front;
+  String back;
+  LocalDate nextReviewOn;
+  float score;
+}
@@ -0,0 +1,70 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.ReviewSessionService;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBatchReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardSessionDto;
+import jakarta.validation.Valid;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for review sessions.
+ *
+ * <p>A session leases the due cards it hands out, so clients studying the same deck concurrently
+ * never receive the same card. Every grade submission returns the session's next cards.
+ */
+@RestController
+@RequestMapping("/flashcards/sessions")
+@RequiredArgsConstructor
+public class FlashcardSessionController {
+
+  private final ReviewSessionService sessions;
+
+  /**
+   * Starts a review session.
+   *
+   * @param size how many due cards to lease
+   * @return HTTP 200 with the session id, the lease expiry and the leased cards
+   */
+  @PostMapping
+  public ResponseEntity<FlashcardSessionDto> start(@RequestParam(defaultValue = "10") int size) {
+    return ResponseEntity.ok(sessions.start(CurrentUser.owner(), size));
+  }
+
+  /**
+   * Submits grades for leased cards and leases the next ones.
+   *
+   * @param id the session id
+   * @param req validated grades, applied in order
+   * @param size how many further due cards to lease
+   * @return HTTP 200 with one result per grade and the next leased cards
+   */
+  @PostMapping("/{id}/grades")
+  public ResponseEntity<FlashcardSessionDto> grade(
+      @PathVariable UUID id,
+      @Valid @RequestBody FlashcardBatchReviewDto req,
+      @RequestParam(defaultValue = "10") int size) {
+    return ResponseEntity.ok(sessions.grade(CurrentUser.owner(), id, req.getReviews(), size));
+  }
+
+  /**
+   * Ends a session and releases the cards it still holds.
+   *
+   * @param id the session id
+   * @return HTTP 204
+   */
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> end(@PathVariable UUID id) {
+    sessions.end(CurrentUser.owner(), id);
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -0,0 +1,77 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.DeckSnapshotService;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardSnapshotDto;
+import java.net.URI;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for immutable, content-addressed deck snapshots.
+ *
+ * <p>A snapshot URL names the SHA-256 of its body, so its response never changes and is marked
+ * cacheable for a year with {@code immutable}; browsers and proxies need not revalidate it. Only
+ * {@code /latest}, which points at the deck's current snapshot, must be re-fetched.
+ */
+@RestController
+@RequestMapping("/flashcards/snapshots")
+@RequiredArgsConstructor
+public class FlashcardSnapshotController {
+
+  private static final String PATH = "/flashcards/snapshots/";
+  private static final CacheControl IMMUTABLE =
+      CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+  private final DeckSnapshotService snapshots;
+
+  /**
+   * Publishes the caller's deck as it is now.
+   *
+   * @return HTTP 201 with the snapshot's URL in {@code Location}; an unchanged deck gets the URL it
+   *     got last time
+   */
+  @PostMapping
+  public ResponseEntity<FlashcardSnapshotDto> publish() {
+    FlashcardSnapshotDto snapshot = snapshots.publish(CurrentUser.owner());
+    return ResponseEntity.created(URI.create(PATH + snapshot.getHash())).body(snapshot);
+  }
+
+  /**
+   * Redirects to the snapshot the caller's deck published last.
+   *
+   * @return HTTP 303 to the snapshot URL; HTTP 404 if the deck never published one
+   */
+  @GetMapping("/latest")
+  public ResponseEntity<Void> latest() {
+    return ResponseEntity.status(HttpStatus.SEE_OTHER)
+        .location(URI.create(PATH + snapshots.latest(CurrentUser.owner())))
+        .cacheControl(CacheControl.noCache())
+        .build();
+  }
+
+  /**
+   * Serves a snapshot's body exactly as it was serialized at publication.
+   *
+   * @param hash hex SHA-256 of the body
+   * @return HTTP 200 with the JSON array of cards, or 304 if {@code If-None-Match} names it; HTTP
+   *     404 if no snapshot has that hash
+   */
+  @GetMapping("/{hash}")
+  public ResponseEntity<byte[]> get(@PathVariable String hash) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .cacheControl(IMMUTABLE)
+        .eTag(hash)
+        .body(snapshots.body(hash));
+  }
+}
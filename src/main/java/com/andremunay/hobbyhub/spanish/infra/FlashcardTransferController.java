@@ -0,0 +1,53 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.FlashcardTransferService;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardImportResultDto;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for bulk deck export and import as newline-delimited JSON.
+ *
+ * <p>Bodies are streamed in both directions, so deck size does not affect memory use.
+ */
+@RestController
+@RequestMapping("/flashcards")
+@RequiredArgsConstructor
+public class FlashcardTransferController {
+
+  private final FlashcardTransferService transferService;
+
+  /**
+   * Streams the caller's whole deck, one JSON object per line.
+   *
+   * @return HTTP 200 with an {@code application/x-ndjson} body
+   */
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> export() {
+    // the body is written on an async thread, which does not see the request's security context
+    String owner = CurrentUser.owner();
+    StreamingResponseBody body = out -> transferService.export(owner, out);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  /**
+   * Imports cards from an NDJSON body, skipping fronts and ids that already exist.
+   *
+   * @param body one JSON object per line; only {@code front} and {@code back} are required
+   * @return HTTP 200 with import counts and throughput
+   */
+  @PostMapping(
+      value = "/import",
+      consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<FlashcardImportResultDto> importDeck(InputStream body) {
+    return ResponseEntity.ok(transferService.importNdjson(CurrentUser.owner(), body));
+  }
+}
@@ -0,0 +1,8 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.spanish.domain.RescheduleJob;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** Repository for the progress rows of bulk rescheduling runs. */
+public interface RescheduleJobRepository extends JpaRepository<RescheduleJob, UUID> {}
@@ -0,0 +1,248 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardRetentionWeekDto;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Weekly retention rollup of the {@code flashcard_reviews} history.
+ *
+ * <p>{@code flashcard_review_weeks} holds one row of running totals per deck and week. It is
+ * brought up to date in batches of new history rows: each review is paired with the card's previous
+ * review by a {@code lag()} window over the batch, falling back to one index lookup for the first
+ * review of a card in the batch, and the batch is added to the weeks it falls in with a single
+ * upsert.
+ *
+ * <p>Batches follow the history in {@link ReviewRollupPosition} order, by inserting transaction and
+ * then id, and a checkpoint row records the last position rolled up. Only rows from transactions
+ * older than every one still running are read. No review can commit behind the checkpoint: ids are
+ * handed out before commit, so a lower id may still be in flight, but its transaction is running
+ * and sorts after every one the rollup has read.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReviewAnalyticsRepository {
+
+  private static final String LOCK_CHECKPOINT =
+      """
+      SELECT last_xact_id::text, last_review_id
+      FROM flashcard_review_rollup_state
+      WHERE id = 1
+      FOR UPDATE SKIP LOCKED
+      """;
+
+  // Position of a review in rollup order; rows from before xact_id existed sort first
+  private static final String POSITION = "(coalesce(%1$s.xact_id, '0'::xid8), %1$s.id)";
+
+  // Stops before the first review recorded at or after the cutoff, so rows still being written
+  // behind it by a lagging history flusher are not skipped over. Only reads rows from transactions
+  // below the snapshot's xmin, which have all finished: a running transaction may still commit
+  // rows, and sorts after them. Rows of the caller's own transaction count as finished when no
+  // older one is running, as nothing can then commit before them.
+  private static final String SETTLED_UP_TO =
+      """
+      SELECT xact_id::text, id
+      FROM (
+        SELECT xact_id, id, bool_and(reviewed_at < ?) OVER (ORDER BY xact_id, id) AS settled
+        FROM (
+          SELECT coalesce(r.xact_id, '0'::xid8) AS xact_id, r.id, r.reviewed_at
+          FROM flashcard_reviews r,
+               (SELECT pg_snapshot_xmin(pg_current_snapshot()) AS xmin,
+                       pg_current_xact_id_if_assigned() AS own) t
+          WHERE %1$s > (CAST(? AS xid8), ?)
+            AND (coalesce(r.xact_id, '0'::xid8) < t.xmin
+                 OR (r.xact_id = t.own AND t.own = t.xmin))
+          ORDER BY 1, 2
+          LIMIT ?
+        ) n
+      ) s
+      WHERE settled
+      ORDER BY xact_id DESC, id DESC
+      LIMIT 1
+      """
+          .formatted(POSITION.formatted("r"));
+
+  // A review counts towards retention when the card's previous review left it learned
+  // (repetition > 0); interval growth is measured over those recall reviews that passed
+  private static final String ROLL_UP =
+      """
+      WITH fresh AS (
+        SELECT r.id, r.owner, r.card_id, r.grade, r.interval_days,
+               date_trunc('week', r.reviewed_at AT TIME ZONE 'UTC')::date AS week_start,
+               lag(r.repetition) OVER card AS prev_repetition,
+               lag(r.interval_days) OVER card AS prev_interval
+        FROM flashcard_reviews r
+        WHERE %1$s > (CAST(? AS xid8), ?) AND %1$s <= (CAST(? AS xid8), ?)
+        WINDOW card AS (PARTITION BY r.owner, r.card_id ORDER BY r.reviewed_at, r.id)
+      ),
+      paired AS (
+        SELECT f.owner, f.week_start, f.grade, f.interval_days,
+               coalesce(f.prev_repetition, p.repetition) AS prev_repetition,
+               coalesce(f.prev_interval, p.interval_days) AS prev_interval
+        FROM fresh f
+        LEFT JOIN LATERAL (
+          SELECT o.repetition, o.interval_days
+          FROM flashcard_reviews o
+          WHERE f.prev_repetition IS NULL
+            AND o.card_id = f.card_id AND o.owner = f.owner AND %2$s <= (CAST(? AS xid8), ?)
+          ORDER BY o.reviewed_at DESC, o.id DESC
+          LIMIT 1
+        ) p ON true
+      ),
+      added AS (
+        INSERT INTO flashcard_review_weeks AS w
+          (owner, week_start, reviews, grade_0, grade_1, grade_2, grade_3, grade_4, grade_5,
+           recall_reviews, recall_passed, growth_sum, growth_reviews)
+        SELECT owner, week_start, count(*),
+               count(*) FILTER (WHERE grade = 0),
+               count(*) FILTER (WHERE grade = 1),
+               count(*) FILTER (WHERE grade = 2),
+               count(*) FILTER (WHERE grade = 3),
+               count(*) FILTER (WHERE grade = 4),
+               count(*) FILTER (WHERE grade = 5),
+               count(*) FILTER (WHERE prev_repetition > 0),
+               count(*) FILTER (WHERE prev_repetition > 0 AND grade >= 3),
+               coalesce(
+                   sum(interval_days::float8 / prev_interval)
+                       FILTER (WHERE prev_repetition > 0 AND grade >= 3 AND prev_interval > 0),
+                   0),
+               count(*) FILTER (WHERE prev_repetition > 0 AND grade >= 3 AND prev_interval > 0)
+        FROM paired
+        GROUP BY owner, week_start
+        ON CONFLICT (owner, week_start) DO UPDATE
+        SET reviews = w.reviews + EXCLUDED.reviews,
+            grade_0 = w.grade_0 + EXCLUDED.grade_0,
+            grade_1 = w.grade_1 + EXCLUDED.grade_1,
+            grade_2 = w.grade_2 + EXCLUDED.grade_2,
+            grade_3 = w.grade_3 + EXCLUDED.grade_3,
+            grade_4 = w.grade_4 + EXCLUDED.grade_4,
+            grade_5 = w.grade_5 + EXCLUDED.grade_5,
+            recall_reviews = w.recall_reviews + EXCLUDED.recall_reviews,
+            recall_passed = w.recall_passed + EXCLUDED.recall_passed,
+            growth_sum = w.growth_sum + EXCLUDED.growth_sum,
+            growth_reviews = w.growth_reviews + EXCLUDED.growth_reviews
+      )
+      SELECT count(*) FROM fresh
+      """
+          .formatted(POSITION.formatted("r"), POSITION.formatted("o"));
+
+  private static final String ADVANCE_CHECKPOINT =
+      """
+      UPDATE flashcard_review_rollup_state
+      SET last_xact_id = CAST(? AS xid8), last_review_id = ?, refreshed_at = now()
+      WHERE id = 1
+      """;
+
+  private static final String SELECT_WEEKS =
+      """
+      SELECT week_start, reviews, grade_0, grade_1, grade_2, grade_3, grade_4, grade_5,
+             recall_reviews, recall_passed, growth_sum, growth_reviews
+      FROM flashcard_review_weeks
+      WHERE owner = ? AND week_start >= ?
+      ORDER BY week_start
+      """;
+
+  private static final RowMapper<FlashcardRetentionWeekDto> WEEK_ROW =
+      (rs, n) -> {
+        long[] grades = new long[6];
+        for (int g = 0; g < grades.length; g++) {
+          grades[g] = rs.getLong(3 + g);
+        }
+        long recallReviews = rs.getLong(9);
+        long growthReviews = rs.getLong(12);
+        return new FlashcardRetentionWeekDto(
+            rs.getObject(1, LocalDate.class),
+            rs.getLong(2),
+            grades,
+            recallReviews,
+            recallReviews == 0 ? null : rs.getLong(10) / (double) recallReviews,
+            growthReviews == 0 ? null : rs.getDouble(11) / growthReviews);
+      };
+
+  private static final RowMapper<ReviewRollupPosition> POSITION_ROW =
+      (rs, n) -> new ReviewRollupPosition(Long.parseUnsignedLong(rs.getString(1)), rs.getLong(2));
+
+  private final JdbcTemplate jdbc;
+
+  /**
+   * Locks the rollup checkpoint for the rest of the transaction.
+   *
+   * @return the last position already rolled up, or empty if another transaction holds the lock
+   */
+  public Optional<ReviewRollupPosition> lockCheckpoint() {
+    return jdbc.query(LOCK_CHECKPOINT, POSITION_ROW).stream().findFirst();
+  }
+
+  /**
+   * Finds the end of the next batch of history rows to roll up.
+   *
+   * @param after the checkpoint; only later rows are considered
+   * @param cutoff reviews recorded at or after this instant are left for a later batch, along with
+   *     every row after them; so are rows from transactions not yet older than all running ones
+   * @param limit maximum number of rows in the batch
+   * @return the last position of the batch, or {@code after} if there is nothing to roll up yet
+   */
+  public ReviewRollupPosition settledUpTo(ReviewRollupPosition after, Instant cutoff, int limit) {
+    return jdbc
+        .query(
+            SETTLED_UP_TO,
+            POSITION_ROW,
+            Timestamp.from(cutoff),
+            xid(after),
+            after.getReviewId(),
+            limit)
+        .stream()
+        .findFirst()
+        .orElse(after);
+  }
+
+  /**
+   * Adds the history rows in {@code (after, upTo]} to the weekly rollup.
+   *
+   * @param after the checkpoint the batch starts after
+   * @param upTo last position of the batch, inclusive
+   * @return number of reviews added
+   */
+  public long rollUp(ReviewRollupPosition after, ReviewRollupPosition upTo) {
+    return jdbc.queryForObject(
+        ROLL_UP,
+        Long.class,
+        xid(after),
+        after.getReviewId(),
+        xid(upTo),
+        upTo.getReviewId(),
+        xid(after),
+        after.getReviewId());
+  }
+
+  /**
+   * Moves the rollup checkpoint, normally in the transaction that rolled the batch up.
+   *
+   * @param upTo last position now included in the rollup
+   */
+  public void advanceCheckpoint(ReviewRollupPosition upTo) {
+    jdbc.update(ADVANCE_CHECKPOINT, xid(upTo), upTo.getReviewId());
+  }
+
+  /**
+   * Reads a deck's weekly rollup.
+   *
+   * @param owner the deck to read
+   * @param from first week to include, as the Monday it starts on
+   * @return the weeks from {@code from} on that had reviews, oldest first
+   */
+  public List<FlashcardRetentionWeekDto> findWeeks(String owner, LocalDate from) {
+    return jdbc.query(SELECT_WEEKS, WEEK_ROW, owner, from);
+  }
+
+  private static String xid(ReviewRollupPosition position) {
+    return Long.toUnsignedString(position.getXactId());
+  }
+}
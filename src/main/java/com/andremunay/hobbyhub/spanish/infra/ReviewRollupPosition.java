@@ -0,0 +1,20 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import lombok.Value;
+
+/**
+ * A place in the order the retention rollup reads {@code flashcard_reviews} in: by inserting
+ * transaction, then id.
+ *
+ * <p>Reviews written before transaction ids were recorded count as transaction 0, so they come
+ * first. {@code xactId} is the unsigned 64-bit {@code xid8}.
+ */
+@Value
+public class ReviewRollupPosition {
+
+  /** Before every review. */
+  public static final ReviewRollupPosition START = new ReviewRollupPosition(0, 0);
+
+  long xactId;
+  long reviewId;
+}
@@ -0,0 +1,17 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** The back of a single flashcard, served on demand to clients that listed cards without it. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardBackDto {
+  private UUID id;
+  private String back;
+}
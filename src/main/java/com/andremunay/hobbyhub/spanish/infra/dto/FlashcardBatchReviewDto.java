@@ -0,0 +1,27 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data transfer object for submitting many review grades in one request.
+ *
+ * <p>Entries are applied in order, so grading the same card twice reschedules it twice, exactly as
+ * two consecutive single reviews would.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardBatchReviewDto {
+  @Valid
+  @NotNull
+  @Size(min = 1, max = 500, message = "A batch must contain between 1 and 500 reviews")
+  private List<FlashcardGradeDto> reviews;
+}
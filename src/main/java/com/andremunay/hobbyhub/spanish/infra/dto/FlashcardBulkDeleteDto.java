@@ -0,0 +1,21 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Data transfer object for deleting many flashcards by front in one request. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardBulkDeleteDto {
+  @NotNull
+  @Size(min = 1, max = 1000, message = "A batch must contain between 1 and 1000 fronts")
+  private List<@NotBlank String> fronts;
+}
@@ -0,0 +1,23 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Affected-row counts of a bulk flashcard write.
+ *
+ * <p>Entries that are neither inserted, updated nor deleted were duplicates within the request,
+ * already identical to the stored card, or (for deletes) not found.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardBulkResultDto {
+  private int received;
+  private int inserted;
+  private int updated;
+  private int deleted;
+}
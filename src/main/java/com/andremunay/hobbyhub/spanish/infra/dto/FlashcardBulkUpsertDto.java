@@ -0,0 +1,27 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data transfer object for creating or updating many flashcards in one request.
+ *
+ * <p>Cards are matched on their front, ignoring case and accents. When the same front appears more
+ * than once, the last entry wins.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardBulkUpsertDto {
+  @Valid
+  @NotNull
+  @Size(min = 1, max = 1000, message = "A batch must contain between 1 and 1000 cards")
+  private List<FlashcardDto> cards;
+}
@@ -0,0 +1,22 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Payload of a {@code due} server-sent event: how many cards are due as of {@code date}.
+ *
+ * <p>Deliberately tiny; clients that want the cards themselves fetch {@code GET
+ * /flashcards/review?due=true} when the count changes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardDueEventDto {
+  private LocalDate date;
+  private long due;
+}
@@ -0,0 +1,25 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Simulated review workload of the deck, one count per day starting at {@code from}.
+ *
+ * <p>{@code seed} echoes the seed of the grade draws so a forecast can be reproduced exactly.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardForecastDto {
+  private LocalDate from;
+  private long seed;
+  private long cards;
+  private long totalReviews;
+  private long peakReviews;
+  private long[] reviewsPerDay;
+}
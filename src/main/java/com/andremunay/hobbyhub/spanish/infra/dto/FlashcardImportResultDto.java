@@ -0,0 +1,24 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of an NDJSON deck import.
+ *
+ * <p>{@code skipped} counts lines whose front (ignoring case and accents) or id already existed, in
+ * the deck or earlier in the same file.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardImportResultDto {
+  private long received;
+  private long imported;
+  private long skipped;
+  private long elapsedMillis;
+  private long rowsPerSecond;
+}
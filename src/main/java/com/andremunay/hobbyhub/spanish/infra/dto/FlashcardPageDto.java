@@ -0,0 +1,23 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A bounded page of the due queue.
+ *
+ * <p>{@code nextCursor} is an opaque continuation token for the following page, or {@code null}
+ * once the queue has been exhausted.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardPageDto {
+  private List<FlashcardReviewDto> items;
+
+  private String nextCursor;
+}
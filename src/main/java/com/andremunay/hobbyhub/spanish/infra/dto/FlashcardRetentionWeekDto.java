@@ -0,0 +1,28 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Review outcomes of one deck during the ISO week (UTC) starting on {@code weekStart}.
+ *
+ * <p>{@code grades} counts the reviews per grade 0–5. {@code trueRetention} is the share of recall
+ * reviews, those of cards already learned, graded 3 or better; {@code averageIntervalGrowth} is the
+ * mean ratio of new to previous interval over those passed recall reviews. Both are {@code null}
+ * when the week had no review to base them on.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardRetentionWeekDto {
+  private LocalDate weekStart;
+  private long reviews;
+  private long[] grades;
+  private long recallReviews;
+  private Double trueRetention;
+  private Double averageIntervalGrowth;
+}
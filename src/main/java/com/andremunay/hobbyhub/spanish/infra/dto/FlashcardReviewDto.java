@@ -1,6 +1,7 @@
 package com.andremunay.hobbyhub.spanish.infra.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonProperty.Access;
 import jakarta.validation.constraints.NotBlank;
@@ -16,7 +17,9 @@ import lombok.Setter;
  * Data transfer object representing a flashcard scheduled for review.
  *
  * <p>Includes metadata relevant to the review queue, excluding algorithm-specific internals.
+ * Properties left out by a {@code fields=} selection are {@code null} and omitted from the JSON.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter
 @Setter
 @NoArgsConstructor
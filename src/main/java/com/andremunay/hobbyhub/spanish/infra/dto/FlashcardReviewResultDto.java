@@ -0,0 +1,33 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of a single entry in a batch review submission.
+ *
+ * <p>{@code card} holds the rescheduled flashcard when the review was applied and is {@code null}
+ * otherwise.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardReviewResultDto {
+
+  /** Result of applying one review entry. */
+  public enum Status {
+    REVIEWED,
+    NOT_FOUND,
+    /** The card is not leased to the review session the grade was submitted to. */
+    NOT_LEASED
+  }
+
+  private String front;
+
+  private Status status;
+
+  private FlashcardReviewDto card;
+}
@@ -0,0 +1,29 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * State of a review session after it was started or graded.
+ *
+ * <p>{@code cards} are the next due cards, leased to this session until {@code leasedUntil}; {@code
+ * results} holds one entry per submitted grade and is empty for a new session.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardSessionDto {
+  private UUID sessionId;
+
+  private Instant leasedUntil;
+
+  private List<FlashcardReviewResultDto> results;
+
+  private List<FlashcardReviewDto> cards;
+}
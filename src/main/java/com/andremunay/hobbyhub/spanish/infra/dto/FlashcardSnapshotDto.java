@@ -0,0 +1,22 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A published deck snapshot.
+ *
+ * <p>{@code hash} is the hex SHA-256 of the snapshot body and addresses it at {@code
+ * /flashcards/snapshots/{hash}}; {@code bytes} is the size of that body.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardSnapshotDto {
+  private String hash;
+  private int cards;
+  private int bytes;
+}
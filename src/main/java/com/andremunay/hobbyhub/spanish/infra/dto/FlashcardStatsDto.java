@@ -0,0 +1,25 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Deck workload as of {@code date}.
+ *
+ * <p>{@code dueToday} includes overdue cards; {@code dueNext7Days} and {@code dueNext30Days} count
+ * cards scheduled from tomorrow up to and including that many days ahead.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardStatsDto {
+  private LocalDate date;
+  private long total;
+  private long dueToday;
+  private long dueNext7Days;
+  private long dueNext30Days;
+}
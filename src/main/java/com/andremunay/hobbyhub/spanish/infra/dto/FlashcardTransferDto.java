@@ -0,0 +1,29 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One line of an NDJSON deck export or import.
+ *
+ * <p>Exports always carry every field. On import only {@code front} and {@code back} are required;
+ * missing scheduling fields start the card as new, and a missing {@code id} is generated.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashcardTransferDto {
+  private UUID id;
+  private String front;
+  private String back;
+  private Integer repetition;
+  private BigDecimal easinessFactor;
+  private Integer interval;
+  private LocalDate nextReviewOn;
+}
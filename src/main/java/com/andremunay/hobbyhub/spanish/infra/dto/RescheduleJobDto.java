@@ -0,0 +1,31 @@
+package com.andremunay.hobbyhub.spanish.infra.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Progress report of a bulk rescheduling run.
+ *
+ * <p>{@code processed} counts cards recomputed so far out of roughly {@code total}; {@code updated}
+ * counts those whose schedule actually changed. {@code recomputeIntervals} tells whether the run
+ * replaces intervals by the SM-2 progression or keeps the stored ones.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescheduleJobDto {
+  private UUID id;
+  private String status;
+  private boolean recomputeIntervals;
+  private long processed;
+  private long updated;
+  private long total;
+  private Instant startedAt;
+  private Instant finishedAt;
+  private String error;
+}
@@ -0,0 +1,152 @@
+package com.andremunay.hobbyhub.bench;
+
+import com.andremunay.hobbyhub.HobbyhubApplication;
+import com.andremunay.hobbyhub.TestcontainersConfiguration;
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the due queue and due count served by the hot partial index against the whole-deck index
+ * they used before the hot/cold split.
+ *
+ * <p>The deck holds 200k cards, nine in ten of them mature and scheduled weeks to a year out, as a
+ * long-used deck would. {@code tier=full} recreates the old {@code (owner, next_review_on,
+ * easiness_factor, id)} index and runs the queries without the {@code hot} predicate. Each trial
+ * prints {@code EXPLAIN (ANALYZE, BUFFERS)} of both queries, so the plans and pages touched can be
+ * compared next to the timings. Boots the application against a Testcontainers Postgres, so Docker
+ * must be available. Run with {@code mvn -Pbench -DskipTests verify
+ * -Djmh.include=FlashcardHotColdBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlashcardHotColdBenchmark {
+
+  private static final int CARDS = 200_000;
+  private static final int SEED_BATCH = 10_000;
+  private static final int PAGE = 50;
+  private static final String OWNER = CurrentUser.PUBLIC;
+
+  private static final String DUE_PAGE =
+      """
+      SELECT id, front, back, next_review_on, easiness_factor
+      FROM flashcards
+      WHERE owner = ? %s AND next_review_on <= ?
+      ORDER BY next_review_on, easiness_factor, id
+      LIMIT ?
+      """;
+
+  private static final String DUE_COUNT =
+      "SELECT count(*) FROM flashcards WHERE owner = ? %s AND next_review_on <= ?";
+
+  @Param({"hot", "full"})
+  public String tier;
+
+  private final LocalDate today = LocalDate.now();
+
+  private ConfigurableApplicationContext context;
+  private JdbcTemplate jdbc;
+  private String duePageSql;
+  private String dueCountSql;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context =
+        SpringApplication.from(HobbyhubApplication::main)
+            .with(TestcontainersConfiguration.class)
+            .run(
+                "--hobbyhub.flashcards.due-index.enabled=false",
+                "--hobbyhub.flashcards.stats.enabled=false",
+                "--logging.level.root=WARN")
+            .getApplicationContext();
+    jdbc = context.getBean(JdbcTemplate.class);
+    seed(
+        context.getBean(FlashcardRepository.class),
+        context.getBean(FlashcardJdbcRepository.class),
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)));
+
+    String predicate = tier.equals("hot") ? "AND hot" : "";
+    duePageSql = DUE_PAGE.formatted(predicate);
+    dueCountSql = DUE_COUNT.formatted(predicate);
+    if (tier.equals("full")) {
+      jdbc.execute(
+          "CREATE INDEX IF NOT EXISTS idx_flashcards_due_full"
+              + " ON flashcards (owner, next_review_on, easiness_factor, id)");
+    }
+    jdbc.execute("VACUUM ANALYZE flashcards");
+
+    System.out.printf("%ntier=%s%n", tier);
+    explain(duePageSql, OWNER, today, PAGE);
+    explain(dueCountSql, OWNER, today);
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    jdbc.execute("DROP INDEX IF EXISTS idx_flashcards_due_full");
+    context.close();
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> duePage() {
+    return jdbc.queryForList(duePageSql, OWNER, today, PAGE);
+  }
+
+  @Benchmark
+  public Long dueCount() {
+    return jdbc.queryForObject(dueCountSql, Long.class, OWNER, today);
+  }
+
+  private void explain(String sql, Object... args) {
+    jdbc.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + sql, String.class, args)
+        .forEach(System.out::println);
+  }
+
+  // One card in ten is due or due within the hot window; the rest are mature cards scheduled
+  // between three weeks and a year out
+  private void seed(
+      FlashcardRepository repository, FlashcardJdbcRepository cards, TransactionTemplate tx) {
+    tx.executeWithoutResult(status -> repository.deleteAllInBatch());
+    Random random = new Random(21);
+    for (int from = 0; from < CARDS; from += SEED_BATCH) {
+      List<Flashcard> batch = new ArrayList<>(SEED_BATCH);
+      for (int i = from; i < from + SEED_BATCH; i++) {
+        Flashcard card = new Flashcard(UUID.randomUUID(), OWNER, "palabra " + i, "word " + i);
+        int offset = random.nextInt(10) == 0 ? random.nextInt(14) - 7 : 21 + random.nextInt(345);
+        card.setNextReviewOn(today.plusDays(offset));
+        card.setEasinessFactor(1.3 + random.nextInt(121) / 100.0);
+        batch.add(card);
+      }
+      tx.executeWithoutResult(status -> cards.upsertAll(OWNER, batch));
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.andremunay.hobbyhub.bench;
+
+import com.andremunay.hobbyhub.HobbyhubApplication;
+import com.andremunay.hobbyhub.TestcontainersConfiguration;
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.FlashcardService;
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the entity-based read paths that {@link FlashcardService#getAll} and {@code getDue} used
+ * to take (read-write transaction, managed {@link Flashcard}s, dirty checking at commit) with the
+ * current DTO projections in read-only transactions, on a 50k-card deck.
+ *
+ * <p>Boots the application against a Testcontainers Postgres, so Docker must be available. Run with
+ * {@code mvn -Pbench -DskipTests verify -Djmh.include=FlashcardReadPathBenchmark}; add {@code -prof
+ * gc} through JMH's own command line to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlashcardReadPathBenchmark {
+
+  private static final int CARDS = 50_000;
+  private static final int SEED_BATCH = 5_000;
+  private static final int PAGE = FlashcardService.MAX_PAGE_SIZE;
+  private static final String OWNER = CurrentUser.PUBLIC;
+
+  private static final String DUE_QUEUE =
+      """
+      SELECT * FROM flashcards
+      WHERE owner = ?1 AND next_review_on <= ?2
+      ORDER BY next_review_on, easiness_factor, id
+      LIMIT ?3
+      """;
+
+  private final LocalDate today = LocalDate.now();
+
+  private ConfigurableApplicationContext context;
+  private FlashcardService service;
+  private FlashcardRepository repository;
+  private EntityManager entityManager;
+  private TransactionTemplate readWriteTx;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context =
+        SpringApplication.from(HobbyhubApplication::main)
+            .with(TestcontainersConfiguration.class)
+            .run(
+                "--hobbyhub.flashcards.due-index.enabled=false",
+                "--hobbyhub.flashcards.stats.enabled=false",
+                "--logging.level.root=WARN")
+            .getApplicationContext();
+    service = context.getBean(FlashcardService.class);
+    repository = context.getBean(FlashcardRepository.class);
+    entityManager =
+        SharedEntityManagerCreator.createSharedEntityManager(
+            context.getBean(EntityManagerFactory.class));
+    readWriteTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    seed(context.getBean(FlashcardJdbcRepository.class));
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<FlashcardReviewDto> getAllEntities() {
+    return readWriteTx.execute(
+        status ->
+            entityManager
+                .createQuery("SELECT f FROM Flashcard f WHERE f.owner = :owner", Flashcard.class)
+                .setParameter("owner", OWNER)
+                .getResultList()
+                .stream()
+                .map(FlashcardReadPathBenchmark::toDto)
+                .toList());
+  }
+
+  @Benchmark
+  public Object getAllProjection() {
+    return service.getAll(OWNER, null);
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public List<FlashcardReviewDto> dueQueueEntities() {
+    return readWriteTx.execute(
+        status -> {
+          List<Flashcard> rows =
+              entityManager
+                  .createNativeQuery(DUE_QUEUE, Flashcard.class)
+                  .setParameter(1, OWNER)
+                  .setParameter(2, today)
+                  .setParameter(3, PAGE + 1)
+                  .getResultList();
+          return rows.stream().map(FlashcardReadPathBenchmark::toDto).toList();
+        });
+  }
+
+  @Benchmark
+  public Object dueQueueProjection() {
+    return service.getDue(OWNER, today, null, PAGE, null);
+  }
+
+  // Fills the deck with cards spread over the month before and two months after today
+  private void seed(FlashcardJdbcRepository jdbc) {
+    readWriteTx.executeWithoutResult(status -> repository.deleteAllInBatch());
+    Random random = new Random(13);
+    for (int from = 0; from < CARDS; from += SEED_BATCH) {
+      List<Flashcard> batch = new ArrayList<>(SEED_BATCH);
+      for (int i = from; i < from + SEED_BATCH; i++) {
+        Flashcard card =
+            new Flashcard(
+                UUID.randomUUID(), OWNER, "palabra " + i, "word " + i + " with an example");
+        card.setNextReviewOn(today.plusDays(random.nextInt(90) - 30));
+        card.setEasinessFactor(1.3 + random.nextInt(121) / 100.0);
+        batch.add(card);
+      }
+      readWriteTx.executeWithoutResult(status -> jdbc.upsertAll(OWNER, batch));
+    }
+  }
+
+  private static FlashcardReviewDto toDto(Flashcard card) {
+    return new FlashcardReviewDto(
+        card.getId(), card.getFront(), card.getBack(), card.getNextReviewOn());
+  }
+}
@@ -0,0 +1,125 @@
+package com.andremunay.hobbyhub.bench;
+
+import com.andremunay.hobbyhub.HobbyhubApplication;
+import com.andremunay.hobbyhub.TestcontainersConfiguration;
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.FlashcardService;
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardPageDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Samples the latency of {@link FlashcardService#search} on a 200k-card deck of generated words,
+ * for substring hits, misspellings and a query that matches nothing.
+ *
+ * <p>Runs in sample mode, so JMH reports p50/p90/p99 per query shape. Boots the application against
+ * a Testcontainers Postgres, so Docker must be available. Run with {@code mvn -Pbench -DskipTests
+ * verify -Djmh.include=FlashcardSearchBenchmark}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlashcardSearchBenchmark {
+
+  private static final int CARDS = 200_000;
+  private static final int SEED_BATCH = 5_000;
+  private static final String OWNER = CurrentUser.PUBLIC;
+  private static final String[] SYLLABLES = {
+    "ma", "ri", "po", "sa", "ga", "to", "pe", "rro", "la", "ca", "ve", "ne", "lo", "mu", "chi",
+    "que", "de", "bra", "tru", "fo", "li", "an", "es", "ta", "cion", "mi", "en", "ro", "ble"
+  };
+
+  private ConfigurableApplicationContext context;
+  private FlashcardService service;
+
+  /** Search text: a word stem, a misspelt word, and text no card contains. */
+  @Param({"mari", "maripoza", "xyzzyq"})
+  public String query;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context =
+        SpringApplication.from(HobbyhubApplication::main)
+            .with(TestcontainersConfiguration.class)
+            .run(
+                "--hobbyhub.flashcards.due-index.enabled=false",
+                "--hobbyhub.flashcards.stats.enabled=false",
+                "--logging.level.root=WARN")
+            .getApplicationContext();
+    service = context.getBean(FlashcardService.class);
+    seed(
+        context.getBean(FlashcardRepository.class),
+        context.getBean(FlashcardJdbcRepository.class),
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)));
+    context.getBean(JdbcTemplate.class).execute("ANALYZE flashcards");
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public FlashcardPageDto search() {
+    return service.search(OWNER, query, null, 20, null);
+  }
+
+  // Fills the deck with two- and three-word phrases built from a small syllable set, so common
+  // stems hit thousands of cards while most misspellings still resolve through the index
+  private static void seed(
+      FlashcardRepository repository, FlashcardJdbcRepository jdbc, TransactionTemplate tx) {
+    tx.executeWithoutResult(status -> repository.deleteAllInBatch());
+    Random random = new Random(17);
+    for (int from = 0; from < CARDS; from += SEED_BATCH) {
+      List<Flashcard> batch = new ArrayList<>(SEED_BATCH);
+      for (int i = from; i < from + SEED_BATCH; i++) {
+        String front = phrase(random) + " " + i;
+        batch.add(
+            new Flashcard(UUID.randomUUID(), OWNER, front, phrase(random) + " " + phrase(random)));
+      }
+      tx.executeWithoutResult(status -> jdbc.upsertAll(OWNER, batch));
+    }
+  }
+
+  private static String phrase(Random random) {
+    StringBuilder phrase = new StringBuilder();
+    int words = 2 + random.nextInt(2);
+    for (int w = 0; w < words; w++) {
+      if (w > 0) {
+        phrase.append(' ');
+      }
+      int syllables = 2 + random.nextInt(3);
+      for (int s = 0; s < syllables; s++) {
+        phrase.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+    }
+    return phrase.toString();
+  }
+}
@@ -0,0 +1,122 @@
+package com.andremunay.hobbyhub.bench;
+
+import com.andremunay.hobbyhub.HobbyhubApplication;
+import com.andremunay.hobbyhub.TestcontainersConfiguration;
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.FlashcardService;
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares listing a 20k-card deck, and one due page, with every property against a drill view that
+ * leaves out the back, measured up to the serialized JSON the controller would send.
+ *
+ * <p>Each trial prints the response sizes for its {@code fields} value, so the payload saving can
+ * be read next to the latency difference. Backs are seeded close to the column's 255-character
+ * limit, as example sentences tend to be. Boots the application against a Testcontainers Postgres,
+ * so Docker must be available. Run with {@code mvn -Pbench -DskipTests verify
+ * -Djmh.include=FlashcardSparseFieldsBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlashcardSparseFieldsBenchmark {
+
+  private static final int CARDS = 20_000;
+  private static final int SEED_BATCH = 5_000;
+  private static final int PAGE = FlashcardService.MAX_PAGE_SIZE;
+  private static final String OWNER = CurrentUser.PUBLIC;
+
+  @Param({"id,front,back,nextReviewOn", "id,front,nextReviewOn"})
+  public String fields;
+
+  private final LocalDate today = LocalDate.now();
+
+  private ConfigurableApplicationContext context;
+  private FlashcardService service;
+  private ObjectMapper mapper;
+
+  @Setup(Level.Trial)
+  public void start() throws JsonProcessingException {
+    context =
+        SpringApplication.from(HobbyhubApplication::main)
+            .with(TestcontainersConfiguration.class)
+            .run(
+                "--hobbyhub.flashcards.due-index.enabled=false",
+                "--hobbyhub.flashcards.stats.enabled=false",
+                "--logging.level.root=WARN")
+            .getApplicationContext();
+    service = context.getBean(FlashcardService.class);
+    mapper = context.getBean(ObjectMapper.class);
+    seed(
+        context.getBean(FlashcardRepository.class),
+        context.getBean(FlashcardJdbcRepository.class),
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)));
+
+    System.out.printf(
+        "%nfields=%s: getAll %d bytes, due page %d bytes%n",
+        fields, getAll().length, duePage().length);
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public byte[] getAll() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(service.getAll(OWNER, fields));
+  }
+
+  @Benchmark
+  public byte[] duePage() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(service.getDue(OWNER, today, null, PAGE, fields).getItems());
+  }
+
+  // Fills the deck with long-backed cards spread over the month before and after today
+  private void seed(
+      FlashcardRepository repository, FlashcardJdbcRepository jdbc, TransactionTemplate tx) {
+    tx.executeWithoutResult(status -> repository.deleteAllInBatch());
+    Random random = new Random(17);
+    String example = "an example sentence showing the word in context, ".repeat(4);
+    for (int from = 0; from < CARDS; from += SEED_BATCH) {
+      List<Flashcard> batch = new ArrayList<>(SEED_BATCH);
+      for (int i = from; i < from + SEED_BATCH; i++) {
+        Flashcard card =
+            new Flashcard(UUID.randomUUID(), OWNER, "palabra " + i, "word " + i + ": " + example);
+        card.setNextReviewOn(today.plusDays(random.nextInt(60) - 30));
+        batch.add(card);
+      }
+      tx.executeWithoutResult(status -> jdbc.upsertAll(OWNER, batch));
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.andremunay.hobbyhub.bench;
+
+import com.andremunay.hobbyhub.spanish.app.LoadSmoothingSm2Scheduler;
+import com.andremunay.hobbyhub.spanish.app.TableDrivenSm2Scheduler;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Simulates a year of daily reviews of a 20k-card deck imported in one go, scheduled by plain SM-2
+ * and by {@link LoadSmoothingSm2Scheduler}, and reports the busiest day of each.
+ *
+ * <p>Every card starts due on day 0 and every due card is reviewed on its day, with grades drawn
+ * from the same fixed distribution in both runs. The {@code peakDue} counter is the most reviews
+ * due on a single day from day 2 on; the import day and the one-day step after it are the same in
+ * both runs. {@code meanDue} is the average over the same days, for scale. Loads seen by the
+ * smoothing scheduler are updated after every review, as commits would update {@code DueHistogram}.
+ * Run with {@code mvn -Pbench -DskipTests verify -Djmh.include=LoadSmoothingBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class LoadSmoothingBenchmark {
+
+  private static final int CARDS = 20_000;
+  private static final int DAYS = 365;
+  private static final int FIRST_COUNTED_DAY = 2;
+  private static final int[] CUMULATIVE_WEIGHTS = {1, 2, 5, 20, 70, 100};
+
+  /** Busiest day and average day of the last simulation, reported next to its run time. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class DailyLoad {
+    public long peakDue;
+    public long meanDue;
+
+    @Setup(Level.Iteration)
+    public void clear() {
+      peakDue = 0;
+      meanDue = 0;
+    }
+
+    void record(long[] due) {
+      long sum = 0;
+      for (int day = FIRST_COUNTED_DAY; day < DAYS; day++) {
+        peakDue = Math.max(peakDue, due[day]);
+        sum += due[day];
+      }
+      meanDue = sum / (DAYS - FIRST_COUNTED_DAY);
+    }
+  }
+
+  @Benchmark
+  public long[] sm2(DailyLoad load) {
+    long[] due = simulate(false);
+    load.record(due);
+    return due;
+  }
+
+  @Benchmark
+  public long[] smoothed(DailyLoad load) {
+    long[] due = simulate(true);
+    load.record(due);
+    return due;
+  }
+
+  // Returns the number of cards due on each day; days past the year are left out
+  private static long[] simulate(boolean smooth) {
+    Random random = new Random(42);
+    int[] repetitions = new int[CARDS];
+    int[] efHundredths = new int[CARDS];
+    int[] intervals = new int[CARDS];
+    int[] nextDays = new int[CARDS];
+    long[] due = new long[DAYS];
+    Arrays.fill(efHundredths, 250);
+    Arrays.fill(intervals, 1);
+    due[0] = CARDS;
+
+    for (int today = 0; today < DAYS; today++) {
+      final int day = today;
+      for (int card = 0; card < CARDS; card++) {
+        if (nextDays[card] != day) {
+          continue;
+        }
+        long state =
+            TableDrivenSm2Scheduler.schedule(
+                repetitions[card], efHundredths[card], intervals[card], grade(random));
+        repetitions[card] = TableDrivenSm2Scheduler.repetition(state);
+        efHundredths[card] = TableDrivenSm2Scheduler.efHundredths(state);
+        int interval = TableDrivenSm2Scheduler.interval(state);
+        if (smooth) {
+          long seed = card * 31L + repetitions[card];
+          interval =
+              LoadSmoothingSm2Scheduler.smooth(
+                  interval, seed, 0.1, 7, days -> day + days < DAYS ? due[day + days] : 0);
+        }
+        intervals[card] = interval;
+        nextDays[card] = day + interval;
+        if (nextDays[card] < DAYS) {
+          due[nextDays[card]]++;
+        }
+      }
+    }
+    return due;
+  }
+
+  private static int grade(Random random) {
+    int roll = random.nextInt(CUMULATIVE_WEIGHTS[CUMULATIVE_WEIGHTS.length - 1]);
+    int grade = 0;
+    while (roll >= CUMULATIVE_WEIGHTS[grade]) {
+      grade++;
+    }
+    return grade;
+  }
+}
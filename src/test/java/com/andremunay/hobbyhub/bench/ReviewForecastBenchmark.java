@@ -0,0 +1,94 @@
+package com.andremunay.hobbyhub.bench;
+
+import com.andremunay.hobbyhub.spanish.app.ReviewForecaster;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardScheduleChunk;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the replay behind {@link ReviewForecaster} on a synthetic 100k-card deck over a 365-day
+ * horizon, on one thread and across all cores.
+ *
+ * <p>Works on in-memory chunks only, so the database load is excluded. Run with {@code mvn -Pbench
+ * -DskipTests verify -Djmh.include=ReviewForecastBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewForecastBenchmark {
+
+  private static final int CARDS = 100_000;
+  private static final int CHUNK = 10_000;
+  private static final int DAYS = 365;
+  private static final long TODAY = 20_000;
+  private static final int[] CUMULATIVE_WEIGHTS = {1, 2, 5, 20, 70, 100};
+
+  private final List<FlashcardScheduleChunk> deck = new ArrayList<>();
+
+  // Mix of new, young and mature cards, a tenth of them overdue
+  @Setup(Level.Trial)
+  public void generate() {
+    Random random = new Random(11);
+    for (int from = 0; from < CARDS; from += CHUNK) {
+      FlashcardScheduleChunk chunk = new FlashcardScheduleChunk(CHUNK);
+      for (int i = 0; i < CHUNK; i++) {
+        int repetition = random.nextInt(8);
+        int ef = 130 + random.nextInt(171);
+        int interval = 1 + random.nextInt(120);
+        long nextReviewDay =
+            random.nextInt(10) == 0
+                ? TODAY - 1 - random.nextInt(30)
+                : TODAY + random.nextInt(interval + 1);
+        UUID id = new UUID(random.nextLong(), random.nextLong());
+        chunk.add(id, repetition, ef, interval, nextReviewDay);
+      }
+      deck.add(chunk);
+    }
+  }
+
+  @Benchmark
+  public long[] sequential() {
+    long[] reviews = new long[DAYS];
+    for (FlashcardScheduleChunk chunk : deck) {
+      ReviewForecaster.simulate(chunk, TODAY, CUMULATIVE_WEIGHTS, 42, reviews);
+    }
+    return reviews;
+  }
+
+  @Benchmark
+  public long[] parallel() {
+    return deck.parallelStream()
+        .map(
+            chunk -> {
+              long[] reviews = new long[DAYS];
+              ReviewForecaster.simulate(chunk, TODAY, CUMULATIVE_WEIGHTS, 42, reviews);
+              return reviews;
+            })
+        .reduce(
+            new long[DAYS],
+            (a, b) -> {
+              long[] out = new long[DAYS];
+              for (int d = 0; d < DAYS; d++) {
+                out[d] = a[d] + b[d];
+              }
+              return out;
+            });
+  }
+}
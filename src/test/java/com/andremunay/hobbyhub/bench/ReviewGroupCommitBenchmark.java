@@ -0,0 +1,104 @@
+package com.andremunay.hobbyhub.bench;
+
+import com.andremunay.hobbyhub.HobbyhubApplication;
+import com.andremunay.hobbyhub.TestcontainersConfiguration;
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.ReviewGroupCommitter;
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Load test for group commit: 32 threads submit single reviews as fast as they can, once with every
+ * review committed on its own ({@code window=PT0S}) and once coalesced within 2 ms.
+ *
+ * <p>Cards are picked at random from a 10k-card deck, so concurrent reviews rarely touch the same
+ * row and the difference comes from the number of commits. Boots the application against a
+ * Testcontainers Postgres, so Docker must be available. Run with {@code mvn -Pbench -DskipTests
+ * verify -Djmh.include=ReviewGroupCommitBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class ReviewGroupCommitBenchmark {
+
+  private static final int CARDS = 10_000;
+  private static final int SEED_BATCH = 5_000;
+  private static final String OWNER = CurrentUser.PUBLIC;
+
+  @Param({"PT0S", "PT0.002S"})
+  public String window;
+
+  private ConfigurableApplicationContext context;
+  private ReviewGroupCommitter committer;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context =
+        SpringApplication.from(HobbyhubApplication::main)
+            .with(TestcontainersConfiguration.class)
+            .run(
+                "--hobbyhub.flashcards.review-group-commit.window=" + window,
+                "--hobbyhub.flashcards.due-index.enabled=false",
+                "--hobbyhub.flashcards.stats.enabled=false",
+                "--spring.datasource.hikari.maximum-pool-size=32",
+                "--logging.level.root=WARN")
+            .getApplicationContext();
+    committer = context.getBean(ReviewGroupCommitter.class);
+    seed(
+        context.getBean(FlashcardRepository.class),
+        context.getBean(FlashcardJdbcRepository.class),
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)));
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public FlashcardReviewDto review() {
+    int card = ThreadLocalRandom.current().nextInt(CARDS);
+    return committer.review(OWNER, "palabra " + card, 4);
+  }
+
+  private void seed(
+      FlashcardRepository repository, FlashcardJdbcRepository jdbc, TransactionTemplate tx) {
+    tx.executeWithoutResult(status -> repository.deleteAllInBatch());
+    for (int from = 0; from < CARDS; from += SEED_BATCH) {
+      List<Flashcard> batch = new ArrayList<>(SEED_BATCH);
+      for (int i = from; i < from + SEED_BATCH; i++) {
+        batch.add(new Flashcard(UUID.randomUUID(), OWNER, "palabra " + i, "word " + i));
+      }
+      tx.executeWithoutResult(status -> jdbc.upsertAll(OWNER, batch));
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.andremunay.hobbyhub.bench;
+
+import com.andremunay.hobbyhub.spanish.app.Sm2ReviewScheduler;
+import com.andremunay.hobbyhub.spanish.app.TableDrivenSm2Scheduler;
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the reference {@link Sm2ReviewScheduler} with {@link TableDrivenSm2Scheduler}, both
+ * through the entity-based {@code review} and the primitive {@code schedule} path.
+ *
+ * <p>Each invocation reviews the same batch of random card states. Run with {@code mvn -Pbench
+ * -DskipTests verify -Djmh.include=Sm2SchedulerBenchmark}; add {@code -prof gc} through JMH's own
+ * command line to see allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Sm2SchedulerBenchmark {
+
+  private static final int CARDS = 1024;
+  private static final LocalDate TODAY = LocalDate.of(2025, 5, 20);
+
+  private final Sm2ReviewScheduler reference = new Sm2ReviewScheduler();
+  private final TableDrivenSm2Scheduler table = new TableDrivenSm2Scheduler();
+
+  private final int[] repetitions = new int[CARDS];
+  private final int[] efHundredths = new int[CARDS];
+  private final int[] intervals = new int[CARDS];
+  private final int[] grades = new int[CARDS];
+  private final Flashcard[] cards = new Flashcard[CARDS];
+
+  @Setup(Level.Trial)
+  public void generate() {
+    Random random = new Random(7);
+    for (int i = 0; i < CARDS; i++) {
+      repetitions[i] = random.nextInt(8);
+      efHundredths[i] = 130 + random.nextInt(171);
+      intervals[i] = 1 + random.nextInt(365);
+      grades[i] = random.nextInt(6);
+      cards[i] = new Flashcard(UUID.randomUUID(), "card" + i, "back");
+    }
+  }
+
+  // Puts every card back into its generated state so each invocation does identical work
+  @Setup(Level.Invocation)
+  public void reset() {
+    for (int i = 0; i < CARDS; i++) {
+      cards[i].setRepetition(repetitions[i]);
+      cards[i].setEasinessFactor(efHundredths[i] / 100.0);
+      cards[i].setInterval(intervals[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CARDS)
+  public void referenceEntity(Blackhole bh) {
+    for (int i = 0; i < CARDS; i++) {
+      bh.consume(reference.review(cards[i], grades[i], TODAY));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CARDS)
+  public void tableEntity(Blackhole bh) {
+    for (int i = 0; i < CARDS; i++) {
+      bh.consume(table.review(cards[i], grades[i], TODAY));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CARDS)
+  public void tablePrimitive(Blackhole bh) {
+    for (int i = 0; i < CARDS; i++) {
+      bh.consume(
+          TableDrivenSm2Scheduler.schedule(
+              repetitions[i], efHundredths[i], intervals[i], grades[i]));
+    }
+  }
+}
@@ -0,0 +1,215 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.domain.RescheduleJob;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardScheduleChunk;
+import com.andremunay.hobbyhub.spanish.infra.RescheduleJobRepository;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Unit tests for {@link DeckRescheduler}, covering chunked recomputation, runs that keep stored
+ * intervals, checkpointing, resuming, failure handling and the refresh of in-memory views once a
+ * run completes.
+ */
+@ExtendWith(MockitoExtension.class)
+class DeckReschedulerTest {
+
+  private static final String OWNER = "alice";
+  private static final LocalDate LAST_REVIEW = LocalDate.of(2025, 5, 1);
+
+  @Mock private FlashcardJdbcRepository cards;
+  @Mock private FlashcardRepository flashcards;
+  @Mock private RescheduleJobRepository jobs;
+  @Mock private PlatformTransactionManager transactionManager;
+  @Mock private DueIndex dueIndex;
+  @Mock private DueHistogram histogram;
+  @Mock private ReviewForecaster forecaster;
+  @Mock private FlashcardCache cache;
+
+  private DeckRescheduler rescheduler;
+  private RescheduleJob job;
+
+  @BeforeEach
+  void setUp() {
+    rescheduler =
+        new DeckRescheduler(
+            cards,
+            flashcards,
+            jobs,
+            transactionManager,
+            dueIndex,
+            histogram,
+            forecaster,
+            cache,
+            2,
+            2);
+    job = new RescheduleJob(UUID.randomUUID(), OWNER, true, 3, Instant.now());
+    lenient().when(jobs.findById(job.getId())).thenReturn(Optional.of(job));
+  }
+
+  @AfterEach
+  void tearDown() {
+    rescheduler.shutdown();
+  }
+
+  /**
+   * Verifies that a recomputing run rewrites every chunk and checkpoints it until the deck is
+   * exhausted.
+   */
+  @Test
+  void runShouldRescheduleChunksAndCompleteJob() {
+    UUID a = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    UUID b = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    UUID c = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+    FlashcardScheduleChunk first = new FlashcardScheduleChunk(2);
+    // 3rd successful review at EF 2.5: 1, 6, 15 days; stored interval 20 is off the curve
+    first.add(a, 3, 250, 20, LAST_REVIEW.plusDays(20).toEpochDay());
+    // already on the curve
+    first.add(b, 2, 250, 6, LAST_REVIEW.plusDays(6).toEpochDay());
+    FlashcardScheduleChunk second = new FlashcardScheduleChunk(2);
+    // lapsed card
+    second.add(c, 0, 130, 4, LAST_REVIEW.plusDays(4).toEpochDay());
+    when(cards.readScheduleChunk(OWNER, null, 2)).thenReturn(first);
+    when(cards.readScheduleChunk(OWNER, b, 2)).thenReturn(second);
+    when(cards.readScheduleChunk(OWNER, c, 2)).thenReturn(new FlashcardScheduleChunk(2));
+    when(cards.writeSchedules(eq(OWNER), any())).thenReturn(1);
+
+    rescheduler.run(job.getId());
+
+    assertThat(first.newInterval(0)).isEqualTo(15);
+    assertThat(first.newNextReviewDay(0)).isEqualTo(LAST_REVIEW.plusDays(15).toEpochDay());
+    assertThat(first.isChanged(1)).isFalse();
+    assertThat(second.newInterval(0)).isEqualTo(1);
+    assertThat(second.newNextReviewDay(0)).isEqualTo(LAST_REVIEW.plusDays(1).toEpochDay());
+    assertThat(job.getStatus()).isEqualTo(RescheduleJob.Status.COMPLETED);
+    assertThat(job.getProcessed()).isEqualTo(3);
+    assertThat(job.getUpdated()).isEqualTo(2);
+    assertThat(job.getLastCardId()).isEqualTo(c);
+    verify(dueIndex).invalidate(OWNER);
+    verify(histogram).invalidate(OWNER);
+    verify(forecaster).invalidate(OWNER);
+    verify(cache).invalidateAll();
+  }
+
+  /** Ensures a default run over a deck reviewed by SM-2 leaves every card as it is. */
+  @Test
+  void runShouldKeepSm2ScheduleByDefault() {
+    RescheduleJob keep = new RescheduleJob(UUID.randomUUID(), OWNER, false, 2, Instant.now());
+    when(jobs.findById(keep.getId())).thenReturn(Optional.of(keep));
+    Sm2ReviewScheduler sm2 = new Sm2ReviewScheduler();
+    // grades 5, 5, 3: the third step multiplies 6 by the EF before it (2.7), not the final 2.56
+    Flashcard mature = new Flashcard(UUID.randomUUID(), OWNER, "hola", "hello");
+    LocalDate day = LAST_REVIEW;
+    for (int grade : new int[] {5, 5, 3}) {
+      sm2.review(mature, grade, day);
+      day = mature.getNextReviewOn();
+    }
+    Flashcard fresh = sm2.review(new Flashcard(UUID.randomUUID(), OWNER, "adios", "bye"), 4, day);
+    FlashcardScheduleChunk chunk = new FlashcardScheduleChunk(2);
+    for (Flashcard card : new Flashcard[] {mature, fresh}) {
+      chunk.add(
+          card.getId(),
+          card.getRepetition(),
+          (int) Math.round(card.getEasinessFactor() * 100),
+          card.getInterval(),
+          card.getNextReviewOn().toEpochDay());
+    }
+    when(cards.readScheduleChunk(OWNER, null, 2)).thenReturn(chunk);
+    when(cards.readScheduleChunk(OWNER, fresh.getId(), 2))
+        .thenReturn(new FlashcardScheduleChunk(2));
+
+    rescheduler.run(keep.getId());
+
+    assertThat(mature.getInterval()).isEqualTo(16);
+    assertThat(chunk.isChanged(0)).isFalse();
+    assertThat(chunk.isChanged(1)).isFalse();
+    assertThat(keep.getStatus()).isEqualTo(RescheduleJob.Status.COMPLETED);
+    assertThat(keep.getUpdated()).isZero();
+  }
+
+  /** Verifies that a resumed run continues after its checkpoint instead of starting over. */
+  @Test
+  void runShouldContinueFromCheckpoint() {
+    UUID checkpoint = UUID.randomUUID();
+    job.advance(checkpoint, 2, 1);
+    when(cards.readScheduleChunk(OWNER, checkpoint, 2)).thenReturn(new FlashcardScheduleChunk(2));
+
+    rescheduler.run(job.getId());
+
+    verify(cards, never()).readScheduleChunk(any(), eq(null), anyInt());
+    assertThat(job.getStatus()).isEqualTo(RescheduleJob.Status.COMPLETED);
+    assertThat(job.getProcessed()).isEqualTo(2);
+  }
+
+  /** Ensures a failing chunk marks the run as failed and keeps the last checkpoint. */
+  @Test
+  void runShouldMarkJobFailedAndKeepCheckpoint() {
+    when(cards.readScheduleChunk(OWNER, null, 2)).thenThrow(new IllegalStateException("db down"));
+
+    rescheduler.run(job.getId());
+
+    assertThat(job.getStatus()).isEqualTo(RescheduleJob.Status.FAILED);
+    assertThat(job.getError()).isEqualTo("db down");
+    assertThat(job.getLastCardId()).isNull();
+    verify(dueIndex, never()).invalidate(any());
+  }
+
+  /** Ensures a completed run cannot be resumed. */
+  @Test
+  void resumeShouldRejectCompletedJob() {
+    job.complete(Instant.now());
+
+    assertThatThrownBy(() -> rescheduler.resume(OWNER, job.getId()))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("409");
+  }
+
+  /** Verifies that starting a run persists it with the current deck size. */
+  @Test
+  void startShouldPersistRunningJob() {
+    when(flashcards.countByOwner(OWNER)).thenReturn(42L);
+    ArgumentCaptor<RescheduleJob> saved = ArgumentCaptor.forClass(RescheduleJob.class);
+
+    var dto = rescheduler.start(OWNER, true);
+
+    verify(jobs).save(saved.capture());
+    assertThat(saved.getValue().getOwner()).isEqualTo(OWNER);
+    assertThat(saved.getValue().getTotal()).isEqualTo(42);
+    assertThat(saved.getValue().isRecomputeIntervals()).isTrue();
+    assertThat(dto.getStatus()).isEqualTo("RUNNING");
+    assertThat(dto.getTotal()).isEqualTo(42);
+  }
+
+  /** Ensures a run is reported as missing to every deck but its own. */
+  @Test
+  void getShouldHideRunsOfOtherDecks() {
+    assertThat(rescheduler.get(OWNER, job.getId()).getTotal()).isEqualTo(3);
+    assertThatThrownBy(() -> rescheduler.get("bob", job.getId()))
+        .isInstanceOf(EntityNotFoundException.class);
+  }
+}
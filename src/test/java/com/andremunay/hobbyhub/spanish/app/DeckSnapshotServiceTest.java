@@ -0,0 +1,160 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.DeckSnapshotHead;
+import com.andremunay.hobbyhub.spanish.infra.DeckSnapshotRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardSnapshotDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Unit tests for {@link DeckSnapshotService}, covering content hashing, the pre-serialized body
+ * cache, lookups of unknown snapshots and republication of stale heads.
+ */
+@ExtendWith(MockitoExtension.class)
+class DeckSnapshotServiceTest {
+
+  private static final String OWNER = "alice";
+  private static final UUID ID = new UUID(0, 1);
+
+  @Mock private FlashcardJdbcRepository cards;
+
+  @Mock private DeckSnapshotRepository snapshots;
+
+  private DeckSnapshotService service;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new DeckSnapshotService(
+            cards, snapshots, new ObjectMapper(), new SimpleMeterRegistry(), 1 << 20, false);
+  }
+
+  private static FlashcardReviewDto card(String front, String back) {
+    return new FlashcardReviewDto(ID, front, back, null);
+  }
+
+  /** Verifies that the body is the card list without schedule and is addressed by its hash. */
+  @Test
+  void publishShouldStoreBodyUnderItsHash() {
+    when(cards.findSnapshotCards(OWNER)).thenReturn(List.of(card("hola", "hello")));
+    when(snapshots.insert(anyString(), any(), eq(1), any())).thenReturn(true);
+
+    FlashcardSnapshotDto snapshot = service.publish(OWNER);
+
+    assertThat(snapshot.getHash()).matches("[0-9a-f]{64}");
+    assertThat(snapshot.getCards()).isEqualTo(1);
+    byte[] body = service.body(snapshot.getHash());
+    assertThat(new String(body, StandardCharsets.UTF_8))
+        .isEqualTo("[{\"id\":\"" + ID + "\",\"front\":\"hola\",\"back\":\"hello\"}]");
+    assertThat(snapshot.getBytes()).isEqualTo(body.length);
+    verify(snapshots).lockHead(OWNER);
+    verify(snapshots).moveHead(eq(OWNER), eq(snapshot.getHash()), any());
+    verify(snapshots, never()).findBody(anyString());
+  }
+
+  /** Ensures unchanged contents reproduce the hash and changed contents produce a new one. */
+  @Test
+  void publishShouldHashByContent() {
+    when(cards.findSnapshotCards(OWNER))
+        .thenReturn(
+            List.of(card("hola", "hello")),
+            List.of(card("hola", "hello")),
+            List.of(card("hola", "hi")));
+
+    String first = service.publish(OWNER).getHash();
+    String same = service.publish(OWNER).getHash();
+    String changed = service.publish(OWNER).getHash();
+
+    assertThat(same).isEqualTo(first);
+    assertThat(changed).isNotEqualTo(first);
+    verify(snapshots, times(2)).insert(eq(first), any(), anyInt(), any());
+  }
+
+  /** Verifies that a body read from storage is kept in memory afterwards. */
+  @Test
+  void bodyShouldLoadOnceFromStorage() {
+    String hash = "a".repeat(64);
+    byte[] stored = "[]".getBytes(StandardCharsets.UTF_8);
+    when(snapshots.findBody(hash)).thenReturn(Optional.of(stored));
+
+    service.body(hash);
+    byte[] body = service.body(hash);
+
+    assertThat(body).isEqualTo(stored);
+    verify(snapshots, times(1)).findBody(hash);
+  }
+
+  /** Ensures unknown and malformed hashes are reported as not found. */
+  @Test
+  void bodyShouldRejectUnknownHash() {
+    String hash = "b".repeat(64);
+    when(snapshots.findBody(hash)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> service.body(hash)).isInstanceOf(ResponseStatusException.class);
+    assertThatThrownBy(() -> service.body("not-a-hash"))
+        .isInstanceOf(ResponseStatusException.class);
+    verify(snapshots, never()).findBody("not-a-hash");
+  }
+
+  /** Ensures a deck that never published has no latest snapshot. */
+  @Test
+  void latestShouldRejectUnpublishedDeck() {
+    when(snapshots.findHead(OWNER)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> service.latest(OWNER)).isInstanceOf(ResponseStatusException.class);
+  }
+
+  /** Verifies that an up-to-date head is returned without publishing. */
+  @Test
+  void latestShouldReturnFreshHead() {
+    String hash = "c".repeat(64);
+    when(snapshots.findHead(OWNER)).thenReturn(Optional.of(new DeckSnapshotHead(hash, false)));
+
+    assertThat(service.latest(OWNER)).isEqualTo(hash);
+    verify(cards, never()).findSnapshotCards(anyString());
+  }
+
+  /** Ensures a head marked stale by a card change is republished before it is returned. */
+  @Test
+  void latestShouldRepublishStaleHead() {
+    when(snapshots.findHead(OWNER))
+        .thenReturn(Optional.of(new DeckSnapshotHead("d".repeat(64), true)));
+    when(cards.findSnapshotCards(OWNER)).thenReturn(List.of(card("hola", "hello")));
+
+    String latest = service.latest(OWNER);
+
+    assertThat(latest).isNotEqualTo("d".repeat(64)).matches("[0-9a-f]{64}");
+    verify(snapshots).moveHead(eq(OWNER), eq(latest), any());
+  }
+
+  /** Verifies that a committed card change marks the owner's head stale. */
+  @Test
+  void onContentChangedShouldMarkHeadStale() {
+    service.onContentChanged(new FlashcardContentChangedEvent(OWNER));
+
+    verify(snapshots).markStale(OWNER);
+  }
+}
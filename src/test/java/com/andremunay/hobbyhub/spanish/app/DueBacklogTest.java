@@ -0,0 +1,111 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardDayCount;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardMetricsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link DueBacklog}, covering the initial load, folding of days as they come due,
+ * incremental updates from schedule events and reloads.
+ */
+class DueBacklogTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+
+  private FlashcardMetricsRepository repository;
+  private SimpleMeterRegistry registry;
+  private DueBacklog backlog;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(FlashcardMetricsRepository.class);
+    registry = new SimpleMeterRegistry();
+    backlog = new DueBacklog(repository, mock(PlatformTransactionManager.class), registry);
+    when(repository.countAllByNextReviewOn())
+        .thenReturn(
+            List.of(
+                day(TODAY.minusDays(30), 2),
+                day(TODAY, 3),
+                day(TODAY.plusDays(1), 4),
+                day(TODAY.plusDays(5), 5)));
+  }
+
+  /** Verifies that the gauge is registered and reports nothing until the counts are loaded. */
+  @Test
+  void gaugeShouldBeNaNUntilLoaded() {
+    assertThat(registry.get("flashcards.due.backlog").gauge().value()).isNaN();
+
+    backlog.loadOnStartup();
+
+    assertThat(registry.get("flashcards.due.backlog").gauge().value()).isNotNaN();
+  }
+
+  /** Verifies that overdue cards count as due and later days join the backlog as they arrive. */
+  @Test
+  void shouldCountCardsDueThroughToday() {
+    backlog.reload();
+
+    assertThat(backlog.due(TODAY)).isEqualTo(5);
+    assertThat(backlog.due(TODAY.plusDays(1))).isEqualTo(9);
+    assertThat(backlog.due(TODAY.plusDays(10))).isEqualTo(14);
+  }
+
+  /** Ensures events move cards in and out of the backlog, including from already folded days. */
+  @Test
+  void scheduleEventsShouldMoveCardsInAndOutOfBacklog() {
+    backlog.reload();
+    backlog.due(TODAY);
+
+    backlog.onScheduleChanged(
+        new FlashcardScheduleChangedEvent(
+            "alice", UUID.randomUUID(), TODAY.minusDays(30), TODAY.plusDays(1), 2.5));
+    backlog.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created("alice", UUID.randomUUID(), TODAY, 2.5));
+    backlog.onScheduleChanged(
+        FlashcardScheduleChangedEvent.deleted("bob", UUID.randomUUID(), TODAY.plusDays(5)));
+
+    assertThat(backlog.due(TODAY)).isEqualTo(5);
+    assertThat(backlog.due(TODAY.plusDays(1))).isEqualTo(10);
+    assertThat(backlog.due(TODAY.plusDays(5))).isEqualTo(14);
+  }
+
+  /** Ensures a change committed while the counts are being read is not lost by the reload. */
+  @Test
+  void reloadShouldReplayEventsSeenWhileReading() {
+    when(repository.countAllByNextReviewOn())
+        .thenAnswer(
+            inv -> {
+              backlog.onScheduleChanged(
+                  FlashcardScheduleChangedEvent.created("alice", UUID.randomUUID(), TODAY, 2.5));
+              return List.of(day(TODAY, 3));
+            });
+
+    backlog.reload();
+
+    assertThat(backlog.due(TODAY)).isEqualTo(4);
+  }
+
+  private static FlashcardDayCount day(LocalDate nextReviewOn, long cards) {
+    return new FlashcardDayCount() {
+      @Override
+      public LocalDate getNextReviewOn() {
+        return nextReviewOn;
+      }
+
+      @Override
+      public long getCards() {
+        return cards;
+      }
+    };
+  }
+}
@@ -0,0 +1,134 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardDayCount;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link DueHistogram}, covering lazy loads, range counts, clamping at both ends of
+ * the window and incremental updates from schedule events.
+ */
+class DueHistogramTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+  private static final String OWNER = "alice";
+
+  private FlashcardRepository repository;
+  private SimpleMeterRegistry registry;
+  private DueHistogram histogram;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(FlashcardRepository.class);
+    registry = new SimpleMeterRegistry();
+    histogram =
+        new DueHistogram(
+            repository,
+            mock(PlatformTransactionManager.class),
+            registry,
+            true,
+            60,
+            10,
+            Duration.ofHours(6));
+    when(repository.countByNextReviewOn(OWNER))
+        .thenReturn(
+            List.of(
+                day(TODAY.minusDays(10), 2),
+                day(TODAY, 3),
+                day(TODAY.plusDays(1), 4),
+                day(TODAY.plusDays(7), 5),
+                day(TODAY.plusDays(8), 6),
+                day(TODAY.plusDays(30), 7),
+                day(TODAY.plusDays(400), 8)));
+  }
+
+  /** Verifies that a deck is loaded once, on its first query, and then served from memory. */
+  @Test
+  void shouldLoadDeckOnFirstQuery() {
+    assertThat(histogram.total(OWNER)).isEqualTo(35);
+    assertThat(histogram.countThrough(OWNER, TODAY)).isEqualTo(5);
+
+    verify(repository, times(1)).countByNextReviewOn(OWNER);
+    assertThat(registry.get("flashcards.due.histogram.rebuild").timer().count()).isEqualTo(1);
+  }
+
+  /** Verifies prefix and range counts, with overdue cards counted as due today. */
+  @Test
+  void shouldCountDateRanges() {
+    assertThat(histogram.countThrough(OWNER, TODAY)).isEqualTo(5);
+    assertThat(histogram.count(OWNER, TODAY.plusDays(1), TODAY.plusDays(7))).isEqualTo(9);
+    assertThat(histogram.count(OWNER, TODAY.plusDays(1), TODAY.plusDays(30))).isEqualTo(22);
+    assertThat(histogram.count(OWNER, TODAY.plusDays(2), TODAY.plusDays(6))).isZero();
+    assertThat(histogram.count(OWNER, TODAY.plusDays(7), TODAY.plusDays(1))).isZero();
+    assertThat(histogram.countThrough(OWNER, TODAY.minusDays(1))).isZero();
+  }
+
+  /** Ensures cards beyond the horizon are kept in the total but not in near-term ranges. */
+  @Test
+  void shouldClampCardsBeyondHorizonIntoLastBucket() {
+    assertThat(histogram.count(OWNER, TODAY.plusDays(31), TODAY.plusDays(58))).isZero();
+    assertThat(histogram.countThrough(OWNER, TODAY.plusDays(1000))).isEqualTo(35);
+  }
+
+  /** Ensures reviews move a card between buckets, deletions remove it and creations add it. */
+  @Test
+  void scheduleEventsShouldMoveAddAndRemoveCards() {
+    histogram.total(OWNER);
+
+    histogram.onScheduleChanged(
+        new FlashcardScheduleChangedEvent(
+            OWNER, UUID.randomUUID(), TODAY.minusDays(10), TODAY.plusDays(6), 2.5));
+    histogram.onScheduleChanged(
+        FlashcardScheduleChangedEvent.deleted(OWNER, UUID.randomUUID(), TODAY.plusDays(30)));
+    histogram.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created(OWNER, UUID.randomUUID(), TODAY, 2.5));
+
+    assertThat(histogram.countThrough(OWNER, TODAY)).isEqualTo(5);
+    assertThat(histogram.count(OWNER, TODAY.plusDays(1), TODAY.plusDays(7))).isEqualTo(10);
+    assertThat(histogram.count(OWNER, TODAY.plusDays(30), TODAY.plusDays(30))).isEqualTo(6);
+    assertThat(histogram.total(OWNER)).isEqualTo(35);
+  }
+
+  /** Ensures decks are independent and an invalidated deck is reloaded on its next query. */
+  @Test
+  void decksShouldBeIsolatedAndReloadedAfterInvalidation() {
+    when(repository.countByNextReviewOn("bob")).thenReturn(List.of(day(TODAY, 1)));
+    histogram.total(OWNER);
+
+    histogram.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created("bob", UUID.randomUUID(), TODAY, 2.5));
+    assertThat(histogram.total(OWNER)).isEqualTo(35);
+    assertThat(histogram.total("bob")).isEqualTo(1);
+
+    histogram.invalidate(OWNER);
+    histogram.total(OWNER);
+    verify(repository, times(2)).countByNextReviewOn(OWNER);
+  }
+
+  private static FlashcardDayCount day(LocalDate nextReviewOn, long cards) {
+    return new FlashcardDayCount() {
+      @Override
+      public LocalDate getNextReviewOn() {
+        return nextReviewOn;
+      }
+
+      @Override
+      public long getCards() {
+        return cards;
+      }
+    };
+  }
+}
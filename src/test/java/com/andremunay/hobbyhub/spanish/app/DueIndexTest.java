@@ -0,0 +1,169 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardDueSlot;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link DueIndex}, covering lazy loads, queue ordering, cursor paging, incremental
+ * updates from schedule events, consistency checks and exported metrics.
+ */
+class DueIndexTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+  private static final String OWNER = "alice";
+
+  private final UUID hardOld = UUID.fromString("00000000-0000-0000-0000-000000000001");
+  private final UUID easyOld = UUID.fromString("00000000-0000-0000-0000-000000000002");
+  private final UUID dueToday = UUID.fromString("f0000000-0000-0000-0000-000000000003");
+  private final UUID upcoming = UUID.fromString("00000000-0000-0000-0000-000000000004");
+
+  private FlashcardRepository repository;
+  private SimpleMeterRegistry registry;
+  private DueIndex index;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(FlashcardRepository.class);
+    registry = new SimpleMeterRegistry();
+    index = new DueIndex(repository, mock(PlatformTransactionManager.class), registry, true, 10);
+    stubTable(
+        OWNER,
+        slot(easyOld, TODAY.minusDays(3), 2.5),
+        slot(hardOld, TODAY.minusDays(3), 1.3),
+        slot(dueToday, TODAY, 2.5),
+        slot(upcoming, TODAY.plusDays(4), 2.5));
+  }
+
+  /** Verifies that a deck is loaded on its first query only, and not before. */
+  @Test
+  void shouldLoadDeckOnFirstQuery() {
+    assertThat(index.size()).isZero();
+    assertThat(index.countDue(OWNER, TODAY)).isEqualTo(3);
+    assertThat(index.size()).isEqualTo(4);
+
+    index.page(OWNER, TODAY, null, 10);
+    verify(repository, times(1)).streamDueSlots(OWNER);
+  }
+
+  /** Verifies queue order (most overdue, then lowest EF) and seamless cursor continuation. */
+  @Test
+  void pageShouldFollowQueueOrderAndResumeAfterCursor() {
+    List<DueCursor> first = index.page(OWNER, TODAY, null, 2);
+    assertThat(first).extracting(DueCursor::getId).containsExactly(hardOld, easyOld);
+    assertThat(first.get(0).getEasinessFactor()).isEqualByComparingTo(new BigDecimal("1.30"));
+
+    List<DueCursor> rest = index.page(OWNER, TODAY, first.get(1), 10);
+    assertThat(rest).extracting(DueCursor::getId).containsExactly(dueToday);
+    assertThat(index.countDue(OWNER, TODAY)).isEqualTo(3);
+  }
+
+  /** Ensures reviews move a card between buckets and deletions remove it. */
+  @Test
+  void scheduleEventsShouldMoveAndRemoveCards() {
+    index.countDue(OWNER, TODAY);
+
+    index.onScheduleChanged(
+        new FlashcardScheduleChangedEvent(
+            OWNER, hardOld, TODAY.minusDays(3), TODAY.plusDays(6), 1.4));
+    index.onScheduleChanged(
+        FlashcardScheduleChangedEvent.deleted(OWNER, easyOld, TODAY.minusDays(3)));
+    UUID created = UUID.fromString("10000000-0000-0000-0000-000000000005");
+    index.onScheduleChanged(FlashcardScheduleChangedEvent.created(OWNER, created, TODAY, 2.5));
+
+    // same day and EF: ids compare unsigned like Postgres, so 1000… sorts before f000…
+    assertThat(index.page(OWNER, TODAY, null, 10))
+        .extracting(DueCursor::getId)
+        .containsExactly(created, dueToday);
+    assertThat(index.size()).isEqualTo(4);
+  }
+
+  /** Ensures a deck only sees its own cards and events. */
+  @Test
+  void decksShouldBeIsolated() {
+    UUID bobs = UUID.randomUUID();
+    stubTable("bob", slot(bobs, TODAY, 2.5));
+    index.countDue(OWNER, TODAY);
+
+    index.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created("bob", UUID.randomUUID(), TODAY, 2.5));
+
+    assertThat(index.page("bob", TODAY, null, 10))
+        .extracting(DueCursor::getId)
+        .containsExactly(bobs);
+    assertThat(index.countDue(OWNER, TODAY)).isEqualTo(3);
+  }
+
+  /** Verifies that the consistency check reports drift between the index and the table. */
+  @Test
+  void checkConsistencyShouldCountMissingStaleAndExtraEntries() {
+    index.countDue(OWNER, TODAY);
+    assertThat(index.checkConsistency(OWNER)).isZero();
+
+    UUID extra = UUID.randomUUID();
+    index.onScheduleChanged(FlashcardScheduleChangedEvent.created(OWNER, extra, TODAY, 2.5));
+    stubTable(
+        OWNER,
+        slot(easyOld, TODAY.minusDays(3), 2.5),
+        slot(hardOld, TODAY.plusDays(1), 1.3),
+        slot(dueToday, TODAY, 2.5),
+        slot(upcoming, TODAY.plusDays(4), 2.5),
+        slot(UUID.randomUUID(), TODAY, 2.5));
+
+    // one stale (hardOld moved), one missing (new row), one extra (never committed)
+    assertThat(index.checkConsistency(OWNER)).isEqualTo(3);
+
+    index.reconcile();
+    assertThat(registry.get("flashcards.due.index.drift").counter().count()).isEqualTo(3);
+    assertThat(index.size()).isZero();
+
+    index.countDue(OWNER, TODAY);
+    assertThat(index.checkConsistency(OWNER)).isZero();
+  }
+
+  /** Verifies that size and load-time metrics are exported. */
+  @Test
+  void shouldExportSizeAndRebuildMetrics() {
+    index.countDue(OWNER, TODAY);
+
+    assertThat(registry.get("flashcards.due.index.size").gauge().value()).isEqualTo(4);
+    assertThat(registry.get("flashcards.due.index.rebuild").timer().count()).isEqualTo(1);
+  }
+
+  private void stubTable(String owner, FlashcardDueSlot... slots) {
+    when(repository.streamDueSlots(owner)).thenAnswer(inv -> Stream.of(slots));
+  }
+
+  private static FlashcardDueSlot slot(UUID id, LocalDate next, double ef) {
+    return new FlashcardDueSlot() {
+      @Override
+      public UUID getId() {
+        return id;
+      }
+
+      @Override
+      public LocalDate getNextReviewOn() {
+        return next;
+      }
+
+      @Override
+      public double getEasinessFactor() {
+        return ef;
+      }
+    };
+  }
+}
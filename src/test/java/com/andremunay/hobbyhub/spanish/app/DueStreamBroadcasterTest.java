@@ -0,0 +1,222 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Unit tests for {@link DueStreamBroadcaster}, covering the connection limit and its slots, the
+ * coalescing of schedule changes into a single recount per deck and tick, and the tick thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class DueStreamBroadcasterTest {
+
+  @Mock private DueIndex dueIndex;
+
+  @Mock private FlashcardRepository repository;
+
+  private DueStreamBroadcaster broadcaster;
+
+  @BeforeEach
+  void setUp() {
+    broadcaster =
+        new DueStreamBroadcaster(
+            dueIndex,
+            repository,
+            new SimpleMeterRegistry(),
+            2,
+            Duration.ofMinutes(5),
+            Duration.ofSeconds(25),
+            Duration.ofSeconds(1));
+  }
+
+  /** Ensures a node refuses streams beyond its configured limit. */
+  @Test
+  void subscribeShouldRejectStreamsBeyondLimit() {
+    broadcaster.subscribe("alice");
+    broadcaster.subscribe("bob");
+
+    assertThatThrownBy(() -> broadcaster.subscribe("carol"))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("503");
+    assertThat(broadcaster.connections()).isEqualTo(2);
+  }
+
+  /** Ensures concurrent subscribers cannot all pass the limit check before any is registered. */
+  @Test
+  void subscribeShouldReserveSlotsAtomically() throws Exception {
+    int threads = 16;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> attempts = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      attempts.add(
+          pool.submit(
+              () -> {
+                start.await();
+                try {
+                  broadcaster.subscribe("alice");
+                  return true;
+                } catch (ResponseStatusException ex) {
+                  return false;
+                }
+              }));
+    }
+    start.countDown();
+    int opened = 0;
+    for (Future<Boolean> attempt : attempts) {
+      opened += attempt.get() ? 1 : 0;
+    }
+    pool.shutdown();
+
+    assertThat(opened).isEqualTo(2);
+    assertThat(broadcaster.connections()).isEqualTo(2);
+  }
+
+  /** Ensures a stream that fails to open, or is dropped after a failed write, frees its slot. */
+  @Test
+  void slotsShouldBeReleasedWhenStreamsFail() {
+    when(repository.countByOwnerAndNextReviewOnLessThanEqual(any(), any()))
+        .thenThrow(new IllegalStateException("database unavailable"))
+        .thenReturn(0L);
+    assertThatThrownBy(() -> broadcaster.subscribe("alice"))
+        .isInstanceOf(IllegalStateException.class);
+
+    SseEmitter alice = broadcaster.subscribe("alice");
+    broadcaster.subscribe("bob");
+    alice.complete();
+    broadcaster.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created("alice", UUID.randomUUID(), LocalDate.now(), 2.5));
+    broadcaster.tick();
+    broadcaster.subscribe("carol");
+
+    assertThat(broadcaster.connections()).isEqualTo(2);
+  }
+
+  /** Verifies that without the in-memory index the database is only counted after a change. */
+  @Test
+  void tickShouldRecountOnlyAfterChangesWhenIndexIsDisabled() {
+    LocalDate today = LocalDate.now();
+    when(repository.countByOwnerAndNextReviewOnLessThanEqual(any(), any())).thenReturn(3L);
+    broadcaster.subscribe("alice");
+
+    broadcaster.tick(); // first tick after subscribing
+    broadcaster.tick();
+    broadcaster.tick();
+    broadcaster.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created("alice", UUID.randomUUID(), today, 2.5));
+    broadcaster.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created("alice", UUID.randomUUID(), today, 2.5));
+    broadcaster.tick();
+
+    verify(repository, times(3)).countByOwnerAndNextReviewOnLessThanEqual("alice", today);
+  }
+
+  /** Ensures a change in one deck only recounts the streams watching that deck. */
+  @Test
+  void tickShouldRecountOnlyTheChangedDeck() {
+    LocalDate today = LocalDate.now();
+    when(repository.countByOwnerAndNextReviewOnLessThanEqual(any(), any())).thenReturn(3L);
+    broadcaster.subscribe("alice");
+    broadcaster.subscribe("bob");
+    broadcaster.tick();
+
+    broadcaster.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created("bob", UUID.randomUUID(), today, 2.5));
+    broadcaster.tick();
+
+    verify(repository, times(2)).countByOwnerAndNextReviewOnLessThanEqual("alice", today);
+    verify(repository, times(3)).countByOwnerAndNextReviewOnLessThanEqual("bob", today);
+  }
+
+  /**
+   * Ensures the tick counts a deck the index does not hold in the database instead of loading it.
+   */
+  @Test
+  void tickShouldNotLoadDecksIntoIndex() {
+    LocalDate today = LocalDate.now();
+    when(dueIndex.isEnabled()).thenReturn(true);
+    when(dueIndex.countDue("alice", today)).thenReturn(3L);
+    when(repository.countByOwnerAndNextReviewOnLessThanEqual("alice", today)).thenReturn(3L);
+    broadcaster.subscribe("alice");
+    // evicted from the index since
+    when(dueIndex.isLoaded("alice")).thenReturn(false);
+
+    broadcaster.onScheduleChanged(
+        FlashcardScheduleChangedEvent.created("alice", UUID.randomUUID(), today, 2.5));
+    broadcaster.tick();
+    broadcaster.tick();
+
+    verify(dueIndex, times(1)).countDue("alice", today);
+    verify(repository, times(1)).countByOwnerAndNextReviewOnLessThanEqual("alice", today);
+  }
+
+  /** Verifies that the tick runs on the broadcaster's own thread once started. */
+  @Test
+  void startShouldTickOnOwnThread() throws InterruptedException {
+    DueStreamBroadcaster ticking =
+        new DueStreamBroadcaster(
+            dueIndex,
+            repository,
+            new SimpleMeterRegistry(),
+            2,
+            Duration.ofMinutes(5),
+            Duration.ofSeconds(25),
+            Duration.ofMillis(10));
+    CountDownLatch ticked = new CountDownLatch(1);
+    List<String> threads = new ArrayList<>();
+    when(repository.countByOwnerAndNextReviewOnLessThanEqual(any(), any()))
+        .thenReturn(0L)
+        .thenAnswer(
+            invocation -> {
+              threads.add(Thread.currentThread().getName());
+              ticked.countDown();
+              return 0L;
+            });
+    ticking.subscribe("alice");
+
+    ticking.start();
+    try {
+      assertThat(ticked.await(5, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      ticking.shutdown();
+    }
+
+    assertThat(threads.get(0)).startsWith("due-stream-");
+  }
+
+  /** Verifies that nothing is counted while nobody is listening. */
+  @Test
+  void tickShouldDoNothingWithoutSubscribers() {
+    broadcaster.onScheduleChanged(
+        FlashcardScheduleChangedEvent.deleted("alice", UUID.randomUUID(), LocalDate.now()));
+
+    broadcaster.tick();
+
+    verify(repository, times(0)).countByOwnerAndNextReviewOnLessThanEqual(any(), any());
+    verify(dueIndex, times(0)).countDue(any(), any());
+  }
+}
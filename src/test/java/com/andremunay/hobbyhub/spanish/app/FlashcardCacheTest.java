@@ -0,0 +1,94 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link FlashcardCache}, covering detached copies, per-deck keys, invalidation,
+ * size-based eviction and the exported hit, miss and eviction metrics.
+ */
+class FlashcardCacheTest {
+
+  private SimpleMeterRegistry registry;
+  private FlashcardCache cache;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    cache = new FlashcardCache(registry, 2, Duration.ofMinutes(10));
+  }
+
+  /** Verifies that each hit returns an independent copy holding the cached SM-2 state. */
+  @Test
+  void getShouldReturnDetachedCopyOfCachedState() {
+    Flashcard card = new Flashcard(UUID.randomUUID(), "Está", "is");
+    card.setRepetition(2);
+    card.setEasinessFactor(2.3600000000000003);
+    card.setInterval(6);
+    card.setNextReviewOn(LocalDate.of(2025, 6, 7));
+    cache.put(card);
+
+    Flashcard copy = cache.get(CurrentUser.PUBLIC, "esta").orElseThrow();
+    copy.setRepetition(99);
+
+    Flashcard again = cache.get(CurrentUser.PUBLIC, "esta").orElseThrow();
+    assertThat(again).isNotSameAs(card).isNotSameAs(copy);
+    assertThat(again.getId()).isEqualTo(card.getId());
+    assertThat(again.getFront()).isEqualTo("Está");
+    assertThat(again.getBack()).isEqualTo("is");
+    assertThat(again.getRepetition()).isEqualTo(2);
+    assertThat(again.getEasinessFactor()).isEqualTo(2.36);
+    assertThat(again.getInterval()).isEqualTo(6);
+    assertThat(again.getNextReviewOn()).isEqualTo(LocalDate.of(2025, 6, 7));
+  }
+
+  /** Ensures evicted cards are no longer served. */
+  @Test
+  void evictShouldDropCard() {
+    cache.put(new Flashcard(UUID.randomUUID(), "hola", "hello"));
+
+    cache.evict(CurrentUser.PUBLIC, "hola");
+
+    assertThat(cache.get(CurrentUser.PUBLIC, "hola")).isEmpty();
+  }
+
+  /** Ensures the same front in two decks is cached as two separate cards. */
+  @Test
+  void shouldKeyCardsByOwner() {
+    cache.put(new Flashcard(UUID.randomUUID(), "alice", "hola", "hello"));
+    cache.put(new Flashcard(UUID.randomUUID(), "bob", "hola", "hi"));
+
+    assertThat(cache.get("alice", "hola")).get().extracting(Flashcard::getBack).isEqualTo("hello");
+    assertThat(cache.get("bob", "hola")).get().extracting(Flashcard::getBack).isEqualTo("hi");
+    assertThat(cache.get(CurrentUser.PUBLIC, "hola")).isEmpty();
+  }
+
+  /** Verifies hit/miss counters and that exceeding the size bound evicts and is counted. */
+  @Test
+  void shouldExportHitMissAndEvictionMetrics() {
+    cache.put(new Flashcard(UUID.randomUUID(), "uno", "one"));
+    cache.get(CurrentUser.PUBLIC, "uno");
+    cache.get(CurrentUser.PUBLIC, "dos");
+
+    assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count())
+        .isEqualTo(1);
+    assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count())
+        .isEqualTo(1);
+
+    cache.put(new Flashcard(UUID.randomUUID(), "dos", "two"));
+    cache.put(new Flashcard(UUID.randomUUID(), "tres", "three"));
+    cache.put(new Flashcard(UUID.randomUUID(), "cuatro", "four"));
+
+    assertThat(cache.size()).isLessThanOrEqualTo(2);
+    assertThat(registry.get("cache.evictions").tag("cache", "flashcards").functionCounter().count())
+        .isGreaterThanOrEqualTo(1);
+  }
+}
@@ -0,0 +1,64 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link FlashcardMetrics}, covering registered series and recorded values. */
+class FlashcardMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private FlashcardMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new FlashcardMetrics(registry);
+  }
+
+  private static FlashcardReviewedEvent reviewed(int grade, double easinessFactor) {
+    return new FlashcardReviewedEvent(
+        "alice", UUID.randomUUID(), grade, Instant.now(), 1, easinessFactor, 1, LocalDate.now());
+  }
+
+  /** Verifies that every tag value is registered up front, so series exist before any review. */
+  @Test
+  void shouldRegisterBoundedSeriesUpFront() {
+    assertThat(registry.get("flashcards.review.latency").timers()).hasSize(4);
+    assertThat(registry.get("flashcards.review.grades").counters()).hasSize(6);
+    assertThat(registry.get("flashcards.easiness.factor").summary().count()).isZero();
+  }
+
+  /** Verifies that a review's latency is recorded under the path it took. */
+  @Test
+  void reviewedShouldRecordLatencyByPath() {
+    metrics.reviewed(FlashcardMetrics.Path.CACHED, System.nanoTime());
+
+    assertThat(registry.get("flashcards.review.latency").tag("path", "cached").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("flashcards.review.latency").tag("path", "sql").timer().count())
+        .isZero();
+  }
+
+  /** Ensures grades and easiness factors are counted and out-of-range grades add no series. */
+  @Test
+  void onReviewedShouldCountGradesAndEasiness() {
+    metrics.onReviewed(reviewed(5, 2.6));
+    metrics.onReviewed(reviewed(5, 2.7));
+    metrics.onReviewed(reviewed(1, 1.96));
+    metrics.onReviewed(reviewed(9, 2.5));
+
+    assertThat(registry.get("flashcards.review.grades").tag("grade", "5").counter().count())
+        .isEqualTo(2);
+    assertThat(registry.get("flashcards.review.grades").tag("grade", "1").counter().count())
+        .isEqualTo(1);
+    assertThat(registry.get("flashcards.review.grades").counters()).hasSize(6);
+    assertThat(registry.get("flashcards.easiness.factor").summary().count()).isEqualTo(4);
+    assertThat(registry.get("flashcards.easiness.factor").summary().max()).isEqualTo(2.7);
+  }
+}
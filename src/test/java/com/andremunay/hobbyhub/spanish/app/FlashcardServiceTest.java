@@ -2,20 +2,42 @@ package com.andremunay.hobbyhub.spanish.app;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardBulkRow;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardField;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardQueueRow;
 import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardReviewRow;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardSearchRow;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBackDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBulkResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardGradeDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardPageDto;
 import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardStatsDto;
 import jakarta.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +46,9 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Unit tests for {@link FlashcardService}, verifying business logic and side effects such as
@@ -32,27 +57,88 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class FlashcardServiceTest {
 
+  private static final String OWNER = "alice";
+
   @Mock private FlashcardRepository repository;
 
+  @Mock private FlashcardJdbcRepository jdbcRepository;
+
   @Mock private ReviewScheduler scheduler;
 
+  @Mock private DueIndex dueIndex;
+
+  @Mock private DueHistogram histogram;
+
+  @Mock private ApplicationEventPublisher events;
+
+  @Mock private FlashcardCache cache;
+
+  @Mock private SqlSm2Reviewer sqlReviewer;
+
+  @Mock private FlashcardMetrics metrics;
+
   @InjectMocks private FlashcardService flashcardService;
 
   @Captor private ArgumentCaptor<Flashcard> flashcardCaptor;
 
+  @Captor private ArgumentCaptor<FlashcardReviewedEvent> historyCaptor;
+
+  @Captor private ArgumentCaptor<List<Flashcard>> upsertCaptor;
+
   /** Verifies that creating a new flashcard results in a saved entity with correct fields. */
   @Test
   void createShouldSaveNewFlashcard() {
     String front = "hola";
     String back = "hello";
 
-    flashcardService.create(front, back);
+    flashcardService.create(OWNER, front, back);
 
-    verify(repository).save(flashcardCaptor.capture());
+    verify(repository).saveAndFlush(flashcardCaptor.capture());
     Flashcard saved = flashcardCaptor.getValue();
     assertThat(saved.getId()).isNotNull();
+    assertThat(saved.getOwner()).isEqualTo(OWNER);
     assertThat(saved.getFront()).isEqualTo(front);
     assertThat(saved.getBack()).isEqualTo(back);
+    verify(events)
+        .publishEvent(
+            FlashcardScheduleChangedEvent.created(
+                OWNER, saved.getId(), saved.getNextReviewOn(), 2.5));
+    verify(events).publishEvent(new FlashcardContentChangedEvent(OWNER));
+  }
+
+  /** Ensures a front differing only by case or accents from an existing card is rejected. */
+  @Test
+  void createShouldRejectDuplicateNormalizedFront() {
+    when(repository.existsByOwnerAndFrontNormalized(OWNER, "esta")).thenReturn(true);
+
+    assertThatThrownBy(() -> flashcardService.create(OWNER, "  Está ", "is"))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("409");
+    verify(repository, never()).saveAndFlush(any());
+  }
+
+  /** Ensures a duplicate inserted concurrently, past the existence check, is reported as 409. */
+  @Test
+  void createShouldRejectFrontInsertedConcurrently() {
+    when(repository.saveAndFlush(any()))
+        .thenThrow(
+            new DataIntegrityViolationException(
+                "duplicate key", new SQLException("duplicate key", "23505")));
+
+    assertThatThrownBy(() -> flashcardService.create(OWNER, "hola", "hello"))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("409");
+    verifyNoInteractions(events);
+  }
+
+  /** Ensures integrity violations other than a duplicate front are not masked as conflicts. */
+  @Test
+  void createShouldRethrowOtherIntegrityViolations() {
+    DataIntegrityViolationException notNull =
+        new DataIntegrityViolationException("null value", new SQLException("null value", "23502"));
+    when(repository.saveAndFlush(any())).thenThrow(notNull);
+
+    assertThatThrownBy(() -> flashcardService.create(OWNER, "hola", "hello")).isSameAs(notNull);
   }
 
   /** Ensures that all flashcards are fetched and mapped correctly to DTOs. */
@@ -60,11 +146,10 @@ class FlashcardServiceTest {
   void getAllShouldReturnMappedDtos() {
     UUID id = UUID.randomUUID();
     LocalDate next = LocalDate.of(2025, Month.MAY, 26);
-    Flashcard card = new Flashcard(id, "f", "b");
-    card.setNextReviewOn(next);
-    when(repository.findAll()).thenReturn(List.of(card));
+    when(jdbcRepository.findReviewDtos(OWNER, FlashcardField.ALL))
+        .thenReturn(List.of(new FlashcardReviewDto(id, "f", "b", next)));
 
-    Collection<FlashcardReviewDto> dtos = flashcardService.getAll();
+    Collection<FlashcardReviewDto> dtos = flashcardService.getAll(OWNER, null);
 
     assertThat(dtos).hasSize(1);
     FlashcardReviewDto dto = dtos.iterator().next();
@@ -79,13 +164,15 @@ class FlashcardServiceTest {
   void getDueShouldReturnOnlyDueMappedDtos() {
     UUID id = UUID.randomUUID();
     LocalDate today = LocalDate.of(2025, Month.MAY, 26);
-    Flashcard card = new Flashcard(id, "x", "y");
-    card.setNextReviewOn(today.minusDays(1));
-    when(repository.findByNextReviewOnLessThanEqual(today)).thenReturn(List.of(card));
+    FlashcardQueueRow row =
+        new FlashcardQueueRow(id, "x", "y", today.minusDays(1), new BigDecimal("2.50"));
+    when(jdbcRepository.findDueQueue(OWNER, today, 51, FlashcardField.ALL))
+        .thenReturn(List.of(row));
 
-    List<FlashcardReviewDto> dtos = flashcardService.getDue(today);
+    FlashcardPageDto page = flashcardService.getDue(OWNER, today, null, 50, null);
 
-    assertThat(dtos)
+    assertThat(page.getNextCursor()).isNull();
+    assertThat(page.getItems())
         .singleElement()
         .satisfies(
             dto -> {
@@ -96,13 +183,243 @@ class FlashcardServiceTest {
             });
   }
 
+  /** Verifies that a full page yields a cursor that resumes right after its last card. */
+  @Test
+  void getDueShouldReturnCursorThatResumesAfterLastCard() {
+    LocalDate today = LocalDate.of(2025, Month.MAY, 26);
+    FlashcardQueueRow first =
+        new FlashcardQueueRow(
+            UUID.randomUUID(), "uno", "one", today.minusDays(3), new BigDecimal("2.50"));
+    FlashcardQueueRow second =
+        new FlashcardQueueRow(
+            UUID.randomUUID(), "dos", "two", today.minusDays(2), new BigDecimal("1.70"));
+    FlashcardQueueRow third =
+        new FlashcardQueueRow(UUID.randomUUID(), "tres", "three", today, new BigDecimal("2.50"));
+    when(jdbcRepository.findDueQueue(OWNER, today, 3, FlashcardField.ALL))
+        .thenReturn(List.of(first, second, third));
+
+    FlashcardPageDto page = flashcardService.getDue(OWNER, today, null, 2, null);
+
+    assertThat(page.getItems())
+        .extracting(FlashcardReviewDto::getFront)
+        .containsExactly("uno", "dos");
+    assertThat(page.getNextCursor()).isNotNull();
+
+    when(jdbcRepository.findDueQueueAfter(
+            OWNER,
+            today,
+            second.getNextReviewOn(),
+            new BigDecimal("1.70"),
+            second.getId(),
+            3,
+            FlashcardField.ALL))
+        .thenReturn(List.of(third));
+
+    FlashcardPageDto next = flashcardService.getDue(OWNER, today, page.getNextCursor(), 2, null);
+
+    assertThat(next.getItems()).extracting(FlashcardReviewDto::getFront).containsExactly("tres");
+    assertThat(next.getNextCursor()).isNull();
+  }
+
+  /** Verifies that an enabled due index picks the page and rows are hydrated by id in its order. */
+  @Test
+  void getDueShouldServeFromDueIndexWhenEnabled() {
+    LocalDate today = LocalDate.of(2025, Month.MAY, 26);
+    Flashcard first = new Flashcard(UUID.randomUUID(), OWNER, "uno", "one");
+    Flashcard second = new Flashcard(UUID.randomUUID(), OWNER, "dos", "two");
+    DueCursor p1 = new DueCursor(today, new BigDecimal("1.30"), first.getId());
+    DueCursor p2 = new DueCursor(today, new BigDecimal("2.50"), second.getId());
+    DueCursor p3 = new DueCursor(today, new BigDecimal("2.50"), UUID.randomUUID());
+    when(dueIndex.isEnabled()).thenReturn(true);
+    when(dueIndex.page(OWNER, today, null, 3)).thenReturn(List.of(p1, p2, p3));
+    when(jdbcRepository.findReviewDtosByIds(
+            OWNER, List.of(first.getId(), second.getId()), FlashcardField.ALL))
+        .thenReturn(List.of(dto(second), dto(first)));
+
+    FlashcardPageDto page = flashcardService.getDue(OWNER, today, null, 2, null);
+
+    assertThat(page.getItems())
+        .extracting(FlashcardReviewDto::getFront)
+        .containsExactly("uno", "dos");
+    assertThat(DueCursor.decode(page.getNextCursor())).isEqualTo(p2);
+    verify(jdbcRepository, never()).findDueQueue(any(), any(), any(Integer.class), any());
+  }
+
+  /** Verifies that keys read only to restore the index's order are dropped from sparse pages. */
+  @Test
+  void getDueShouldClearKeysThatWereNotRequested() {
+    LocalDate today = LocalDate.of(2025, Month.MAY, 26);
+    UUID id = UUID.randomUUID();
+    when(dueIndex.isEnabled()).thenReturn(true);
+    when(dueIndex.page(OWNER, today, null, 2))
+        .thenReturn(List.of(new DueCursor(today, new BigDecimal("2.50"), id)));
+    when(jdbcRepository.findReviewDtosByIds(
+            OWNER, List.of(id), EnumSet.of(FlashcardField.ID, FlashcardField.FRONT)))
+        .thenReturn(List.of(new FlashcardReviewDto(id, "uno", null, null)));
+
+    FlashcardPageDto page = flashcardService.getDue(OWNER, today, null, 1, "front");
+
+    assertThat(page.getItems())
+        .singleElement()
+        .satisfies(
+            dto -> {
+              assertThat(dto.getId()).isNull();
+              assertThat(dto.getFront()).isEqualTo("uno");
+              assertThat(dto.getBack()).isNull();
+            });
+  }
+
+  /** Ensures an unknown property in {@code fields} is rejected as a client error. */
+  @Test
+  void getAllShouldRejectUnknownField() {
+    assertThatThrownBy(() -> flashcardService.getAll(OWNER, "id,answer"))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400")
+        .hasMessageContaining("answer");
+    verifyNoInteractions(jdbcRepository);
+  }
+
+  /** Verifies that a card's back is loaded on its own. */
+  @Test
+  void getBackShouldReturnBack() {
+    UUID id = UUID.randomUUID();
+    when(repository.findBack(OWNER, id)).thenReturn(Optional.of("hello"));
+
+    FlashcardBackDto dto = flashcardService.getBack(OWNER, id);
+
+    assertThat(dto.getId()).isEqualTo(id);
+    assertThat(dto.getBack()).isEqualTo("hello");
+  }
+
+  /** Ensures asking for the back of a card outside the deck throws. */
+  @Test
+  void getBackShouldThrowWhenCardIsMissing() {
+    UUID id = UUID.randomUUID();
+    when(repository.findBack(OWNER, id)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> flashcardService.getBack(OWNER, id))
+        .isInstanceOf(EntityNotFoundException.class);
+  }
+
+  /** Verifies that search hits keep their rank order and page through a score/id cursor. */
+  @Test
+  void searchShouldReturnRankedPagesWithCursor() {
+    LocalDate today = LocalDate.of(2025, Month.MAY, 26);
+    FlashcardSearchRow best = new FlashcardSearchRow(UUID.randomUUID(), "gato", "cat", today, 2f);
+    FlashcardSearchRow close =
+        new FlashcardSearchRow(UUID.randomUUID(), "gatito", "kitten", today, 1.5f);
+    FlashcardSearchRow fuzzy =
+        new FlashcardSearchRow(UUID.randomUUID(), "pato", "duck", today, 0.6f);
+    when(jdbcRepository.search(OWNER, "gato", 3, FlashcardField.ALL))
+        .thenReturn(List.of(best, close, fuzzy));
+
+    FlashcardPageDto page = flashcardService.search(OWNER, "  gato ", null, 2, null);
+
+    assertThat(page.getItems())
+        .extracting(FlashcardReviewDto::getFront)
+        .containsExactly("gato", "gatito");
+    assertThat(SearchCursor.decode(page.getNextCursor()))
+        .isEqualTo(new SearchCursor(1.5f, close.getId()));
+
+    when(jdbcRepository.searchAfter(OWNER, "gato", 1.5f, close.getId(), 3, FlashcardField.ALL))
+        .thenReturn(List.of(fuzzy));
+
+    FlashcardPageDto next = flashcardService.search(OWNER, "gato", page.getNextCursor(), 2, null);
+
+    assertThat(next.getItems()).extracting(FlashcardReviewDto::getFront).containsExactly("pato");
+    assertThat(next.getNextCursor()).isNull();
+  }
+
+  /** Ensures search text too short for a trigram lookup is rejected as a client error. */
+  @Test
+  void searchShouldRejectShortQuery() {
+    assertThatThrownBy(() -> flashcardService.search(OWNER, " ab ", null, 10, null))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400");
+    verifyNoInteractions(jdbcRepository);
+  }
+
+  /** Verifies that an enabled histogram answers deck statistics without touching the database. */
+  @Test
+  void getStatsShouldServeFromHistogramWhenEnabled() {
+    LocalDate today = LocalDate.of(2025, Month.MAY, 26);
+    when(histogram.isEnabled()).thenReturn(true);
+    when(histogram.total(OWNER)).thenReturn(40L);
+    when(histogram.countThrough(OWNER, today)).thenReturn(5L);
+    when(histogram.count(OWNER, today.plusDays(1), today.plusDays(7))).thenReturn(8L);
+    when(histogram.count(OWNER, today.plusDays(1), today.plusDays(30))).thenReturn(20L);
+
+    FlashcardStatsDto stats = flashcardService.getStats(OWNER, today);
+
+    assertThat(stats)
+        .extracting("date", "total", "dueToday", "dueNext7Days", "dueNext30Days")
+        .containsExactly(today, 40L, 5L, 8L, 20L);
+    verify(repository, never()).countByOwner(any());
+  }
+
+  /** Verifies that statistics fall back to count queries when the histogram is disabled. */
+  @Test
+  void getStatsShouldCountInDatabaseWhenHistogramIsDisabled() {
+    LocalDate today = LocalDate.of(2025, Month.MAY, 26);
+    when(repository.countByOwner(OWNER)).thenReturn(40L);
+    when(repository.countByOwnerAndNextReviewOnLessThanEqual(OWNER, today)).thenReturn(5L);
+    when(repository.countByOwnerAndNextReviewOnBetween(OWNER, today.plusDays(1), today.plusDays(7)))
+        .thenReturn(8L);
+    when(repository.countByOwnerAndNextReviewOnBetween(
+            OWNER, today.plusDays(1), today.plusDays(30)))
+        .thenReturn(20L);
+
+    FlashcardStatsDto stats = flashcardService.getStats(OWNER, today);
+
+    assertThat(stats)
+        .extracting("total", "dueToday", "dueNext7Days", "dueNext30Days")
+        .containsExactly(40L, 5L, 8L, 20L);
+  }
+
+  /** Ensures the requested page size is clamped to the service maximum. */
+  @Test
+  void getDueShouldClampPageSize() {
+    LocalDate today = LocalDate.of(2025, Month.MAY, 26);
+    when(jdbcRepository.findDueQueue(
+            OWNER, today, FlashcardService.MAX_PAGE_SIZE + 1, FlashcardField.ALL))
+        .thenReturn(List.of());
+
+    FlashcardPageDto page = flashcardService.getDue(OWNER, today, null, 10_000, null);
+
+    assertThat(page.getItems()).isEmpty();
+    verify(jdbcRepository)
+        .findDueQueue(OWNER, today, FlashcardService.MAX_PAGE_SIZE + 1, FlashcardField.ALL);
+  }
+
+  /** Ensures a tampered continuation token is rejected as a client error. */
+  @Test
+  void getDueShouldRejectMalformedCursor() {
+    assertThatThrownBy(
+            () -> flashcardService.getDue(OWNER, LocalDate.now(), "not-a-cursor", 10, null))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400");
+  }
+
+  /** Verifies that review lookups fold case, accents and surrounding whitespace. */
+  @Test
+  void reviewShouldLookUpByNormalizedFront() {
+    Flashcard card = new Flashcard(UUID.randomUUID(), OWNER, "está", "is");
+    when(repository.findByOwnerAndFrontNormalized(OWNER, "esta")).thenReturn(Optional.of(card));
+    when(scheduler.review(eq(card), eq(4), any(LocalDate.class))).thenReturn(card);
+
+    FlashcardReviewDto dto = flashcardService.review(OWNER, " ESTA ", 4);
+
+    assertThat(dto.getFront()).isEqualTo("está");
+    assertThat(card.getFrontNormalized()).isEqualTo("esta");
+  }
+
   /** Ensures that an exception is thrown if a review is attempted on a non-existent flashcard. */
   @Test
   void reviewShouldThrowWhenNotFound() {
     String front = "nonexistent";
-    when(repository.findByFrontIgnoreCase(front)).thenReturn(Optional.empty());
+    when(repository.findByOwnerAndFrontNormalized(OWNER, front)).thenReturn(Optional.empty());
 
-    assertThatThrownBy(() -> flashcardService.review(front, 3))
+    assertThatThrownBy(() -> flashcardService.review(OWNER, front, 3))
         .isInstanceOf(EntityNotFoundException.class)
         .hasMessageContaining(front);
   }
@@ -115,50 +432,272 @@ class FlashcardServiceTest {
   void reviewShouldApplySchedulerAndSaveAndReturnDto() {
     String front = "hola";
     LocalDate today = LocalDate.of(2025, 5, 26);
-    Flashcard original = new Flashcard(UUID.randomUUID(), front, "hello");
+    Flashcard original = new Flashcard(UUID.randomUUID(), OWNER, front, "hello");
     original.setRepetition(1);
     original.setEasinessFactor(2.0);
     original.setInterval(1);
     original.setNextReviewOn(today);
 
-    Flashcard updated = new Flashcard(original.getId(), front, "hello");
+    Flashcard updated = new Flashcard(original.getId(), OWNER, front, "hello");
     updated.setRepetition(2);
     updated.setEasinessFactor(2.1);
     updated.setInterval(6);
     updated.setNextReviewOn(today.plusDays(6));
 
-    when(repository.findByFrontIgnoreCase(front)).thenReturn(Optional.of(original));
+    when(repository.findByOwnerAndFrontNormalized(OWNER, front)).thenReturn(Optional.of(original));
     when(scheduler.review(eq(original), eq(5), any(LocalDate.class))).thenReturn(updated);
 
-    FlashcardReviewDto dto = flashcardService.review(front, 5);
+    FlashcardReviewDto dto = flashcardService.review(OWNER, front, 5);
 
     verify(repository).save(updated);
+    verify(cache).put(updated);
+    verify(events)
+        .publishEvent(
+            new FlashcardScheduleChangedEvent(
+                OWNER, original.getId(), today, today.plusDays(6), 2.1));
+    verify(events).publishEvent(historyCaptor.capture());
+    assertThat(historyCaptor.getValue())
+        .extracting(
+            FlashcardReviewedEvent::getCardId,
+            FlashcardReviewedEvent::getGrade,
+            FlashcardReviewedEvent::getRepetition,
+            FlashcardReviewedEvent::getInterval)
+        .containsExactly(original.getId(), 5, 2, 6);
     assertThat(dto.getId()).isEqualTo(original.getId());
     assertThat(dto.getFront()).isEqualTo(front);
     assertThat(dto.getBack()).isEqualTo("hello");
     assertThat(dto.getNextReviewOn()).isEqualTo(today.plusDays(6));
   }
 
+  /** Verifies that a cached card is rescheduled with a conditional update and no initial read. */
+  @Test
+  void reviewShouldWriteThroughCachedCardWithoutReading() {
+    LocalDate today = LocalDate.now();
+    Flashcard cached = new Flashcard(UUID.randomUUID(), OWNER, "hola", "hello");
+    when(cache.get(OWNER, "hola")).thenReturn(Optional.of(cached));
+    when(scheduler.review(eq(cached), eq(5), any(LocalDate.class)))
+        .thenAnswer(
+            inv -> {
+              Flashcard card = inv.getArgument(0);
+              card.setRepetition(1);
+              card.setNextReviewOn(today.plusDays(1));
+              return card;
+            });
+    when(repository.updateScheduleIfUnchanged(
+            OWNER, cached.getId(), 1, 2.5, 1, today.plusDays(1), 0, 2.5, 1, today))
+        .thenReturn(1);
+
+    FlashcardReviewDto dto = flashcardService.review(OWNER, "Hola", 5);
+
+    assertThat(dto.getNextReviewOn()).isEqualTo(today.plusDays(1));
+    verify(cache).put(cached);
+    verify(repository, never()).findByOwnerAndFrontNormalized(any(), any());
+    verify(repository, never()).save(any());
+    verify(metrics).reviewed(eq(FlashcardMetrics.Path.CACHED), anyLong());
+  }
+
+  /**
+   * Verifies that an enabled SQL reviewer applies the whole review without entity round trips or
+   * cache writes.
+   */
+  @Test
+  void reviewShouldApplyReviewInSqlWhenEnabled() {
+    LocalDate today = LocalDate.now();
+    UUID id = UUID.randomUUID();
+    when(sqlReviewer.isEnabled()).thenReturn(true);
+    when(sqlReviewer.review(OWNER, "hola", 5, today))
+        .thenReturn(
+            Optional.of(
+                new FlashcardReviewRow(
+                    id, "Hola", "hello", 2, 2.6, 6, today.plusDays(6), today.minusDays(1))));
+
+    FlashcardReviewDto dto = flashcardService.review(OWNER, "HOLA", 5);
+
+    assertThat(dto.getId()).isEqualTo(id);
+    assertThat(dto.getNextReviewOn()).isEqualTo(today.plusDays(6));
+    verify(cache).evict(OWNER, "hola");
+    verify(cache, never()).put(any());
+    verify(events)
+        .publishEvent(
+            new FlashcardScheduleChangedEvent(
+                OWNER, id, today.minusDays(1), today.plusDays(6), 2.6));
+    verify(events).publishEvent(historyCaptor.capture());
+    assertThat(historyCaptor.getValue().getInterval()).isEqualTo(6);
+    verify(metrics).reviewed(eq(FlashcardMetrics.Path.SQL), anyLong());
+    verifyNoInteractions(repository, scheduler);
+  }
+
+  /** Ensures batch reviews do not fill the cache while single reviews go through SQL. */
+  @Test
+  void reviewBatchShouldNotCacheCardsWhenSqlReviewIsEnabled() {
+    Flashcard hola = new Flashcard(UUID.randomUUID(), OWNER, "Hola", "hello");
+    when(sqlReviewer.isEnabled()).thenReturn(true);
+    when(repository.findByOwnerAndFrontNormalizedIn(OWNER, Set.of("hola")))
+        .thenReturn(List.of(hola));
+    when(scheduler.review(eq(hola), eq(4), any(LocalDate.class))).thenReturn(hola);
+
+    flashcardService.reviewBatch(OWNER, List.of(new FlashcardGradeDto("hola", 4)));
+
+    verify(cache).evict(OWNER, "hola");
+    verify(cache, never()).put(any());
+  }
+
+  /** Ensures a SQL review that matches no row is reported as a missing card. */
+  @Test
+  void reviewShouldThrowWhenSqlReviewFindsNoCard() {
+    when(sqlReviewer.isEnabled()).thenReturn(true);
+    when(sqlReviewer.review(eq(OWNER), eq("nada"), eq(3), any(LocalDate.class)))
+        .thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> flashcardService.review(OWNER, "nada", 3))
+        .isInstanceOf(EntityNotFoundException.class)
+        .hasMessageContaining("nada");
+    verifyNoInteractions(events);
+  }
+
+  /** Ensures a cached copy that no longer matches the row is evicted and the review re-read. */
+  @Test
+  void reviewShouldFallBackToDatabaseWhenCachedCardIsStale() {
+    Flashcard stale = new Flashcard(UUID.randomUUID(), OWNER, "hola", "hello");
+    Flashcard current = new Flashcard(stale.getId(), OWNER, "hola", "hello");
+    current.setRepetition(3);
+    when(cache.get(OWNER, "hola")).thenReturn(Optional.of(stale));
+    when(scheduler.review(any(Flashcard.class), eq(4), any(LocalDate.class)))
+        .thenAnswer(inv -> inv.getArgument(0));
+    when(repository.findByOwnerAndFrontNormalized(OWNER, "hola")).thenReturn(Optional.of(current));
+
+    flashcardService.review(OWNER, "hola", 4);
+
+    verify(cache).evict(OWNER, "hola");
+    verify(repository).save(current);
+    verify(cache).put(current);
+    verify(metrics).reviewed(eq(FlashcardMetrics.Path.LOADED), anyLong());
+  }
+
+  /**
+   * Verifies that a batch resolves all cards with one query, applies grades in order, saves the
+   * touched cards once and reports unknown fronts without failing the batch.
+   */
+  @Test
+  void reviewBatchShouldApplyGradesInOrderAndReportMissingCards() {
+    Flashcard hola = new Flashcard(UUID.randomUUID(), OWNER, "Hola", "hello");
+    when(repository.findByOwnerAndFrontNormalizedIn(OWNER, Set.of("hola", "nada")))
+        .thenReturn(List.of(hola));
+    when(scheduler.review(eq(hola), any(Integer.class), any(LocalDate.class)))
+        .thenAnswer(
+            inv -> {
+              Flashcard card = inv.getArgument(0);
+              card.setRepetition(card.getRepetition() + 1);
+              return card;
+            });
+
+    List<FlashcardReviewResultDto> results =
+        flashcardService.reviewBatch(
+            OWNER,
+            List.of(
+                new FlashcardGradeDto("hola", 5),
+                new FlashcardGradeDto("nada", 4),
+                new FlashcardGradeDto("HOLA", 3)));
+
+    assertThat(results)
+        .extracting(FlashcardReviewResultDto::getFront, FlashcardReviewResultDto::getStatus)
+        .containsExactly(
+            tuple("hola", FlashcardReviewResultDto.Status.REVIEWED),
+            tuple("nada", FlashcardReviewResultDto.Status.NOT_FOUND),
+            tuple("HOLA", FlashcardReviewResultDto.Status.REVIEWED));
+    assertThat(results.get(1).getCard()).isNull();
+    assertThat(hola.getRepetition()).isEqualTo(2);
+    verify(scheduler).review(eq(hola), eq(5), any(LocalDate.class));
+    verify(scheduler).review(eq(hola), eq(3), any(LocalDate.class));
+    verify(repository).saveAll(List.of(hola));
+    verify(events, times(2)).publishEvent(historyCaptor.capture());
+    assertThat(historyCaptor.getAllValues())
+        .extracting(FlashcardReviewedEvent::getGrade, FlashcardReviewedEvent::getRepetition)
+        .containsExactly(tuple(5, 1), tuple(3, 2));
+  }
+
   /** Asserts that an existing flashcard can be deleted by ID. */
   @Test
   void deleteShouldDeleteWhenExists() {
     String front = "hola";
-    Flashcard card = new Flashcard(UUID.randomUUID(), front, "hello");
-    when(repository.findByFrontIgnoreCase(front)).thenReturn(Optional.of(card));
+    Flashcard card = new Flashcard(UUID.randomUUID(), OWNER, front, "hello");
+    when(repository.findByOwnerAndFrontNormalized(OWNER, front)).thenReturn(Optional.of(card));
 
-    flashcardService.delete(front);
+    flashcardService.delete(OWNER, front);
 
     verify(repository).delete(card);
+    verify(cache).evict(OWNER, front);
+    verify(events)
+        .publishEvent(
+            FlashcardScheduleChangedEvent.deleted(OWNER, card.getId(), card.getNextReviewOn()));
+    verify(events).publishEvent(new FlashcardContentChangedEvent(OWNER));
   }
 
   /** Ensures an exception is thrown when attempting to delete a non-existent flashcard. */
   @Test
   void deleteShouldThrowWhenNotFound() {
     String front = "adios";
-    when(repository.findByFrontIgnoreCase(front)).thenReturn(Optional.empty());
+    when(repository.findByOwnerAndFrontNormalized(OWNER, front)).thenReturn(Optional.empty());
 
-    assertThatThrownBy(() -> flashcardService.delete(front))
+    assertThatThrownBy(() -> flashcardService.delete(OWNER, front))
         .isInstanceOf(EntityNotFoundException.class)
         .hasMessageContaining(front);
   }
+
+  /**
+   * Verifies that a repeated front keeps its last entry and that writes reach the side channels.
+   */
+  @Test
+  void upsertAllShouldKeepLastEntryPerFrontAndReportCounts() {
+    UUID insertedId = UUID.randomUUID();
+    LocalDate today = LocalDate.now();
+    when(jdbcRepository.upsertAll(eq(OWNER), upsertCaptor.capture()))
+        .thenReturn(
+            List.of(
+                new FlashcardBulkRow(insertedId, "hola", today, 2.5, true),
+                new FlashcardBulkRow(UUID.randomUUID(), "adios", today, 2.1, false)));
+
+    FlashcardBulkResultDto result =
+        flashcardService.upsertAll(
+            OWNER,
+            List.of(
+                new FlashcardDto("hola", "hi"),
+                new FlashcardDto("Adiós", "bye"),
+                new FlashcardDto("HOLA", "hello")));
+
+    assertThat(upsertCaptor.getValue())
+        .extracting(Flashcard::getFront, Flashcard::getBack)
+        .containsExactly(tuple("HOLA", "hello"), tuple("Adiós", "bye"));
+    assertThat(result.getReceived()).isEqualTo(3);
+    assertThat(result.getInserted()).isEqualTo(1);
+    assertThat(result.getUpdated()).isEqualTo(1);
+    verify(events)
+        .publishEvent(FlashcardScheduleChangedEvent.created(OWNER, insertedId, today, 2.5));
+    verify(cache).evict(OWNER, "adios");
+    verify(cache, never()).evict(OWNER, "hola");
+    verify(events).publishEvent(new FlashcardContentChangedEvent(OWNER));
+  }
+
+  /** Verifies that bulk deletes match normalized fronts and clean up cache and due index. */
+  @Test
+  void deleteAllShouldDeleteByNormalizedFrontAndReportCount() {
+    UUID id = UUID.randomUUID();
+    LocalDate on = LocalDate.of(2025, Month.MAY, 20);
+    when(jdbcRepository.deleteByFrontNormalized(OWNER, Set.of("hola", "nada")))
+        .thenReturn(List.of(new FlashcardBulkRow(id, "hola", on, 2.5, false)));
+
+    FlashcardBulkResultDto result =
+        flashcardService.deleteAll(OWNER, List.of("Hóla", "hola", "nada"));
+
+    assertThat(result.getReceived()).isEqualTo(3);
+    assertThat(result.getDeleted()).isEqualTo(1);
+    verify(cache).evict(OWNER, "hola");
+    verify(events).publishEvent(FlashcardScheduleChangedEvent.deleted(OWNER, id, on));
+    verify(events).publishEvent(new FlashcardContentChangedEvent(OWNER));
+  }
+
+  private static FlashcardReviewDto dto(Flashcard card) {
+    return new FlashcardReviewDto(
+        card.getId(), card.getFront(), card.getBack(), card.getNextReviewOn());
+  }
 }
@@ -0,0 +1,193 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardImportResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardTransferDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Unit tests for {@link FlashcardTransferService}, covering NDJSON framing, import defaults and
+ * validation, and the invalidation of the deck's in-memory views after cards were added.
+ */
+@ExtendWith(MockitoExtension.class)
+class FlashcardTransferServiceTest {
+
+  private static final String OWNER = "alice";
+
+  @Mock private FlashcardJdbcRepository cards;
+
+  @Mock private DueIndex dueIndex;
+
+  @Mock private DueHistogram histogram;
+
+  @Mock private ReviewForecaster forecaster;
+
+  @Mock private ApplicationEventPublisher events;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private FlashcardTransferService service;
+
+  private final List<FlashcardTransferDto> staged = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    ObjectMapper mapper =
+        new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    service =
+        new FlashcardTransferService(
+            cards, dueIndex, histogram, forecaster, events, mapper, transactionManager);
+  }
+
+  private static InputStream body(String ndjson) {
+    return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Drains the iterator like COPY would, keeping the rows for assertions
+  private void stageEverything() {
+    when(cards.copyIntoStaging(any()))
+        .thenAnswer(
+            inv -> {
+              Iterator<FlashcardTransferDto> rows = inv.getArgument(0);
+              rows.forEachRemaining(staged::add);
+              return (long) staged.size();
+            });
+  }
+
+  /** Verifies that the export writes one JSON object per line. */
+  @Test
+  void exportShouldWriteOneJsonObjectPerLine() {
+    UUID id = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    doAnswer(
+            inv -> {
+              Consumer<FlashcardTransferDto> sink = inv.getArgument(1);
+              sink.accept(
+                  new FlashcardTransferDto(
+                      id, "hola", "hello", 2, new BigDecimal("2.36"), 6, LocalDate.of(2025, 6, 7)));
+              sink.accept(
+                  new FlashcardTransferDto(
+                      UUID.randomUUID(),
+                      "adiós",
+                      "bye",
+                      0,
+                      new BigDecimal("2.50"),
+                      1,
+                      LocalDate.of(2025, 6, 1)));
+              return null;
+            })
+        .when(cards)
+        .exportAll(eq(OWNER), any());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long rows = service.export(OWNER, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(rows).isEqualTo(2);
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0])
+        .contains("\"id\":\"" + id + "\"")
+        .contains("\"easinessFactor\":2.36")
+        .contains("\"nextReviewOn\":\"2025-06-07\"");
+    assertThat(lines[1]).contains("\"front\":\"adiós\"");
+  }
+
+  /** Verifies defaults for omitted scheduling fields and the reported skip count. */
+  @Test
+  void importShouldFillDefaultsAndReportSkippedDuplicates() {
+    stageEverything();
+    when(cards.mergeStaging(OWNER)).thenReturn(1);
+
+    FlashcardImportResultDto result =
+        service.importNdjson(
+            OWNER,
+            body(
+                """
+                {"front":"hola","back":"hello"}
+                {"front":"HOLA","back":"hi","repetition":3,"easinessFactor":1.7,"interval":15}
+                """));
+
+    assertThat(result.getReceived()).isEqualTo(2);
+    assertThat(result.getImported()).isEqualTo(1);
+    assertThat(result.getSkipped()).isEqualTo(1);
+    assertThat(result.getRowsPerSecond()).isPositive();
+    FlashcardTransferDto first = staged.get(0);
+    assertThat(first.getId()).isNotNull();
+    assertThat(first.getRepetition()).isZero();
+    assertThat(first.getEasinessFactor()).isEqualByComparingTo("2.5");
+    assertThat(first.getInterval()).isEqualTo(1);
+    assertThat(first.getNextReviewOn()).isEqualTo(LocalDate.now());
+    assertThat(staged.get(1).getInterval()).isEqualTo(15);
+    verify(cards).createImportStaging();
+    verify(dueIndex).invalidate(OWNER);
+    verify(histogram).invalidate(OWNER);
+    verify(forecaster).invalidate(OWNER);
+    verify(events).publishEvent(new FlashcardContentChangedEvent(OWNER));
+  }
+
+  /** Ensures an invalid record rejects the whole import before anything is merged. */
+  @Test
+  void importShouldRejectInvalidRecord() {
+    stageEverything();
+
+    assertThatThrownBy(
+            () ->
+                service.importNdjson(
+                    OWNER,
+                    body(
+                        """
+                        {"front":"hola","back":"hello"}
+                        {"front":" ","back":"blank"}
+                        """)))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400")
+        .hasMessageContaining("record 2");
+    verify(cards, never()).mergeStaging(any());
+    verify(dueIndex, never()).invalidate(any());
+    verify(histogram, never()).invalidate(any());
+    verifyNoInteractions(events);
+  }
+
+  /** Ensures malformed JSON is reported as a client error. */
+  @Test
+  void importShouldRejectMalformedJson() {
+    stageEverything();
+
+    assertThatThrownBy(() -> service.importNdjson(OWNER, body("{\"front\":\"hola\",\n")))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400")
+        .hasMessageContaining("Malformed JSON at record 1");
+    verify(cards, never()).mergeStaging(any());
+  }
+}
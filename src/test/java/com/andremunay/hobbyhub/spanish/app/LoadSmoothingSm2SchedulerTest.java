@@ -0,0 +1,114 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link LoadSmoothingSm2Scheduler}, covering the fuzz window, determinism, the
+ * preference for light days and agreement with plain SM-2 outside the interval.
+ */
+class LoadSmoothingSm2SchedulerTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 5, 20);
+  private static final String OWNER = "alice";
+
+  private DueHistogram histogram;
+  private LoadSmoothingSm2Scheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    histogram = mock(DueHistogram.class);
+    scheduler = new LoadSmoothingSm2Scheduler(histogram, 0.1, 7);
+  }
+
+  private static Flashcard card(int repetition, double ef, int interval) {
+    Flashcard card = new Flashcard(UUID.randomUUID(), OWNER, "hola", "hello");
+    card.setRepetition(repetition);
+    card.setEasinessFactor(ef);
+    card.setInterval(interval);
+    return card;
+  }
+
+  /** Verifies that moves stay within the ratio, capped in days, and that every day can be hit. */
+  @Test
+  void smoothShouldStayWithinFuzzWindow() {
+    Set<Integer> short6 = new HashSet<>();
+    Set<Integer> long200 = new HashSet<>();
+    for (long seed = 0; seed < 1000; seed++) {
+      short6.add(LoadSmoothingSm2Scheduler.smooth(6, seed, 0.1, 7, days -> 0));
+      long200.add(LoadSmoothingSm2Scheduler.smooth(200, seed, 0.1, 7, days -> 0));
+    }
+
+    assertThat(short6).containsExactlyInAnyOrder(5, 6, 7);
+    assertThat(long200).hasSize(15).allSatisfy(i -> assertThat(i).isBetween(193, 207));
+  }
+
+  /** Ensures one-day steps and a zero day cap leave the SM-2 interval unchanged. */
+  @Test
+  void smoothShouldKeepShortIntervalsAndDisabledFuzz() {
+    assertThat(LoadSmoothingSm2Scheduler.smooth(1, 42, 0.1, 7, days -> 0)).isEqualTo(1);
+    assertThat(LoadSmoothingSm2Scheduler.smooth(40, 42, 0.1, 0, days -> 0)).isEqualTo(40);
+  }
+
+  /** Verifies that the same seed and loads always give the same interval. */
+  @Test
+  void smoothShouldBeDeterministic() {
+    for (long seed = 0; seed < 100; seed++) {
+      assertThat(LoadSmoothingSm2Scheduler.smooth(50, seed, 0.1, 7, days -> days % 3))
+          .isEqualTo(LoadSmoothingSm2Scheduler.smooth(50, seed, 0.1, 7, days -> days % 3));
+    }
+  }
+
+  /** Ensures a day far lighter than its neighbours takes nearly all the cards. */
+  @Test
+  void smoothShouldPreferLightDays() {
+    int light = 0;
+    for (long seed = 0; seed < 1000; seed++) {
+      int interval =
+          LoadSmoothingSm2Scheduler.smooth(30, seed, 0.1, 7, days -> days == 32 ? 0 : 1000);
+      if (interval == 32) {
+        light++;
+      }
+    }
+
+    assertThat(light).isGreaterThan(990);
+  }
+
+  /** Verifies that review applies the SM-2 step and schedules the card on the chosen day. */
+  @Test
+  void reviewShouldApplySm2AndMoveToNearbyDay() {
+    when(histogram.isEnabled()).thenReturn(true);
+    Flashcard expected = new Sm2ReviewScheduler().review(card(3, 2.5, 20), 4, TODAY);
+    Flashcard card = card(3, 2.5, 20);
+
+    Flashcard updated = scheduler.review(card, 4, TODAY);
+
+    assertThat(updated.getRepetition()).isEqualTo(expected.getRepetition());
+    assertThat(updated.getEasinessFactor()).isEqualTo(expected.getEasinessFactor());
+    assertThat(updated.getInterval()).isBetween(45, 55);
+    assertThat(updated.getNextReviewOn()).isEqualTo(TODAY.plusDays(updated.getInterval()));
+    verify(histogram).count(OWNER, TODAY.plusDays(45), TODAY.plusDays(45));
+  }
+
+  /** Ensures a disabled histogram is never queried and only the fuzz is applied. */
+  @Test
+  void reviewShouldOnlyFuzzWhenHistogramDisabled() {
+    Flashcard updated = scheduler.review(card(3, 2.5, 20), 4, TODAY);
+
+    assertThat(updated.getInterval()).isBetween(45, 55);
+    verify(histogram, never()).count(eq(OWNER), any(), any());
+  }
+}
@@ -0,0 +1,106 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.ReviewAnalyticsRepository;
+import com.andremunay.hobbyhub.spanish.infra.ReviewRollupPosition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Unit tests for {@link RetentionAnalytics}, covering the requested week range and the batched,
+ * checkpointed rollup refresh.
+ */
+@ExtendWith(MockitoExtension.class)
+class RetentionAnalyticsTest {
+
+  private static final String OWNER = "alice";
+
+  @Mock private ReviewAnalyticsRepository repository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private SimpleMeterRegistry registry;
+  private RetentionAnalytics analytics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    analytics =
+        new RetentionAnalytics(
+            repository, transactionManager, registry, 100, Duration.ofMinutes(1));
+  }
+
+  /** Verifies that the range starts on the Monday of the oldest requested week. */
+  @Test
+  void weeksShouldStartOnMondayOfOldestWeek() {
+    when(repository.findWeeks(OWNER, LocalDate.of(2025, 5, 26))).thenReturn(List.of());
+
+    assertThat(analytics.weeks(OWNER, LocalDate.of(2025, 6, 4), 2)).isEmpty();
+  }
+
+  /** Ensures out-of-range week counts are rejected. */
+  @Test
+  void weeksShouldRejectInvalidRange() {
+    assertThatThrownBy(() -> analytics.weeks(OWNER, LocalDate.now(), 0))
+        .isInstanceOf(ResponseStatusException.class);
+    assertThatThrownBy(() -> analytics.weeks(OWNER, LocalDate.now(), 105))
+        .isInstanceOf(ResponseStatusException.class);
+  }
+
+  /** Verifies that full batches are followed by another and the checkpoint follows each one. */
+  @Test
+  void refreshShouldRollUpBatchesUntilCaughtUp() {
+    ReviewRollupPosition start = ReviewRollupPosition.START;
+    ReviewRollupPosition first = new ReviewRollupPosition(900, 120);
+    ReviewRollupPosition second = new ReviewRollupPosition(905, 118);
+    when(repository.lockCheckpoint()).thenReturn(Optional.of(start), Optional.of(first));
+    when(repository.settledUpTo(eq(start), any(), eq(100))).thenReturn(first);
+    when(repository.settledUpTo(eq(first), any(), eq(100))).thenReturn(second);
+    when(repository.rollUp(start, first)).thenReturn(100L);
+    when(repository.rollUp(first, second)).thenReturn(30L);
+
+    assertThat(analytics.refresh()).isEqualTo(130);
+
+    verify(repository).advanceCheckpoint(first);
+    verify(repository).advanceCheckpoint(second);
+    assertThat(registry.get("flashcards.analytics.rolled.up").counter().count()).isEqualTo(130);
+  }
+
+  /** Ensures nothing is rolled up while another node holds the checkpoint. */
+  @Test
+  void refreshShouldSkipWhenCheckpointIsLocked() {
+    when(repository.lockCheckpoint()).thenReturn(Optional.empty());
+
+    assertThat(analytics.refresh()).isZero();
+
+    verify(repository, never()).rollUp(any(), any());
+  }
+
+  /** Ensures an empty batch leaves the checkpoint alone. */
+  @Test
+  void refreshShouldNotAdvanceWithoutNewReviews() {
+    ReviewRollupPosition checkpoint = new ReviewRollupPosition(900, 42);
+    when(repository.lockCheckpoint()).thenReturn(Optional.of(checkpoint));
+    when(repository.settledUpTo(eq(checkpoint), any(), eq(100))).thenReturn(checkpoint);
+
+    assertThat(analytics.refresh()).isZero();
+
+    verify(repository, never()).advanceCheckpoint(any());
+  }
+}
@@ -0,0 +1,190 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardScheduleChunk;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardForecastDto;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Unit tests for {@link ReviewForecaster}, covering the per-card replay, determinism across chunk
+ * boundaries, caching per deck version and input validation.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReviewForecasterTest {
+
+  private static final String OWNER = "alice";
+  private static final LocalDate TODAY = LocalDate.of(2025, 5, 20);
+  private static final int[] ALWAYS_PERFECT = {0, 0, 0, 0, 0, 1};
+  private static final int[] MIXED = {1, 1, 3, 15, 50, 30};
+  private static final int[] MIXED_CUMULATIVE = {1, 2, 5, 20, 70, 100};
+
+  @Mock private FlashcardJdbcRepository cards;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final UUID a = new UUID(0, 1);
+  private final UUID b = new UUID(0, 2);
+  private final UUID c = new UUID(0, 3);
+
+  private ReviewForecaster forecaster;
+
+  @BeforeEach
+  void setUp() {
+    forecaster = new ReviewForecaster(cards, transactionManager, 2, 2, Duration.ofMinutes(10));
+  }
+
+  @AfterEach
+  void tearDown() {
+    forecaster.shutdown();
+  }
+
+  /** Verifies a new card answered perfectly follows the SM-2 progression 1, 6, 16, 45, 131. */
+  @Test
+  void simulateShouldFollowSm2Progression() {
+    FlashcardScheduleChunk chunk = new FlashcardScheduleChunk(1);
+    chunk.add(a, 0, 250, 1, TODAY.toEpochDay());
+    long[] reviews = new long[365];
+
+    ReviewForecaster.simulate(chunk, TODAY.toEpochDay(), ALWAYS_PERFECT, 1, reviews);
+
+    assertThat(reviews[0]).isEqualTo(1);
+    assertThat(reviews[1]).isEqualTo(1);
+    assertThat(reviews[7]).isEqualTo(1);
+    assertThat(reviews[23]).isEqualTo(1);
+    assertThat(reviews[68]).isEqualTo(1);
+    assertThat(reviews[199]).isEqualTo(1);
+    assertThat(sum(reviews)).isEqualTo(6);
+  }
+
+  /** Ensures overdue cards are reviewed on the first day and cards past the horizon not at all. */
+  @Test
+  void simulateShouldClampOverdueAndSkipFutureCards() {
+    FlashcardScheduleChunk chunk = new FlashcardScheduleChunk(2);
+    chunk.add(a, 3, 250, 16, TODAY.minusDays(40).toEpochDay());
+    chunk.add(b, 3, 250, 16, TODAY.plusDays(30).toEpochDay());
+    long[] reviews = new long[30];
+
+    ReviewForecaster.simulate(chunk, TODAY.toEpochDay(), ALWAYS_PERFECT, 1, reviews);
+
+    assertThat(reviews[0]).isEqualTo(1);
+    assertThat(sum(reviews)).isEqualTo(1);
+  }
+
+  /** Verifies the forecast does not depend on how the deck is split into chunks. */
+  @Test
+  void forecastShouldMatchSingleChunkReplay() {
+    stubDeck();
+    FlashcardScheduleChunk whole = new FlashcardScheduleChunk(3);
+    whole.add(a, 0, 250, 1, TODAY.toEpochDay());
+    whole.add(b, 2, 180, 6, TODAY.minusDays(3).toEpochDay());
+    whole.add(c, 5, 260, 40, TODAY.plusDays(12).toEpochDay());
+    long[] expected = new long[365];
+    ReviewForecaster.simulate(whole, TODAY.toEpochDay(), MIXED_CUMULATIVE, 7, expected);
+
+    FlashcardForecastDto forecast = forecaster.forecast(OWNER, TODAY, 365, MIXED, 7);
+
+    assertThat(forecast.getReviewsPerDay()).containsExactly(expected);
+    assertThat(forecast.getCards()).isEqualTo(3);
+    assertThat(forecast.getTotalReviews()).isEqualTo(sum(expected));
+    assertThat(forecast.getPeakReviews()).isEqualTo(Arrays.stream(expected).max().getAsLong());
+    assertThat(forecast.getFrom()).isEqualTo(TODAY);
+    assertThat(forecast.getSeed()).isEqualTo(7);
+  }
+
+  /** Ensures repeated requests are served from the cache until the deck changes. */
+  @Test
+  void forecastShouldBeCachedPerDeckVersion() {
+    stubDeck();
+
+    FlashcardForecastDto first = forecaster.forecast(OWNER, TODAY, 90, MIXED, 7);
+    assertThat(forecaster.forecast(OWNER, TODAY, 90, MIXED, 7)).isSameAs(first);
+    verify(cards, times(1)).readScheduleChunk(OWNER, null, 2);
+
+    forecaster.forecast(OWNER, TODAY, 90, MIXED, 8);
+    verify(cards, times(2)).readScheduleChunk(OWNER, null, 2);
+
+    forecaster.onScheduleChanged(FlashcardScheduleChangedEvent.created(OWNER, a, TODAY, 2.5));
+    FlashcardForecastDto recomputed = forecaster.forecast(OWNER, TODAY, 90, MIXED, 7);
+    assertThat(recomputed).isNotSameAs(first);
+    assertThat(recomputed.getReviewsPerDay()).containsExactly(first.getReviewsPerDay());
+
+    forecaster.onScheduleChanged(FlashcardScheduleChangedEvent.created("bob", a, TODAY, 2.5));
+    assertThat(forecaster.forecast(OWNER, TODAY, 90, MIXED, 7)).isSameAs(recomputed);
+
+    forecaster.invalidate(OWNER);
+    forecaster.forecast(OWNER, TODAY, 90, MIXED, 7);
+    verify(cards, times(4)).readScheduleChunk(OWNER, null, 2);
+  }
+
+  /** Verifies an empty deck forecasts no reviews. */
+  @Test
+  void forecastShouldHandleEmptyDeck() {
+    when(cards.readScheduleChunk(any(), any(), anyInt())).thenReturn(new FlashcardScheduleChunk(2));
+
+    FlashcardForecastDto forecast = forecaster.forecast(OWNER, TODAY, 10, MIXED, 7);
+
+    assertThat(forecast.getReviewsPerDay()).hasSize(10).containsOnly(0L);
+    assertThat(forecast.getCards()).isZero();
+    assertThat(forecast.getPeakReviews()).isZero();
+  }
+
+  /** Ensures invalid horizons and grade distributions are rejected as client errors. */
+  @Test
+  void forecastShouldRejectInvalidInput() {
+    assertThatThrownBy(() -> forecaster.forecast(OWNER, TODAY, 0, MIXED, 7))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400");
+    assertThatThrownBy(
+            () -> forecaster.forecast(OWNER, TODAY, ReviewForecaster.MAX_DAYS + 1, MIXED, 7))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400");
+    assertThatThrownBy(() -> forecaster.forecast(OWNER, TODAY, 30, new int[] {1, 2, 3}, 7))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400");
+    assertThatThrownBy(
+            () -> forecaster.forecast(OWNER, TODAY, 30, new int[] {1, 1, 1, 1, 1, -1}, 7))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400");
+    assertThatThrownBy(() -> forecaster.forecast(OWNER, TODAY, 30, new int[6], 7))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("400");
+  }
+
+  // Serves a, b and c as two chunks of at most two cards
+  private void stubDeck() {
+    FlashcardScheduleChunk first = new FlashcardScheduleChunk(2);
+    first.add(a, 0, 250, 1, TODAY.toEpochDay());
+    first.add(b, 2, 180, 6, TODAY.minusDays(3).toEpochDay());
+    FlashcardScheduleChunk second = new FlashcardScheduleChunk(2);
+    second.add(c, 5, 260, 40, TODAY.plusDays(12).toEpochDay());
+    when(cards.readScheduleChunk(OWNER, null, 2)).thenReturn(first);
+    when(cards.readScheduleChunk(OWNER, b, 2)).thenReturn(second);
+    when(cards.readScheduleChunk(OWNER, c, 2)).thenReturn(new FlashcardScheduleChunk(2));
+  }
+
+  private static long sum(long[] values) {
+    long total = 0;
+    for (long value : values) {
+      total += value;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,198 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardGradeDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link ReviewGroupCommitter}, covering coalescing into one transaction, per-caller
+ * results, one-by-one retries of a failed batch, the pass-through modes and the exported metrics.
+ */
+class ReviewGroupCommitterTest {
+
+  private FlashcardService service;
+  private PlatformTransactionManager transactionManager;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    service = mock(FlashcardService.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+    registry = new SimpleMeterRegistry();
+    // every front except "nada" exists
+    when(service.reviewBatch(any(), anyList()))
+        .thenAnswer(
+            inv -> {
+              List<FlashcardGradeDto> grades = inv.getArgument(1);
+              return grades.stream().map(ReviewGroupCommitterTest::applied).toList();
+            });
+  }
+
+  private ReviewGroupCommitter committer(Duration window) {
+    return new ReviewGroupCommitter(service, transactionManager, registry, window, 64, 100);
+  }
+
+  private static FlashcardReviewResultDto applied(FlashcardGradeDto grade) {
+    if (grade.getFront().equals("nada")) {
+      return new FlashcardReviewResultDto(
+          grade.getFront(), FlashcardReviewResultDto.Status.NOT_FOUND, null);
+    }
+    return new FlashcardReviewResultDto(
+        grade.getFront(),
+        FlashcardReviewResultDto.Status.REVIEWED,
+        new FlashcardReviewDto(UUID.randomUUID(), grade.getFront(), "x", LocalDate.now()));
+  }
+
+  private static ReviewGroupCommitter.PendingReview pending(String owner, String front) {
+    return new ReviewGroupCommitter.PendingReview(owner, front, 4, System.nanoTime());
+  }
+
+  /** Verifies that concurrent callers share one transaction and each gets its own card back. */
+  @Test
+  void reviewShouldCoalesceConcurrentCallersIntoOneTransaction() throws Exception {
+    ReviewGroupCommitter committer = committer(Duration.ofMillis(500));
+    committer.start();
+    int callers = 6;
+    CountDownLatch ready = new CountDownLatch(callers);
+    ExecutorService pool = Executors.newFixedThreadPool(callers);
+    try {
+      List<Future<FlashcardReviewDto>> results = new ArrayList<>();
+      for (int i = 0; i < callers; i++) {
+        String front = "palabra " + i;
+        results.add(
+            pool.submit(
+                () -> {
+                  ready.countDown();
+                  ready.await();
+                  return committer.review("alice", front, 4);
+                }));
+      }
+      for (int i = 0; i < callers; i++) {
+        assertThat(results.get(i).get(5, TimeUnit.SECONDS).getFront()).isEqualTo("palabra " + i);
+      }
+    } finally {
+      pool.shutdown();
+      committer.stop();
+    }
+
+    verify(service).reviewBatch(eq("alice"), anyList());
+    verify(transactionManager).getTransaction(any());
+    verify(service, never()).review(any(), any(), any(Integer.class));
+    assertThat(registry.get("flashcards.review.group.size").summary().max()).isEqualTo(callers);
+    assertThat(registry.get("flashcards.review.group.wait").timer().count()).isEqualTo(callers);
+  }
+
+  /** Verifies that a batch is applied per deck and a missing card only fails its own caller. */
+  @Test
+  void commitShouldCompleteEveryCallerWithItsOwnOutcome() {
+    ReviewGroupCommitter committer = committer(Duration.ofMillis(2));
+    ReviewGroupCommitter.PendingReview hola = pending("alice", "hola");
+    ReviewGroupCommitter.PendingReview nada = pending("alice", "nada");
+    ReviewGroupCommitter.PendingReview gato = pending("bob", "gato");
+
+    committer.commit(List.of(hola, nada, gato));
+
+    assertThat(hola.result.join().getFront()).isEqualTo("hola");
+    assertThat(gato.result.join().getFront()).isEqualTo("gato");
+    assertThat(nada.result).isCompletedExceptionally();
+    assertThatThrownBy(nada.result::join).hasCauseInstanceOf(EntityNotFoundException.class);
+    verify(service).reviewBatch(eq("alice"), anyList());
+    verify(service).reviewBatch(eq("bob"), anyList());
+    verify(transactionManager, times(1)).getTransaction(any());
+  }
+
+  /** Ensures a failed batch transaction is retried review by review. */
+  @Test
+  void commitShouldRetryEachReviewWhenBatchFails() {
+    ReviewGroupCommitter committer = committer(Duration.ofMillis(2));
+    when(service.reviewBatch(any(), anyList())).thenThrow(new IllegalStateException("db"));
+    FlashcardReviewDto dto = new FlashcardReviewDto(UUID.randomUUID(), "hola", "x", null);
+    when(service.review("alice", "hola", 4)).thenReturn(dto);
+    when(service.review("alice", "mal", 4)).thenThrow(new IllegalArgumentException("bad"));
+    ReviewGroupCommitter.PendingReview hola = pending("alice", "hola");
+    ReviewGroupCommitter.PendingReview mal = pending("alice", "mal");
+
+    committer.commit(List.of(hola, mal));
+
+    assertThat(hola.result.join()).isSameAs(dto);
+    assertThatThrownBy(mal.result::join).hasCauseInstanceOf(IllegalArgumentException.class);
+    assertThat(registry.get("flashcards.review.group.retried").counter().count()).isEqualTo(2);
+  }
+
+  /** Verifies that a zero window sends reviews straight to the service. */
+  @Test
+  void reviewShouldBypassQueueWhenWindowIsZero() {
+    ReviewGroupCommitter committer = committer(Duration.ZERO);
+    committer.start();
+
+    committer.review("alice", "hola", 5);
+
+    assertThat(committer.isEnabled()).isFalse();
+    assertThat(committer.isRunning()).isFalse();
+    verify(service).review("alice", "hola", 5);
+    verify(service, never()).reviewBatch(any(), anyList());
+  }
+
+  /** Ensures the caller sees the service's exception, not a wrapper. */
+  @Test
+  void reviewShouldRethrowCallersOwnError() {
+    ReviewGroupCommitter committer = committer(Duration.ofMillis(2));
+    committer.start();
+    try {
+      assertThatThrownBy(() -> committer.review("alice", "nada", 3))
+          .isInstanceOf(EntityNotFoundException.class)
+          .hasMessageContaining("nada");
+    } finally {
+      committer.stop();
+    }
+  }
+
+  /** Ensures stopping applies everything still queued before signalling completion. */
+  @Test
+  void stopShouldCommitQueuedReviewsBeforeCallback() throws Exception {
+    ReviewGroupCommitter committer = committer(Duration.ofSeconds(1));
+    // a review submitted after the stop runs on its own thread instead
+    when(service.review("alice", "hola", 4))
+        .thenReturn(new FlashcardReviewDto(UUID.randomUUID(), "hola", "x", null));
+    committer.start();
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Future<FlashcardReviewDto> result = pool.submit(() -> committer.review("alice", "hola", 4));
+      CountDownLatch stopped = new CountDownLatch(1);
+
+      committer.stop(stopped::countDown);
+
+      assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(result.get(5, TimeUnit.SECONDS).getFront()).isEqualTo("hola");
+      assertThat(committer.isRunning()).isFalse();
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
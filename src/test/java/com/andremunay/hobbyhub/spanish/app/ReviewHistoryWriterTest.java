@@ -0,0 +1,163 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Unit tests for {@link ReviewHistoryWriter}, covering multi-row batching, the batch size limit,
+ * drain-on-stop, back-pressure drops and the exported metrics.
+ */
+class ReviewHistoryWriterTest {
+
+  private JdbcTemplate jdbc;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    jdbc = mock(JdbcTemplate.class);
+    registry = new SimpleMeterRegistry();
+  }
+
+  private ReviewHistoryWriter writer(int capacity, int batchSize) {
+    return new ReviewHistoryWriter(
+        jdbc, registry, capacity, batchSize, Duration.ZERO, Duration.ofMillis(20));
+  }
+
+  private static FlashcardReviewedEvent reviewed(int grade) {
+    return new FlashcardReviewedEvent(
+        "alice", UUID.randomUUID(), grade, Instant.now(), 1, 2.36, 1, LocalDate.of(2025, 6, 2));
+  }
+
+  /** Verifies that queued reviews are written with one multi-row insert per batch. */
+  @Test
+  void flushShouldWriteBatchWithSingleMultiRowInsert() {
+    ReviewHistoryWriter writer = writer(10, 10);
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+
+    writer.flush(List.of(reviewed(5), reviewed(3), reviewed(0)));
+
+    verify(jdbc).update(sql.capture(), args.capture());
+    assertThat(sql.getValue()).startsWith("INSERT INTO flashcard_reviews").contains("), (");
+    assertThat(sql.getValue().split("\\(\\?").length - 1).isEqualTo(3);
+    assertThat(args.getValue()).hasSize(24);
+    assertThat(args.getValue()[0]).isEqualTo("alice");
+    assertThat(args.getValue()[2]).isEqualTo(5);
+    assertThat(registry.get("flashcards.review.history.written").counter().count()).isEqualTo(3);
+  }
+
+  /** Ensures batch sizes that would exceed the driver's bind limit are clamped. */
+  @Test
+  void batchSizeShouldBeClampedToBindLimit() {
+    assertThat(writer(10, 10_000).batchSize()).isEqualTo(4095);
+    assertThat(writer(10, 0).batchSize()).isEqualTo(1);
+    assertThat(writer(10, 500).batchSize()).isEqualTo(500);
+  }
+
+  /** Ensures stopping drains everything still queued before signalling completion. */
+  @Test
+  void stopShouldDrainQueueBeforeCallback() throws InterruptedException {
+    ReviewHistoryWriter writer = writer(100, 2);
+    writer.start();
+    for (int i = 0; i < 5; i++) {
+      writer.onReviewed(reviewed(4));
+    }
+    CountDownLatch stopped = new CountDownLatch(1);
+
+    writer.stop(stopped::countDown);
+
+    assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(writer.isRunning()).isFalse();
+    assertThat(writer.depth()).isZero();
+    assertThat(registry.get("flashcards.review.history.written").counter().count()).isEqualTo(5);
+    assertThat(registry.get("flashcards.review.history.flush").timer().count()).isGreaterThan(0);
+  }
+
+  /** Verifies that a full queue drops and counts new reviews instead of blocking indefinitely. */
+  @Test
+  void onReviewedShouldDropWhenQueueIsFull() throws InterruptedException {
+    CountDownLatch inFlush = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(jdbc.update(anyString(), any(Object[].class)))
+        .thenAnswer(
+            inv -> {
+              inFlush.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return 1;
+            });
+    ReviewHistoryWriter writer = writer(1, 1);
+    writer.start();
+
+    // the flusher takes the first review and stalls on the database
+    writer.onReviewed(reviewed(5));
+    assertThat(inFlush.await(5, TimeUnit.SECONDS)).isTrue();
+    writer.onReviewed(reviewed(4));
+    writer.onReviewed(reviewed(3));
+
+    assertThat(writer.depth()).isEqualTo(1);
+    assertThat(registry.get("flashcards.review.history.queue.depth").gauge().value()).isEqualTo(1);
+    assertThat(
+            registry
+                .get("flashcards.review.history.dropped")
+                .tag("reason", "queue_full")
+                .counter()
+                .count())
+        .isEqualTo(1);
+
+    release.countDown();
+    writer.stop();
+  }
+
+  /** Ensures a failing insert is counted as dropped instead of killing the flusher. */
+  @Test
+  void flushShouldCountFailedBatchAsDropped() {
+    ReviewHistoryWriter writer = writer(10, 10);
+    when(jdbc.update(anyString(), any(Object[].class))).thenThrow(new IllegalStateException("db"));
+
+    writer.flush(List.of(reviewed(5), reviewed(2)));
+
+    assertThat(
+            registry
+                .get("flashcards.review.history.dropped")
+                .tag("reason", "insert_failed")
+                .counter()
+                .count())
+        .isEqualTo(2);
+  }
+
+  /** Ensures reviews arriving after shutdown are counted rather than silently lost. */
+  @Test
+  void onReviewedShouldCountReviewsAfterStop() {
+    ReviewHistoryWriter writer = writer(10, 10);
+
+    writer.onReviewed(reviewed(5));
+
+    assertThat(writer.depth()).isZero();
+    verify(jdbc, never()).update(anyString(), any(Object[].class));
+    assertThat(
+            registry
+                .get("flashcards.review.history.dropped")
+                .tag("reason", "stopped")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+}
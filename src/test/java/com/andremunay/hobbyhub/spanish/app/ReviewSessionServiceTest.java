@@ -0,0 +1,137 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardQueueRow;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardGradeDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardSessionDto;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for {@link ReviewSessionService}, covering lease sizes, grades for cards the session
+ * does not hold, and the release, renewal and prefetch that follow a submission.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReviewSessionServiceTest {
+
+  private static final String OWNER = "alice";
+
+  @Mock private FlashcardService flashcardService;
+
+  @Mock private FlashcardJdbcRepository jdbcRepository;
+
+  private ReviewSessionService service;
+
+  @BeforeEach
+  void setUp() {
+    service = new ReviewSessionService(flashcardService, jdbcRepository, Duration.ofMinutes(10));
+  }
+
+  private static FlashcardQueueRow row(String front) {
+    return new FlashcardQueueRow(
+        UUID.randomUUID(), front, "x", LocalDate.now(), new BigDecimal("2.50"));
+  }
+
+  /** Verifies that a new session leases a clamped number of cards for the configured time. */
+  @Test
+  void startShouldLeaseDueCards() {
+    when(jdbcRepository.leaseDue(
+            eq(OWNER), any(), any(), any(), any(), eq(FlashcardService.MAX_PAGE_SIZE)))
+        .thenReturn(List.of(row("hola"), row("gato")));
+
+    FlashcardSessionDto session = service.start(OWNER, 10_000);
+
+    assertThat(session.getSessionId()).isNotNull();
+    assertThat(session.getResults()).isEmpty();
+    assertThat(session.getCards())
+        .extracting(FlashcardReviewDto::getFront)
+        .containsExactly("hola", "gato");
+    verify(jdbcRepository)
+        .leaseDue(
+            eq(OWNER),
+            eq(LocalDate.now()),
+            eq(session.getSessionId()),
+            any(),
+            eq(session.getLeasedUntil()),
+            eq(FlashcardService.MAX_PAGE_SIZE));
+  }
+
+  /** Ensures only held cards are graded, in order, and the session moves on to its next cards. */
+  @Test
+  void gradeShouldApplyHeldCardsAndPrefetchNextBatch() {
+    UUID session = UUID.randomUUID();
+    List<FlashcardGradeDto> grades =
+        List.of(
+            new FlashcardGradeDto("Hola", 5),
+            new FlashcardGradeDto("perro", 4),
+            new FlashcardGradeDto("gato", 2));
+    when(jdbcRepository.lockLeased(OWNER, session, Set.of("hola", "perro", "gato")))
+        .thenReturn(Set.of("hola", "gato"));
+    FlashcardReviewResultDto hola =
+        new FlashcardReviewResultDto("Hola", FlashcardReviewResultDto.Status.REVIEWED, null);
+    FlashcardReviewResultDto gato =
+        new FlashcardReviewResultDto("gato", FlashcardReviewResultDto.Status.REVIEWED, null);
+    when(flashcardService.reviewBatch(eq(OWNER), anyList())).thenReturn(List.of(hola, gato));
+    when(jdbcRepository.leaseDue(eq(OWNER), any(), eq(session), any(), any(), eq(2)))
+        .thenReturn(List.of(row("casa")));
+
+    FlashcardSessionDto next = service.grade(OWNER, session, grades, 2);
+
+    assertThat(next.getResults())
+        .extracting(FlashcardReviewResultDto::getFront, FlashcardReviewResultDto::getStatus)
+        .containsExactly(
+            tuple("Hola", FlashcardReviewResultDto.Status.REVIEWED),
+            tuple("perro", FlashcardReviewResultDto.Status.NOT_LEASED),
+            tuple("gato", FlashcardReviewResultDto.Status.REVIEWED));
+    assertThat(next.getCards()).extracting(FlashcardReviewDto::getFront).containsExactly("casa");
+    verify(flashcardService).reviewBatch(OWNER, List.of(grades.get(0), grades.get(2)));
+    verify(jdbcRepository).releaseLeased(OWNER, session, Set.of("hola", "gato"));
+    verify(jdbcRepository).extendLease(OWNER, session, next.getLeasedUntil());
+  }
+
+  /** Ensures a session holding none of the graded cards applies nothing. */
+  @Test
+  void gradeShouldSkipReviewWhenNoCardIsHeld() {
+    UUID session = UUID.randomUUID();
+    when(jdbcRepository.lockLeased(eq(OWNER), eq(session), any())).thenReturn(Set.of());
+
+    FlashcardSessionDto next =
+        service.grade(OWNER, session, List.of(new FlashcardGradeDto("hola", 5)), 5);
+
+    assertThat(next.getResults())
+        .extracting(FlashcardReviewResultDto::getStatus)
+        .containsExactly(FlashcardReviewResultDto.Status.NOT_LEASED);
+    verify(flashcardService, never()).reviewBatch(any(), anyList());
+    verify(jdbcRepository, never()).releaseLeased(any(), any(), any());
+  }
+
+  /** Verifies that ending a session releases everything it holds. */
+  @Test
+  void endShouldReleaseSession() {
+    UUID session = UUID.randomUUID();
+
+    service.end(OWNER, session);
+
+    verify(jdbcRepository).releaseSession(OWNER, session);
+  }
+}
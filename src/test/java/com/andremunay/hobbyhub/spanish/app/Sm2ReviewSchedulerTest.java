@@ -28,6 +28,14 @@ class Sm2ReviewSchedulerTest {
     today = LocalDate.of(2025, 5, 20);
   }
 
+  /**
+   * Applies one review through the implementation under test. Subclasses override it to run every
+   * case here against another implementation of the same SM-2 step.
+   */
+  Flashcard review(Flashcard card, int grade, LocalDate today) {
+    return scheduler.review(card, grade, today);
+  }
+
   // Helper method to build a flashcard with controlled review state
   private Flashcard createCard(int repetition, double ef, int interval) {
     Flashcard card = new Flashcard(UUID.randomUUID(), "hola", "hello");
@@ -41,7 +49,7 @@ class Sm2ReviewSchedulerTest {
   @Test
   void shouldScheduleFirstReviewCorrectly() {
     Flashcard card = createCard(0, 2.5, 0);
-    Flashcard reviewed = scheduler.review(card, 5, today);
+    Flashcard reviewed = review(card, 5, today);
 
     assertEquals(1, reviewed.getRepetition());
     assertEquals(1, reviewed.getInterval());
@@ -52,7 +60,7 @@ class Sm2ReviewSchedulerTest {
   @Test
   void shouldScheduleSecondReviewCorrectly() {
     Flashcard card = createCard(1, 2.5, 1);
-    Flashcard reviewed = scheduler.review(card, 5, today);
+    Flashcard reviewed = review(card, 5, today);
 
     assertEquals(2, reviewed.getRepetition());
     assertEquals(6, reviewed.getInterval());
@@ -65,7 +73,7 @@ class Sm2ReviewSchedulerTest {
   void shouldUseEasinessFactorWhenReviewingWithGoodGrades(
       double ef, int grade, int expectedInterval) {
     Flashcard card = createCard(2, ef, 6);
-    Flashcard reviewed = scheduler.review(card, grade, today);
+    Flashcard reviewed = review(card, grade, today);
 
     assertEquals(3, reviewed.getRepetition());
     assertEquals(expectedInterval, reviewed.getInterval());
@@ -76,7 +84,7 @@ class Sm2ReviewSchedulerTest {
   @Test
   void shouldResetIntervalAndRepetitionWhenQualityIsLow() {
     Flashcard card = createCard(3, 2.5, 10);
-    Flashcard reviewed = scheduler.review(card, 2, today);
+    Flashcard reviewed = review(card, 2, today);
 
     assertEquals(0, reviewed.getRepetition());
     assertEquals(1, reviewed.getInterval());
@@ -87,7 +95,7 @@ class Sm2ReviewSchedulerTest {
   @Test
   void shouldClampEaseFactorMinimumAt1point3() {
     Flashcard card = createCard(2, 1.2, 6);
-    Flashcard reviewed = scheduler.review(card, 0, today);
+    Flashcard reviewed = review(card, 0, today);
 
     assertTrue(reviewed.getEasinessFactor() >= 1.3);
   }
@@ -96,7 +104,7 @@ class Sm2ReviewSchedulerTest {
   @Test
   void shouldUpdateEaseFactorUpwardsWhenQualityIsHigh() {
     Flashcard card = createCard(1, 2.0, 1);
-    Flashcard reviewed = scheduler.review(card, 5, today);
+    Flashcard reviewed = review(card, 5, today);
 
     assertTrue(reviewed.getEasinessFactor() > 2.0);
   }
@@ -0,0 +1,141 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.domain.FlashcardId;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardJdbcRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardRepository;
+import com.andremunay.hobbyhub.spanish.infra.FlashcardReviewRow;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs every {@link Sm2ReviewSchedulerTest} case against {@link SqlSm2Reviewer} on a real Postgres
+ * Testcontainer, plus random review histories compared with the Java scheduler and concurrent
+ * reviews of one card.
+ *
+ * <p>Not transactional, so every review commits on its own like it does behind the service.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+  com.andremunay.hobbyhub.TestcontainersConfiguration.class,
+  FlashcardJdbcRepository.class,
+  Sm2ReviewScheduler.class,
+  SqlSm2Reviewer.class
+})
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SqlSm2ReviewerTest extends Sm2ReviewSchedulerTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 5, 20);
+
+  @Autowired private FlashcardRepository repository;
+
+  @Autowired private SqlSm2Reviewer reviewer;
+
+  @BeforeEach
+  void clearDatabase() {
+    repository.deleteAll();
+  }
+
+  /** Stores the card as given, reviews it in SQL and copies the returned state back onto it. */
+  @Override
+  Flashcard review(Flashcard card, int grade, LocalDate today) {
+    repository.saveAndFlush(card);
+    FlashcardReviewRow row =
+        reviewer.review(card.getOwner(), card.getFrontNormalized(), grade, today).orElseThrow();
+    card.setRepetition(row.getRepetition());
+    card.setEasinessFactor(row.getEasinessFactor());
+    card.setInterval(row.getInterval());
+    card.setNextReviewOn(row.getNextReviewOn());
+    return card;
+  }
+
+  /** Replays random review histories through SQL and the Java scheduler, step by step. */
+  @Test
+  void shouldMatchJavaSchedulerAlongRandomReviewHistories() {
+    assertThat(reviewer.isEnabled()).isTrue();
+    Sm2ReviewScheduler reference = new Sm2ReviewScheduler();
+    Random random = new Random(42);
+    List<Flashcard> cards = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      cards.add(new Flashcard(UUID.randomUUID(), "palabra " + i, "word " + i));
+    }
+    repository.saveAllAndFlush(cards);
+
+    for (Flashcard expected : cards) {
+      LocalDate day = TODAY;
+      for (int step = 0; step < 30; step++) {
+        int grade = random.nextInt(6);
+        LocalDate previous = expected.getNextReviewOn();
+        reference.review(expected, grade, day);
+        // what a round trip through the numeric(3,2) column does
+        expected.setEasinessFactor(stored(expected.getEasinessFactor()));
+
+        FlashcardReviewRow actual =
+            reviewer.review(expected.getOwner(), expected.getFrontNormalized(), grade, day).get();
+
+        String state = expected.getFront() + " step " + step + " grade " + grade;
+        assertThat(actual.getRepetition()).as(state).isEqualTo(expected.getRepetition());
+        assertThat(actual.getInterval()).as(state).isEqualTo(expected.getInterval());
+        assertThat(actual.getEasinessFactor()).as(state).isEqualTo(expected.getEasinessFactor());
+        assertThat(actual.getNextReviewOn()).as(state).isEqualTo(expected.getNextReviewOn());
+        assertThat(actual.getPreviousNextReviewOn()).as(state).isEqualTo(previous);
+        day = actual.getNextReviewOn();
+      }
+    }
+  }
+
+  /** Ensures concurrent reviews of the same card are all applied rather than overwritten. */
+  @Test
+  void shouldApplyEveryConcurrentReview() throws Exception {
+    Flashcard card = repository.saveAndFlush(new Flashcard(UUID.randomUUID(), "hola", "hello"));
+    int reviews = 8;
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<FlashcardReviewRow>> tasks = new ArrayList<>();
+      for (int i = 0; i < reviews; i++) {
+        tasks.add(() -> reviewer.review(card.getOwner(), "hola", 4, TODAY).orElseThrow());
+      }
+      for (Future<FlashcardReviewRow> result : pool.invokeAll(tasks)) {
+        result.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    Flashcard reviewed =
+        repository.findById(new FlashcardId(card.getOwner(), card.getId())).orElseThrow();
+    assertThat(reviewed.getRepetition()).isEqualTo(reviews);
+  }
+
+  /** Ensures reviewing a card the deck does not hold changes nothing and returns empty. */
+  @Test
+  void shouldReturnEmptyForUnknownCard() {
+    assertThat(reviewer.review("bob", "nada", 5, TODAY)).isEmpty();
+  }
+
+  private static double stored(double ef) {
+    return BigDecimal.valueOf(ef).setScale(2, RoundingMode.HALF_UP).doubleValue();
+  }
+}
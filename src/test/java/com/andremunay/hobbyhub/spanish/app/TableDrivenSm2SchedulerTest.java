@@ -0,0 +1,120 @@
+package com.andremunay.hobbyhub.spanish.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests for {@link TableDrivenSm2Scheduler} against the reference {@link
+ * Sm2ReviewScheduler}, plus checks of the packed primitive state.
+ */
+class TableDrivenSm2SchedulerTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 5, 20);
+
+  private final Sm2ReviewScheduler reference = new Sm2ReviewScheduler();
+  private final TableDrivenSm2Scheduler table = new TableDrivenSm2Scheduler();
+
+  /**
+   * Exhaustively compares both schedulers over every grade, easiness factor from 1.20 to 3.50 and a
+   * wide range of repetitions and intervals, as the state would be read back from the database.
+   */
+  @Test
+  void shouldMatchReferenceForEveryPersistedState() {
+    Flashcard expected = new Flashcard(UUID.randomUUID(), "hola", "hello");
+    for (int repetition = 0; repetition <= 6; repetition++) {
+      for (int ef = 120; ef <= 350; ef++) {
+        for (int interval = 0; interval <= 400; interval++) {
+          for (int grade = 0; grade <= 5; grade++) {
+            expected.setRepetition(repetition);
+            expected.setEasinessFactor(ef / 100.0);
+            expected.setInterval(interval);
+            reference.review(expected, grade, TODAY);
+
+            long actual = TableDrivenSm2Scheduler.schedule(repetition, ef, interval, grade);
+
+            String state = repetition + "/" + ef + "/" + interval + "/" + grade;
+            assertThat(TableDrivenSm2Scheduler.repetition(actual))
+                .as(state)
+                .isEqualTo(expected.getRepetition());
+            assertThat(TableDrivenSm2Scheduler.interval(actual))
+                .as(state)
+                .isEqualTo(expected.getInterval());
+            assertThat(TableDrivenSm2Scheduler.efHundredths(actual))
+                .as(state)
+                .isEqualTo(stored(expected.getEasinessFactor()));
+          }
+        }
+      }
+    }
+  }
+
+  /** Replays random review histories through both schedulers, persisting between steps. */
+  @Test
+  void shouldMatchReferenceAlongRandomReviewHistories() {
+    Random random = new Random(42);
+    for (int i = 0; i < 2_000; i++) {
+      Flashcard expected = new Flashcard(UUID.randomUUID(), "hola", "hello");
+      Flashcard actual = new Flashcard(expected.getId(), "hola", "hello");
+      LocalDate day = TODAY;
+      for (int step = 0; step < 40; step++) {
+        int grade = random.nextInt(6);
+        reference.review(expected, grade, day);
+        table.review(actual, grade, day);
+        // what a round trip through the numeric(3,2) column does
+        expected.setEasinessFactor(stored(expected.getEasinessFactor()) / 100.0);
+
+        assertThat(actual.getRepetition()).isEqualTo(expected.getRepetition());
+        assertThat(actual.getInterval()).isEqualTo(expected.getInterval());
+        assertThat(actual.getEasinessFactor()).isEqualTo(expected.getEasinessFactor());
+        assertThat(actual.getNextReviewOn()).isEqualTo(expected.getNextReviewOn());
+        day = actual.getNextReviewOn();
+      }
+    }
+  }
+
+  /** Verifies the SM-2 interval progression used for whole-deck recomputation. */
+  @Test
+  void canonicalIntervalShouldFollowSm2Progression() {
+    assertThat(TableDrivenSm2Scheduler.canonicalInterval(0, 250)).isEqualTo(1);
+    assertThat(TableDrivenSm2Scheduler.canonicalInterval(1, 250)).isEqualTo(1);
+    assertThat(TableDrivenSm2Scheduler.canonicalInterval(2, 250)).isEqualTo(6);
+    assertThat(TableDrivenSm2Scheduler.canonicalInterval(3, 250)).isEqualTo(15);
+    assertThat(TableDrivenSm2Scheduler.canonicalInterval(4, 250)).isEqualTo(38);
+    assertThat(TableDrivenSm2Scheduler.canonicalInterval(1_000, 250))
+        .isEqualTo(TableDrivenSm2Scheduler.MAX_INTERVAL_DAYS);
+  }
+
+  /** Verifies that large fields survive packing into a single long. */
+  @Test
+  void packedStateShouldRoundTripLargeValues() {
+    long state = TableDrivenSm2Scheduler.schedule(60_000, 2_000, 1_000_000, 5);
+
+    assertThat(TableDrivenSm2Scheduler.repetition(state)).isEqualTo(60_001);
+    assertThat(TableDrivenSm2Scheduler.efHundredths(state)).isEqualTo(2_010);
+    assertThat(TableDrivenSm2Scheduler.interval(state)).isEqualTo(20_000_000);
+  }
+
+  /** Ensures grades outside the SM-2 scale are rejected instead of indexing past the table. */
+  @Test
+  void shouldRejectGradeOutsideScale() {
+    assertThatThrownBy(() -> TableDrivenSm2Scheduler.schedule(0, 250, 1, 6))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("6");
+  }
+
+  // Easiness factor in hundredths as Postgres would store it
+  private static int stored(double easinessFactor) {
+    return BigDecimal.valueOf(easinessFactor)
+        .setScale(2, RoundingMode.HALF_UP)
+        .movePointRight(2)
+        .intValueExact();
+  }
+}
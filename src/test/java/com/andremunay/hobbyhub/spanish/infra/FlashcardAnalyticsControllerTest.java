@@ -0,0 +1,73 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.RetentionAnalytics;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardRetentionWeekDto;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/** Unit tests for {@link FlashcardAnalyticsController}, validating parameters and payloads. */
+@ExtendWith(MockitoExtension.class)
+class FlashcardAnalyticsControllerTest {
+
+  private MockMvc mvc;
+
+  @Mock private RetentionAnalytics analytics;
+
+  @InjectMocks private FlashcardAnalyticsController controller;
+
+  @BeforeEach
+  void setUp() {
+    // ISO dates, as written by the ObjectMapper Spring Boot configures
+    MappingJackson2HttpMessageConverter json =
+        new MappingJackson2HttpMessageConverter(
+            Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    mvc = MockMvcBuilders.standaloneSetup(controller).setMessageConverters(json).build();
+  }
+
+  /** Verifies the default range and the weekly figures in the response. */
+  @Test
+  void retentionShouldDefaultToTwelveWeeks() throws Exception {
+    FlashcardRetentionWeekDto week =
+        new FlashcardRetentionWeekDto(
+            LocalDate.of(2025, 6, 2), 10, new long[] {1, 0, 1, 2, 4, 2}, 8, 0.75, 2.4);
+    when(analytics.weeks(eq(CurrentUser.PUBLIC), any(), eq(12))).thenReturn(List.of(week));
+
+    mvc.perform(get("/flashcards/analytics/retention"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].weekStart").value("2025-06-02"))
+        .andExpect(jsonPath("$[0].grades[4]").value(4))
+        .andExpect(jsonPath("$[0].trueRetention").value(0.75))
+        .andExpect(jsonPath("$[0].averageIntervalGrowth").value(2.4));
+  }
+
+  /** Verifies that an explicit range is passed through. */
+  @Test
+  void retentionShouldBindWeeks() throws Exception {
+    when(analytics.weeks(eq(CurrentUser.PUBLIC), any(), eq(52))).thenReturn(List.of());
+
+    mvc.perform(get("/flashcards/analytics/retention?weeks=52"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+  }
+}
@@ -6,11 +6,20 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
 import com.andremunay.hobbyhub.spanish.app.FlashcardService;
+import com.andremunay.hobbyhub.spanish.app.ReviewGroupCommitter;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBackDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardBulkResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardPageDto;
 import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardStatsDto;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +33,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
@@ -38,11 +49,19 @@ class FlashcardControllerTest {
 
   @Mock private FlashcardService flashcardService;
 
+  @Mock private ReviewGroupCommitter reviewCommitter;
+
   @InjectMocks private FlashcardController controller;
 
   @BeforeEach
   void setUp() {
-    mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    // ISO dates, as written by the ObjectMapper Spring Boot configures
+    MappingJackson2HttpMessageConverter json =
+        new MappingJackson2HttpMessageConverter(
+            Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    mvc = MockMvcBuilders.standaloneSetup(controller).setMessageConverters(json).build();
   }
 
   /** Verifies that creating a flashcard returns HTTP 200 and that getAll returns expected JSON. */
@@ -57,7 +76,7 @@ class FlashcardControllerTest {
     var id = UUID.randomUUID();
     var nextReview = LocalDate.now();
     FlashcardReviewDto dto = new FlashcardReviewDto(id, "hola", "hello", nextReview);
-    BDDMockito.given(flashcardService.getAll()).willReturn(List.of(dto));
+    BDDMockito.given(flashcardService.getAll(CurrentUser.PUBLIC, null)).willReturn(List.of(dto));
 
     mvc.perform(get("/flashcards"))
         .andExpect(status().isOk())
@@ -70,14 +89,35 @@ class FlashcardControllerTest {
     var id = UUID.randomUUID();
     var nextReview = LocalDate.now().minusDays(1);
     FlashcardReviewDto dto = new FlashcardReviewDto(id, "A", "B", nextReview);
-    BDDMockito.given(flashcardService.getDue(Mockito.any(LocalDate.class)))
-        .willReturn(List.of(dto));
+    BDDMockito.given(
+            flashcardService.getDue(
+                Mockito.eq(CurrentUser.PUBLIC),
+                Mockito.any(LocalDate.class),
+                Mockito.isNull(),
+                Mockito.eq(50),
+                Mockito.isNull()))
+        .willReturn(new FlashcardPageDto(List.of(dto), null));
 
     mvc.perform(get("/flashcards/review").param("due", "true"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$[0].back").value("B"));
   }
 
+  /** Verifies that the stats endpoint reports the service's counts for today. */
+  @Test
+  void getStatsShouldReturnDeckCounts() throws Exception {
+    LocalDate today = LocalDate.now();
+    when(flashcardService.getStats(CurrentUser.PUBLIC, today))
+        .thenReturn(new FlashcardStatsDto(today, 40, 5, 8, 20));
+
+    mvc.perform(get("/flashcards/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.date").value(today.toString()))
+        .andExpect(jsonPath("$.dueToday").value(5))
+        .andExpect(jsonPath("$.dueNext7Days").value(8))
+        .andExpect(jsonPath("$.dueNext30Days").value(20));
+  }
+
   /** Verifies that the review endpoint accepts a grade and returns an updated DTO. */
   @Test
   void reviewEndpointShouldApplyGradeAndReturnUpdatedDto() throws Exception {
@@ -87,8 +127,9 @@ class FlashcardControllerTest {
     LocalDate nextReview = LocalDate.now().plusDays(6);
     FlashcardReviewDto updatedDto = new FlashcardReviewDto(id, front, "hello", nextReview);
 
-    // Stub service to expect (front, grade)
-    BDDMockito.given(flashcardService.review(front, grade)).willReturn(updatedDto);
+    // Stub the committer to expect (front, grade)
+    BDDMockito.given(reviewCommitter.review(CurrentUser.PUBLIC, front, grade))
+        .willReturn(updatedDto);
 
     String payload = String.format("{\"front\":\"%s\",\"grade\":%d}", front, grade);
 
@@ -100,15 +141,94 @@ class FlashcardControllerTest {
         .andExpect(jsonPath("$.nextReviewOn").value(nextReview.toString()));
   }
 
+  /** Verifies that the batch review endpoint forwards all entries and returns per-item results. */
+  @Test
+  void reviewBatchEndpointShouldReturnPerItemResults() throws Exception {
+    var reviewed = new FlashcardReviewDto(UUID.randomUUID(), "hola", "hello", LocalDate.now());
+    BDDMockito.given(
+            flashcardService.reviewBatch(Mockito.eq(CurrentUser.PUBLIC), Mockito.anyList()))
+        .willReturn(
+            List.of(
+                new FlashcardReviewResultDto(
+                    "hola", FlashcardReviewResultDto.Status.REVIEWED, reviewed),
+                new FlashcardReviewResultDto(
+                    "nada", FlashcardReviewResultDto.Status.NOT_FOUND, null)));
+
+    String payload =
+        "{\"reviews\":[{\"front\":\"hola\",\"grade\":5},{\"front\":\"nada\",\"grade\":2}]}";
+
+    mvc.perform(
+            post("/flashcards/review/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payload))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status").value("REVIEWED"))
+        .andExpect(jsonPath("$[0].card.back").value("hello"))
+        .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+  }
+
+  /** Asserts that an empty batch is rejected by validation. */
+  @Test
+  void reviewBatchEndpointShouldRejectEmptyBatch() throws Exception {
+    mvc.perform(
+            post("/flashcards/review/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviews\":[]}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  /** Verifies that the bulk upsert endpoint forwards every card and returns the counts. */
+  @Test
+  void upsertBatchEndpointShouldReturnCounts() throws Exception {
+    BDDMockito.given(flashcardService.upsertAll(Mockito.eq(CurrentUser.PUBLIC), Mockito.anyList()))
+        .willReturn(new FlashcardBulkResultDto(2, 1, 1, 0));
+
+    mvc.perform(
+            post("/flashcards/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "{\"cards\":[{\"front\":\"hola\",\"back\":\"hi\"},"
+                        + "{\"front\":\"adiós\",\"back\":\"bye\"}]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(2))
+        .andExpect(jsonPath("$.inserted").value(1))
+        .andExpect(jsonPath("$.updated").value(1));
+  }
+
+  /** Asserts that a card without a back is rejected before reaching the service. */
+  @Test
+  void upsertBatchEndpointShouldRejectInvalidCard() throws Exception {
+    mvc.perform(
+            post("/flashcards/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"cards\":[{\"front\":\"hola\",\"back\":\"\"}]}"))
+        .andExpect(status().isBadRequest());
+    verifyNoMoreInteractions(flashcardService);
+  }
+
+  /** Verifies that the bulk delete endpoint returns the number of deleted cards. */
+  @Test
+  void deleteBatchEndpointShouldReturnDeletedCount() throws Exception {
+    BDDMockito.given(flashcardService.deleteAll(CurrentUser.PUBLIC, List.of("hola", "nada")))
+        .willReturn(new FlashcardBulkResultDto(2, 0, 0, 1));
+
+    mvc.perform(
+            post("/flashcards/batch/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fronts\":[\"hola\",\"nada\"]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.deleted").value(1));
+  }
+
   /** Verifies that a flashcard can be deleted by ID. */
   @Test
   void deleteCard_byFront() throws Exception {
     String front = "hola";
-    BDDMockito.willDoNothing().given(flashcardService).delete(front);
+    BDDMockito.willDoNothing().given(flashcardService).delete(CurrentUser.PUBLIC, front);
 
     mvc.perform(delete("/flashcards").param("front", front)).andExpect(status().isNoContent());
 
-    Mockito.verify(flashcardService).delete(front);
+    Mockito.verify(flashcardService).delete(CurrentUser.PUBLIC, front);
   }
 
   /** Verifies that only due flashcards are returned when ?due=true is specified. */
@@ -117,17 +237,56 @@ class FlashcardControllerTest {
   void getDue_whenTrue_returnsOnlyDue() throws Exception {
     var dueCard =
         new FlashcardReviewDto(UUID.randomUUID(), "uno", "one", LocalDate.now().minusDays(1));
-    when(flashcardService.getDue(LocalDate.now())).thenReturn(List.of(dueCard));
+    when(flashcardService.getDue(CurrentUser.PUBLIC, LocalDate.now(), null, 50, null))
+        .thenReturn(new FlashcardPageDto(List.of(dueCard), null));
 
     mvc.perform(get("/flashcards/review").param("due", "true").accept(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(FlashcardController.NEXT_CURSOR_HEADER))
         .andExpect(jsonPath("$[0].front").value("uno"))
         .andExpect(jsonPath("$[0].id").value(dueCard.getId().toString()));
 
-    verify(flashcardService).getDue(LocalDate.now());
+    verify(flashcardService).getDue(CurrentUser.PUBLIC, LocalDate.now(), null, 50, null);
     verifyNoMoreInteractions(flashcardService);
   }
 
+  /**
+   * Verifies that the cursor and limit are forwarded and the next cursor is exposed as a header.
+   */
+  @Test
+  @DisplayName("GET /flashcards/review?due=true&cursor=… → pages through the due queue")
+  void getDue_withCursor_returnsNextCursorHeader() throws Exception {
+    var dueCard = new FlashcardReviewDto(UUID.randomUUID(), "cuatro", "four", LocalDate.now());
+    when(flashcardService.getDue(CurrentUser.PUBLIC, LocalDate.now(), "abc", 1, null))
+        .thenReturn(new FlashcardPageDto(List.of(dueCard), "def"));
+
+    mvc.perform(
+            get("/flashcards/review")
+                .param("due", "true")
+                .param("cursor", "abc")
+                .param("limit", "1")
+                .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string(FlashcardController.NEXT_CURSOR_HEADER, "def"))
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].front").value("cuatro"));
+  }
+
+  /** Verifies that search forwards its parameters and exposes the next cursor as a header. */
+  @Test
+  @DisplayName("GET /flashcards/search?q=… → returns ranked hits")
+  void search_returnsHitsAndNextCursorHeader() throws Exception {
+    var hit = new FlashcardReviewDto(UUID.randomUUID(), "gato", "cat", LocalDate.now());
+    when(flashcardService.search(CurrentUser.PUBLIC, "gat", null, 20, null))
+        .thenReturn(new FlashcardPageDto(List.of(hit), "next"));
+
+    mvc.perform(get("/flashcards/search").param("q", "gat").accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string(FlashcardController.NEXT_CURSOR_HEADER, "next"))
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].front").value("gato"));
+  }
+
   /** Verifies that all flashcards are returned when ?due=false is specified. */
   @Test
   @DisplayName("GET /flashcards/review?due=false → returns all cards")
@@ -135,7 +294,7 @@ class FlashcardControllerTest {
     var c1 = new FlashcardReviewDto(UUID.randomUUID(), "dos", "two", LocalDate.now());
     var c2 =
         new FlashcardReviewDto(UUID.randomUUID(), "tres", "three", LocalDate.now().plusDays(1));
-    when(flashcardService.getAll()).thenReturn(List.of(c1, c2));
+    when(flashcardService.getAll(CurrentUser.PUBLIC, null)).thenReturn(List.of(c1, c2));
 
     mvc.perform(get("/flashcards/review").param("due", "false").accept(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
@@ -143,10 +302,40 @@ class FlashcardControllerTest {
         .andExpect(jsonPath("$[?(@.front=='dos')]").exists())
         .andExpect(jsonPath("$[?(@.front=='tres')]").exists());
 
-    verify(flashcardService).getAll();
+    verify(flashcardService).getAll(CurrentUser.PUBLIC, null);
     verifyNoMoreInteractions(flashcardService);
   }
 
+  /** Verifies that {@code fields} is forwarded and properties left out are omitted. */
+  @Test
+  @DisplayName("GET /flashcards?fields=id,front → returns only the requested properties")
+  void getAll_withFields_omitsUnrequestedProperties() throws Exception {
+    var id = UUID.randomUUID();
+    when(flashcardService.getAll(CurrentUser.PUBLIC, "id,front"))
+        .thenReturn(List.of(new FlashcardReviewDto(id, "hola", null, null)));
+
+    mvc.perform(get("/flashcards").param("fields", "id,front"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(id.toString()))
+        .andExpect(jsonPath("$[0].front").value("hola"))
+        .andExpect(jsonPath("$[0].back").doesNotExist())
+        .andExpect(jsonPath("$[0].nextReviewOn").doesNotExist());
+  }
+
+  /** Verifies that a card's back can be fetched on its own. */
+  @Test
+  @DisplayName("GET /flashcards/{id}/back → returns the card's back")
+  void getBack_returnsBack() throws Exception {
+    var id = UUID.randomUUID();
+    when(flashcardService.getBack(CurrentUser.PUBLIC, id))
+        .thenReturn(new FlashcardBackDto(id, "hello"));
+
+    mvc.perform(get("/flashcards/{id}/back", id))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(id.toString()))
+        .andExpect(jsonPath("$.back").value("hello"));
+  }
+
   /** Asserts that omitting the 'due' query parameter results in a 400 Bad Request. */
   @Test
   @DisplayName("GET /flashcards/review → missing ‘due’ param yields 400 Bad Request")
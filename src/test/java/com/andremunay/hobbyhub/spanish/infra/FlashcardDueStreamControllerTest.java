@@ -0,0 +1,86 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.andremunay.hobbyhub.spanish.app.DueIndex;
+import com.andremunay.hobbyhub.spanish.app.DueStreamBroadcaster;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/** Unit tests for {@link FlashcardDueStreamController}, validating the SSE wire format. */
+@ExtendWith(MockitoExtension.class)
+class FlashcardDueStreamControllerTest {
+
+  private MockMvc mvc;
+
+  @Mock private DueIndex dueIndex;
+
+  @Mock private FlashcardRepository repository;
+
+  private DueStreamBroadcaster broadcaster;
+
+  @BeforeEach
+  void setUp() {
+    broadcaster =
+        new DueStreamBroadcaster(
+            dueIndex,
+            repository,
+            new SimpleMeterRegistry(),
+            10,
+            Duration.ofMinutes(5),
+            Duration.ofSeconds(25),
+            Duration.ofSeconds(1));
+    // ISO dates, as written by the ObjectMapper Spring Boot configures
+    MappingJackson2HttpMessageConverter json =
+        new MappingJackson2HttpMessageConverter(
+            Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    mvc =
+        MockMvcBuilders.standaloneSetup(new FlashcardDueStreamController(broadcaster))
+            .setMessageConverters(json)
+            .build();
+  }
+
+  /** Verifies the initial count and a follow-up event once the due set changes. */
+  @Test
+  void streamShouldSendCurrentCountThenChanges() throws Exception {
+    when(dueIndex.isEnabled()).thenReturn(true);
+    when(dueIndex.isLoaded(any())).thenReturn(true);
+    when(dueIndex.countDue(any(), any())).thenReturn(4L);
+
+    MvcResult result =
+        mvc.perform(get("/flashcards/due/stream").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    broadcaster.tick();
+    when(dueIndex.countDue(any(), any())).thenReturn(3L);
+    broadcaster.tick();
+    broadcaster.tick();
+
+    String body = result.getResponse().getContentAsString();
+    String today = LocalDate.now().toString();
+    assertThat(body)
+        .startsWith("event:due\ndata:{\"date\":\"" + today + "\",\"due\":4}\n\n")
+        .endsWith("event:due\ndata:{\"date\":\"" + today + "\",\"due\":3}\n\n");
+    assertThat(body.split("event:due")).hasSize(4);
+    assertThat(result.getResponse().getContentType()).startsWith("text/event-stream");
+  }
+}
@@ -0,0 +1,80 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.ReviewForecaster;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardForecastDto;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/** Unit tests for {@link FlashcardForecastController}, validating parameter defaults. */
+@ExtendWith(MockitoExtension.class)
+class FlashcardForecastControllerTest {
+
+  private MockMvc mvc;
+
+  @Mock private ReviewForecaster forecaster;
+
+  @InjectMocks private FlashcardForecastController controller;
+
+  @BeforeEach
+  void setUp() {
+    // ISO dates, as written by the ObjectMapper Spring Boot configures
+    MappingJackson2HttpMessageConverter json =
+        new MappingJackson2HttpMessageConverter(
+            Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    mvc = MockMvcBuilders.standaloneSetup(controller).setMessageConverters(json).build();
+  }
+
+  /** Verifies the default horizon, grade distribution and seed. */
+  @Test
+  void forecastShouldUseDefaults() throws Exception {
+    LocalDate today = LocalDate.now();
+    when(forecaster.forecast(
+            eq(CurrentUser.PUBLIC),
+            eq(today),
+            eq(365),
+            aryEq(new int[] {1, 1, 3, 15, 50, 30}),
+            eq(42L)))
+        .thenReturn(new FlashcardForecastDto(today, 42, 2, 3, 2, new long[] {2, 1}));
+
+    mvc.perform(get("/flashcards/forecast"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.from").value(today.toString()))
+        .andExpect(jsonPath("$.totalReviews").value(3))
+        .andExpect(jsonPath("$.reviewsPerDay[0]").value(2))
+        .andExpect(jsonPath("$.reviewsPerDay[1]").value(1));
+  }
+
+  /** Verifies that explicit parameters are passed through to the forecaster. */
+  @Test
+  void forecastShouldBindParameters() throws Exception {
+    LocalDate today = LocalDate.now();
+    when(forecaster.forecast(
+            eq(CurrentUser.PUBLIC), eq(today), eq(30), aryEq(new int[] {0, 0, 1, 1, 1, 1}), eq(7L)))
+        .thenReturn(new FlashcardForecastDto(today, 7, 0, 0, 0, new long[30]));
+
+    mvc.perform(get("/flashcards/forecast?days=30&grades=0,0,1,1,1,1&seed=7"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.seed").value(7))
+        .andExpect(jsonPath("$.reviewsPerDay.length()").value(30));
+  }
+}
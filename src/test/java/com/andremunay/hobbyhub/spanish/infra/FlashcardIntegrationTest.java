@@ -8,6 +8,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -150,6 +151,43 @@ class FlashcardIntegrationTest {
     assertThat(updated.getNextReviewOn()).isAfter(LocalDate.now());
   }
 
+  /** Verifies that a batch of reviews is applied in one request with per-item results. */
+  @WithMockUser(
+      username = "testuser",
+      roles = {"USER"})
+  @Test
+  void reviewBatch_appliesGradesAndReportsMissingCards() throws Exception {
+    mockMvc
+        .perform(
+            post("/flashcards")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"front\":\"cinco\",\"back\":\"five\"}"))
+        .andExpect(status().isOk());
+
+    String batch =
+        "{\"reviews\":[{\"front\":\"cinco\",\"grade\":5},"
+            + "{\"front\":\"no-such-card\",\"grade\":4},"
+            + "{\"front\":\"CINCO\",\"grade\":5}]}";
+    MvcResult res =
+        mockMvc
+            .perform(
+                post("/flashcards/review/batch")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(batch))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    FlashcardReviewResultDto[] results =
+        mapper.readValue(res.getResponse().getContentAsString(), FlashcardReviewResultDto[].class);
+    assertThat(results).hasSize(3);
+    assertThat(results[1].getStatus()).isEqualTo(FlashcardReviewResultDto.Status.NOT_FOUND);
+    // two consecutive perfect reviews: 1 day, then 6 days
+    assertThat(results[0].getCard().getNextReviewOn()).isEqualTo(LocalDate.now().plusDays(1));
+    assertThat(results[2].getCard().getNextReviewOn()).isEqualTo(LocalDate.now().plusDays(6));
+  }
+
   /** Verifies that a flashcard can be deleted and no longer appears in results. */
   @WithMockUser(
       username = "testuser",
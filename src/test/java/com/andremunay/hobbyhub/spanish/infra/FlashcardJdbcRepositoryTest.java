@@ -0,0 +1,438 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import com.andremunay.hobbyhub.spanish.domain.FlashcardId;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardTransferDto;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Integration tests for {@link FlashcardJdbcRepository} using a real Postgres Testcontainer.
+ *
+ * <p>Validates due-queue keyset pages, ranked trigram search, keyset chunk reads, the conditional
+ * set-based schedule update and the COPY-based import / cursor export round trip, the array-bound
+ * bulk upsert and delete, review-session leases, hot-tier promotion and snapshot reads.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({com.andremunay.hobbyhub.TestcontainersConfiguration.class, FlashcardJdbcRepository.class})
+@Testcontainers
+class FlashcardJdbcRepositoryTest {
+
+  private static final String OWNER = "alice";
+
+  @Autowired private FlashcardRepository repository;
+
+  @Autowired private FlashcardJdbcRepository jdbcRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private JdbcTemplate jdbc;
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @BeforeEach
+  void clearDatabase() {
+    repository.deleteAll();
+  }
+
+  /** Ensures the due queue is ordered by overdue-ness, then easiness, and pages by keyset. */
+  @Test
+  @DisplayName("findDueQueue / findDueQueueAfter page through due cards in queue order")
+  void pagesDueQueueInPriorityOrder() {
+    LocalDate today = LocalDate.now();
+    Flashcard easyOld = new Flashcard(UUID.randomUUID(), OWNER, "E", "F");
+    easyOld.setNextReviewOn(today.minusDays(5));
+    easyOld.setEasinessFactor(2.5);
+    Flashcard hardOld = new Flashcard(UUID.randomUUID(), OWNER, "G", "H");
+    hardOld.setNextReviewOn(today.minusDays(5));
+    hardOld.setEasinessFactor(1.3);
+    Flashcard recent = new Flashcard(UUID.randomUUID(), OWNER, "I", "J");
+    recent.setNextReviewOn(today);
+    Flashcard upcoming = new Flashcard(UUID.randomUUID(), OWNER, "K", "L");
+    upcoming.setNextReviewOn(today.plusDays(2));
+    repository.saveAllAndFlush(List.of(easyOld, hardOld, recent, upcoming));
+
+    List<FlashcardQueueRow> first =
+        jdbcRepository.findDueQueue(OWNER, today, 2, FlashcardField.ALL);
+    assertThat(first).extracting(FlashcardQueueRow::getFront).containsExactly("G", "E");
+    assertThat(first.get(0).getEasinessFactor()).isEqualByComparingTo(new BigDecimal("1.30"));
+
+    FlashcardQueueRow last = first.get(1);
+    List<FlashcardQueueRow> second =
+        jdbcRepository.findDueQueueAfter(
+            OWNER,
+            today,
+            last.getNextReviewOn(),
+            last.getEasinessFactor(),
+            last.getId(),
+            2,
+            FlashcardField.ALL);
+    assertThat(second).extracting(FlashcardQueueRow::getFront).containsExactly("I");
+  }
+
+  /**
+   * Ensures substring hits rank above fuzzy ones, misses and other decks are excluded and pages
+   * seek by keyset.
+   */
+  @Test
+  @DisplayName("search / searchAfter rank substring and fuzzy trigram matches")
+  void searchesByTrigramSimilarity() {
+    repository.saveAllAndFlush(
+        List.of(
+            new Flashcard(UUID.randomUUID(), OWNER, "la mariposa", "the butterfly"),
+            new Flashcard(UUID.randomUUID(), OWNER, "maripoza", "misspelt butterfly"),
+            new Flashcard(UUID.randomUUID(), OWNER, "gato", "cat"),
+            new Flashcard(UUID.randomUUID(), OWNER, "volar", "to fly, like a MARIPOSA"),
+            new Flashcard(UUID.randomUUID(), "bob", "la mariposa", "someone else's")));
+
+    List<FlashcardSearchRow> hits =
+        jdbcRepository.search(OWNER, "mariposa", 10, FlashcardField.ALL);
+    assertThat(hits)
+        .extracting(FlashcardSearchRow::getFront)
+        .containsExactlyInAnyOrder("la mariposa", "volar", "maripoza");
+    assertThat(hits.get(2).getFront()).isEqualTo("maripoza");
+    assertThat(hits.get(0).getScore()).isGreaterThan(1f);
+    assertThat(hits.get(2).getScore()).isLessThan(1f);
+
+    List<FlashcardSearchRow> first =
+        jdbcRepository.search(OWNER, "mariposa", 1, FlashcardField.ALL);
+    FlashcardSearchRow last = first.get(0);
+    List<FlashcardSearchRow> rest =
+        jdbcRepository.searchAfter(
+            OWNER, "mariposa", last.getScore(), last.getId(), 10, FlashcardField.ALL);
+    assertThat(rest).containsExactlyElementsOf(hits.subList(1, 3));
+  }
+
+  /** Ensures paging one hit at a time neither skips nor repeats hits tied on a fractional score. */
+  @Test
+  @DisplayName("searchAfter pages through hits tied on a fractional score")
+  void pagesThroughTiedFractionalScores() {
+    List<String> fronts = List.of("mariposa a", "mariposa b", "mariposa c", "mariposa d");
+    repository.saveAllAndFlush(
+        fronts.stream()
+            .map(front -> new Flashcard(UUID.randomUUID(), OWNER, front, "butterfly"))
+            .toList());
+
+    List<FlashcardSearchRow> all = jdbcRepository.search(OWNER, "maripo", 10, FlashcardField.ALL);
+    assertThat(all).hasSize(4);
+    assertThat(all).extracting(FlashcardSearchRow::getScore).containsOnly(all.get(0).getScore());
+    assertThat(all.get(0).getScore()).isGreaterThan(1f).isLessThan(2f);
+
+    List<FlashcardSearchRow> paged =
+        new ArrayList<>(jdbcRepository.search(OWNER, "maripo", 1, FlashcardField.ALL));
+    for (int i = 0; i < 4; i++) {
+      FlashcardSearchRow last = paged.get(paged.size() - 1);
+      paged.addAll(
+          jdbcRepository.searchAfter(
+              OWNER, "maripo", last.getScore(), last.getId(), 1, FlashcardField.ALL));
+    }
+    assertThat(paged).containsExactlyElementsOf(all);
+  }
+
+  /** Ensures review views select only the requested columns and leave the rest null. */
+  @Test
+  @DisplayName("findReviewDtos / findReviewDtosByIds / findDueQueue honour the requested fields")
+  void selectsOnlyRequestedFields() {
+    LocalDate today = LocalDate.now();
+    Flashcard uno = new Flashcard(UUID.randomUUID(), OWNER, "uno", "one");
+    Flashcard dos = new Flashcard(UUID.randomUUID(), OWNER, "dos", "two");
+    dos.setNextReviewOn(today.plusDays(3));
+    repository.saveAllAndFlush(
+        List.of(uno, dos, new Flashcard(UUID.randomUUID(), "bob", "tres", "three")));
+
+    assertThat(jdbcRepository.findReviewDtos(OWNER, FlashcardField.ALL))
+        .extracting(
+            FlashcardReviewDto::getId,
+            FlashcardReviewDto::getBack,
+            FlashcardReviewDto::getNextReviewOn)
+        .containsExactlyInAnyOrder(
+            tuple(uno.getId(), "one", today), tuple(dos.getId(), "two", today.plusDays(3)));
+    assertThat(jdbcRepository.findReviewDtos(OWNER, FlashcardField.parse("front")))
+        .extracting(
+            FlashcardReviewDto::getId,
+            FlashcardReviewDto::getFront,
+            FlashcardReviewDto::getBack,
+            FlashcardReviewDto::getNextReviewOn)
+        .containsExactlyInAnyOrder(tuple(null, "uno", null, null), tuple(null, "dos", null, null));
+    assertThat(
+            jdbcRepository.findReviewDtosByIds(
+                OWNER, List.of(dos.getId(), UUID.randomUUID()), FlashcardField.parse("id,back")))
+        .extracting(FlashcardReviewDto::getId, FlashcardReviewDto::getBack)
+        .containsExactly(tuple(dos.getId(), "two"));
+
+    // the queue keys are read even when not requested, so the cursor still works
+    assertThat(jdbcRepository.findDueQueue(OWNER, today, 10, FlashcardField.parse("front")))
+        .singleElement()
+        .satisfies(
+            row -> {
+              assertThat(row.getId()).isEqualTo(uno.getId());
+              assertThat(row.getNextReviewOn()).isEqualTo(today);
+              assertThat(row.getBack()).isNull();
+            });
+  }
+
+  /** Ensures due reads only see hot cards and promotion brings in the ones the window reached. */
+  @Test
+  @DisplayName("promoteHot moves cards that came within the window into the due queue")
+  void promotesCardsIntoHotTier() {
+    LocalDate today = LocalDate.now();
+    Flashcard due = new Flashcard(UUID.randomUUID(), OWNER, "hoy", "today");
+    repository.saveAllAndFlush(List.of(due));
+    // as if the card had been written weeks ago and the calendar had since caught up with it
+    jdbc.update("UPDATE flashcards SET hot = false WHERE owner = ? AND id = ?", OWNER, due.getId());
+
+    assertThat(jdbcRepository.findDueQueue(OWNER, today, 10, FlashcardField.ALL)).isEmpty();
+    assertThat(jdbcRepository.promoteHot()).isEqualTo(1);
+    assertThat(jdbcRepository.findDueQueue(OWNER, today, 10, FlashcardField.ALL))
+        .extracting(FlashcardQueueRow::getId)
+        .containsExactly(due.getId());
+    assertThat(jdbcRepository.promoteHot()).isZero();
+  }
+
+  /** Ensures snapshot reads carry content only, in a stable id order. */
+  @Test
+  @DisplayName("findSnapshotCards reads id, front and back in id order")
+  void readsSnapshotContentInIdOrder() {
+    Flashcard second = new Flashcard(new UUID(0, 2), OWNER, "dos", "two");
+    Flashcard first = new Flashcard(new UUID(0, 1), OWNER, "uno", "one");
+    repository.saveAllAndFlush(
+        List.of(second, first, new Flashcard(new UUID(0, 3), "bob", "tres", "three")));
+
+    assertThat(jdbcRepository.findSnapshotCards(OWNER))
+        .extracting(
+            FlashcardReviewDto::getId,
+            FlashcardReviewDto::getFront,
+            FlashcardReviewDto::getBack,
+            FlashcardReviewDto::getNextReviewOn)
+        .containsExactly(
+            tuple(first.getId(), "uno", "one", null), tuple(second.getId(), "dos", "two", null));
+  }
+
+  /** Ensures leased cards are withheld from other sessions until released or expired. */
+  @Test
+  @DisplayName("leaseDue / lockLeased / releaseLeased hand each due card to one session")
+  void leasesDueCardsToOneSessionAtATime() {
+    LocalDate today = LocalDate.now();
+    Instant now = Instant.now();
+    Instant until = now.plus(Duration.ofMinutes(10));
+    Flashcard old = new Flashcard(UUID.randomUUID(), OWNER, "viejo", "old");
+    old.setNextReviewOn(today.minusDays(3));
+    Flashcard due = new Flashcard(UUID.randomUUID(), OWNER, "hoy", "today");
+    Flashcard later = new Flashcard(UUID.randomUUID(), OWNER, "luego", "later");
+    later.setNextReviewOn(today.plusDays(1));
+    repository.saveAllAndFlush(List.of(old, due, later));
+    UUID phone = UUID.randomUUID();
+    UUID laptop = UUID.randomUUID();
+
+    assertThat(jdbcRepository.leaseDue(OWNER, today, phone, now, until, 1))
+        .extracting(FlashcardQueueRow::getFront)
+        .containsExactly("viejo");
+    assertThat(jdbcRepository.leaseDue(OWNER, today, laptop, now, until, 5))
+        .extracting(FlashcardQueueRow::getFront)
+        .containsExactly("hoy");
+    assertThat(jdbcRepository.leaseDue(OWNER, today, laptop, now, until, 5)).isEmpty();
+
+    assertThat(jdbcRepository.lockLeased(OWNER, phone, List.of("viejo", "hoy")))
+        .containsExactly("viejo");
+    assertThat(jdbcRepository.releaseLeased(OWNER, phone, List.of("viejo"))).isEqualTo(1);
+    assertThat(jdbcRepository.lockLeased(OWNER, phone, List.of("viejo"))).isEmpty();
+
+    // once the laptop's lease has run out the phone may claim its card
+    assertThat(jdbcRepository.leaseDue(OWNER, today, phone, until, until.plusSeconds(60), 5))
+        .extracting(FlashcardQueueRow::getFront)
+        .containsExactly("viejo", "hoy");
+    assertThat(jdbcRepository.lockLeased(OWNER, laptop, List.of("hoy"))).isEmpty();
+    assertThat(jdbcRepository.extendLease(OWNER, phone, until.plusSeconds(120))).isEqualTo(2);
+    assertThat(jdbcRepository.releaseSession(OWNER, phone)).isEqualTo(2);
+  }
+
+  /**
+   * Ensures grading one card locks every card of the session, so a concurrent submission to the
+   * same session waits instead of deadlocking on the lease extension.
+   */
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  @DisplayName("lockLeased locks every card of the session")
+  void locksWholeSession() throws SQLException {
+    LocalDate today = LocalDate.now();
+    Instant now = Instant.now();
+    UUID session = UUID.randomUUID();
+    repository.saveAllAndFlush(
+        List.of(
+            new Flashcard(UUID.randomUUID(), OWNER, "uno", "one"),
+            new Flashcard(UUID.randomUUID(), OWNER, "dos", "two")));
+    try {
+      jdbcRepository.leaseDue(OWNER, today, session, now, now.plus(Duration.ofMinutes(10)), 5);
+
+      new TransactionTemplate(transactionManager)
+          .executeWithoutResult(
+              status -> {
+                assertThat(jdbcRepository.lockLeased(OWNER, session, List.of("uno", "tres")))
+                    .containsExactly("uno");
+                try (Connection other = dataSource.getConnection();
+                    PreparedStatement lock =
+                        other.prepareStatement(
+                            "SELECT 1 FROM flashcards WHERE owner = ? AND front_normalized = 'dos'"
+                                + " FOR UPDATE NOWAIT")) {
+                  lock.setString(1, OWNER);
+                  assertThatThrownBy(lock::executeQuery)
+                      .isInstanceOf(SQLException.class)
+                      .extracting(ex -> ((SQLException) ex).getSQLState())
+                      .isEqualTo("55P03");
+                } catch (SQLException ex) {
+                  throw new IllegalStateException(ex);
+                }
+              });
+    } finally {
+      repository.deleteAll();
+    }
+  }
+
+  /** Ensures chunks walk the table in id order and the update only touches unchanged rows. */
+  @Test
+  @DisplayName("readScheduleChunk / writeSchedules move whole chunks")
+  void readsAndWritesChunks() {
+    LocalDate today = LocalDate.now();
+    List<Flashcard> saved =
+        repository.saveAllAndFlush(
+            List.of(
+                new Flashcard(UUID.randomUUID(), OWNER, "uno", "one"),
+                new Flashcard(UUID.randomUUID(), OWNER, "dos", "two"),
+                new Flashcard(UUID.randomUUID(), OWNER, "tres", "three")));
+    List<UUID> ids =
+        saved.stream().map(Flashcard::getId).sorted(Comparator.comparing(UUID::toString)).toList();
+
+    FlashcardScheduleChunk first = jdbcRepository.readScheduleChunk(OWNER, null, 2);
+    FlashcardScheduleChunk rest = jdbcRepository.readScheduleChunk(OWNER, first.lastId(), 2);
+
+    assertThat(first.size()).isEqualTo(2);
+    assertThat(first.id(0)).isEqualTo(ids.get(0));
+    assertThat(first.efHundredths(0)).isEqualTo(250);
+    assertThat(first.nextReviewDay(0)).isEqualTo(today.toEpochDay());
+    assertThat(rest.size()).isEqualTo(1);
+    assertThat(jdbcRepository.readScheduleChunk(OWNER, rest.lastId(), 2).isEmpty()).isTrue();
+
+    first.reschedule(0, 6, today.plusDays(6).toEpochDay());
+    first.reschedule(1, 6, today.plusDays(6).toEpochDay());
+    // a review commits for the second card while the chunk is in flight
+    repository.updateScheduleIfUnchanged(
+        OWNER, first.id(1), 1, 2.5, 2, today.plusDays(2), 0, 2.5, 1, today);
+
+    assertThat(jdbcRepository.writeSchedules(OWNER, first)).isEqualTo(1);
+    entityManager.clear();
+    assertThat(repository.findById(new FlashcardId(OWNER, first.id(0))).orElseThrow())
+        .extracting(Flashcard::getInterval)
+        .isEqualTo(6);
+    assertThat(repository.findById(new FlashcardId(OWNER, first.id(1))).orElseThrow())
+        .extracting(Flashcard::getInterval)
+        .isEqualTo(2);
+  }
+
+  /** Ensures staged rows skip existing and repeated fronts, and the export sees the merged deck. */
+  @Test
+  @DisplayName("copyIntoStaging / mergeStaging / exportAll round trip")
+  void importsAndExportsThroughCopy() {
+    LocalDate today = LocalDate.now();
+    repository.saveAndFlush(new Flashcard(UUID.randomUUID(), OWNER, "hola", "hello"));
+
+    jdbcRepository.createImportStaging();
+    long staged =
+        jdbcRepository.copyIntoStaging(
+            List.of(
+                    card("Hola", "hi, again", today),
+                    card("adiós", "bye, \"friend\"", today),
+                    card("ADIOS", "duplicate", today))
+                .iterator());
+    int merged = jdbcRepository.mergeStaging(OWNER);
+    List<FlashcardTransferDto> exported = new ArrayList<>();
+    jdbcRepository.exportAll(OWNER, exported::add);
+
+    assertThat(staged).isEqualTo(3);
+    assertThat(merged).isEqualTo(1);
+    assertThat(exported).hasSize(2);
+    assertThat(exported)
+        .filteredOn(c -> c.getFront().equals("adiós"))
+        .singleElement()
+        .satisfies(
+            c -> {
+              assertThat(c.getBack()).isEqualTo("bye, \"friend\"");
+              assertThat(c.getEasinessFactor()).isEqualByComparingTo("2.5");
+              assertThat(c.getNextReviewOn()).isEqualTo(today);
+            });
+  }
+
+  /** Ensures the upsert keeps existing schedules, skips identical rows and flags inserts. */
+  @Test
+  @DisplayName("upsertAll / deleteByFrontNormalized report the rows they touched")
+  void upsertsAndDeletesInOneStatement() {
+    LocalDate today = LocalDate.now();
+    Flashcard existing = new Flashcard(UUID.randomUUID(), OWNER, "hola", "hello");
+    existing.setInterval(6);
+    repository.saveAndFlush(existing);
+    repository.saveAndFlush(new Flashcard(UUID.randomUUID(), OWNER, "gato", "cat"));
+
+    List<FlashcardBulkRow> upserted =
+        jdbcRepository.upsertAll(
+            OWNER,
+            List.of(
+                new Flashcard(UUID.randomUUID(), OWNER, "Hola", "hi"),
+                new Flashcard(UUID.randomUUID(), OWNER, "gato", "cat"),
+                new Flashcard(UUID.randomUUID(), OWNER, "perro", "dog")));
+    entityManager.clear();
+
+    assertThat(upserted)
+        .extracting(FlashcardBulkRow::getFrontNormalized, FlashcardBulkRow::isInserted)
+        .containsExactlyInAnyOrder(tuple("hola", false), tuple("perro", true));
+    Flashcard updated = repository.findByOwnerAndFrontNormalized(OWNER, "hola").orElseThrow();
+    assertThat(updated.getId()).isEqualTo(existing.getId());
+    assertThat(updated.getFront()).isEqualTo("Hola");
+    assertThat(updated.getBack()).isEqualTo("hi");
+    assertThat(updated.getInterval()).isEqualTo(6);
+    assertThat(repository.findByOwnerAndFrontNormalized(OWNER, "perro").orElseThrow())
+        .extracting(Flashcard::getNextReviewOn)
+        .isEqualTo(today);
+
+    List<FlashcardBulkRow> deleted =
+        jdbcRepository.deleteByFrontNormalized(OWNER, List.of("hola", "perro", "nada"));
+
+    assertThat(deleted).extracting(FlashcardBulkRow::getFrontNormalized).hasSize(2);
+    assertThat(repository.countByOwner(OWNER)).isEqualTo(1);
+  }
+
+  private static FlashcardTransferDto card(String front, String back, LocalDate today) {
+    return new FlashcardTransferDto(
+        UUID.randomUUID(), front, back, 0, new BigDecimal("2.50"), 1, today);
+  }
+}
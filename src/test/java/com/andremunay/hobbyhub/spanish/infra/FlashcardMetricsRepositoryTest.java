@@ -0,0 +1,60 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.andremunay.hobbyhub.TestcontainersConfiguration;
+import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/** Integration tests for {@link FlashcardMetricsRepository} using a real Postgres Testcontainer. */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, FlashcardMetricsRepository.class})
+@Testcontainers
+class FlashcardMetricsRepositoryTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+
+  @Autowired private FlashcardMetricsRepository metrics;
+
+  @Autowired private FlashcardRepository repository;
+
+  @BeforeEach
+  void clearDatabase() {
+    repository.deleteAll();
+  }
+
+  private void card(String owner, String front, LocalDate nextReviewOn) {
+    Flashcard card = new Flashcard(UUID.randomUUID(), owner, front, "back");
+    card.setNextReviewOn(nextReviewOn);
+    repository.save(card);
+  }
+
+  /** Ensures the per-day counts add up the cards of every deck. */
+  @Test
+  @DisplayName("countAllByNextReviewOn counts cards per day across decks")
+  void countsCardsPerDayAcrossDecks() {
+    card("alice", "uno", TODAY);
+    card("alice", "dos", TODAY.plusDays(1));
+    card("bob", "tres", TODAY);
+    repository.flush();
+
+    Map<LocalDate, Long> days =
+        metrics.countAllByNextReviewOn().stream()
+            .collect(
+                Collectors.toMap(FlashcardDayCount::getNextReviewOn, FlashcardDayCount::getCards));
+
+    assertThat(days).containsOnly(Map.entry(TODAY, 2L), Map.entry(TODAY.plusDays(1), 1L));
+  }
+}
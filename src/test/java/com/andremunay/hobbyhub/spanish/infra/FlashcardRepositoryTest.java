@@ -2,9 +2,17 @@ package com.andremunay.hobbyhub.spanish.infra;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.andremunay.hobbyhub.spanish.app.DueHistogram;
+import com.andremunay.hobbyhub.spanish.app.FlashcardScheduleChangedEvent;
 import com.andremunay.hobbyhub.spanish.domain.Flashcard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +21,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 /**
@@ -27,8 +37,14 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 @Testcontainers
 class FlashcardRepositoryTest {
 
+  private static final String OWNER = "alice";
+
   @Autowired private FlashcardRepository repository;
 
+  @Autowired private JdbcTemplate jdbc;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
   @BeforeEach
   void clearDatabase() {
     repository.deleteAll();
@@ -36,16 +52,198 @@ class FlashcardRepositoryTest {
 
   /** Ensures that only flashcards due on or before today are returned from the custom query. */
   @Test
-  @DisplayName("findByNextReviewOnBefore returns only due cards")
+  @DisplayName("findByOwnerAndNextReviewOnLessThanEqual returns only due cards")
   void findsDueFlashcards() {
-    Flashcard upcoming = new Flashcard(UUID.randomUUID(), "A", "B");
+    Flashcard upcoming = new Flashcard(UUID.randomUUID(), OWNER, "A", "B");
     upcoming.setNextReviewOn(LocalDate.now().plusDays(1));
-    Flashcard due = new Flashcard(UUID.randomUUID(), "C", "D");
+    Flashcard due = new Flashcard(UUID.randomUUID(), OWNER, "C", "D");
     due.setNextReviewOn(LocalDate.now().minusDays(1));
     repository.saveAll(List.of(upcoming, due));
 
-    var results = repository.findByNextReviewOnLessThanEqual(LocalDate.now());
+    var results = repository.findByOwnerAndNextReviewOnLessThanEqual(OWNER, LocalDate.now());
 
     assertThat(results).hasSize(1).first().extracting(Flashcard::getId).isEqualTo(due.getId());
   }
+
+  /** Ensures writes file cards into the hot or cold tier and range counts cover both. */
+  @Test
+  @DisplayName("next review dates file cards into the hot and cold tiers")
+  void splitsCardsIntoHotAndColdTiers() {
+    LocalDate today = LocalDate.now();
+    Flashcard soon = new Flashcard(UUID.randomUUID(), OWNER, "pronto", "soon");
+    soon.setNextReviewOn(today.plusDays(3));
+    Flashcard mature = new Flashcard(UUID.randomUUID(), OWNER, "maduro", "mature");
+    mature.setNextReviewOn(today.plusDays(60));
+    repository.saveAllAndFlush(List.of(soon, mature));
+
+    assertThat(isHot(soon)).isTrue();
+    assertThat(isHot(mature)).isFalse();
+    assertThat(repository.countByOwnerAndNextReviewOnBetween(OWNER, today, today.plusDays(90)))
+        .isEqualTo(2);
+
+    // a review that pushes the card out of the window moves it to the cold tier
+    repository.updateScheduleIfUnchanged(
+        OWNER, soon.getId(), 1, 2.5, 40, today.plusDays(40), 0, 2.5, 1, today.plusDays(3));
+    assertThat(isHot(soon)).isFalse();
+    assertThat(repository.countByOwnerAndNextReviewOnBetween(OWNER, today, today.plusDays(7)))
+        .isZero();
+  }
+
+  /** Ensures the conditional update also checks the easiness factor, as the column stores it. */
+  @Test
+  @DisplayName("updateScheduleIfUnchanged compares the easiness factor at numeric(3,2)")
+  void conditionalUpdateComparesEasinessFactor() {
+    LocalDate today = LocalDate.now();
+    Flashcard card = new Flashcard(UUID.randomUUID(), OWNER, "uno", "one");
+    card.setEasinessFactor(1.6);
+    repository.saveAndFlush(card);
+
+    // same repetition, interval and date, but the factor changed since the copy was read
+    assertThat(
+            repository.updateScheduleIfUnchanged(
+                OWNER, card.getId(), 1, 1.7, 1, today.plusDays(1), 0, 2.5, 1, today))
+        .isZero();
+    // 1.3 + 0.1 + 0.1 + 0.1 is 1.6000000000000003 as a double, stored as 1.60
+    assertThat(
+            repository.updateScheduleIfUnchanged(
+                OWNER,
+                card.getId(),
+                1,
+                1.7,
+                1,
+                today.plusDays(1),
+                0,
+                1.3 + 0.1 + 0.1 + 0.1,
+                1,
+                today))
+        .isEqualTo(1);
+  }
+
+  private boolean isHot(Flashcard card) {
+    return jdbc.queryForObject(
+        "SELECT hot FROM flashcards WHERE owner = ? AND id = ?",
+        Boolean.class,
+        card.getOwner(),
+        card.getId());
+  }
+
+  /** Ensures the back is selected on its own, and only from the caller's deck. */
+  @Test
+  @DisplayName("findBack loads one card's back by owner and id")
+  void findsBack() {
+    Flashcard card = new Flashcard(UUID.randomUUID(), OWNER, "uno", "one");
+    repository.saveAndFlush(card);
+
+    assertThat(repository.findBack(OWNER, card.getId())).contains("one");
+    assertThat(repository.findBack("bob", card.getId())).isEmpty();
+    assertThat(repository.findBack(OWNER, UUID.randomUUID())).isEmpty();
+  }
+
+  /** Ensures fronts are resolved through the normalized column regardless of case or accents. */
+  @Test
+  @DisplayName("findByOwnerAndFrontNormalized matches fronts ignoring case and accents")
+  void findsByNormalizedFront() {
+    Flashcard card = new Flashcard(UUID.randomUUID(), OWNER, "Está Bien", "it's fine");
+    repository.save(card);
+
+    assertThat(repository.findByOwnerAndFrontNormalized(OWNER, "esta bien"))
+        .get()
+        .extracting(Flashcard::getId)
+        .isEqualTo(card.getId());
+    assertThat(repository.existsByOwnerAndFrontNormalized(OWNER, "esta bien")).isTrue();
+    assertThat(repository.findByOwnerAndFrontNormalizedIn(OWNER, List.of("esta bien", "nada")))
+        .hasSize(1);
+  }
+
+  /** Ensures decks are kept apart: the same front may exist once per owner. */
+  @Test
+  @DisplayName("fronts are unique per owner and queries only see their own deck")
+  void isolatesDecksByOwner() {
+    Flashcard mine = new Flashcard(UUID.randomUUID(), OWNER, "hola", "hello");
+    Flashcard theirs = new Flashcard(UUID.randomUUID(), "bob", "Hola", "hi");
+    repository.saveAllAndFlush(List.of(mine, theirs));
+
+    assertThat(repository.findByOwnerAndFrontNormalized("bob", "hola"))
+        .get()
+        .extracting(Flashcard::getBack)
+        .isEqualTo("hi");
+    assertThat(repository.findByOwnerAndNextReviewOnLessThanEqual(OWNER, LocalDate.now()))
+        .extracting(Flashcard::getId)
+        .containsExactly(mine.getId());
+    assertThat(repository.countByOwner("bob")).isEqualTo(1);
+    assertThat(
+            jdbc.queryForList(
+                "SELECT tableoid::regclass::text FROM flashcards WHERE owner = ?",
+                String.class,
+                "bob"))
+        .singleElement()
+        .asString()
+        .startsWith("flashcards_p");
+  }
+
+  /** Ensures the due histogram agrees with a SQL GROUP BY, after a load and after moves. */
+  @Test
+  @DisplayName("DueHistogram range counts match GROUP BY next_review_on")
+  void histogramMatchesGroupBy() {
+    LocalDate today = LocalDate.now();
+    Random random = new Random(42);
+    List<Flashcard> cards = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      Flashcard card = new Flashcard(UUID.randomUUID(), OWNER, "card " + i, "back " + i);
+      card.setNextReviewOn(today.plusDays(random.nextInt(60) - 10));
+      cards.add(card);
+    }
+    repository.saveAllAndFlush(cards);
+    DueHistogram histogram =
+        new DueHistogram(
+            repository,
+            transactionManager,
+            new SimpleMeterRegistry(),
+            true,
+            3660,
+            10,
+            Duration.ofHours(6));
+
+    assertMatchesGroupBy(histogram, today);
+
+    // move a few cards the way a review would, then delete one
+    for (Flashcard card : cards.subList(0, 20)) {
+      LocalDate previous = card.getNextReviewOn();
+      card.setNextReviewOn(today.plusDays(random.nextInt(40)));
+      histogram.onScheduleChanged(
+          new FlashcardScheduleChangedEvent(
+              OWNER, card.getId(), previous, card.getNextReviewOn(), card.getEasinessFactor()));
+    }
+    Flashcard removed = cards.get(299);
+    repository.delete(removed);
+    histogram.onScheduleChanged(
+        FlashcardScheduleChangedEvent.deleted(OWNER, removed.getId(), removed.getNextReviewOn()));
+    repository.flush();
+
+    assertMatchesGroupBy(histogram, today);
+  }
+
+  private void assertMatchesGroupBy(DueHistogram histogram, LocalDate today) {
+    Map<LocalDate, Long> perDay = new HashMap<>();
+    jdbc.query(
+        "SELECT next_review_on, count(*) FROM flashcards WHERE owner = ? GROUP BY next_review_on",
+        rs -> {
+          perDay.put(rs.getObject(1, LocalDate.class), rs.getLong(2));
+        },
+        OWNER);
+
+    long dueToday =
+        perDay.entrySet().stream()
+            .filter(e -> !e.getKey().isAfter(today))
+            .mapToLong(Map.Entry::getValue)
+            .sum();
+    assertThat(histogram.countThrough(OWNER, today)).isEqualTo(dueToday);
+    for (int d = 1; d <= 60; d++) {
+      LocalDate day = today.plusDays(d);
+      assertThat(histogram.count(OWNER, day, day))
+          .as("cards on %s", day)
+          .isEqualTo(perDay.getOrDefault(day, 0L));
+    }
+    assertThat(histogram.total(OWNER)).isEqualTo(repository.countByOwner(OWNER));
+  }
 }
@@ -0,0 +1,82 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.DeckRescheduler;
+import com.andremunay.hobbyhub.spanish.infra.dto.RescheduleJobDto;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/** Unit tests for {@link FlashcardRescheduleController}, validating status codes and payloads. */
+@ExtendWith(MockitoExtension.class)
+class FlashcardRescheduleControllerTest {
+
+  private MockMvc mvc;
+
+  @Mock private DeckRescheduler rescheduler;
+
+  @InjectMocks private FlashcardRescheduleController controller;
+
+  @BeforeEach
+  void setUp() {
+    mvc = MockMvcBuilders.standaloneSetup(controller).build();
+  }
+
+  private static RescheduleJobDto job(UUID id, String status, long processed) {
+    return new RescheduleJobDto(id, status, false, processed, 0, 100, null, null, null);
+  }
+
+  /** Verifies that starting a run is accepted and reports its progress. */
+  @Test
+  void startShouldReturnAccepted() throws Exception {
+    UUID id = UUID.randomUUID();
+    when(rescheduler.start(CurrentUser.PUBLIC, false)).thenReturn(job(id, "RUNNING", 0));
+
+    mvc.perform(post("/flashcards/reschedule"))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.id").value(id.toString()))
+        .andExpect(jsonPath("$.status").value("RUNNING"))
+        .andExpect(jsonPath("$.recomputeIntervals").value(false))
+        .andExpect(jsonPath("$.total").value(100));
+  }
+
+  /** Verifies that interval recomputation is only requested explicitly. */
+  @Test
+  void startShouldPassRecomputeIntervals() throws Exception {
+    UUID id = UUID.randomUUID();
+    when(rescheduler.start(CurrentUser.PUBLIC, true)).thenReturn(job(id, "RUNNING", 0));
+
+    mvc.perform(post("/flashcards/reschedule").param("recomputeIntervals", "true"))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.id").value(id.toString()));
+  }
+
+  /** Verifies that progress can be polled and interrupted runs resumed. */
+  @Test
+  void getAndResumeShouldDelegate() throws Exception {
+    UUID id = UUID.randomUUID();
+    when(rescheduler.get(CurrentUser.PUBLIC, id)).thenReturn(job(id, "FAILED", 40));
+    when(rescheduler.resume(CurrentUser.PUBLIC, id)).thenReturn(job(id, "RUNNING", 40));
+
+    mvc.perform(get("/flashcards/reschedule/{id}", id))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.processed").value(40))
+        .andExpect(jsonPath("$.status").value("FAILED"));
+
+    mvc.perform(post("/flashcards/reschedule/{id}/resume", id))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.status").value("RUNNING"));
+  }
+}
@@ -0,0 +1,93 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.ReviewSessionService;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardReviewResultDto;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardSessionDto;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/** Unit tests for {@link FlashcardSessionController}, validating status codes and payloads. */
+@ExtendWith(MockitoExtension.class)
+class FlashcardSessionControllerTest {
+
+  private MockMvc mvc;
+
+  @Mock private ReviewSessionService sessions;
+
+  @InjectMocks private FlashcardSessionController controller;
+
+  @BeforeEach
+  void setUp() {
+    mvc = MockMvcBuilders.standaloneSetup(controller).build();
+  }
+
+  private static FlashcardReviewDto card(String front) {
+    return new FlashcardReviewDto(UUID.randomUUID(), front, "x", LocalDate.now());
+  }
+
+  /** Verifies that starting a session returns its id and leased cards. */
+  @Test
+  void startShouldReturnLeasedCards() throws Exception {
+    UUID id = UUID.randomUUID();
+    List<FlashcardReviewDto> cards = List.of(card("hola"), card("gato"));
+    when(sessions.start(CurrentUser.PUBLIC, 2))
+        .thenReturn(new FlashcardSessionDto(id, Instant.now(), List.of(), cards));
+
+    mvc.perform(post("/flashcards/sessions").param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sessionId").value(id.toString()))
+        .andExpect(jsonPath("$.cards.length()").value(2))
+        .andExpect(jsonPath("$.cards[0].front").value("hola"));
+  }
+
+  /** Verifies that grades come back with their results and the next cards. */
+  @Test
+  void gradeShouldReturnResultsAndNextCards() throws Exception {
+    UUID id = UUID.randomUUID();
+    FlashcardReviewResultDto result =
+        new FlashcardReviewResultDto("hola", FlashcardReviewResultDto.Status.NOT_LEASED, null);
+    when(sessions.grade(eq(CurrentUser.PUBLIC), eq(id), anyList(), eq(10)))
+        .thenReturn(
+            new FlashcardSessionDto(id, Instant.now(), List.of(result), List.of(card("casa"))));
+
+    mvc.perform(
+            post("/flashcards/sessions/{id}/grades", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviews\":[{\"front\":\"hola\",\"grade\":5}]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].status").value("NOT_LEASED"))
+        .andExpect(jsonPath("$.cards[0].front").value("casa"));
+  }
+
+  /** Verifies that ending a session releases its cards. */
+  @Test
+  void endShouldReturnNoContent() throws Exception {
+    UUID id = UUID.randomUUID();
+
+    mvc.perform(delete("/flashcards/sessions/{id}", id)).andExpect(status().isNoContent());
+
+    verify(sessions).end(CurrentUser.PUBLIC, id);
+  }
+}
@@ -0,0 +1,96 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.DeckSnapshotService;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardSnapshotDto;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Unit tests for {@link FlashcardSnapshotController}, validating statuses and cache headers. */
+@ExtendWith(MockitoExtension.class)
+class FlashcardSnapshotControllerTest {
+
+  private static final String HASH = "c".repeat(64);
+
+  private MockMvc mvc;
+
+  @Mock private DeckSnapshotService snapshots;
+
+  @InjectMocks private FlashcardSnapshotController controller;
+
+  @BeforeEach
+  void setUp() {
+    mvc = MockMvcBuilders.standaloneSetup(controller).build();
+  }
+
+  /** Verifies that publishing returns the snapshot URL. */
+  @Test
+  void publishShouldReturnSnapshotLocation() throws Exception {
+    when(snapshots.publish(CurrentUser.PUBLIC)).thenReturn(new FlashcardSnapshotDto(HASH, 3, 120));
+
+    mvc.perform(post("/flashcards/snapshots"))
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Location", "/flashcards/snapshots/" + HASH))
+        .andExpect(jsonPath("$.cards").value(3));
+  }
+
+  /** Verifies that the latest snapshot is a revalidated redirect. */
+  @Test
+  void latestShouldRedirectToSnapshot() throws Exception {
+    when(snapshots.latest(CurrentUser.PUBLIC)).thenReturn(HASH);
+
+    mvc.perform(get("/flashcards/snapshots/latest"))
+        .andExpect(status().isSeeOther())
+        .andExpect(header().string("Location", "/flashcards/snapshots/" + HASH))
+        .andExpect(header().string("Cache-Control", "no-cache"));
+  }
+
+  /** Verifies that a snapshot is served verbatim and marked immutable. */
+  @Test
+  void getShouldServeImmutableBody() throws Exception {
+    byte[] body = "[{\"front\":\"hola\"}]".getBytes(StandardCharsets.UTF_8);
+    when(snapshots.body(HASH)).thenReturn(body);
+
+    mvc.perform(get("/flashcards/snapshots/{hash}", HASH))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/json"))
+        .andExpect(content().bytes(body))
+        .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+        .andExpect(header().string("ETag", "\"" + HASH + "\""));
+  }
+
+  /** Verifies that a client already holding the snapshot gets 304. */
+  @Test
+  void getShouldHonourIfNoneMatch() throws Exception {
+    when(snapshots.body(HASH)).thenReturn(new byte[] {'[', ']'});
+
+    mvc.perform(
+            get("/flashcards/snapshots/{hash}", HASH).header("If-None-Match", "\"" + HASH + "\""))
+        .andExpect(status().isNotModified());
+  }
+
+  /** Verifies that an unknown hash is a 404. */
+  @Test
+  void getShouldReturnNotFoundForUnknownHash() throws Exception {
+    when(snapshots.body(HASH)).thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+    mvc.perform(get("/flashcards/snapshots/{hash}", HASH)).andExpect(status().isNotFound());
+  }
+}
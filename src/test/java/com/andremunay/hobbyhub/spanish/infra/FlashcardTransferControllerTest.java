@@ -0,0 +1,82 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.andremunay.hobbyhub.shared.util.CurrentUser;
+import com.andremunay.hobbyhub.spanish.app.FlashcardTransferService;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardImportResultDto;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/** Unit tests for {@link FlashcardTransferController}, validating streaming and content types. */
+@ExtendWith(MockitoExtension.class)
+class FlashcardTransferControllerTest {
+
+  private MockMvc mvc;
+
+  @Mock private FlashcardTransferService transferService;
+
+  @InjectMocks private FlashcardTransferController controller;
+
+  @BeforeEach
+  void setUp() {
+    mvc = MockMvcBuilders.standaloneSetup(controller).build();
+  }
+
+  /** Verifies that the export is streamed asynchronously as NDJSON. */
+  @Test
+  void exportShouldStreamNdjson() throws Exception {
+    doAnswer(
+            inv -> {
+              OutputStream out = inv.getArgument(1);
+              out.write("{\"front\":\"hola\"}\n".getBytes(StandardCharsets.UTF_8));
+              return 1L;
+            })
+        .when(transferService)
+        .export(eq(CurrentUser.PUBLIC), any());
+
+    MvcResult started =
+        mvc.perform(get("/flashcards/export")).andExpect(request().asyncStarted()).andReturn();
+
+    mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string("{\"front\":\"hola\"}\n"));
+  }
+
+  /** Verifies that an NDJSON body is handed to the service and its counts returned. */
+  @Test
+  void importShouldReturnCounts() throws Exception {
+    when(transferService.importNdjson(eq(CurrentUser.PUBLIC), any()))
+        .thenReturn(new FlashcardImportResultDto(2, 1, 1, 5, 400));
+
+    mvc.perform(
+            post("/flashcards/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"front\":\"a\",\"back\":\"b\"}\n{\"front\":\"A\",\"back\":\"c\"}\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(1))
+        .andExpect(jsonPath("$.skipped").value(1))
+        .andExpect(jsonPath("$.rowsPerSecond").value(400));
+  }
+}
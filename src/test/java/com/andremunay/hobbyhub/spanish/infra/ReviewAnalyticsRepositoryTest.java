@@ -0,0 +1,229 @@
+package com.andremunay.hobbyhub.spanish.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.andremunay.hobbyhub.TestcontainersConfiguration;
+import com.andremunay.hobbyhub.spanish.infra.dto.FlashcardRetentionWeekDto;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Integration tests for {@link ReviewAnalyticsRepository} using a real Postgres Testcontainer.
+ *
+ * <p>Validates the weekly rollup of review history, pairing reviews with their predecessors within
+ * and across batches, and the batch boundary held back by unsettled reviews and by transactions
+ * that have not committed yet, including ones that commit a lower id after a higher one.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, ReviewAnalyticsRepository.class})
+@Testcontainers
+class ReviewAnalyticsRepositoryTest {
+
+  private static final String OWNER = "alice";
+
+  // Tuesdays of the weeks starting Monday 2 and Monday 9 June 2025
+  private static final Instant WEEK_1 = Instant.parse("2025-06-03T10:00:00Z");
+  private static final Instant WEEK_2 = Instant.parse("2025-06-10T10:00:00Z");
+
+  private static final String INSERT_REVIEW =
+      "INSERT INTO flashcard_reviews (owner, card_id, grade, reviewed_at, repetition,"
+          + " easiness_factor, interval_days, next_review_on) VALUES (?, ?, ?, ?, ?, 2.50, ?, ?)"
+          + " RETURNING id";
+
+  private static final String INSERT_REVIEW_WITH_ID =
+      "INSERT INTO flashcard_reviews (id, owner, card_id, grade, reviewed_at, repetition,"
+          + " easiness_factor, interval_days, next_review_on)"
+          + " VALUES (?, ?, ?, 4, ?, 2, 2.50, 6, DATE '2025-06-07')";
+
+  @Autowired private ReviewAnalyticsRepository analytics;
+
+  @Autowired private JdbcTemplate jdbc;
+
+  @Autowired private DataSource dataSource;
+
+  @BeforeEach
+  void clearDatabase() {
+    jdbc.update("DELETE FROM flashcard_reviews");
+    jdbc.update("DELETE FROM flashcard_review_weeks");
+  }
+
+  private long review(UUID card, int grade, Instant at, int repetition, int interval) {
+    return jdbc.queryForObject(
+        INSERT_REVIEW,
+        Long.class,
+        OWNER,
+        card,
+        grade,
+        Timestamp.from(at),
+        repetition,
+        interval,
+        Date.valueOf(LocalDate.of(2025, 6, 1).plusDays(interval)));
+  }
+
+  private ReviewRollupPosition position(long id) {
+    return jdbc.queryForObject(
+        "SELECT coalesce(xact_id, '0'::xid8)::text, id FROM flashcard_reviews WHERE id = ?",
+        (rs, n) -> new ReviewRollupPosition(Long.parseUnsignedLong(rs.getString(1)), rs.getLong(2)),
+        id);
+  }
+
+  /** Ensures weekly totals pair each review with the card's previous one, across batches. */
+  @Test
+  @DisplayName("rollUp aggregates retention per week and resumes from the checkpoint")
+  void rollsUpRetentionPerWeek() {
+    UUID a = UUID.randomUUID();
+    UUID b = UUID.randomUUID();
+    ReviewRollupPosition start = ReviewRollupPosition.START;
+    review(a, 4, WEEK_1, 1, 1);
+    review(a, 5, WEEK_1.plusSeconds(60), 2, 6);
+    ReviewRollupPosition firstBatch = position(review(b, 3, WEEK_1.plusSeconds(120), 1, 1));
+    review(a, 4, WEEK_2, 3, 15);
+    ReviewRollupPosition secondBatch = position(review(b, 1, WEEK_2.plusSeconds(60), 0, 1));
+
+    assertThat(analytics.rollUp(start, firstBatch)).isEqualTo(3);
+    assertThat(analytics.rollUp(firstBatch, secondBatch)).isEqualTo(2);
+
+    List<FlashcardRetentionWeekDto> weeks = analytics.findWeeks(OWNER, LocalDate.of(2025, 6, 2));
+    assertThat(weeks).hasSize(2);
+
+    FlashcardRetentionWeekDto first = weeks.get(0);
+    assertThat(first.getWeekStart()).isEqualTo(LocalDate.of(2025, 6, 2));
+    assertThat(first.getReviews()).isEqualTo(3);
+    assertThat(first.getGrades()).containsExactly(0, 0, 0, 1, 1, 1);
+    assertThat(first.getRecallReviews()).isEqualTo(1);
+    assertThat(first.getTrueRetention()).isEqualTo(1.0);
+    assertThat(first.getAverageIntervalGrowth()).isEqualTo(6.0);
+
+    // a: 6 -> 15 days passed, b: lapsed; both paired with reviews from the first batch
+    FlashcardRetentionWeekDto second = weeks.get(1);
+    assertThat(second.getWeekStart()).isEqualTo(LocalDate.of(2025, 6, 9));
+    assertThat(second.getRecallReviews()).isEqualTo(2);
+    assertThat(second.getTrueRetention()).isEqualTo(0.5);
+    assertThat(second.getAverageIntervalGrowth()).isCloseTo(2.5, within(1e-9));
+  }
+
+  /** Ensures a batch stops before the first review that is still settling. */
+  @Test
+  @DisplayName("settledUpTo stops before reviews newer than the cutoff")
+  void stopsBatchAtUnsettledReview() {
+    UUID card = UUID.randomUUID();
+    Instant now = Instant.now();
+    ReviewRollupPosition first = position(review(card, 4, now.minusSeconds(600), 1, 1));
+    ReviewRollupPosition second = position(review(card, 4, now.minusSeconds(300), 2, 6));
+    review(card, 4, now, 3, 15);
+    review(card, 4, now.minusSeconds(900), 4, 40);
+
+    Instant cutoff = now.minusSeconds(60);
+    ReviewRollupPosition start = ReviewRollupPosition.START;
+    assertThat(analytics.settledUpTo(start, cutoff, 100)).isEqualTo(second);
+    assertThat(analytics.settledUpTo(start, cutoff, 1)).isEqualTo(first);
+    assertThat(analytics.settledUpTo(second, cutoff, 100)).isEqualTo(second);
+  }
+
+  /** Ensures a batch never passes a lower id whose transaction has not committed yet. */
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  @DisplayName("settledUpTo waits for reviews committed out of id order")
+  void waitsForReviewsCommittedOutOfIdOrder() throws SQLException {
+    UUID card = UUID.randomUUID();
+    Instant past = Instant.now().minusSeconds(600);
+    Instant cutoff = Instant.now().minusSeconds(60);
+    try (Connection slow = dataSource.getConnection()) {
+      ReviewRollupPosition first = position(review(card, 4, past, 1, 1));
+      slow.setAutoCommit(false);
+      long late = review(slow, card, past);
+      ReviewRollupPosition second = position(review(card, 4, past, 3, 15));
+
+      // the committed row after the open transaction is held back with it
+      assertThat(analytics.settledUpTo(ReviewRollupPosition.START, cutoff, 100)).isEqualTo(first);
+
+      slow.commit();
+      assertThat(late).isBetween(first.getReviewId(), second.getReviewId());
+      assertThat(analytics.settledUpTo(first, cutoff, 100)).isEqualTo(second);
+    } finally {
+      jdbc.update("DELETE FROM flashcard_reviews WHERE card_id = ?", card);
+    }
+  }
+
+  /**
+   * Ensures a review that commits a lower id after a higher one was rolled up still lands after the
+   * checkpoint.
+   */
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  @DisplayName("a lower id committed after the checkpoint is rolled up by the next batch")
+  void rollsUpLowerIdCommittedLater() throws SQLException {
+    UUID card = UUID.randomUUID();
+    Instant past = Instant.now().minusSeconds(600);
+    Instant cutoff = Instant.now().minusSeconds(60);
+    try (Connection slow = dataSource.getConnection()) {
+      // an id handed out before the review's transaction is assigned its own
+      long lower =
+          jdbc.queryForObject(
+              "SELECT nextval(pg_get_serial_sequence('flashcard_reviews', 'id'))", Long.class);
+      slow.setAutoCommit(false);
+      ReviewRollupPosition higher = position(review(card, 4, past, 1, 1));
+
+      // the open transaction has written nothing yet, so the committed review is settled
+      ReviewRollupPosition checkpoint =
+          analytics.settledUpTo(ReviewRollupPosition.START, cutoff, 100);
+      assertThat(checkpoint).isEqualTo(higher);
+      assertThat(analytics.rollUp(ReviewRollupPosition.START, checkpoint)).isEqualTo(1);
+
+      try (PreparedStatement insert = slow.prepareStatement(INSERT_REVIEW_WITH_ID)) {
+        insert.setLong(1, lower);
+        insert.setString(2, OWNER);
+        insert.setObject(3, card);
+        insert.setTimestamp(4, Timestamp.from(past));
+        insert.executeUpdate();
+      }
+      assertThat(analytics.settledUpTo(checkpoint, cutoff, 100)).isEqualTo(checkpoint);
+      slow.commit();
+
+      ReviewRollupPosition next = analytics.settledUpTo(checkpoint, cutoff, 100);
+      assertThat(next.getReviewId()).isEqualTo(lower).isLessThan(higher.getReviewId());
+      assertThat(analytics.rollUp(checkpoint, next)).isEqualTo(1);
+    } finally {
+      jdbc.update("DELETE FROM flashcard_reviews WHERE card_id = ?", card);
+    }
+  }
+
+  // Inserts a review on the given connection, leaving it to the caller to commit
+  private static long review(Connection connection, UUID card, Instant at) throws SQLException {
+    try (PreparedStatement insert = connection.prepareStatement(INSERT_REVIEW)) {
+      insert.setString(1, OWNER);
+      insert.setObject(2, card);
+      insert.setInt(3, 4);
+      insert.setTimestamp(4, Timestamp.from(at));
+      insert.setInt(5, 2);
+      insert.setInt(6, 6);
+      insert.setDate(7, Date.valueOf(LocalDate.of(2025, 6, 7)));
+      try (ResultSet rs = insert.executeQuery()) {
+        rs.next();
+        return rs.getLong(1);
+      }
+    }
+  }
+}